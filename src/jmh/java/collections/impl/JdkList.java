@@ -0,0 +1,108 @@
+package collections.impl;
+
+import collections.List;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Exposes a {@link java.util.List} through {@link List} so the JDK baselines
+ * run through exactly the same benchmark code as our own implementations.
+ */
+class JdkList<E> implements List<E> {
+
+	private final java.util.List<E> delegate;
+
+	JdkList(java.util.List<E> delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public int size() {
+		return delegate.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return delegate.isEmpty();
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+	}
+
+	@Override
+	public boolean add(int index, E value) {
+		delegate.add(index, value);
+		return true;
+	}
+
+	@Override
+	public boolean add(E value) {
+		return delegate.add(value);
+	}
+
+	@Override
+	public boolean addAll(E[] array) {
+		for (E value : array) {
+			delegate.add(value);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean addAll(List<E> list) {
+		for (E value : list) {
+			delegate.add(value);
+		}
+		return true;
+	}
+
+	@Override
+	public int indexOf(E value) {
+		return delegate.indexOf(value);
+	}
+
+	@Override
+	public boolean contains(E value) {
+		return delegate.contains(value);
+	}
+
+	@Override
+	public boolean remove(int index) {
+		delegate.remove(index);
+		return true;
+	}
+
+	@Override
+	public E remove(E value) {
+		return delegate.remove(value) ? value : null;
+	}
+
+	@Override
+	public E get(int index) {
+		return delegate.get(index);
+	}
+
+	@Override
+	public E element() {
+		return delegate.get(0);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E[] asArray() {
+		return (E[]) delegate.toArray();
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return delegate.iterator();
+	}
+
+	@Override
+	public void forEach(Consumer<? super E> action) {
+		delegate.forEach(action);
+	}
+}
@@ -0,0 +1,137 @@
+package collections.impl;
+
+import collections.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link LinkedList}, {@link UnrolledLinkedList} and {@link ArrayList} against {@link java.util.LinkedList} and {@link java.util.ArrayList}.
+ *
+ * Indexed operations ({@code get}, {@code indexOf}, {@code addAndRemoveAtIndex}) report the cost of a single call
+ * at a random position, so they show the average index walk. {@code getInOrder} reads the indices one after the other,
+ * one per call, like a {@code for (int i = 0; i < size; i++) list.get(i)} loop.
+ * Fill operations ({@code add}, {@code addAll*}) build a whole list of {@code size} elements per call,
+ * traversals ({@code asArray}, {@code iterator}, {@code forEach}) visit every element once per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class LinkedListBenchmark {
+
+	private static final long SEED = 42L;
+
+	@Param({"LINKED_LIST", "UNROLLED_LINKED_LIST", "ARRAY_LIST", "JDK_LINKED_LIST", "JDK_ARRAY_LIST"})
+	public ListType type;
+
+	@Param({"10", "1000", "100000", "1000000"})
+	public int size;
+
+	private Integer[] values;
+	private int[] randomIndexes;
+	private List<Integer> list;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		values = new Integer[size];
+		randomIndexes = new int[size];
+		Random random = new Random(SEED);
+		list = type.create();
+		for (int i = 0; i < size; i++) {
+			values[i] = i;
+			randomIndexes[i] = random.nextInt(size);
+			list.add(values[i]);
+		}
+	}
+
+	private int nextIndex() {
+		int index = randomIndexes[cursor];
+		cursor = (cursor + 1 == size) ? 0 : cursor + 1;
+		return index;
+	}
+
+	@Benchmark
+	public List<Integer> add() {
+		List<Integer> result = type.create();
+		for (Integer value : values) {
+			result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * The inserted element is removed again so the list keeps its size, the reported time covers both calls.
+	 */
+	@Benchmark
+	public boolean addAndRemoveAtIndex() {
+		int index = nextIndex();
+		list.add(index, values[index]);
+		return list.remove(index);
+	}
+
+	@Benchmark
+	public Integer get() {
+		return list.get(nextIndex());
+	}
+
+	@Benchmark
+	public Integer getInOrder() {
+		int index = cursor;
+		cursor = (cursor + 1 == size) ? 0 : cursor + 1;
+		return list.get(index);
+	}
+
+	@Benchmark
+	public int indexOf() {
+		return list.indexOf(values[nextIndex()]);
+	}
+
+	@Benchmark
+	public Object[] asArray() {
+		return list.asArray();
+	}
+
+	@Benchmark
+	public List<Integer> addAllFromArray() {
+		List<Integer> result = type.create();
+		result.addAll(values);
+		return result;
+	}
+
+	@Benchmark
+	public List<Integer> addAllFromList() {
+		List<Integer> result = type.create();
+		result.addAll(list);
+		return result;
+	}
+
+	@Benchmark
+	public void iterator(Blackhole blackhole) {
+		for (Iterator<Integer> iterator = list.iterator(); iterator.hasNext(); ) {
+			blackhole.consume(iterator.next());
+		}
+	}
+
+	@Benchmark
+	public void forEach(Blackhole blackhole) {
+		list.forEach(blackhole::consume);
+	}
+}
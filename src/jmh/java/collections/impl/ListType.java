@@ -0,0 +1,46 @@
+package collections.impl;
+
+import collections.List;
+
+/**
+ * List implementations that take part in the benchmarks.
+ */
+public enum ListType {
+
+	LINKED_LIST {
+		@Override
+		<E> List<E> create() {
+			return new LinkedList<>();
+		}
+	},
+
+	ARRAY_LIST {
+		@Override
+		<E> List<E> create() {
+			return new ArrayList<>();
+		}
+	},
+
+	UNROLLED_LINKED_LIST {
+		@Override
+		<E> List<E> create() {
+			return new UnrolledLinkedList<>();
+		}
+	},
+
+	JDK_LINKED_LIST {
+		@Override
+		<E> List<E> create() {
+			return new JdkList<>(new java.util.LinkedList<>());
+		}
+	},
+
+	JDK_ARRAY_LIST {
+		@Override
+		<E> List<E> create() {
+			return new JdkList<>(new java.util.ArrayList<>());
+		}
+	};
+
+	abstract <E> List<E> create();
+}
@@ -0,0 +1,71 @@
+package map.impl;
+
+import map.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of one map shared by all benchmark threads, run it with {@code -t} set to the number of cores
+ * (or {@code -t max}) to see how each implementation scales.
+ * {@code readWrite} mixes 90% {@code get} with 10% {@code put}, {@code growing} inserts fresh keys
+ * into a map that is cleared once it reaches {@code size}, so concurrent resizes are included.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class ConcurrentHashMapBenchmark {
+
+	@Param({"CONCURRENT_HASH_MAP", "JDK_CONCURRENT_HASH_MAP", "JDK_SYNCHRONIZED_HASH_MAP"})
+	public MapType type;
+
+	@Param({"65536", "1048576"})
+	public int size;
+
+	private Integer[] keys;
+	private Map<Integer, Integer> map;
+	private Map<Integer, Integer> growingMap;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		keys = new Integer[size];
+		map = type.create(0);
+		growingMap = type.create(0);
+		for (int i = 0; i < size; i++) {
+			keys[i] = KeyDistribution.scramble(i);
+			map.put(keys[i], i);
+		}
+	}
+
+	@Benchmark
+	public Integer readWrite() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Integer key = keys[random.nextInt(size)];
+		return random.nextInt(10) == 0 ? map.put(key, key) : map.get(key);
+	}
+
+	@Benchmark
+	public Integer growing() {
+		if (growingMap.size() >= size)
+			growingMap.clear();
+		Integer key = ThreadLocalRandom.current().nextInt();
+		return growingMap.put(key, key);
+	}
+}
@@ -0,0 +1,89 @@
+package map.impl;
+
+import map.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups in a {@link FrozenHashMap} with lookups in the {@link HashMap} it was frozen from.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Thread)
+public class FrozenHashMapBenchmark {
+
+	private static final long SEED = 42L;
+
+	@Param({"true", "false"})
+	public boolean frozen;
+
+	@Param({"SEQUENTIAL", "RANDOM", "STRING"})
+	public KeyDistribution keys;
+
+	@Param({"1024", "65536", "1048576"})
+	public int size;
+
+	private Object[] presentKeys;
+	private Object[] missingKeys;
+	private HashMap<Object, Object> source;
+	private Map<Object, Object> map;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		presentKeys = new Object[size];
+		missingKeys = new Object[size];
+		source = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			presentKeys[i] = keys.key(i);
+			missingKeys[i] = keys.key(size + i);
+			source.put(presentKeys[i], presentKeys[i]);
+		}
+		map = frozen ? source.freeze() : source;
+		Random random = new Random(SEED);
+		Collections.shuffle(Arrays.asList(presentKeys), random);
+		Collections.shuffle(Arrays.asList(missingKeys), random);
+	}
+
+	private int nextIndex() {
+		int index = cursor;
+		cursor = (index + 1 == size) ? 0 : index + 1;
+		return index;
+	}
+
+	@Benchmark
+	public Object getHit() {
+		return map.get(presentKeys[nextIndex()]);
+	}
+
+	@Benchmark
+	public Object getMiss() {
+		return map.get(missingKeys[nextIndex()]);
+	}
+
+	/**
+	 * The cost of building the perfect hash, reported in nanoseconds for the whole map.
+	 */
+	@Benchmark
+	public Object freeze() {
+		return source.freeze();
+	}
+}
@@ -0,0 +1,180 @@
+package map.impl;
+
+import map.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Compares the {@link Map} implementations of this package against {@link java.util.HashMap}
+ * for every key distribution and size.
+ *
+ * Point operations ({@code put}, {@code get*}, {@code remove}) report the cost of a single call,
+ * keys are taken from a shuffled array so consecutive calls do not touch neighbouring buckets.
+ * Bulk operations ({@code containsValue}, {@code forEach}, {@code resize}) report the cost of one pass over the map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Thread)
+public class HashMapBenchmark {
+
+	private static final long SEED = 42L;
+
+	private static final int BATCH_SIZE = 1024;
+
+	private static final BiFunction<Object, Object, Object> KEEP_OLD_VALUE = (oldValue, value) -> oldValue;
+
+	@Param({"HASH_MAP", "ROBIN_HOOD_HASH_MAP", "JDK_HASH_MAP"})
+	public MapType type;
+
+	@Param({"SEQUENTIAL", "RANDOM", "STRING", "COLLIDING"})
+	public KeyDistribution keys;
+
+	@Param({"16", "1024", "65536", "1048576", "10000000"})
+	public int size;
+
+	private Object[] presentKeys;
+	private Object[] missingKeys;
+	private Object[] batchKeys;
+	private Object[] batchValues;
+	private Map<Object, Object> map;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		presentKeys = new Object[size];
+		missingKeys = new Object[size];
+		for (int i = 0; i < size; i++) {
+			presentKeys[i] = keys.key(i);
+			missingKeys[i] = keys.key(size + i);
+		}
+		map = type.create(0);
+		for (Object key : presentKeys) {
+			map.put(key, key);
+		}
+		Random random = new Random(SEED);
+		shuffle(presentKeys, random);
+		shuffle(missingKeys, random);
+		batchKeys = Arrays.copyOf(presentKeys, Math.min(BATCH_SIZE, size));
+		batchValues = new Object[batchKeys.length];
+	}
+
+	private static void shuffle(Object[] array, Random random) {
+		for (int i = array.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Object temp = array[i];
+			array[i] = array[j];
+			array[j] = temp;
+		}
+	}
+
+	private int nextIndex() {
+		int index = cursor;
+		cursor = (index + 1 == size) ? 0 : index + 1;
+		return index;
+	}
+
+	@Benchmark
+	public Object put() {
+		Object key = presentKeys[nextIndex()];
+		return map.put(key, key);
+	}
+
+	@Benchmark
+	public Object getHit() {
+		return map.get(presentKeys[nextIndex()]);
+	}
+
+	@Benchmark
+	public Object getMiss() {
+		return map.get(missingKeys[nextIndex()]);
+	}
+
+	/**
+	 * The removed key is put back so the map keeps its size, the reported time covers both calls.
+	 */
+	@Benchmark
+	public Object removeAndPut() {
+		Object key = presentKeys[nextIndex()];
+		Object value = map.remove(key);
+		map.put(key, value);
+		return value;
+	}
+
+	/**
+	 * The read-modify-write idiom of counting code as a single compound call, compare with {@link #getThenPut()}.
+	 */
+	@Benchmark
+	public Object merge() {
+		Object key = presentKeys[nextIndex()];
+		return map.merge(key, key, KEEP_OLD_VALUE);
+	}
+
+	@Benchmark
+	public Object getThenPut() {
+		Object key = presentKeys[nextIndex()];
+		Object value = map.get(key);
+		map.put(key, value == null ? key : value);
+		return value;
+	}
+
+	/**
+	 * Looks up a batch of shuffled keys in a single call, the reported time covers the whole batch,
+	 * compare with {@link #getBatchOneByOne()}.
+	 */
+	@Benchmark
+	public Object[] getAll() {
+		map.getAll(batchKeys, batchValues);
+		return batchValues;
+	}
+
+	@Benchmark
+	public Object[] getBatchOneByOne() {
+		for (int i = 0; i < batchKeys.length; i++)
+			batchValues[i] = map.get(batchKeys[i]);
+		return batchValues;
+	}
+
+	/**
+	 * Looks for a value that is not there, which is the full scan every caller pays for on a miss.
+	 */
+	@Benchmark
+	public boolean containsValue() {
+		return map.containsValue(missingKeys[0]);
+	}
+
+	@Benchmark
+	public void forEach(Blackhole blackhole) {
+		map.forEach((key, value) -> blackhole.consume(value));
+	}
+
+	/**
+	 * Fills a map created with the default capacity, so every doubling of the bucket array is included.
+	 */
+	@Benchmark
+	public Map<Object, Object> resize() {
+		Map<Object, Object> growing = type.create(0);
+		for (Object key : presentKeys) {
+			growing.put(key, key);
+		}
+		return growing;
+	}
+}
@@ -0,0 +1,60 @@
+package map.impl;
+
+import map.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of single {@code put} calls into a growing map.
+ * Every call inserts a new key, once {@code size} keys are in the map it is replaced by an empty one,
+ * so the samples include every resize on the way; compare the p99.9 and p100 percentiles.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Thread)
+public class HashMapResizeLatencyBenchmark {
+
+	@Param({"HASH_MAP", "INCREMENTAL_HASH_MAP", "JDK_HASH_MAP"})
+	public MapType type;
+
+	@Param({"1048576", "10000000"})
+	public int size;
+
+	private Integer[] keys;
+	private Map<Integer, Integer> map;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		keys = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = KeyDistribution.scramble(i);
+		}
+		map = type.create(0);
+	}
+
+	@Benchmark
+	public Integer put() {
+		if (cursor == size) {
+			map = type.create(0);
+			cursor = 0;
+		}
+		Integer key = keys[cursor++];
+		return map.put(key, key);
+	}
+}
@@ -0,0 +1,117 @@
+package map.impl;
+
+import map.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link IntIntHashMap} against boxed {@code Integer -> Integer} maps on random int keys.
+ * Point operations report the cost of a single call, {@code forEach} reports one pass over the map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Thread)
+public class IntIntHashMapBenchmark {
+
+	private static final long SEED = 42L;
+
+	@Param({"1024", "65536", "1048576", "10000000"})
+	public int size;
+
+	private int[] presentKeys;
+	private IntIntHashMap primitiveMap;
+	private Map<Integer, Integer> boxedMap;
+	private Map<Integer, Integer> jdkMap;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		presentKeys = new int[size];
+		primitiveMap = new IntIntHashMap();
+		boxedMap = new HashMap<>();
+		jdkMap = MapType.JDK_HASH_MAP.create(0);
+		for (int i = 0; i < size; i++) {
+			int key = KeyDistribution.scramble(i);
+			presentKeys[i] = key;
+			primitiveMap.put(key, i);
+			boxedMap.put(key, i);
+			jdkMap.put(key, i);
+		}
+		Random random = new Random(SEED);
+		for (int i = size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int temp = presentKeys[i];
+			presentKeys[i] = presentKeys[j];
+			presentKeys[j] = temp;
+		}
+	}
+
+	private int nextKey() {
+		int index = cursor;
+		cursor = (index + 1 == size) ? 0 : index + 1;
+		return presentKeys[index];
+	}
+
+	@Benchmark
+	public int getPrimitive() {
+		return primitiveMap.get(nextKey());
+	}
+
+	@Benchmark
+	public Integer getBoxed() {
+		return boxedMap.get(nextKey());
+	}
+
+	@Benchmark
+	public Integer getJdk() {
+		return jdkMap.get(nextKey());
+	}
+
+	@Benchmark
+	public int putPrimitive() {
+		int key = nextKey();
+		return primitiveMap.put(key, key);
+	}
+
+	@Benchmark
+	public Integer putBoxed() {
+		int key = nextKey();
+		return boxedMap.put(key, key);
+	}
+
+	@Benchmark
+	public Integer putJdk() {
+		int key = nextKey();
+		return jdkMap.put(key, key);
+	}
+
+	@Benchmark
+	public long forEachPrimitive() {
+		long[] sum = new long[1];
+		primitiveMap.forEach((key, value) -> sum[0] += value);
+		return sum[0];
+	}
+
+	@Benchmark
+	public long forEachBoxed() {
+		long[] sum = new long[1];
+		boxedMap.forEach((key, value) -> sum[0] += value);
+		return sum[0];
+	}
+}
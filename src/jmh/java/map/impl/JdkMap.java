@@ -0,0 +1,105 @@
+package map.impl;
+
+import map.Map;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Exposes a {@link java.util.Map} through {@link Map} so the JDK baselines
+ * run through exactly the same benchmark code as our own implementations.
+ */
+class JdkMap<K, V> implements Map<K, V> {
+
+	private final java.util.Map<K, V> delegate;
+
+	JdkMap(java.util.Map<K, V> delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public int size() {
+		return delegate.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return delegate.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return delegate.containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return delegate.containsValue(value);
+	}
+
+	@Override
+	public V get(Object key) {
+		return delegate.get(key);
+	}
+
+	@Override
+	public V put(K key, V value) {
+		return delegate.put(key, value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		return delegate.remove(key);
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		delegate.forEach(action);
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+	}
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		return delegate.getOrDefault(key, defaultValue);
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		return delegate.putIfAbsent(key, value);
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		return delegate.replace(key, oldValue, newValue);
+	}
+
+	@Override
+	public V replace(K key, V value) {
+		return delegate.replace(key, value);
+	}
+
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		return delegate.computeIfAbsent(key, mappingFunction);
+	}
+
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		return delegate.computeIfPresent(key, remappingFunction);
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		return delegate.compute(key, remappingFunction);
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		return delegate.merge(key, value, remappingFunction);
+	}
+}
@@ -0,0 +1,81 @@
+package map.impl;
+
+/**
+ * Key shapes used by the map benchmarks.
+ *
+ * Every distribution maps an index to a distinct key, so {@code key(0) .. key(size - 1)} are the
+ * keys loaded into a map and {@code key(size) ..} are guaranteed misses.
+ */
+public enum KeyDistribution {
+
+	SEQUENTIAL {
+		@Override
+		Object key(int index) {
+			return index;
+		}
+	},
+
+	RANDOM {
+		@Override
+		Object key(int index) {
+			return scramble(index);
+		}
+	},
+
+	STRING {
+		@Override
+		Object key(int index) {
+			return "key-" + scramble(index);
+		}
+	},
+
+	COLLIDING {
+		@Override
+		Object key(int index) {
+			return new CollidingKey(index);
+		}
+	};
+
+	abstract Object key(int index);
+
+	/**
+	 * Multiplication by an odd constant is a bijection on int,
+	 * so distinct indexes always give distinct, randomly spread values.
+	 */
+	static int scramble(int index) {
+		int h = index * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * A key whose hashCode is shared by {@link #COLLISION_GROUP} consecutive ids,
+	 * which puts that many entries into the same bucket.
+	 */
+	static final class CollidingKey implements Comparable<CollidingKey> {
+
+		static final int COLLISION_GROUP = 64;
+
+		final int id;
+
+		CollidingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int compareTo(CollidingKey other) {
+			return Integer.compare(id, other.id);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof CollidingKey)) return false;
+			return id == ((CollidingKey) o).id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id / COLLISION_GROUP;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package map.impl;
+
+import map.Map;
+
+import java.util.Collections;
+
+/**
+ * Map implementations that take part in the benchmarks.
+ */
+public enum MapType {
+
+	HASH_MAP {
+		@Override
+		<K, V> Map<K, V> create(int initialCapacity) {
+			return initialCapacity > 0 ? new HashMap<>(initialCapacity) : new HashMap<>();
+		}
+	},
+
+	/**
+	 * {@link HashMap} that spreads the move of entries into a grown buckets array over the following operations.
+	 */
+	INCREMENTAL_HASH_MAP {
+		@Override
+		<K, V> Map<K, V> create(int initialCapacity) {
+			return new HashMap<>(initialCapacity > 0 ? initialCapacity : HashMap.DEFAULT_INITIAL_CAPACITY,
+					HashMap.DEFAULT_LOAD_FACTOR, true);
+		}
+	},
+
+	/**
+	 * {@link HashMap} hashing its keys with a random per-instance seed.
+	 */
+	SEEDED_HASH_MAP {
+		@Override
+		<K, V> Map<K, V> create(int initialCapacity) {
+			return new HashMap<>(initialCapacity > 0 ? initialCapacity : HashMap.DEFAULT_INITIAL_CAPACITY,
+					HashMap.DEFAULT_LOAD_FACTOR, false, true);
+		}
+	},
+
+	ROBIN_HOOD_HASH_MAP {
+		@Override
+		<K, V> Map<K, V> create(int initialCapacity) {
+			return initialCapacity > 0 ? new RobinHoodHashMap<>(initialCapacity) : new RobinHoodHashMap<>();
+		}
+	},
+
+	CONCURRENT_HASH_MAP {
+		@Override
+		<K, V> Map<K, V> create(int initialCapacity) {
+			return initialCapacity > 0 ? new ConcurrentHashMap<>(initialCapacity) : new ConcurrentHashMap<>();
+		}
+	},
+
+	JDK_HASH_MAP {
+		@Override
+		<K, V> Map<K, V> create(int initialCapacity) {
+			return new JdkMap<>(initialCapacity > 0 ?
+					new java.util.HashMap<>(initialCapacity) :
+					new java.util.HashMap<>());
+		}
+	},
+
+	/**
+	 * A {@link java.util.HashMap} behind one global lock, the way it is shared between threads today.
+	 */
+	JDK_SYNCHRONIZED_HASH_MAP {
+		@Override
+		<K, V> Map<K, V> create(int initialCapacity) {
+			return new JdkMap<>(Collections.synchronizedMap(initialCapacity > 0 ?
+					new java.util.HashMap<>(initialCapacity) :
+					new java.util.HashMap<>()));
+		}
+	},
+
+	JDK_CONCURRENT_HASH_MAP {
+		@Override
+		<K, V> Map<K, V> create(int initialCapacity) {
+			return new JdkMap<>(initialCapacity > 0 ?
+					new java.util.concurrent.ConcurrentHashMap<>(initialCapacity) :
+					new java.util.concurrent.ConcurrentHashMap<>());
+		}
+	};
+
+	/**
+	 * @param initialCapacity expected number of entries, or {@code 0} for the default capacity
+	 */
+	abstract <K, V> Map<K, V> create(int initialCapacity);
+}
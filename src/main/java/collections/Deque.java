@@ -0,0 +1,50 @@
+package collections;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Queue that can also be added to and removed from at the head and the tail, in O(1).
+ * The add and remove methods throw on failure, the offer, poll and peek methods return false or null.
+ */
+public interface Deque<E> extends Queue<E> {
+	void addFirst(E value);
+
+	void addLast(E value);
+
+	boolean offerFirst(E value);
+
+	boolean offerLast(E value);
+
+	/**
+	 * @throws NoSuchElementException if the deque is empty
+	 */
+	E removeFirst();
+
+	/**
+	 * @throws NoSuchElementException if the deque is empty
+	 */
+	E removeLast();
+
+	E pollFirst();
+
+	E pollLast();
+
+	E peekFirst();
+
+	E peekLast();
+
+	@Override
+	default boolean offer(E value) {
+		return offerLast(value);
+	}
+
+	@Override
+	default E poll() {
+		return pollFirst();
+	}
+
+	@Override
+	default E peek() {
+		return peekFirst();
+	}
+}
@@ -0,0 +1,55 @@
+package collections;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * A {@link List}-style list of primitive double values, without boxing.
+ * Index-based methods throw {@link IndexOutOfBoundsException} for an index out of range,
+ * as there is no value left to signal it.
+ *
+ * Values are compared like {@link Double#equals}: NaN is found by indexOf and 0.0 is not -0.0.
+ */
+public interface DoubleList {
+
+	int size();
+
+	boolean isEmpty();
+
+	void clear();
+
+	boolean add(int index, double value);
+
+	boolean add(double value);
+
+	boolean addAll(double[] array);
+
+	boolean addAll(DoubleList list);
+
+	int indexOf(double value);
+
+	boolean contains(double value);
+
+	/**
+	 * Removes the value at the index and returns it.
+	 */
+	double removeAt(int index);
+
+	/**
+	 * Removes the first occurrence of the value, returns false if there is none.
+	 */
+	boolean removeValue(double value);
+
+	double getDouble(int index);
+
+	/**
+	 * Replaces the value at the index and returns the previous one.
+	 */
+	double setDouble(int index, double value);
+
+	/**
+	 * Returns a new array with the values in order, empty for an empty list.
+	 */
+	double[] toDoubleArray();
+
+	void forEach(DoubleConsumer action);
+}
@@ -0,0 +1,53 @@
+package collections;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A {@link List}-style list of primitive int values, without boxing.
+ * Index-based methods throw {@link IndexOutOfBoundsException} for an index out of range,
+ * as there is no value left to signal it.
+ */
+public interface IntList {
+
+	int size();
+
+	boolean isEmpty();
+
+	void clear();
+
+	boolean add(int index, int value);
+
+	boolean add(int value);
+
+	boolean addAll(int[] array);
+
+	boolean addAll(IntList list);
+
+	int indexOf(int value);
+
+	boolean contains(int value);
+
+	/**
+	 * Removes the value at the index and returns it.
+	 */
+	int removeAt(int index);
+
+	/**
+	 * Removes the first occurrence of the value, returns false if there is none.
+	 */
+	boolean removeValue(int value);
+
+	int getInt(int index);
+
+	/**
+	 * Replaces the value at the index and returns the previous one.
+	 */
+	int setInt(int index, int value);
+
+	/**
+	 * Returns a new array with the values in order, empty for an empty list.
+	 */
+	int[] toIntArray();
+
+	void forEach(IntConsumer action);
+}
@@ -1,5 +1,13 @@
 package collections;
 
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
 public interface List<E> extends Iterable<E> {
 	int size();
 
@@ -28,4 +36,135 @@ public interface List<E> extends Iterable<E> {
 	E element();
 
 	E[] asArray();
+
+	/* ---- Bulk operations, implementations that can copy in bulk should override them ---- */
+
+	/**
+	 * Adds the values at the end in iteration order, returns true if any was added.
+	 */
+	default boolean addAll(Iterable<? extends E> values) {
+		if (values == this)
+			return !isEmpty() && addAll(asArray());
+		boolean added = false;
+		for (E value : values)
+			added |= add(value);
+		return added;
+	}
+
+	default boolean addAll(Collection<? extends E> values) {
+		return addAll((Iterable<? extends E>) values);
+	}
+
+	/**
+	 * Returns the elements in a new array made by the generator, empty rather than null for an empty list.
+	 */
+	default E[] asArray(IntFunction<E[]> generator) {
+		return toArray(generator.apply(size()));
+	}
+
+	/**
+	 * Returns the array filled with the elements if they fit, with a null after the last one if there is room,
+	 * otherwise a new array of the same component type.
+	 */
+	@SuppressWarnings("unchecked")
+	default E[] toArray(E[] array) {
+		int size = size();
+		E[] result = (array.length >= size) ? array : (E[]) Array.newInstance(array.getClass().getComponentType(), size);
+		int i = 0;
+		for (E value : this)
+			result[i++] = value;
+		if (result.length > size)
+			result[size] = null;
+		return result;
+	}
+
+	/* ---- Editing traversal, implementations that can edit at a position in O(1) should override it ---- */
+
+	/**
+	 * Returns an iterator that can also move backwards and edit the list at its position.
+	 * The default one goes through the indexed methods, so each step costs an indexed access,
+	 * and set is a removal followed by an insertion. It cannot tell when the list was changed
+	 * other than through it, implementations that count their modifications override it to fail fast.
+	 */
+	default ListIterator<E> listIterator() {
+		return new ListIterator<E>() {
+			private int nextIndex;
+			private int lastReturned = -1;
+
+			@Override
+			public boolean hasNext() {
+				return nextIndex < size();
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				lastReturned = nextIndex;
+				return get(nextIndex++);
+			}
+
+			@Override
+			public boolean hasPrevious() {
+				return nextIndex > 0;
+			}
+
+			@Override
+			public E previous() {
+				if (!hasPrevious())
+					throw new NoSuchElementException();
+				lastReturned = --nextIndex;
+				return get(nextIndex);
+			}
+
+			@Override
+			public int nextIndex() {
+				return nextIndex;
+			}
+
+			@Override
+			public int previousIndex() {
+				return nextIndex - 1;
+			}
+
+			@Override
+			public void remove() {
+				if (lastReturned < 0)
+					throw new IllegalStateException();
+				List.this.remove(lastReturned);
+				if (lastReturned < nextIndex)
+					nextIndex--;
+				lastReturned = -1;
+			}
+
+			@Override
+			public void set(E value) {
+				if (lastReturned < 0)
+					throw new IllegalStateException();
+				List.this.remove(lastReturned);
+				List.this.add(lastReturned, value);
+			}
+
+			@Override
+			public void add(E value) {
+				List.this.add(nextIndex++, value);
+				lastReturned = -1;
+			}
+		};
+	}
+
+	/**
+	 * Removes the elements matching the filter, returns true if any was removed.
+	 */
+	default boolean removeIf(Predicate<? super E> filter) {
+		Objects.requireNonNull(filter);
+		boolean removed = false;
+		for (ListIterator<E> iterator = listIterator(); iterator.hasNext(); ) {
+			if (filter.test(iterator.next())) {
+				iterator.remove();
+				removed = true;
+			}
+		}
+		return removed;
+	}
 }
@@ -0,0 +1,53 @@
+package collections;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A {@link List}-style list of primitive long values, without boxing.
+ * Index-based methods throw {@link IndexOutOfBoundsException} for an index out of range,
+ * as there is no value left to signal it.
+ */
+public interface LongList {
+
+	int size();
+
+	boolean isEmpty();
+
+	void clear();
+
+	boolean add(int index, long value);
+
+	boolean add(long value);
+
+	boolean addAll(long[] array);
+
+	boolean addAll(LongList list);
+
+	int indexOf(long value);
+
+	boolean contains(long value);
+
+	/**
+	 * Removes the value at the index and returns it.
+	 */
+	long removeAt(int index);
+
+	/**
+	 * Removes the first occurrence of the value, returns false if there is none.
+	 */
+	boolean removeValue(long value);
+
+	long getLong(int index);
+
+	/**
+	 * Replaces the value at the index and returns the previous one.
+	 */
+	long setLong(int index, long value);
+
+	/**
+	 * Returns a new array with the values in order, empty for an empty list.
+	 */
+	long[] toLongArray();
+
+	void forEach(LongConsumer action);
+}
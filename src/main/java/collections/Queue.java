@@ -0,0 +1,42 @@
+package collections;
+
+import java.util.function.Consumer;
+
+/**
+ * First-in first-out collection. Poll and peek return null for an empty queue,
+ * so on a queue that permits null elements they cannot tell it from a null head.
+ */
+public interface Queue<E> {
+	int size();
+
+	boolean isEmpty();
+
+	/**
+	 * Adds the element at the tail, returns false if a bounded queue is full.
+	 */
+	boolean offer(E value);
+
+	/**
+	 * Removes and returns the head, or null if the queue is empty.
+	 */
+	E poll();
+
+	/**
+	 * Returns the head without removing it, or null if the queue is empty.
+	 */
+	E peek();
+
+	/**
+	 * Removes up to maxElements from the head and passes them to the action in order,
+	 * returns the number of elements removed. Implementations may remove them all at once.
+	 */
+	default int drainTo(Consumer<? super E> action, int maxElements) {
+		int drained = 0;
+		E value;
+		while (drained < maxElements && (value = poll()) != null) {
+			action.accept(value);
+			drained++;
+		}
+		return drained;
+	}
+}
@@ -0,0 +1,436 @@
+package collections.impl;
+
+import collections.List;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Array-backed implementation of {@link List}, the elements are kept in order at the start of one array.
+ *
+ * Indexed reads and writes are O(1), adding or removing at an index shifts the elements after it
+ * with one {@link System#arraycopy}. The array grows by half its length when it is full,
+ * so adding at the end is amortized O(1). Permits null elements.
+ */
+public class ArrayList<E> implements List<E>, Iterable<E> {
+
+	static final int DEFAULT_CAPACITY = 10;
+
+	/**
+	 * Some VMs reserve header words in an array, asking for more may fail.
+	 */
+	static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	private static final Object[] EMPTY_ELEMENTS = {};
+
+	/**
+	 * The elements at indices [0, size), the rest is null.
+	 */
+	private Object[] elements;
+
+	private int size;
+
+	private int numberOfModifications;
+
+	public ArrayList() {
+		elements = EMPTY_ELEMENTS;
+	}
+
+	public ArrayList(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+		elements = (initialCapacity == 0) ? EMPTY_ELEMENTS : new Object[initialCapacity];
+	}
+
+	public ArrayList(E[] array) {
+		this();
+		addAll(array);
+	}
+
+	public ArrayList(List<E> list) {
+		this();
+		addAll(list);
+	}
+
+	/* ---------------- Capacity -------------- */
+
+	/**
+	 * Grows the array, if needed, so that it holds at least minCapacity elements without another allocation.
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > elements.length)
+			grow(minCapacity);
+	}
+
+	/**
+	 * Shrinks the array to the number of elements.
+	 */
+	public void trimToSize() {
+		if (size < elements.length) {
+			numberOfModifications++;
+			elements = (size == 0) ? EMPTY_ELEMENTS : Arrays.copyOf(elements, size);
+		}
+	}
+
+	private void grow(int minCapacity) {
+		if (minCapacity < 0) // overflow
+			throw new OutOfMemoryError("Required array size too large");
+		int oldCapacity = elements.length;
+		int newCapacity = oldCapacity + (oldCapacity >> 1);
+		if (newCapacity < minCapacity)
+			newCapacity = Math.max(minCapacity, DEFAULT_CAPACITY);
+		if (newCapacity - MAX_ARRAY_SIZE > 0)
+			newCapacity = (minCapacity > MAX_ARRAY_SIZE) ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+		elements = Arrays.copyOf(elements, newCapacity);
+	}
+
+	/* ---------------- Methods -------------- */
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		numberOfModifications++;
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+	}
+
+	@Override
+	public boolean add(int index, E value) {
+		if (index < 0 || index > size)
+			return false;
+		numberOfModifications++;
+		if (size == elements.length)
+			grow(size + 1);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = value;
+		size++;
+		return true;
+	}
+
+	@Override
+	public boolean add(E value) {
+		numberOfModifications++;
+		if (size == elements.length)
+			grow(size + 1);
+		elements[size++] = value;
+		return true;
+	}
+
+	@Override
+	public boolean addAll(E[] array) {
+		if (array == null)
+			return false;
+		appendAll(array, array.length);
+		return array.length > 0;
+	}
+
+	@Override
+	public boolean addAll(List<E> list) {
+		if (list == null)
+			return false;
+		int count = list.size();
+		if (list instanceof ArrayList) {
+			// the other list may be this one, its count is read before growing
+			appendAll(((ArrayList<E>) list).elements, count);
+		} else {
+			numberOfModifications++;
+			ensureCapacity(size + count);
+			for (E value : list)
+				elements[size++] = value;
+		}
+		return count > 0;
+	}
+
+	/**
+	 * Grows the array once for the whole collection and copies the array of its values in.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends E> values) {
+		Object[] array = values.toArray();
+		appendAll(array, array.length);
+		return array.length > 0;
+	}
+
+	private void appendAll(Object[] source, int count) {
+		numberOfModifications++;
+		if (count == 0)
+			return;
+		ensureCapacity(size + count);
+		System.arraycopy(source, 0, elements, size, count);
+		size += count;
+	}
+
+	@Override
+	public int indexOf(E value) {
+		Object[] elementsForSearch = elements;
+		if (value == null) {
+			for (int i = 0; i < size; i++) {
+				if (elementsForSearch[i] == null)
+					return i;
+			}
+		} else {
+			for (int i = 0; i < size; i++) {
+				if (value.equals(elementsForSearch[i]))
+					return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(E value) {
+		return indexOf(value) != -1;
+	}
+
+	@Override
+	public boolean remove(int index) {
+		if (index < 0 || index >= size)
+			return false;
+		fastRemove(index);
+		return true;
+	}
+
+	@Override
+	public E remove(E value) {
+		int index = indexOf(value);
+		if (index == -1)
+			return null;
+		fastRemove(index);
+		return value;
+	}
+
+	/**
+	 * Removes the element at a valid index.
+	 */
+	private void fastRemove(int index) {
+		numberOfModifications++;
+		int movedCount = size - index - 1;
+		if (movedCount > 0)
+			System.arraycopy(elements, index + 1, elements, index, movedCount);
+		elements[--size] = null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		if (index < 0 || index >= size)
+			return null;
+		return (E) elements[index];
+	}
+
+	/**
+	 * Replaces the element at the index and returns the previous one.
+	 *
+	 * @throws IndexOutOfBoundsException if the index is not in [0, size)
+	 */
+	@SuppressWarnings("unchecked")
+	public E set(int index, E value) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		E oldValue = (E) elements[index];
+		elements[index] = value;
+		return oldValue;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E element() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return (E) elements[0];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E[] asArray() {
+		return size > 0 ? (E[]) Arrays.copyOf(elements, size) : null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E[] toArray(E[] array) {
+		if (array.length < size)
+			return (E[]) Arrays.copyOf(elements, size, array.getClass());
+		System.arraycopy(elements, 0, array, 0, size);
+		if (array.length > size)
+			array[size] = null;
+		return array;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return listIterator();
+	}
+
+	@Override
+	public ListIterator<E> listIterator() {
+		return new ListIter();
+	}
+
+	/**
+	 * Compacts the kept elements towards the start in one pass. If the filter throws,
+	 * the elements not tested yet are moved down after the kept ones, so none is lost.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean removeIf(Predicate<? super E> filter) {
+		Objects.requireNonNull(filter);
+		int beforeOpNumberOfModifications = numberOfModifications;
+		Object[] elementsForFilter = elements;
+		int oldSize = size;
+		int kept = 0;
+		int i = 0;
+		try {
+			for (; i < oldSize; i++) {
+				if (numberOfModifications != beforeOpNumberOfModifications)
+					throw new ConcurrentModificationException();
+				Object value = elementsForFilter[i];
+				if (!filter.test((E) value))
+					elementsForFilter[kept++] = value;
+			}
+			if (numberOfModifications != beforeOpNumberOfModifications)
+				throw new ConcurrentModificationException();
+		} finally {
+			if (i < oldSize) {
+				System.arraycopy(elementsForFilter, i, elementsForFilter, kept, oldSize - i);
+				kept += oldSize - i;
+			}
+			if (kept < oldSize) {
+				Arrays.fill(elementsForFilter, kept, oldSize, null);
+				size = kept;
+				numberOfModifications++;
+			}
+		}
+		return kept < oldSize;
+	}
+
+	private class ListIter implements ListIterator<E> {
+		private int cursor;
+		private int lastReturned = -1;
+		private int expectedNumberOfModifications = numberOfModifications;
+
+		@Override
+		public boolean hasNext() {
+			return cursor < size;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			checkForModification();
+			if (cursor >= size)
+				throw new NoSuchElementException();
+			return (E) elements[lastReturned = cursor++];
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return cursor > 0;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E previous() {
+			checkForModification();
+			if (cursor <= 0)
+				throw new NoSuchElementException();
+			return (E) elements[lastReturned = --cursor];
+		}
+
+		@Override
+		public int nextIndex() {
+			return cursor;
+		}
+
+		@Override
+		public int previousIndex() {
+			return cursor - 1;
+		}
+
+		@Override
+		public void remove() {
+			if (lastReturned < 0)
+				throw new IllegalStateException();
+			checkForModification();
+			fastRemove(lastReturned);
+			cursor = lastReturned;
+			lastReturned = -1;
+			expectedNumberOfModifications = numberOfModifications;
+		}
+
+		@Override
+		public void set(E value) {
+			if (lastReturned < 0)
+				throw new IllegalStateException();
+			checkForModification();
+			elements[lastReturned] = value;
+		}
+
+		@Override
+		public void add(E value) {
+			checkForModification();
+			ArrayList.this.add(cursor++, value);
+			lastReturned = -1;
+			expectedNumberOfModifications = numberOfModifications;
+		}
+
+		private void checkForModification() {
+			if (numberOfModifications != expectedNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(Consumer<? super E> action) {
+		Objects.requireNonNull(action);
+		int beforeOpNumberOfModifications = numberOfModifications;
+		Object[] elementsForIteration = elements;
+		for (int i = 0; i < size && numberOfModifications == beforeOpNumberOfModifications; i++)
+			action.accept((E) elementsForIteration[i]);
+		if (numberOfModifications != beforeOpNumberOfModifications)
+			throw new ConcurrentModificationException();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof ArrayList)) return false;
+		ArrayList<?> that = (ArrayList<?>) o;
+		if (size != that.size) return false;
+		for (int i = 0; i < size; i++) {
+			if (!Objects.equals(elements[i], that.elements[i]))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hashCode = 1;
+		for (int i = 0; i < size; i++)
+			hashCode = 31 * hashCode + Objects.hashCode(elements[i]);
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(elements, size));
+	}
+}
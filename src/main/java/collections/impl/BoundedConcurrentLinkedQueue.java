@@ -0,0 +1,63 @@
+package collections.impl;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * {@link ConcurrentLinkedQueue} holding at most a fixed number of elements, offer returns false when it is full.
+ *
+ * A producer reserves its place with a CAS of the element count before linking its node,
+ * consumers give places back as soon as they have claimed their elements, so {@link #size()} is O(1).
+ * Consumers of a pipeline should prefer {@link #drainTo}, which frees a whole batch of places at once.
+ */
+public class BoundedConcurrentLinkedQueue<E> extends ConcurrentLinkedQueue<E> {
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<BoundedConcurrentLinkedQueue> COUNT =
+			AtomicIntegerFieldUpdater.newUpdater(BoundedConcurrentLinkedQueue.class, "count");
+
+	private final int capacity;
+
+	/**
+	 * The number of places reserved, elements being linked included.
+	 */
+	private volatile int count;
+
+	public BoundedConcurrentLinkedQueue(int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		this.capacity = capacity;
+	}
+
+	@Override
+	void removed(int count) {
+		COUNT.addAndGet(this, -count);
+	}
+
+	@Override
+	public boolean offer(E value) {
+		Objects.requireNonNull(value);
+		int currentCount;
+		do {
+			if ((currentCount = count) >= capacity)
+				return false;
+		} while (!COUNT.compareAndSet(this, currentCount, currentCount + 1));
+		return super.offer(value);
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	public int remainingCapacity() {
+		return capacity - count;
+	}
+
+	/**
+	 * Returns the number of elements, counting those whose offer is still linking them.
+	 */
+	@Override
+	public int size() {
+		return count;
+	}
+}
@@ -0,0 +1,167 @@
+package collections.impl;
+
+import collections.Queue;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * Unbounded thread-safe implementation of {@link Queue}, the lock-free queue of Michael and Scott.
+ *
+ * The elements hang off a singly linked list of nodes that starts with a dummy node. Offer links a node
+ * after the last one with a CAS of its next link, poll moves the head to the first element with a CAS,
+ * and that node becomes the dummy. The tail may lag one node behind, any thread that sees it lagging
+ * moves it forward before going on. {@link #drainTo} moves the head past a whole batch with a single CAS.
+ *
+ * Null elements are not permitted. {@link #size()} walks the nodes and is only a snapshot under contention.
+ */
+public class ConcurrentLinkedQueue<E> implements Queue<E> {
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<ConcurrentLinkedQueue, Node> HEAD =
+			AtomicReferenceFieldUpdater.newUpdater(ConcurrentLinkedQueue.class, Node.class, "head");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<ConcurrentLinkedQueue, Node> TAIL =
+			AtomicReferenceFieldUpdater.newUpdater(ConcurrentLinkedQueue.class, Node.class, "tail");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+			AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+	/**
+	 * The element is only cleared by the thread whose CAS of the head claimed the node,
+	 * so a reader that finds the head unchanged after reading it saw the element.
+	 */
+	static final class Node<E> {
+		volatile E item;
+		volatile Node<E> next;
+
+		Node(E item) {
+			this.item = item;
+		}
+	}
+
+	/**
+	 * The dummy node, its next node holds the first element.
+	 */
+	private volatile Node<E> head;
+
+	/**
+	 * The last node or the one before it.
+	 */
+	private volatile Node<E> tail;
+
+	public ConcurrentLinkedQueue() {
+		head = tail = new Node<>(null);
+	}
+
+	/**
+	 * Called with the number of elements claimed by a poll or a drain, before they are handed out.
+	 */
+	void removed(int count) {
+	}
+
+	@Override
+	public boolean offer(E value) {
+		Objects.requireNonNull(value);
+		Node<E> newNode = new Node<>(value);
+		for (; ; ) {
+			Node<E> last = tail;
+			Node<E> next = last.next;
+			if (last != tail)
+				continue;
+			if (next == null) {
+				if (NEXT.compareAndSet(last, null, newNode)) {
+					TAIL.compareAndSet(this, last, newNode);
+					return true;
+				}
+			} else {
+				TAIL.compareAndSet(this, last, next);
+			}
+		}
+	}
+
+	@Override
+	public E poll() {
+		for (; ; ) {
+			Node<E> first = head;
+			Node<E> last = tail;
+			Node<E> next = first.next;
+			if (first != head)
+				continue;
+			if (next == null)
+				return null;
+			if (first == last) {
+				TAIL.compareAndSet(this, last, next);
+				continue;
+			}
+			E value = next.item;
+			if (HEAD.compareAndSet(this, first, next)) {
+				next.item = null;
+				removed(1);
+				return value;
+			}
+		}
+	}
+
+	@Override
+	public E peek() {
+		for (; ; ) {
+			Node<E> first = head;
+			Node<E> next = first.next;
+			if (next == null)
+				return null;
+			E value = next.item;
+			if (first == head)
+				return value;
+		}
+	}
+
+	/**
+	 * Claims up to maxElements with one CAS of the head, then passes them to the action outside of any retry,
+	 * so a slow action does not hold back the other consumers.
+	 */
+	@Override
+	public int drainTo(Consumer<? super E> action, int maxElements) {
+		Objects.requireNonNull(action);
+		for (; ; ) {
+			Node<E> first = head;
+			Node<E> last = first;
+			Node<E> next;
+			int count = 0;
+			while (count < maxElements && (next = last.next) != null) {
+				last = next;
+				count++;
+			}
+			if (count == 0)
+				return 0;
+			if (HEAD.compareAndSet(this, first, last)) {
+				// the tail may now be behind the head, offer moves it forward through the claimed nodes
+				removed(count);
+				Node<E> currentNode = first;
+				for (int i = 0; i < count; i++) {
+					currentNode = currentNode.next;
+					E value = currentNode.item;
+					currentNode.item = null;
+					action.accept(value);
+				}
+				return count;
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		int count = 0;
+		for (Node<E> currentNode = head.next; currentNode != null && count < Integer.MAX_VALUE; currentNode = currentNode.next)
+			count++;
+		return count;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return head.next == null;
+	}
+}
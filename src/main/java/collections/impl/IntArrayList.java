@@ -0,0 +1,262 @@
+package collections.impl;
+
+import collections.IntList;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * Array-backed implementation of {@link IntList} over a flat int[], the int counterpart of {@link ArrayList}.
+ *
+ * A value costs 4 bytes instead of a boxed Integer and a reference, and no operation allocates
+ * apart from growing the array. {@link #wrap} turns an existing array into a list without copying it.
+ *
+ * Not thread safe.
+ */
+public class IntArrayList implements IntList {
+
+	private static final int[] EMPTY_ELEMENTS = {};
+
+	/**
+	 * The values at indices [0, size).
+	 */
+	private int[] elements;
+
+	private int size;
+
+	private int numberOfModifications;
+
+	public IntArrayList() {
+		elements = EMPTY_ELEMENTS;
+	}
+
+	public IntArrayList(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+		elements = (initialCapacity == 0) ? EMPTY_ELEMENTS : new int[initialCapacity];
+	}
+
+	public IntArrayList(int[] array) {
+		elements = array.clone();
+		size = array.length;
+	}
+
+	private IntArrayList(int[] array, int size) {
+		this.elements = array;
+		this.size = size;
+	}
+
+	/**
+	 * Returns a list backed by the array, writes through either are visible in the other
+	 * until the list outgrows the array and moves to a copy.
+	 */
+	public static IntArrayList wrap(int[] array) {
+		return new IntArrayList(Objects.requireNonNull(array), array.length);
+	}
+
+	/**
+	 * Returns a list of the first size values of the array, backed by it like {@link #wrap(int[])}.
+	 */
+	public static IntArrayList wrap(int[] array, int size) {
+		if (size < 0 || size > array.length)
+			throw new IllegalArgumentException("Size " + size + " out of an array of " + array.length);
+		return new IntArrayList(array, size);
+	}
+
+	/* ---------------- Capacity -------------- */
+
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > elements.length)
+			grow(minCapacity);
+	}
+
+	public void trimToSize() {
+		if (size < elements.length) {
+			numberOfModifications++;
+			elements = (size == 0) ? EMPTY_ELEMENTS : Arrays.copyOf(elements, size);
+		}
+	}
+
+	private void grow(int minCapacity) {
+		if (minCapacity < 0) // overflow
+			throw new OutOfMemoryError("Required array size too large");
+		int oldCapacity = elements.length;
+		int newCapacity = oldCapacity + (oldCapacity >> 1);
+		if (newCapacity < minCapacity)
+			newCapacity = Math.max(minCapacity, ArrayList.DEFAULT_CAPACITY);
+		if (newCapacity - ArrayList.MAX_ARRAY_SIZE > 0)
+			newCapacity = (minCapacity > ArrayList.MAX_ARRAY_SIZE) ? Integer.MAX_VALUE : ArrayList.MAX_ARRAY_SIZE;
+		elements = Arrays.copyOf(elements, newCapacity);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+	/* ---------------- Methods -------------- */
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		numberOfModifications++;
+		size = 0;
+	}
+
+	@Override
+	public boolean add(int index, int value) {
+		if (index < 0 || index > size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		numberOfModifications++;
+		if (size == elements.length)
+			grow(size + 1);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = value;
+		size++;
+		return true;
+	}
+
+	@Override
+	public boolean add(int value) {
+		numberOfModifications++;
+		if (size == elements.length)
+			grow(size + 1);
+		elements[size++] = value;
+		return true;
+	}
+
+	@Override
+	public boolean addAll(int[] array) {
+		return appendAll(array, array.length);
+	}
+
+	@Override
+	public boolean addAll(IntList list) {
+		if (list instanceof IntArrayList) {
+			IntArrayList other = (IntArrayList) list;
+			return appendAll(other.elements, other.size);
+		}
+		int[] array = list.toIntArray();
+		return appendAll(array, array.length);
+	}
+
+	/**
+	 * Returns false without counting a modification if there is nothing to copy.
+	 */
+	private boolean appendAll(int[] source, int count) {
+		if (count == 0)
+			return false;
+		numberOfModifications++;
+		ensureCapacity(size + count);
+		System.arraycopy(source, 0, elements, size, count);
+		size += count;
+		return true;
+	}
+
+	@Override
+	public int indexOf(int value) {
+		int[] elementsForSearch = elements;
+		for (int i = 0; i < size; i++) {
+			if (elementsForSearch[i] == value)
+				return i;
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(int value) {
+		return indexOf(value) != -1;
+	}
+
+	@Override
+	public int removeAt(int index) {
+		checkIndex(index);
+		int oldValue = elements[index];
+		fastRemove(index);
+		return oldValue;
+	}
+
+	@Override
+	public boolean removeValue(int value) {
+		int index = indexOf(value);
+		if (index == -1)
+			return false;
+		fastRemove(index);
+		return true;
+	}
+
+	private void fastRemove(int index) {
+		numberOfModifications++;
+		int movedCount = size - index - 1;
+		if (movedCount > 0)
+			System.arraycopy(elements, index + 1, elements, index, movedCount);
+		size--;
+	}
+
+	@Override
+	public int getInt(int index) {
+		checkIndex(index);
+		return elements[index];
+	}
+
+	@Override
+	public int setInt(int index, int value) {
+		checkIndex(index);
+		int oldValue = elements[index];
+		elements[index] = value;
+		return oldValue;
+	}
+
+	@Override
+	public int[] toIntArray() {
+		return Arrays.copyOf(elements, size);
+	}
+
+	@Override
+	public void forEach(IntConsumer action) {
+		Objects.requireNonNull(action);
+		int beforeOpNumberOfModifications = numberOfModifications;
+		int[] elementsForIteration = elements;
+		for (int i = 0; i < size && numberOfModifications == beforeOpNumberOfModifications; i++)
+			action.accept(elementsForIteration[i]);
+		if (numberOfModifications != beforeOpNumberOfModifications)
+			throw new ConcurrentModificationException();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof IntArrayList)) return false;
+		IntArrayList that = (IntArrayList) o;
+		if (size != that.size) return false;
+		for (int i = 0; i < size; i++) {
+			if (elements[i] != that.elements[i])
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hashCode = 1;
+		for (int i = 0; i < size; i++)
+			hashCode = 31 * hashCode + Integer.hashCode(elements[i]);
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toIntArray());
+	}
+}
@@ -1,16 +1,21 @@
 package collections.impl;
 
+import collections.Deque;
 import collections.List;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
-public class LinkedList<E> implements List<E>, Iterable<E> {
+public class LinkedList<E> implements List<E>, Deque<E>, Iterable<E> {
 
 	static class ListNode<E> {
-		ListNode prevElem;
-		ListNode nextElem;
+		ListNode<E> prevElem;
+		ListNode<E> nextElem;
 		E value;
 
 		ListNode() {
@@ -50,6 +55,15 @@ public class LinkedList<E> implements List<E>, Iterable<E> {
 	private ListNode<E> head;
 	private ListNode<E> tail;
 
+	/**
+	 * The node last reached by index and its index, so that an access next to the previous one
+	 * walks from there instead of from an end. Null when no index is cached.
+	 */
+	private ListNode<E> finger;
+	private int fingerIndex;
+
+	private int numberOfModifications;
+
 	public LinkedList() {
 		size = 0;
 		head = null;
@@ -78,9 +92,40 @@ public class LinkedList<E> implements List<E>, Iterable<E> {
 
 	@Override
 	public void clear() {
+		numberOfModifications++;
 		size = 0;
 		head = null;
 		tail = null;
+		finger = null;
+	}
+
+	/**
+	 * Returns the node at the index, walking from the head, the tail or the finger, whichever is closest,
+	 * and moves the finger to it.
+	 */
+	private ListNode<E> node(int index) {
+		ListNode<E> pointer;
+		int pointerIndex;
+		if (index < size - 1 - index) {
+			pointer = head;
+			pointerIndex = 0;
+		} else {
+			pointer = tail;
+			pointerIndex = size - 1;
+		}
+		if (finger != null && Math.abs(index - fingerIndex) < Math.abs(index - pointerIndex)) {
+			pointer = finger;
+			pointerIndex = fingerIndex;
+		}
+		for (; pointerIndex < index; pointerIndex++) {
+			pointer = pointer.nextElem;
+		}
+		for (; pointerIndex > index; pointerIndex--) {
+			pointer = pointer.prevElem;
+		}
+		finger = pointer;
+		fingerIndex = index;
+		return pointer;
 	}
 
 	@Override
@@ -91,13 +136,12 @@ public class LinkedList<E> implements List<E>, Iterable<E> {
 			} else if (index == size) {
 				return add(value);
 			} else {
-				ListNode<E> pointer = head;
-				for (int i = 0; i != index; i++) {
-					pointer = pointer.nextElem;
-				}
+				ListNode<E> pointer = node(index);
 				ListNode<E> temp = new ListNode<>(value, pointer.prevElem, pointer);
 				pointer.prevElem.nextElem = temp;
 				pointer.prevElem = temp;
+				finger = temp;
+				numberOfModifications++;
 				size++;
 				return true;
 			}
@@ -110,8 +154,9 @@ public class LinkedList<E> implements List<E>, Iterable<E> {
 		if (size == 0) {
 			return push(value);
 		} else if (size > 0) {
-			tail.nextElem = new ListNode(value, tail, null);
+			tail.nextElem = new ListNode<>(value, tail, null);
 			tail = tail.nextElem;
+			numberOfModifications++;
 			size++;
 			return true;
 		}
@@ -122,40 +167,51 @@ public class LinkedList<E> implements List<E>, Iterable<E> {
 		if (size == 0) {
 			head = new ListNode<>(value, null, null);
 			tail = head;
+			numberOfModifications++;
 			size++;
 			return true;
 		} else if (size > 0) {
 			ListNode<E> temp = new ListNode<>(value, null, head);
 			head.prevElem = temp;
 			head = temp;
+			fingerIndex++;
+			numberOfModifications++;
 			size++;
 			return true;
 		}
 		return false;
 	}
 
+	/**
+	 * Appends the elements of the list node by node, without copying them to an array first.
+	 * Use {@link #transferAll} to move the nodes of another LinkedList instead.
+	 */
 	@Override
 	public boolean addAll(List<E> list) {
-		return addAll(list.asArray());
+		return addAll((Iterable<E>) list);
 	}
 
 	@Override
 	public boolean addAll(E[] array) {
+		if (array != null && array.length == 0)
+			return false;
 		if (size == 0 && array != null) {
 			head = new ListNode<>(array[0], null, null);
 			ListNode<E> temp = head;
 			for (int i = 1; i < array.length; i++) {
-				temp.nextElem = new ListNode(array[i], temp, null);
+				temp.nextElem = new ListNode<>(array[i], temp, null);
 				temp = temp.nextElem;
 			}
 			tail = temp;
+			numberOfModifications++;
 			size = array.length;
 			return true;
 		} else if (size > 0 && array != null) {
 			for (int i = 0; i < array.length; i++) {
-				tail.nextElem = new ListNode(array[i], tail, null);
+				tail.nextElem = new ListNode<>(array[i], tail, null);
 				tail = tail.nextElem;
 			}
+			numberOfModifications++;
 			size += array.length;
 			return true;
 		}
@@ -168,7 +224,11 @@ public class LinkedList<E> implements List<E>, Iterable<E> {
 			int position = 0;
 			ListNode<E> temp = head;
 			while (temp != null) {
-				if (value.equals(temp.value)) return position;
+				if (value.equals(temp.value)) {
+					finger = temp;
+					fingerIndex = position;
+					return position;
+				}
 				temp = temp.nextElem;
 				position++;
 			}
@@ -193,23 +253,30 @@ public class LinkedList<E> implements List<E>, Iterable<E> {
 	@Override
 	public boolean remove(int index) {
 		if (size > 0 && index >= 0 && index < size) {
-			if (index == size - 1) {
+			if (size == 1) {
+				head = null;
+				tail = null;
+				finger = null;
+			} else if (index == size - 1) {
+				if (finger == tail)
+					finger = null;
 				tail = tail.prevElem;
 				tail.nextElem = null;
 			} else if (index == 0) {
+				if (finger == head)
+					finger = null;
 				head = head.nextElem;
 				head.prevElem = null;
+				fingerIndex--;
 			} else {
-				int counter;
-				ListNode<E> pointer = head;
-				ListNode<E> temp;
-				for (counter = 0; counter != index; counter++) {
-					pointer = pointer.nextElem;
-				}
-				temp = pointer.nextElem;
+				ListNode<E> pointer = node(index);
+				ListNode<E> temp = pointer.nextElem;
 				temp.prevElem = pointer.prevElem;
 				pointer.prevElem.nextElem = temp;
+				// the next node takes the index of the removed one
+				finger = temp;
 			}
+			numberOfModifications++;
 			size--;
 			return true;
 		}
@@ -224,11 +291,7 @@ public class LinkedList<E> implements List<E>, Iterable<E> {
 			} else if (index == 0) {
 				return head.value;
 			} else {
-				ListNode<E> temp = head;
-				for (int i = 0; i != index; i++) {
-					temp = temp.nextElem;
-				}
-				return temp.value;
+				return node(index).value;
 			}
 		}
 		return null;
@@ -239,7 +302,118 @@ public class LinkedList<E> implements List<E>, Iterable<E> {
 		return head.value;
 	}
 
+	/* ---------------- Splicing -------------- */
+
+	/**
+	 * Moves all the nodes of the other list into this one before the index, leaving the other list empty.
+	 * Relinks the two ends of the other list, so it costs the walk to the index but nothing per element.
+	 * Returns false if the index is out of range.
+	 *
+	 * @throws IllegalArgumentException if the other list is this one
+	 */
+	public boolean splice(int index, LinkedList<E> other) {
+		if (other == this)
+			throw new IllegalArgumentException("Cannot splice a list into itself");
+		if (index < 0 || index > size)
+			return false;
+		if (other.size == 0)
+			return true;
+		ListNode<E> first = other.head;
+		ListNode<E> last = other.tail;
+		ListNode<E> successor = (index == size) ? null : node(index);
+		ListNode<E> predecessor = (successor == null) ? tail : successor.prevElem;
+		first.prevElem = predecessor;
+		last.nextElem = successor;
+		if (predecessor == null)
+			head = first;
+		else
+			predecessor.nextElem = first;
+		if (successor == null)
+			tail = last;
+		else
+			successor.prevElem = last;
+		finger = null;
+		numberOfModifications++;
+		size += other.size;
+		other.clear();
+		return true;
+	}
+
+	/**
+	 * Moves all the nodes of the other list to the end of this one in O(1), leaving the other list empty.
+	 *
+	 * @throws IllegalArgumentException if the other list is this one
+	 */
+	public boolean transferAll(LinkedList<E> other) {
+		return splice(size, other);
+	}
+
+	/* ---------------- Deque operations -------------- */
+
+	@Override
+	public void addFirst(E value) {
+		push(value);
+	}
+
+	@Override
+	public void addLast(E value) {
+		add(value);
+	}
+
+	@Override
+	public boolean offerFirst(E value) {
+		return push(value);
+	}
+
+	@Override
+	public boolean offerLast(E value) {
+		return add(value);
+	}
+
+	@Override
+	public E removeFirst() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return pollFirst();
+	}
+
+	@Override
+	public E removeLast() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return pollLast();
+	}
+
+	@Override
+	public E pollFirst() {
+		if (size == 0)
+			return null;
+		E value = head.value;
+		remove(0);
+		return value;
+	}
+
+	@Override
+	public E pollLast() {
+		if (size == 0)
+			return null;
+		E value = tail.value;
+		remove(size - 1);
+		return value;
+	}
+
+	@Override
+	public E peekFirst() {
+		return size == 0 ? null : head.value;
+	}
+
+	@Override
+	public E peekLast() {
+		return size == 0 ? null : tail.value;
+	}
+
 	@Override
+	@SuppressWarnings("unchecked")
 	public E[] asArray() {
 		if (size > 0) {
 			E[] result = (E[]) new Object[size];
@@ -256,21 +430,164 @@ public class LinkedList<E> implements List<E>, Iterable<E> {
 
 	@Override
 	public Iterator<E> iterator() {
-		return new Iterator<E>() {
-			ListNode<E> currentPosition = head;
+		return listIterator();
+	}
 
-			@Override
-			public boolean hasNext() {
-				return currentPosition != null;
-			}
+	/* ---------------- List iterator -------------- */
 
-			@Override
-			public E next() {
-				E value = currentPosition.value;
-				currentPosition = currentPosition.nextElem;
-				return value;
+	/**
+	 * Returns a fail-fast iterator that adds, replaces and removes at its position by relinking nodes,
+	 * so editing the whole list in one pass is linear.
+	 */
+	@Override
+	public ListIterator<E> listIterator() {
+		return new ListIter();
+	}
+
+	/**
+	 * Removes the elements matching the filter in one pass, unlinking the nodes as it goes.
+	 *
+	 * @throws ConcurrentModificationException if the filter modifies the list
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super E> filter) {
+		Objects.requireNonNull(filter);
+		boolean removed = false;
+		int expectedNumberOfModifications = numberOfModifications;
+		for (ListNode<E> currentNode = head; currentNode != null; ) {
+			ListNode<E> nextNode = currentNode.nextElem;
+			boolean matches = filter.test(currentNode.value);
+			if (numberOfModifications != expectedNumberOfModifications)
+				throw new ConcurrentModificationException();
+			if (matches) {
+				unlink(currentNode);
+				expectedNumberOfModifications = numberOfModifications;
+				removed = true;
 			}
-		};
+			currentNode = nextNode;
+		}
+		return removed;
+	}
+
+	/**
+	 * Inserts the value before the successor, at the tail if the successor is null.
+	 */
+	private void linkBefore(E value, ListNode<E> successor) {
+		ListNode<E> predecessor = (successor == null) ? tail : successor.prevElem;
+		ListNode<E> newNode = new ListNode<>(value, predecessor, successor);
+		if (predecessor == null)
+			head = newNode;
+		else
+			predecessor.nextElem = newNode;
+		if (successor == null)
+			tail = newNode;
+		else
+			successor.prevElem = newNode;
+		finger = null;
+		numberOfModifications++;
+		size++;
+	}
+
+	private void unlink(ListNode<E> node) {
+		ListNode<E> predecessor = node.prevElem;
+		ListNode<E> successor = node.nextElem;
+		if (predecessor == null)
+			head = successor;
+		else
+			predecessor.nextElem = successor;
+		if (successor == null)
+			tail = predecessor;
+		else
+			successor.prevElem = predecessor;
+		finger = null;
+		numberOfModifications++;
+		size--;
+	}
+
+	private class ListIter implements ListIterator<E> {
+		private ListNode<E> nextNode = head;
+		private ListNode<E> lastReturned;
+		private int nextIndex;
+		private int expectedNumberOfModifications = numberOfModifications;
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < size;
+		}
+
+		@Override
+		public E next() {
+			checkForModification();
+			if (!hasNext())
+				throw new NoSuchElementException();
+			lastReturned = nextNode;
+			nextNode = nextNode.nextElem;
+			nextIndex++;
+			return lastReturned.value;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return nextIndex > 0;
+		}
+
+		@Override
+		public E previous() {
+			checkForModification();
+			if (!hasPrevious())
+				throw new NoSuchElementException();
+			lastReturned = nextNode = (nextNode == null) ? tail : nextNode.prevElem;
+			nextIndex--;
+			return lastReturned.value;
+		}
+
+		@Override
+		public int nextIndex() {
+			return nextIndex;
+		}
+
+		@Override
+		public int previousIndex() {
+			return nextIndex - 1;
+		}
+
+		@Override
+		public void remove() {
+			checkForModification();
+			if (lastReturned == null)
+				throw new IllegalStateException();
+			ListNode<E> lastNext = lastReturned.nextElem;
+			unlink(lastReturned);
+			// after previous() the removed node was the next one
+			if (nextNode == lastReturned)
+				nextNode = lastNext;
+			else
+				nextIndex--;
+			lastReturned = null;
+			expectedNumberOfModifications = numberOfModifications;
+		}
+
+		@Override
+		public void set(E value) {
+			if (lastReturned == null)
+				throw new IllegalStateException();
+			checkForModification();
+			lastReturned.value = value;
+		}
+
+		@Override
+		public void add(E value) {
+			checkForModification();
+			lastReturned = null;
+			linkBefore(value, nextNode);
+			nextIndex++;
+			expectedNumberOfModifications = numberOfModifications;
+		}
+
+		private void checkForModification() {
+			if (numberOfModifications != expectedNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
 	}
 
 	@Override
@@ -0,0 +1,531 @@
+package collections.impl;
+
+import collections.List;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Unrolled linked list implementation of {@link List}, a doubly linked list of chunks
+ * each holding up to {@link #chunkCapacity} elements in a small array.
+ *
+ * A chunk costs one node and one array for many elements instead of one node per element,
+ * and scans read the elements of a chunk from contiguous memory. Adding at an index shifts the elements
+ * of a single chunk, a full chunk is split in two halves. A chunk that falls below half full on a removal
+ * is merged with a neighbour when both fit in one, or else takes elements from it,
+ * so every chunk but the last stays at least half full.
+ * Indexed access walks chunks from the nearest end or from the chunk last reached by index.
+ * Permits null elements.
+ */
+public class UnrolledLinkedList<E> implements List<E>, Iterable<E> {
+
+	static final int DEFAULT_CHUNK_CAPACITY = 64;
+
+	static final class Chunk {
+		final Object[] elements;
+		int count;
+		Chunk prev;
+		Chunk next;
+
+		Chunk(int capacity) {
+			elements = new Object[capacity];
+		}
+	}
+
+	private final int chunkCapacity;
+
+	private int size;
+	private Chunk head;
+	private Chunk tail;
+
+	/**
+	 * The chunk last reached by index and the index of its first element, null when no chunk is cached.
+	 */
+	private Chunk finger;
+	private int fingerStart;
+
+	private int numberOfModifications;
+
+	public UnrolledLinkedList() {
+		this(DEFAULT_CHUNK_CAPACITY);
+	}
+
+	/**
+	 * @param chunkCapacity the number of elements a chunk holds, small chunks make inserts cheaper
+	 *                      and large ones make indexed access and scans faster
+	 */
+	public UnrolledLinkedList(int chunkCapacity) {
+		if (chunkCapacity < 2)
+			throw new IllegalArgumentException("Illegal chunk capacity: " + chunkCapacity);
+		this.chunkCapacity = chunkCapacity;
+	}
+
+	public UnrolledLinkedList(E[] array) {
+		this();
+		addAll(array);
+	}
+
+	public UnrolledLinkedList(List<E> list) {
+		this();
+		addAll(list);
+	}
+
+	/* ---------------- Chunks -------------- */
+
+	/**
+	 * Returns the chunk holding the index, walking from the head, the tail or the finger, whichever is closest,
+	 * and moves the finger to it. An index equal to size is found in the tail.
+	 */
+	private Chunk chunkFor(int index) {
+		Chunk pointer;
+		int pointerStart;
+		if (index < size - index) {
+			pointer = head;
+			pointerStart = 0;
+		} else {
+			pointer = tail;
+			pointerStart = size - tail.count;
+		}
+		if (finger != null && Math.abs(index - fingerStart) < Math.abs(index - pointerStart)) {
+			pointer = finger;
+			pointerStart = fingerStart;
+		}
+		while (index >= pointerStart + pointer.count && pointer.next != null) {
+			pointerStart += pointer.count;
+			pointer = pointer.next;
+		}
+		while (index < pointerStart) {
+			pointer = pointer.prev;
+			pointerStart -= pointer.count;
+		}
+		finger = pointer;
+		fingerStart = pointerStart;
+		return pointer;
+	}
+
+	private Chunk linkAfter(Chunk chunk) {
+		Chunk newChunk = new Chunk(chunkCapacity);
+		newChunk.prev = chunk;
+		if (chunk == null) {
+			newChunk.next = head;
+			head = newChunk;
+		} else {
+			newChunk.next = chunk.next;
+			chunk.next = newChunk;
+		}
+		if (newChunk.next == null)
+			tail = newChunk;
+		else
+			newChunk.next.prev = newChunk;
+		return newChunk;
+	}
+
+	private void unlink(Chunk chunk) {
+		if (chunk.prev == null)
+			head = chunk.next;
+		else
+			chunk.prev.next = chunk.next;
+		if (chunk.next == null)
+			tail = chunk.prev;
+		else
+			chunk.next.prev = chunk.prev;
+		if (finger == chunk)
+			finger = null;
+	}
+
+	/* ---------------- Methods -------------- */
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		numberOfModifications++;
+		size = 0;
+		head = null;
+		tail = null;
+		finger = null;
+	}
+
+	@Override
+	public boolean add(int index, E value) {
+		if (index < 0 || index > size)
+			return false;
+		if (index == size)
+			return add(value);
+		numberOfModifications++;
+		Chunk chunk = chunkFor(index);
+		int offset = index - fingerStart;
+		if (chunk.count == chunkCapacity) {
+			// moves the upper half to a new chunk and inserts in the half the index falls in
+			Chunk newChunk = linkAfter(chunk);
+			int half = chunkCapacity >>> 1;
+			int movedCount = chunk.count - half;
+			System.arraycopy(chunk.elements, half, newChunk.elements, 0, movedCount);
+			Arrays.fill(chunk.elements, half, chunk.count, null);
+			newChunk.count = movedCount;
+			chunk.count = half;
+			if (offset > half) {
+				offset -= half;
+				chunk = newChunk;
+				finger = newChunk;
+				fingerStart += half;
+			}
+		}
+		System.arraycopy(chunk.elements, offset, chunk.elements, offset + 1, chunk.count - offset);
+		chunk.elements[offset] = value;
+		chunk.count++;
+		size++;
+		return true;
+	}
+
+	@Override
+	public boolean add(E value) {
+		numberOfModifications++;
+		Chunk chunk = tail;
+		if (chunk == null || chunk.count == chunkCapacity)
+			chunk = linkAfter(chunk);
+		chunk.elements[chunk.count++] = value;
+		size++;
+		return true;
+	}
+
+	@Override
+	public boolean addAll(E[] array) {
+		if (array == null || array.length == 0)
+			return false;
+		numberOfModifications++;
+		int copied = 0;
+		while (copied < array.length) {
+			Chunk chunk = tail;
+			if (chunk == null || chunk.count == chunkCapacity)
+				chunk = linkAfter(chunk);
+			int count = Math.min(chunkCapacity - chunk.count, array.length - copied);
+			System.arraycopy(array, copied, chunk.elements, chunk.count, count);
+			chunk.count += count;
+			copied += count;
+		}
+		size += array.length;
+		return true;
+	}
+
+	@Override
+	public boolean addAll(List<E> list) {
+		if (list == null)
+			return false;
+		return !list.isEmpty() && addAll(list.asArray());
+	}
+
+	@Override
+	public int indexOf(E value) {
+		int chunkStart = 0;
+		for (Chunk chunk = head; chunk != null; chunkStart += chunk.count, chunk = chunk.next) {
+			Object[] elements = chunk.elements;
+			for (int i = 0; i < chunk.count; i++) {
+				if (value == null ? elements[i] == null : value.equals(elements[i])) {
+					finger = chunk;
+					fingerStart = chunkStart;
+					return chunkStart + i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(E value) {
+		return indexOf(value) != -1;
+	}
+
+	@Override
+	public boolean remove(int index) {
+		if (index < 0 || index >= size)
+			return false;
+		numberOfModifications++;
+		Chunk chunk = chunkFor(index);
+		int offset = index - fingerStart;
+		System.arraycopy(chunk.elements, offset + 1, chunk.elements, offset, chunk.count - offset - 1);
+		chunk.elements[--chunk.count] = null;
+		size--;
+		if (chunk.count == 0)
+			unlink(chunk);
+		else if (chunk.count < chunkCapacity >>> 1)
+			rebalance(chunk);
+		return true;
+	}
+
+	/**
+	 * Refills a chunk that fell below half full from its next chunk, or from the previous one for the tail:
+	 * merges the two if they fit in one, otherwise moves elements over until both hold half of them.
+	 * The chunk is the finger.
+	 */
+	private void rebalance(Chunk chunk) {
+		Chunk next = chunk.next;
+		Chunk prev = chunk.prev;
+		if (next != null) {
+			if (chunk.count + next.count <= chunkCapacity) {
+				System.arraycopy(next.elements, 0, chunk.elements, chunk.count, next.count);
+				chunk.count += next.count;
+				unlink(next);
+			} else {
+				int movedCount = ((chunk.count + next.count) >>> 1) - chunk.count;
+				System.arraycopy(next.elements, 0, chunk.elements, chunk.count, movedCount);
+				System.arraycopy(next.elements, movedCount, next.elements, 0, next.count - movedCount);
+				Arrays.fill(next.elements, next.count - movedCount, next.count, null);
+				chunk.count += movedCount;
+				next.count -= movedCount;
+			}
+		} else if (prev != null) {
+			if (prev.count + chunk.count <= chunkCapacity) {
+				System.arraycopy(chunk.elements, 0, prev.elements, prev.count, chunk.count);
+				prev.count += chunk.count;
+				unlink(chunk);
+			} else {
+				int movedCount = ((prev.count + chunk.count) >>> 1) - chunk.count;
+				System.arraycopy(chunk.elements, 0, chunk.elements, movedCount, chunk.count);
+				System.arraycopy(prev.elements, prev.count - movedCount, chunk.elements, 0, movedCount);
+				Arrays.fill(prev.elements, prev.count - movedCount, prev.count, null);
+				prev.count -= movedCount;
+				chunk.count += movedCount;
+				fingerStart -= movedCount;
+			}
+		}
+	}
+
+	/**
+	 * The number of chunks, for tests.
+	 */
+	int chunkCount() {
+		int count = 0;
+		for (Chunk chunk = head; chunk != null; chunk = chunk.next)
+			count++;
+		return count;
+	}
+
+	@Override
+	public E remove(E value) {
+		int index = indexOf(value);
+		if (index == -1)
+			return null;
+		remove(index);
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		if (index < 0 || index >= size)
+			return null;
+		Chunk chunk = chunkFor(index);
+		return (E) chunk.elements[index - fingerStart];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E element() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return (E) head.elements[0];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E[] asArray() {
+		if (size == 0)
+			return null;
+		Object[] result = new Object[size];
+		int copied = 0;
+		for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+			System.arraycopy(chunk.elements, 0, result, copied, chunk.count);
+			copied += chunk.count;
+		}
+		return (E[]) result;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E[] toArray(E[] array) {
+		E[] result = (array.length >= size) ? array : (E[]) Array.newInstance(array.getClass().getComponentType(), size);
+		int copied = 0;
+		for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+			System.arraycopy(chunk.elements, 0, result, copied, chunk.count);
+			copied += chunk.count;
+		}
+		if (result.length > size)
+			result[size] = null;
+		return result;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return listIterator();
+	}
+
+	@Override
+	public ListIterator<E> listIterator() {
+		return new ListIter();
+	}
+
+	/**
+	 * Steps through the elements of a chunk by offset. An edit may move elements between chunks,
+	 * so the position is found again by index afterwards.
+	 */
+	private class ListIter implements ListIterator<E> {
+		/**
+		 * The chunk and offset of the next element, null past the last one.
+		 */
+		private Chunk nextChunk = head;
+		private int nextOffset;
+		private int nextIndex;
+		private int lastReturned = -1;
+		private int expectedNumberOfModifications = numberOfModifications;
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < size;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			checkForModification();
+			Chunk chunk = nextChunk;
+			if (chunk == null)
+				throw new NoSuchElementException();
+			E value = (E) chunk.elements[nextOffset];
+			if (++nextOffset == chunk.count) {
+				nextChunk = chunk.next;
+				nextOffset = 0;
+			}
+			lastReturned = nextIndex++;
+			return value;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return nextIndex > 0;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E previous() {
+			checkForModification();
+			if (nextIndex == 0)
+				throw new NoSuchElementException();
+			if (nextChunk == null) {
+				nextChunk = tail;
+				nextOffset = tail.count - 1;
+			} else if (nextOffset > 0) {
+				nextOffset--;
+			} else {
+				nextChunk = nextChunk.prev;
+				nextOffset = nextChunk.count - 1;
+			}
+			lastReturned = --nextIndex;
+			return (E) nextChunk.elements[nextOffset];
+		}
+
+		@Override
+		public int nextIndex() {
+			return nextIndex;
+		}
+
+		@Override
+		public int previousIndex() {
+			return nextIndex - 1;
+		}
+
+		@Override
+		public void remove() {
+			checkForModification();
+			if (lastReturned < 0)
+				throw new IllegalStateException();
+			UnrolledLinkedList.this.remove(lastReturned);
+			if (lastReturned < nextIndex)
+				nextIndex--;
+			lastReturned = -1;
+			seek();
+		}
+
+		@Override
+		public void set(E value) {
+			if (lastReturned < 0)
+				throw new IllegalStateException();
+			checkForModification();
+			chunkFor(lastReturned).elements[lastReturned - fingerStart] = value;
+		}
+
+		@Override
+		public void add(E value) {
+			checkForModification();
+			UnrolledLinkedList.this.add(nextIndex++, value);
+			lastReturned = -1;
+			seek();
+		}
+
+		private void seek() {
+			expectedNumberOfModifications = numberOfModifications;
+			if (nextIndex == size) {
+				nextChunk = null;
+				nextOffset = 0;
+			} else {
+				nextChunk = chunkFor(nextIndex);
+				nextOffset = nextIndex - fingerStart;
+			}
+		}
+
+		private void checkForModification() {
+			if (numberOfModifications != expectedNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(Consumer<? super E> action) {
+		Objects.requireNonNull(action);
+		int beforeOpNumberOfModifications = numberOfModifications;
+		for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+			Object[] elements = chunk.elements;
+			for (int i = 0, count = chunk.count; i < count; i++)
+				action.accept((E) elements[i]);
+			if (numberOfModifications != beforeOpNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof UnrolledLinkedList)) return false;
+		UnrolledLinkedList<?> that = (UnrolledLinkedList<?>) o;
+		if (size != that.size) return false;
+		Iterator<?> thatIterator = that.iterator();
+		for (E value : this) {
+			if (!Objects.equals(value, thatIterator.next()))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hashCode = 1;
+		for (E value : this)
+			hashCode = 31 * hashCode + Objects.hashCode(value);
+		return hashCode;
+	}
+}
@@ -0,0 +1,37 @@
+package map;
+
+/**
+ * A {@link Map}-style map from primitive int keys to primitive int values,
+ * without boxing of keys or values.
+ * Methods returning a value return {@link #noEntryValue()} when the key has no mapping.
+ */
+public interface IntIntMap {
+
+	int size();
+
+	boolean isEmpty();
+
+	boolean containsKey(int key);
+
+	boolean containsValue(int value);
+
+	int get(int key);
+
+	int put(int key, int value);
+
+	int remove(int key);
+
+	void forEach(IntIntConsumer action);
+
+	void clear();
+
+	/**
+	 * The value returned by {@link #get}, {@link #put} and {@link #remove} when there is no mapping for the key.
+	 */
+	int noEntryValue();
+
+	@FunctionalInterface
+	interface IntIntConsumer {
+		void accept(int key, int value);
+	}
+}
@@ -0,0 +1,32 @@
+package map;
+
+/**
+ * A {@link Map}-style map from primitive int keys to object values,
+ * without boxing of keys.
+ * Methods returning a value return null when the key has no mapping.
+ */
+public interface IntObjectMap<V> {
+
+	int size();
+
+	boolean isEmpty();
+
+	boolean containsKey(int key);
+
+	boolean containsValue(Object value);
+
+	V get(int key);
+
+	V put(int key, V value);
+
+	V remove(int key);
+
+	void forEach(IntObjectConsumer<? super V> action);
+
+	void clear();
+
+	@FunctionalInterface
+	interface IntObjectConsumer<V> {
+		void accept(int key, V value);
+	}
+}
@@ -0,0 +1,37 @@
+package map;
+
+/**
+ * A {@link Map}-style map from primitive long keys to primitive long values,
+ * without boxing of keys or values.
+ * Methods returning a value return {@link #noEntryValue()} when the key has no mapping.
+ */
+public interface LongLongMap {
+
+	int size();
+
+	boolean isEmpty();
+
+	boolean containsKey(long key);
+
+	boolean containsValue(long value);
+
+	long get(long key);
+
+	long put(long key, long value);
+
+	long remove(long key);
+
+	void forEach(LongLongConsumer action);
+
+	void clear();
+
+	/**
+	 * The value returned by {@link #get}, {@link #put} and {@link #remove} when there is no mapping for the key.
+	 */
+	long noEntryValue();
+
+	@FunctionalInterface
+	interface LongLongConsumer {
+		void accept(long key, long value);
+	}
+}
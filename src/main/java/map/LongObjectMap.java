@@ -0,0 +1,32 @@
+package map;
+
+/**
+ * A {@link Map}-style map from primitive long keys to object values,
+ * without boxing of keys.
+ * Methods returning a value return null when the key has no mapping.
+ */
+public interface LongObjectMap<V> {
+
+	int size();
+
+	boolean isEmpty();
+
+	boolean containsKey(long key);
+
+	boolean containsValue(Object value);
+
+	V get(long key);
+
+	V put(long key, V value);
+
+	V remove(long key);
+
+	void forEach(LongObjectConsumer<? super V> action);
+
+	void clear();
+
+	@FunctionalInterface
+	interface LongObjectConsumer<V> {
+		void accept(long key, V value);
+	}
+}
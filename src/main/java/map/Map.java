@@ -1,8 +1,16 @@
 package map;
 
+import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
+import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface Map<K, V> {
 
@@ -24,9 +32,302 @@ public interface Map<K, V> {
 
 	void clear();
 
+	/* ---- Compound operations, implementations with a cheaper single lookup should override them ---- */
+
+	default V getOrDefault(Object key, V defaultValue) {
+		V value;
+		return ((value = get(key)) != null || containsKey(key)) ? value : defaultValue;
+	}
+
+	default V putIfAbsent(K key, V value) {
+		V currentValue = get(key);
+		if (currentValue == null)
+			currentValue = put(key, value);
+		return currentValue;
+	}
+
+	default boolean replace(K key, V oldValue, V newValue) {
+		Object currentValue = get(key);
+		if (!Objects.equals(currentValue, oldValue) || (currentValue == null && !containsKey(key)))
+			return false;
+		put(key, newValue);
+		return true;
+	}
+
+	default V replace(K key, V value) {
+		V currentValue;
+		if ((currentValue = get(key)) != null || containsKey(key))
+			currentValue = put(key, value);
+		return currentValue;
+	}
+
+	/**
+	 * If the key has no value, or null, computes one and adds it unless it is null.
+	 * Returns the current value, existing or computed.
+	 */
+	default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		Objects.requireNonNull(mappingFunction);
+		V value;
+		if ((value = get(key)) == null) {
+			V newValue;
+			if ((newValue = mappingFunction.apply(key)) != null) {
+				put(key, newValue);
+				return newValue;
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * If the key has a non-null value, computes a new one from it, removing the mapping if it is null.
+	 * Returns the new value.
+	 */
+	default V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		V oldValue;
+		if ((oldValue = get(key)) != null) {
+			V newValue = remappingFunction.apply(key, oldValue);
+			if (newValue != null) {
+				put(key, newValue);
+				return newValue;
+			}
+			remove(key);
+		}
+		return null;
+	}
+
+	/**
+	 * Computes a new value from the current one, or null if there is none, removing the mapping if it is null.
+	 * Returns the new value.
+	 */
+	default V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		V oldValue = get(key);
+		V newValue = remappingFunction.apply(key, oldValue);
+		if (newValue == null) {
+			if (oldValue != null || containsKey(key))
+				remove(key);
+			return null;
+		}
+		put(key, newValue);
+		return newValue;
+	}
+
+	/**
+	 * Associates the value with the key if it has no value, or null, otherwise combines it with the current one,
+	 * removing the mapping if the result is null. Returns the new value.
+	 */
+	default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		Objects.requireNonNull(value);
+		V oldValue = get(key);
+		V newValue = (oldValue == null) ? value : remappingFunction.apply(oldValue, value);
+		if (newValue == null)
+			remove(key);
+		else
+			put(key, newValue);
+		return newValue;
+	}
+
+	/* ---- Batch operations, implementations that can order the lookups should override them ---- */
+
+	/**
+	 * Stores the value of keys[i], or null if there is none, in out[i].
+	 */
+	default void getAll(K[] keys, V[] out) {
+		if (out.length < keys.length)
+			throw new IllegalArgumentException("Batch of " + keys.length + " keys but room for " + out.length + " values");
+		for (int i = 0; i < keys.length; i++)
+			out[i] = get(keys[i]);
+	}
+
+	default void putAll(Map<? extends K, ? extends V> map) {
+		map.forEach(this::put);
+	}
+
+	/**
+	 * Associates values[i] with keys[i], a key repeated in the batch keeps its last value.
+	 */
+	default void putAll(K[] keys, V[] values) {
+		if (values.length != keys.length)
+			throw new IllegalArgumentException("Batch of " + keys.length + " keys but " + values.length + " values");
+		for (int i = 0; i < keys.length; i++)
+			put(keys[i], values[i]);
+	}
+
+	/**
+	 * Returns the number of mappings removed.
+	 */
+	default int removeAll(K[] keys) {
+		int removed = 0;
+		for (K key : keys) {
+			if (containsKey(key)) {
+				remove(key);
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	/* ---- Cursor, implementations should override it to walk their storage without a snapshot ---- */
+
+	/**
+	 * Returns a cursor over a snapshot of the entries taken with {@link #forEach},
+	 * its updates and removals go through {@link #put} and {@link #remove}.
+	 */
+	default MapCursor<K, V> cursor() {
+		Object[] entries = new Object[2 * size()];
+		int[] count = new int[] { 0 };
+		forEach((key, value) -> {
+			entries[count[0]++] = key;
+			entries[count[0]++] = value;
+		});
+		return new MapCursor<K, V>() {
+			private int index = -2;
+			private boolean removed;
+
+			@Override
+			public boolean advance() {
+				removed = false;
+				return (index = Math.min(index + 2, count[0])) < count[0];
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public K key() {
+				checkEntry();
+				return (K) entries[index];
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public V value() {
+				checkEntry();
+				return (V) entries[index + 1];
+			}
+
+			@Override
+			public V setValue(V value) {
+				V oldValue = value();
+				put(key(), value);
+				entries[index + 1] = value;
+				return oldValue;
+			}
+
+			@Override
+			public void remove() {
+				Map.this.remove(key());
+				removed = true;
+			}
+
+			private void checkEntry() {
+				if (index < 0 || index >= count[0] || removed)
+					throw new IllegalStateException();
+			}
+		};
+	}
+
+	/* ---- Streams, implementations that can split their storage should override the spliterators ---- */
+
+	/**
+	 * Returns a spliterator over a snapshot of the entries taken with {@link #forEach},
+	 * which costs a copy of the map before the first element.
+	 */
+	default Spliterator<Entry<K, V>> entrySpliterator() {
+		List<Entry<K, V>> entries = new ArrayList<>(size());
+		forEach((key, value) -> entries.add(new ImmutableEntry<>(key, value)));
+		return Spliterators.spliterator(entries.toArray(), Spliterator.DISTINCT);
+	}
+
+	default Spliterator<K> keySpliterator() {
+		List<K> keys = new ArrayList<>(size());
+		forEach((key, value) -> keys.add(key));
+		return Spliterators.spliterator(keys.toArray(), Spliterator.DISTINCT);
+	}
+
+	default Spliterator<V> valueSpliterator() {
+		List<V> values = new ArrayList<>(size());
+		forEach((key, value) -> values.add(value));
+		return Spliterators.spliterator(values.toArray(), 0);
+	}
+
+	/**
+	 * Returns a sequential stream of the entries, call {@link Stream#parallel()} to process it on all cores.
+	 */
+	default Stream<Entry<K, V>> entryStream() {
+		return StreamSupport.stream(entrySpliterator(), false);
+	}
+
+	default Stream<K> keyStream() {
+		return StreamSupport.stream(keySpliterator(), false);
+	}
+
+	default Stream<V> valueStream() {
+		return StreamSupport.stream(valueSpliterator(), false);
+	}
+
+	/**
+	 * Performs the action for each entry, in parallel if the map holds at least parallelismThreshold entries.
+	 * The action must be safe to call from several threads and must not modify the map.
+	 */
+	default void parallelForEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+		Objects.requireNonNull(action);
+		if (size() < parallelismThreshold)
+			forEach(action);
+		else
+			entryStream().parallel().forEach(entry -> action.accept(entry.getKey(), entry.getValue()));
+	}
+
 	interface Entry<K, V> {
 		K getKey();
 		V getValue();
 		V setValue(V value);
 	}
+
+	/**
+	 * Entry detached from any map, as returned by the default spliterators.
+	 */
+	final class ImmutableEntry<K, V> implements Entry<K, V> {
+
+		private final K key;
+		private final V value;
+
+		public ImmutableEntry(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Entry)) return false;
+			Entry<?, ?> entry = (Entry<?, ?>) o;
+			return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(key) ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public String toString() {
+			return key + " = " + value;
+		}
+	}
 }
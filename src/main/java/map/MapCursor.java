@@ -0,0 +1,48 @@
+package map;
+
+/**
+ * Single-pass traversal of the entries of a {@link Map} without an object per entry.
+ *
+ * A cursor starts before the first entry, each {@link #advance()} moves it to the next one.
+ * The entry under the cursor can be read, updated or removed, any other structural modification
+ * of the map makes the next call to {@link #advance()} throw {@link java.util.ConcurrentModificationException}.
+ *
+ * <pre>{@code
+ * MapCursor<K, V> cursor = map.cursor();
+ * while (cursor.advance()) {
+ *     if (isExpired(cursor.value()))
+ *         cursor.remove();
+ * }
+ * }</pre>
+ */
+public interface MapCursor<K, V> {
+
+	/**
+	 * Moves to the next entry, returns false once all entries were visited.
+	 */
+	boolean advance();
+
+	/**
+	 * @throws IllegalStateException if the cursor is not on an entry
+	 */
+	K key();
+
+	/**
+	 * @throws IllegalStateException if the cursor is not on an entry
+	 */
+	V value();
+
+	/**
+	 * Replaces the value of the current entry and returns the previous one.
+	 *
+	 * @throws IllegalStateException if the cursor is not on an entry
+	 */
+	V setValue(V value);
+
+	/**
+	 * Removes the current entry, the cursor then stays between it and the next one until {@link #advance()}.
+	 *
+	 * @throws IllegalStateException if the cursor is not on an entry
+	 */
+	void remove();
+}
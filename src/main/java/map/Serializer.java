@@ -0,0 +1,35 @@
+package map;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts keys or values to bytes and back, for maps that keep their entries outside the Java heap.
+ *
+ * Maps compare keys by their serialized bytes, so a key serializer must write equal keys as equal bytes.
+ */
+public interface Serializer<T> {
+
+	/**
+	 * Returned by {@link #fixedSize()} when the serialized size depends on the value.
+	 */
+	int VARIABLE_SIZE = -1;
+
+	/**
+	 * Writes the value at the position of the buffer and advances the position past it.
+	 * Throws {@link java.nio.BufferOverflowException} if the buffer is too small, callers retry with a larger one.
+	 */
+	void write(T value, ByteBuffer buffer);
+
+	/**
+	 * Reads a value of the given serialized size starting at the position of the buffer.
+	 */
+	T read(ByteBuffer buffer, int size);
+
+	/**
+	 * The number of bytes every value is serialized to, or {@link #VARIABLE_SIZE}.
+	 * Fixed-size serializers let maps skip storing the size of every entry.
+	 */
+	default int fixedSize() {
+		return VARIABLE_SIZE;
+	}
+}
@@ -0,0 +1,490 @@
+package map.impl;
+
+import map.Map;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Implementation of {@link Map} bounded by a maximum size or weight, meant to be used as a cache.
+ *
+ * Entries are evicted with the W-TinyLFU policy: new entries enter a small LRU window, and when they
+ * leave it they are admitted to the main area only if they have been used more often than the entry
+ * they would evict, as estimated by a {@link FrequencySketch}. The main area is a segmented LRU where
+ * entries used again while on probation are promoted to the protected segment.
+ * Recency-biased bursts are absorbed by the window while scans cannot flush the frequently used entries.
+ *
+ * {@link #get} records a hit or a miss and reorders the entries, {@link #containsKey} and {@link #forEach} do not.
+ *
+ * Null keys and values are not supported. Not thread safe, not even for concurrent reads.
+ */
+public class BoundedHashMap<K,V> implements Map<K,V> {
+
+	/**
+	 * Computes the weight of an entry, which must not change while the entry is in the map.
+	 */
+	@FunctionalInterface
+	public interface Weigher<K,V> {
+		int weigh(K key, V value);
+	}
+
+	/**
+	 * The percentage of the maximum weight given to the window.
+	 */
+	static final int WINDOW_PERCENTAGE = 1;
+
+	/**
+	 * The percentage of the main area given to the protected segment.
+	 */
+	static final int PROTECTED_PERCENTAGE = 80;
+
+	private static final byte WINDOW = 0;
+
+	private static final byte PROBATION = 1;
+
+	private static final byte PROTECTED = 2;
+
+	static final class Node<K,V> {
+		final K key;
+		V value;
+		int weight;
+		byte queue;
+		Node<K,V> previous;
+		Node<K,V> next;
+
+		Node(K key, V value, int weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * Doubly-linked list of nodes in access order, least recently used first.
+	 */
+	static final class AccessQueue<K,V> {
+		Node<K,V> head;
+		Node<K,V> tail;
+		long weight;
+
+		void addLast(Node<K,V> node) {
+			node.previous = tail;
+			node.next = null;
+			if (tail == null)
+				head = node;
+			else
+				tail.next = node;
+			tail = node;
+			weight += node.weight;
+		}
+
+		void remove(Node<K,V> node) {
+			if (node.previous == null)
+				head = node.next;
+			else
+				node.previous.next = node.next;
+			if (node.next == null)
+				tail = node.previous;
+			else
+				node.next.previous = node.previous;
+			node.previous = node.next = null;
+			weight -= node.weight;
+		}
+
+		void moveToBack(Node<K,V> node) {
+			if (node != tail) {
+				remove(node);
+				addLast(node);
+			}
+		}
+
+		void clear() {
+			head = tail = null;
+			weight = 0;
+		}
+	}
+
+	/**
+	 * Count-min sketch of 4-bit counters estimating how often keys were used.
+	 *
+	 * Each long packs 16 counters. A key maps to one group of four counters in each of four longs,
+	 * and its frequency is the minimum of its counters. Once the number of increments reaches ten times
+	 * the size of the table, all counters are halved so that the sketch favours recent history.
+	 */
+	static final class FrequencySketch {
+
+		private static final long[] SEEDS = {
+				0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		private static final long ONE_MASK = 0x1111111111111111L;
+
+		private long[] table = new long[0];
+
+		private int sampleSize;
+
+		private int size;
+
+		/**
+		 * Grows the table for the number of keys, forgetting all counts. Does nothing if large enough.
+		 */
+		void ensureCapacity(int maximumSize) {
+			int capacity = HashMap.bucketsSizeFor(Math.max(maximumSize, 16));
+			if (table.length >= capacity)
+				return;
+			table = new long[capacity];
+			sampleSize = 10 * Math.min(capacity, Integer.MAX_VALUE / 10);
+			size = 0;
+		}
+
+		int frequency(Object key) {
+			int hash = spread(key.hashCode());
+			int start = (hash & 3) << 2;
+			int frequency = 15;
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(hash, i);
+				int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+				frequency = Math.min(frequency, count);
+			}
+			return frequency;
+		}
+
+		void increment(Object key) {
+			int hash = spread(key.hashCode());
+			int start = (hash & 3) << 2;
+			boolean added = false;
+			for (int i = 0; i < 4; i++)
+				added |= incrementAt(indexOf(hash, i), start + i);
+			if (added && ++size == sampleSize)
+				reset();
+		}
+
+		/**
+		 * Increments the counter at the position of the long unless it is saturated.
+		 */
+		private boolean incrementAt(int index, int counter) {
+			int offset = counter << 2;
+			long mask = 0xfL << offset;
+			if ((table[index] & mask) != mask) {
+				table[index] += 1L << offset;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Halves every counter, correcting the sample size for the odd counters losing their low bit.
+		 */
+		private void reset() {
+			int oddCounters = 0;
+			for (int i = 0; i < table.length; i++) {
+				oddCounters += Long.bitCount(table[i] & ONE_MASK);
+				table[i] = (table[i] >>> 1) & RESET_MASK;
+			}
+			size = (size - (oddCounters >>> 2)) >>> 1;
+		}
+
+		private int indexOf(int hash, int i) {
+			long h = (hash + SEEDS[i]) * SEEDS[i];
+			h += h >>> 32;
+			return ((int) h) & (table.length - 1);
+		}
+
+		private static int spread(int h) {
+			h = ((h >>> 16) ^ h) * 0x45d9f3b;
+			h = ((h >>> 16) ^ h) * 0x45d9f3b;
+			return (h >>> 16) ^ h;
+		}
+	}
+
+	/* ---------------------- Fields ---------------------- */
+
+	private final HashMap<K, Node<K,V>> data = new HashMap<>();
+
+	private final Weigher<? super K, ? super V> weigher;
+
+	private final long maximumWeight;
+
+	private final long maximumWindowWeight;
+
+	private final long maximumMainWeight;
+
+	private final long maximumProtectedWeight;
+
+	private final AccessQueue<K,V> window = new AccessQueue<>();
+
+	private final AccessQueue<K,V> probation = new AccessQueue<>();
+
+	private final AccessQueue<K,V> protectedQueue = new AccessQueue<>();
+
+	private final FrequencySketch sketch = new FrequencySketch();
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long evictionCount;
+
+	private long evictionWeight;
+
+	/* ------------------- Constructors ------------------- */
+
+	public BoundedHashMap(long maximumWeight, Weigher<? super K, ? super V> weigher) {
+		if (weigher == null)
+			throw new NullPointerException();
+		if (maximumWeight < 0)
+			throw new IllegalArgumentException("Illegal maximum weight: " + maximumWeight);
+		this.weigher = weigher;
+		this.maximumWeight = maximumWeight;
+		this.maximumMainWeight = maximumWeight - Math.max(maximumWeight * WINDOW_PERCENTAGE / 100, maximumWeight > 0 ? 1 : 0);
+		this.maximumWindowWeight = maximumWeight - maximumMainWeight;
+		this.maximumProtectedWeight = maximumMainWeight * PROTECTED_PERCENTAGE / 100;
+		sketch.ensureCapacity(0);
+	}
+
+	/**
+	 * Creates a map holding at most the given number of entries.
+	 */
+	public BoundedHashMap(long maximumSize) {
+		this(maximumSize, (key, value) -> 1);
+	}
+
+	/* ---------------------- Methods ---------------------- */
+
+	@Override
+	public int size() {
+		return data.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return data.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (key == null)
+			throw new NullPointerException();
+		return data.containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		if (value == null)
+			throw new NullPointerException();
+		for (AccessQueue<K,V> queue : queues()) {
+			for (Node<K,V> node = queue.head; node != null; node = node.next) {
+				if (value.equals(node.value))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public V get(Object key) {
+		if (key == null)
+			throw new NullPointerException();
+		sketch.increment(key);
+		Node<K,V> node = data.get(key);
+		if (node == null) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		onAccess(node);
+		return node.value;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		if (key == null || value == null)
+			throw new NullPointerException();
+		int weight = weigher.weigh(key, value);
+		if (weight < 0)
+			throw new IllegalArgumentException("Illegal weight: " + weight);
+		sketch.increment(key);
+		Node<K,V> node = data.get(key);
+		if (node != null) {
+			V oldValue = node.value;
+			AccessQueue<K,V> queue = queueOf(node);
+			queue.weight += weight - node.weight;
+			node.value = value;
+			node.weight = weight;
+			onAccess(node);
+			evict();
+			return oldValue;
+		}
+
+		node = new Node<>(key, value, weight);
+		data.put(key, node);
+		sketch.ensureCapacity(data.size());
+		node.queue = WINDOW;
+		window.addLast(node);
+		evict();
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		if (key == null)
+			throw new NullPointerException();
+		Node<K,V> node = data.remove(key);
+		if (node == null)
+			return null;
+		queueOf(node).remove(node);
+		return node.value;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		if (action == null)
+			throw new NullPointerException();
+		data.forEach((key, node) -> action.accept(key, node.value));
+	}
+
+	@Override
+	public void clear() {
+		data.clear();
+		window.clear();
+		probation.clear();
+		protectedQueue.clear();
+	}
+
+	/* ---------------- Statistics -------------- */
+
+	public long hitCount() {
+		return hitCount;
+	}
+
+	public long missCount() {
+		return missCount;
+	}
+
+	/**
+	 * The ratio of {@link #get} calls that found an entry, 1 if there were none.
+	 */
+	public double hitRate() {
+		long requestCount = hitCount + missCount;
+		return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+	}
+
+	public long evictionCount() {
+		return evictionCount;
+	}
+
+	public long evictionWeight() {
+		return evictionWeight;
+	}
+
+	/**
+	 * The sum of the weights of the entries, never more than {@link #maximumWeight()} between operations.
+	 */
+	public long weightedSize() {
+		return window.weight + probation.weight + protectedQueue.weight;
+	}
+
+	public long maximumWeight() {
+		return maximumWeight;
+	}
+
+	/* ---------------- Eviction policy -------------- */
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private AccessQueue<K,V>[] queues() {
+		return new AccessQueue[] { window, probation, protectedQueue };
+	}
+
+	private AccessQueue<K,V> queueOf(Node<K,V> node) {
+		return node.queue == WINDOW ? window : node.queue == PROBATION ? probation : protectedQueue;
+	}
+
+	/**
+	 * Moves the node to the back of its queue, promoting it from probation to protected.
+	 */
+	private void onAccess(Node<K,V> node) {
+		if (node.queue != PROBATION) {
+			queueOf(node).moveToBack(node);
+			return;
+		}
+		probation.remove(node);
+		node.queue = PROTECTED;
+		protectedQueue.addLast(node);
+		// demoted entries get another chance on probation
+		while (protectedQueue.weight > maximumProtectedWeight && protectedQueue.head != node) {
+			Node<K,V> demoted = protectedQueue.head;
+			protectedQueue.remove(demoted);
+			demoted.queue = PROBATION;
+			probation.addLast(demoted);
+		}
+	}
+
+	/**
+	 * Offers the entries overflowing the window to the main area, then evicts until within the maximum weight.
+	 */
+	private void evict() {
+		while (window.weight > maximumWindowWeight) {
+			Node<K,V> candidate = window.head;
+			window.remove(candidate);
+			admit(candidate);
+		}
+		while (weightedSize() > maximumWeight) {
+			Node<K,V> victim = probation.head != null ? probation.head :
+					protectedQueue.head != null ? protectedQueue.head : window.head;
+			queueOf(victim).remove(victim);
+			evictNode(victim);
+		}
+	}
+
+	/**
+	 * TinyLFU admission: the candidate evicts the least recently used entries of the main area that make room for it
+	 * if it is used more often than each of them, otherwise it is evicted itself. The victims are all compared
+	 * before any is evicted, so a heavy candidate that loses to a later victim costs the main area nothing.
+	 */
+	private void admit(Node<K,V> candidate) {
+		long excessWeight = probation.weight + protectedQueue.weight + candidate.weight - maximumMainWeight;
+		if (excessWeight > 0) {
+			int candidateFrequency = sketch.frequency(candidate.key);
+			int victimCount = 0;
+			long victimsWeight = 0;
+			for (Node<K,V> victim = firstVictim(); victim != null && victimsWeight < excessWeight; victim = nextVictim(victim)) {
+				if (candidateFrequency <= sketch.frequency(victim.key)) {
+					evictNode(candidate);
+					return;
+				}
+				victimCount++;
+				victimsWeight += victim.weight;
+			}
+			for (Node<K,V> victim = firstVictim(); victimCount > 0; victimCount--) {
+				Node<K,V> next = nextVictim(victim);
+				queueOf(victim).remove(victim);
+				evictNode(victim);
+				victim = next;
+			}
+		}
+		candidate.queue = PROBATION;
+		probation.addLast(candidate);
+	}
+
+	/**
+	 * The main area gives up its least recently used entries on probation first, then those in protected.
+	 */
+	private Node<K,V> firstVictim() {
+		return probation.head != null ? probation.head : protectedQueue.head;
+	}
+
+	private Node<K,V> nextVictim(Node<K,V> victim) {
+		if (victim.next != null)
+			return victim.next;
+		return victim.queue == PROBATION ? protectedQueue.head : null;
+	}
+
+	/**
+	 * Removes an entry already unlinked from its queue.
+	 */
+	private void evictNode(Node<K,V> node) {
+		data.remove(node.key);
+		evictionCount++;
+		evictionWeight += node.weight;
+	}
+}
@@ -0,0 +1,1043 @@
+package map.impl;
+
+import map.Map;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe implementation of {@link Map}.
+ *
+ * Reads never lock: {@code get} sees bin heads through volatile array reads and walks chains of volatile links.
+ * An empty bin is filled with a CAS of its head, every other update locks only the head node of its bin.
+ * The compound operations, from {@code putIfAbsent} to {@code merge}, are atomic: they look the key up
+ * and update it under the same bin lock, so their functions run at most once per call and must not update the map.
+ * A function computing a value for an empty bin runs while the bin holds a locked {@link ReservationNode}.
+ * The batch operations are atomic for each key, not for the batch. The cursor, spliterators and streams
+ * keep the defaults of {@link Map}, which work on a snapshot taken with {@code forEach}.
+ * Every other method of {@link Map} is overridden here, the tests check that no default is inherited by accident.
+ * The size is kept in a striped {@link LongAdder}, so updating threads do not contend on a single counter.
+ *
+ * When the map grows, the bins are moved to the doubled table in strides. Every thread that runs into a bin
+ * already moved (marked by a {@link ForwardingNode}) joins the transfer instead of waiting for it,
+ * readers follow the forwarding node into the new table.
+ *
+ * Unlike {@link HashMap} null keys and null values are not permitted, as a null result of {@code get}
+ * could not tell an absent key from a null value without locking. {@code forEach} and {@code containsValue}
+ * are weakly consistent: they never throw {@link java.util.ConcurrentModificationException} and reflect
+ * the state of each bin at the time it is visited.
+ */
+public class ConcurrentHashMap<K, V> implements Map<K, V> {
+
+	static final int DEFAULT_INITIAL_CAPACITY = 1 << 4; // aka 16
+
+	/**
+	 * The maximum table size, see {@link HashMap#MAXIMUM_CAPACITY}.
+	 */
+	static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	/**
+	 * Minimum number of bins a thread claims at once while transferring.
+	 * Ranges are subdivided to allow multiple resizer threads, this value serves as a lower bound
+	 * to avoid resizers encountering excessive memory contention.
+	 */
+	private static final int MIN_TRANSFER_STRIDE = 16;
+
+	/**
+	 * The number of bits used for generation stamp in sizeControl.
+	 */
+	private static final int RESIZE_STAMP_BITS = 16;
+
+	/**
+	 * The maximum number of threads that can help resize.
+	 */
+	private static final int MAX_RESIZERS = (1 << (32 - RESIZE_STAMP_BITS)) - 1;
+
+	/**
+	 * The bit shift for recording size stamp in sizeControl.
+	 */
+	private static final int RESIZE_STAMP_SHIFT = 32 - RESIZE_STAMP_BITS;
+
+	/**
+	 * Hash of forwarding nodes, ordinary nodes always have a non-negative hash.
+	 */
+	static final int MOVED = -1;
+
+	/**
+	 * Hash of reservation nodes.
+	 */
+	static final int RESERVED = -3;
+
+	/**
+	 * Usable bits of normal node hash.
+	 */
+	static final int HASH_BITS = 0x7fffffff;
+
+	private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<ConcurrentHashMap> SIZE_CONTROL =
+			AtomicIntegerFieldUpdater.newUpdater(ConcurrentHashMap.class, "sizeControl");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<ConcurrentHashMap> TRANSFER_INDEX =
+			AtomicIntegerFieldUpdater.newUpdater(ConcurrentHashMap.class, "transferIndex");
+
+	/**
+	 * Basic hash bin node. The value and the link are volatile, so lock-free readers see
+	 * the latest value and chains that writers unlink from concurrently.
+	 */
+	static class Node<K, V> implements Map.Entry<K, V> {
+
+		final int hashCode;
+		final K key;
+		volatile V value;
+		volatile Node<K, V> nextNode;
+
+		Node(int hashCode, K key, V value, Node<K, V> nextNode) {
+			this.hashCode = hashCode;
+			this.key = key;
+			this.value = value;
+			this.nextNode = nextNode;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Map.Entry)) return false;
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+			return key.equals(entry.getKey()) &&
+					value.equals(entry.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ value.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return key.toString() +
+					" = " +
+					value.toString();
+		}
+
+		/**
+		 * Virtualized support for get, overridden by {@link ForwardingNode}.
+		 */
+		Node<K, V> find(int hash, Object key) {
+			Node<K, V> currentNode = this;
+			K currentKey;
+			do {
+				if (currentNode.hashCode == hash &&
+						((currentKey = currentNode.key) == key || key.equals(currentKey)))
+					return currentNode;
+			} while ((currentNode = currentNode.nextNode) != null);
+			return null;
+		}
+	}
+
+	/**
+	 * A node inserted at the head of a bin that has already been moved to nextTable.
+	 */
+	static final class ForwardingNode<K, V> extends Node<K, V> {
+
+		final AtomicReferenceArray<Node<K, V>> nextTable;
+
+		ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+			super(MOVED, null, null, null);
+			this.nextTable = nextTable;
+		}
+
+		@Override
+		Node<K, V> find(int hash, Object key) {
+			// loop to avoid arbitrarily deep recursion on forwarding nodes
+			outer:
+			for (AtomicReferenceArray<Node<K, V>> table = nextTable; ; ) {
+				Node<K, V> currentNode;
+				int tableLength;
+				if (key == null || table == null || (tableLength = table.length()) == 0 ||
+						(currentNode = table.get((tableLength - 1) & hash)) == null)
+					return null;
+				for (; ; ) {
+					int currentHash;
+					K currentKey;
+					if ((currentHash = currentNode.hashCode) == hash &&
+							((currentKey = currentNode.key) == key || key.equals(currentKey)))
+						return currentNode;
+					if (currentHash == MOVED) {
+						table = ((ForwardingNode<K, V>) currentNode).nextTable;
+						continue outer;
+					}
+					if ((currentNode = currentNode.nextNode) == null)
+						return null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Placeholder locked as the head of an empty bin while a compute function runs, so that other updates
+	 * of the bin wait for its result. Readers find nothing in it.
+	 */
+	static final class ReservationNode<K, V> extends Node<K, V> {
+
+		ReservationNode() {
+			super(RESERVED, null, null, null);
+		}
+
+		@Override
+		Node<K, V> find(int hash, Object key) {
+			return null;
+		}
+	}
+
+	/* ------------------ Static utilities -----------------*/
+
+	/**
+	 * Called with the head of a bin locked by the current thread and still in place: a reservation node
+	 * means the compute function that reserved the bin is updating the map itself.
+	 */
+	static void checkNotReserved(Node<?, ?> headNode) {
+		if (headNode instanceof ReservationNode)
+			throw new IllegalStateException("Recursive update");
+	}
+
+	/**
+	 * Same spreading as {@link HashMap#hash(Object)}, with the sign bit cleared
+	 * so that ordinary nodes never clash with {@link #MOVED}.
+	 */
+	static final int spread(int h) {
+		return (h ^ (h >>> 16)) & HASH_BITS;
+	}
+
+	/**
+	 * Returns the stamp bits for resizing a table of size n.
+	 * Must be negative when shifted left by {@link #RESIZE_STAMP_SHIFT}.
+	 */
+	static final int resizeStamp(int n) {
+		return Integer.numberOfLeadingZeros(n) | (1 << (RESIZE_STAMP_BITS - 1));
+	}
+
+	/* ---------------------- Fields ---------------------- */
+
+	/**
+	 * The array of bins. Lazily initialized upon first insertion.
+	 */
+	private volatile AtomicReferenceArray<Node<K, V>> table;
+
+	/**
+	 * The next table to use, non-null only while resizing.
+	 */
+	private volatile AtomicReferenceArray<Node<K, V>> nextTable;
+
+	/**
+	 * Table initialization and resizing control.
+	 * When negative, the table is being initialized (-1) or resized (stamp plus the number of active resizing threads + 1).
+	 * Otherwise, when table is null, holds the initial table size to use upon creation, or 0 for default.
+	 * After initialization, holds the next element count value upon which to resize the table.
+	 */
+	private volatile int sizeControl;
+
+	/**
+	 * The next table index (plus one) to split while resizing.
+	 */
+	private volatile int transferIndex;
+
+	/**
+	 * Striped number of key-value mappings.
+	 */
+	private final LongAdder counter = new LongAdder();
+
+	/* ------------------- Constructors ------------------- */
+
+	public ConcurrentHashMap(int initialCapacity) {
+		if (initialCapacity < 0)
+			initialCapacity = DEFAULT_INITIAL_CAPACITY;
+		this.sizeControl = (initialCapacity >= (MAXIMUM_CAPACITY >>> 1)) ?
+				MAXIMUM_CAPACITY :
+				HashMap.bucketsSizeFor(initialCapacity + (initialCapacity >>> 1) + 1);
+	}
+
+	public ConcurrentHashMap() {
+	}
+
+	/* ---------------------- Methods ---------------------- */
+
+	@Override
+	public int size() {
+		long sum = counter.sum();
+		return (sum < 0L) ? 0 : (sum > (long) Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) sum;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return counter.sum() <= 0L;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		if (value == null)
+			throw new NullPointerException();
+		AtomicReferenceArray<Node<K, V>> bins;
+		if ((bins = table) != null) {
+			for (int i = 0; i < bins.length(); i++) {
+				if (findInBin(bins, i, node -> value.equals(node.value)) != null)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public V get(Object key) {
+		AtomicReferenceArray<Node<K, V>> bins;
+		Node<K, V> headNode;
+		Node<K, V> currentNode;
+		int binsLength;
+		int headHash;
+		K currentKey;
+		int hash = spread(key.hashCode());
+
+		if ((bins = table) != null &&
+				(binsLength = bins.length()) > 0 &&
+				(headNode = bins.get((binsLength - 1) & hash)) != null) {
+			if ((headHash = headNode.hashCode) == hash) {
+				if ((currentKey = headNode.key) == key || key.equals(currentKey))
+					return headNode.value;
+			} else if (headHash < 0) {
+				return (currentNode = headNode.find(hash, key)) != null ? currentNode.value : null;
+			}
+			for (currentNode = headNode.nextNode; currentNode != null; currentNode = currentNode.nextNode) {
+				if (currentNode.hashCode == hash &&
+						((currentKey = currentNode.key) == key || key.equals(currentKey)))
+					return currentNode.value;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		return putVal(key, value, false);
+	}
+
+	/**
+	 * Associates the value with the key, unless onlyIfAbsent and the key is present. Returns the previous value.
+	 */
+	private V putVal(K key, V value, boolean onlyIfAbsent) {
+		if (key == null || value == null)
+			throw new NullPointerException();
+		int hash = spread(key.hashCode());
+		int binCount = 0;
+		for (AtomicReferenceArray<Node<K, V>> bins = table; ; ) {
+			Node<K, V> headNode;
+			int binsLength;
+			int binIndex;
+			if (bins == null || (binsLength = bins.length()) == 0) {
+				bins = initTable();
+			} else if ((headNode = bins.get(binIndex = (binsLength - 1) & hash)) == null) {
+				if (bins.compareAndSet(binIndex, null, new Node<>(hash, key, value, null)))
+					break; // no lock when adding to empty bin
+			} else if (headNode.hashCode == MOVED) {
+				bins = helpTransfer(bins, headNode);
+			} else {
+				V oldValue = null;
+				synchronized (headNode) {
+					if (bins.get(binIndex) == headNode) {
+						checkNotReserved(headNode);
+						binCount = 1;
+						for (Node<K, V> currentNode = headNode; ; ++binCount) {
+							K currentKey;
+							if (currentNode.hashCode == hash &&
+									((currentKey = currentNode.key) == key || key.equals(currentKey))) {
+								oldValue = currentNode.value;
+								if (!onlyIfAbsent)
+									currentNode.value = value;
+								break;
+							}
+							Node<K, V> previousNode = currentNode;
+							if ((currentNode = currentNode.nextNode) == null) {
+								previousNode.nextNode = new Node<>(hash, key, value, null);
+								break;
+							}
+						}
+					}
+				}
+				if (binCount != 0) {
+					if (oldValue != null)
+						return oldValue;
+					break;
+				}
+			}
+		}
+		addCount(1L, binCount);
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		return replaceNode(key, null, null);
+	}
+
+	/**
+	 * Replaces the value of the key by the value, or removes the mapping if the value is null,
+	 * provided expectedValue is null or equal to the current value. Returns the previous value, or null if unchanged.
+	 */
+	private V replaceNode(Object key, V value, Object expectedValue) {
+		int hash = spread(key.hashCode());
+		for (AtomicReferenceArray<Node<K, V>> bins = table; ; ) {
+			Node<K, V> headNode;
+			int binsLength;
+			int binIndex;
+			if (bins == null || (binsLength = bins.length()) == 0 ||
+					(headNode = bins.get(binIndex = (binsLength - 1) & hash)) == null)
+				break;
+			if (headNode.hashCode == MOVED) {
+				bins = helpTransfer(bins, headNode);
+			} else {
+				V oldValue = null;
+				boolean validated = false;
+				synchronized (headNode) {
+					if (bins.get(binIndex) == headNode) {
+						checkNotReserved(headNode);
+						validated = true;
+						for (Node<K, V> currentNode = headNode, previousNode = null; ; ) {
+							K currentKey;
+							if (currentNode.hashCode == hash &&
+									((currentKey = currentNode.key) == key || key.equals(currentKey))) {
+								V currentValue = currentNode.value;
+								if (expectedValue == null || expectedValue == currentValue || expectedValue.equals(currentValue)) {
+									oldValue = currentValue;
+									if (value != null)
+										currentNode.value = value;
+									else if (previousNode != null)
+										previousNode.nextNode = currentNode.nextNode;
+									else
+										bins.set(binIndex, currentNode.nextNode);
+								}
+								break;
+							}
+							previousNode = currentNode;
+							if ((currentNode = currentNode.nextNode) == null)
+								break;
+						}
+					}
+				}
+				if (validated) {
+					if (oldValue != null) {
+						if (value == null)
+							addCount(-1L, -1);
+						return oldValue;
+					}
+					break;
+				}
+			}
+		}
+		return null;
+	}
+
+	/* ---------------- Compound operations -------------- */
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		V value;
+		return (value = get(key)) != null ? value : defaultValue;
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		return putVal(key, value, true);
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		if (key == null || oldValue == null || newValue == null)
+			throw new NullPointerException();
+		return replaceNode(key, newValue, oldValue) != null;
+	}
+
+	@Override
+	public V replace(K key, V value) {
+		if (key == null || value == null)
+			throw new NullPointerException();
+		return replaceNode(key, value, null);
+	}
+
+	/**
+	 * If the key is absent, computes its value and adds it unless it is null. The function is called
+	 * at most once, under the lock of the bin, and the value is visible to other threads only once added.
+	 */
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		if (key == null || mappingFunction == null)
+			throw new NullPointerException();
+		V value;
+		if ((value = get(key)) != null)
+			return value;
+		int hash = spread(key.hashCode());
+		int binCount = 0;
+		boolean added = false;
+		for (AtomicReferenceArray<Node<K, V>> bins = table; ; ) {
+			Node<K, V> headNode;
+			int binsLength;
+			int binIndex;
+			if (bins == null || (binsLength = bins.length()) == 0) {
+				bins = initTable();
+			} else if ((headNode = bins.get(binIndex = (binsLength - 1) & hash)) == null) {
+				Node<K, V> reservation = new ReservationNode<>();
+				synchronized (reservation) {
+					if (bins.compareAndSet(binIndex, null, reservation)) {
+						binCount = 1;
+						Node<K, V> newNode = null;
+						try {
+							if ((value = mappingFunction.apply(key)) != null)
+								newNode = new Node<>(hash, key, value, null);
+						} finally {
+							bins.set(binIndex, newNode);
+						}
+						added = newNode != null;
+					}
+				}
+				if (binCount != 0)
+					break;
+			} else if (headNode.hashCode == MOVED) {
+				bins = helpTransfer(bins, headNode);
+			} else {
+				synchronized (headNode) {
+					if (bins.get(binIndex) == headNode) {
+						checkNotReserved(headNode);
+						binCount = 1;
+						for (Node<K, V> currentNode = headNode; ; ++binCount) {
+							K currentKey;
+							if (currentNode.hashCode == hash &&
+									((currentKey = currentNode.key) == key || key.equals(currentKey))) {
+								value = currentNode.value;
+								break;
+							}
+							Node<K, V> previousNode = currentNode;
+							if ((currentNode = currentNode.nextNode) == null) {
+								if ((value = mappingFunction.apply(key)) != null) {
+									previousNode.nextNode = new Node<>(hash, key, value, null);
+									added = true;
+								}
+								break;
+							}
+						}
+					}
+				}
+				if (binCount != 0)
+					break;
+			}
+		}
+		if (added)
+			addCount(1L, binCount);
+		return value;
+	}
+
+	/**
+	 * If the key is present, computes its new value under the lock of the bin, removing the mapping if it is null.
+	 */
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if (key == null || remappingFunction == null)
+			throw new NullPointerException();
+		int hash = spread(key.hashCode());
+		V value = null;
+		boolean removed = false;
+		for (AtomicReferenceArray<Node<K, V>> bins = table; ; ) {
+			Node<K, V> headNode;
+			int binsLength;
+			int binIndex;
+			if (bins == null || (binsLength = bins.length()) == 0 ||
+					(headNode = bins.get(binIndex = (binsLength - 1) & hash)) == null)
+				break;
+			if (headNode.hashCode == MOVED) {
+				bins = helpTransfer(bins, headNode);
+			} else {
+				boolean validated = false;
+				synchronized (headNode) {
+					if (bins.get(binIndex) == headNode) {
+						checkNotReserved(headNode);
+						validated = true;
+						for (Node<K, V> currentNode = headNode, previousNode = null; ; ) {
+							K currentKey;
+							if (currentNode.hashCode == hash &&
+									((currentKey = currentNode.key) == key || key.equals(currentKey))) {
+								if ((value = remappingFunction.apply(key, currentNode.value)) != null) {
+									currentNode.value = value;
+								} else {
+									removed = true;
+									if (previousNode != null)
+										previousNode.nextNode = currentNode.nextNode;
+									else
+										bins.set(binIndex, currentNode.nextNode);
+								}
+								break;
+							}
+							previousNode = currentNode;
+							if ((currentNode = currentNode.nextNode) == null)
+								break;
+						}
+					}
+				}
+				if (validated)
+					break;
+			}
+		}
+		if (removed)
+			addCount(-1L, -1);
+		return value;
+	}
+
+	/**
+	 * Computes the new value from the current one, or null if absent, under the lock of the bin,
+	 * removing the mapping if it is null.
+	 */
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if (key == null || remappingFunction == null)
+			throw new NullPointerException();
+		int hash = spread(key.hashCode());
+		V value = null;
+		int delta = 0;
+		int binCount = 0;
+		for (AtomicReferenceArray<Node<K, V>> bins = table; ; ) {
+			Node<K, V> headNode;
+			int binsLength;
+			int binIndex;
+			if (bins == null || (binsLength = bins.length()) == 0) {
+				bins = initTable();
+			} else if ((headNode = bins.get(binIndex = (binsLength - 1) & hash)) == null) {
+				Node<K, V> reservation = new ReservationNode<>();
+				synchronized (reservation) {
+					if (bins.compareAndSet(binIndex, null, reservation)) {
+						binCount = 1;
+						Node<K, V> newNode = null;
+						try {
+							if ((value = remappingFunction.apply(key, null)) != null)
+								newNode = new Node<>(hash, key, value, null);
+						} finally {
+							bins.set(binIndex, newNode);
+						}
+						if (newNode != null)
+							delta = 1;
+					}
+				}
+				if (binCount != 0)
+					break;
+			} else if (headNode.hashCode == MOVED) {
+				bins = helpTransfer(bins, headNode);
+			} else {
+				synchronized (headNode) {
+					if (bins.get(binIndex) == headNode) {
+						checkNotReserved(headNode);
+						binCount = 1;
+						for (Node<K, V> currentNode = headNode, previousNode = null; ; ++binCount) {
+							K currentKey;
+							if (currentNode.hashCode == hash &&
+									((currentKey = currentNode.key) == key || key.equals(currentKey))) {
+								if ((value = remappingFunction.apply(key, currentNode.value)) != null) {
+									currentNode.value = value;
+								} else {
+									delta = -1;
+									if (previousNode != null)
+										previousNode.nextNode = currentNode.nextNode;
+									else
+										bins.set(binIndex, currentNode.nextNode);
+								}
+								break;
+							}
+							previousNode = currentNode;
+							if ((currentNode = currentNode.nextNode) == null) {
+								if ((value = remappingFunction.apply(key, null)) != null) {
+									previousNode.nextNode = new Node<>(hash, key, value, null);
+									delta = 1;
+								}
+								break;
+							}
+						}
+					}
+				}
+				if (binCount != 0)
+					break;
+			}
+		}
+		if (delta != 0)
+			addCount(delta, binCount);
+		return value;
+	}
+
+	/**
+	 * Adds the value if the key is absent, otherwise combines it with the current one under the lock of the bin,
+	 * removing the mapping if the result is null.
+	 */
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		if (key == null || value == null || remappingFunction == null)
+			throw new NullPointerException();
+		int hash = spread(key.hashCode());
+		V newValue = null;
+		int delta = 0;
+		int binCount = 0;
+		for (AtomicReferenceArray<Node<K, V>> bins = table; ; ) {
+			Node<K, V> headNode;
+			int binsLength;
+			int binIndex;
+			if (bins == null || (binsLength = bins.length()) == 0) {
+				bins = initTable();
+			} else if ((headNode = bins.get(binIndex = (binsLength - 1) & hash)) == null) {
+				if (bins.compareAndSet(binIndex, null, new Node<>(hash, key, value, null))) {
+					newValue = value;
+					delta = 1;
+					break;
+				}
+			} else if (headNode.hashCode == MOVED) {
+				bins = helpTransfer(bins, headNode);
+			} else {
+				synchronized (headNode) {
+					if (bins.get(binIndex) == headNode) {
+						checkNotReserved(headNode);
+						binCount = 1;
+						for (Node<K, V> currentNode = headNode, previousNode = null; ; ++binCount) {
+							K currentKey;
+							if (currentNode.hashCode == hash &&
+									((currentKey = currentNode.key) == key || key.equals(currentKey))) {
+								if ((newValue = remappingFunction.apply(currentNode.value, value)) != null) {
+									currentNode.value = newValue;
+								} else {
+									delta = -1;
+									if (previousNode != null)
+										previousNode.nextNode = currentNode.nextNode;
+									else
+										bins.set(binIndex, currentNode.nextNode);
+								}
+								break;
+							}
+							previousNode = currentNode;
+							if ((currentNode = currentNode.nextNode) == null) {
+								previousNode.nextNode = new Node<>(hash, key, value, null);
+								newValue = value;
+								delta = 1;
+								break;
+							}
+						}
+					}
+				}
+				if (binCount != 0)
+					break;
+			}
+		}
+		if (delta != 0)
+			addCount(delta, binCount);
+		return newValue;
+	}
+
+	/* ---------------- Batch operations -------------- */
+
+	@Override
+	public void getAll(K[] keys, V[] out) {
+		if (out.length < keys.length)
+			throw new IllegalArgumentException("Batch of " + keys.length + " keys but room for " + out.length + " values");
+		for (int i = 0; i < keys.length; i++)
+			out[i] = get(keys[i]);
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> map) {
+		map.forEach(this::put);
+	}
+
+	@Override
+	public void putAll(K[] keys, V[] values) {
+		if (values.length != keys.length)
+			throw new IllegalArgumentException("Batch of " + keys.length + " keys but " + values.length + " values");
+		for (int i = 0; i < keys.length; i++)
+			put(keys[i], values[i]);
+	}
+
+	/**
+	 * Counts the mappings this call removed, a key removed by another thread meanwhile is not counted.
+	 */
+	@Override
+	public int removeAll(K[] keys) {
+		int removed = 0;
+		for (K key : keys) {
+			if (remove(key) != null)
+				removed++;
+		}
+		return removed;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		if (action == null)
+			throw new NullPointerException();
+		AtomicReferenceArray<Node<K, V>> bins;
+		if ((bins = table) != null) {
+			for (int i = 0; i < bins.length(); i++) {
+				findInBin(bins, i, node -> {
+					action.accept(node.key, node.value);
+					return false;
+				});
+			}
+		}
+	}
+
+	/**
+	 * Returns the first node of bin {@code binIndex} accepted by the condition.
+	 * A moved bin is looked up in the two bins of the next table it was split into.
+	 */
+	private static <K, V> Node<K, V> findInBin(AtomicReferenceArray<Node<K, V>> bins, int binIndex,
+	                                          Predicate<Node<K, V>> condition) {
+		Node<K, V> headNode = bins.get(binIndex);
+		if (headNode instanceof ReservationNode)
+			return null;
+		if (headNode instanceof ForwardingNode) {
+			AtomicReferenceArray<Node<K, V>> nextBins = ((ForwardingNode<K, V>) headNode).nextTable;
+			Node<K, V> found = findInBin(nextBins, binIndex, condition);
+			return (found != null) ? found : findInBin(nextBins, binIndex + bins.length(), condition);
+		}
+		for (Node<K, V> currentNode = headNode; currentNode != null; currentNode = currentNode.nextNode) {
+			if (condition.test(currentNode))
+				return currentNode;
+		}
+		return null;
+	}
+
+	@Override
+	public void clear() {
+		long delta = 0L; // negative number of deletions
+		int binIndex = 0;
+		AtomicReferenceArray<Node<K, V>> bins = table;
+		while (bins != null && binIndex < bins.length()) {
+			Node<K, V> headNode = bins.get(binIndex);
+			if (headNode == null) {
+				++binIndex;
+			} else if (headNode.hashCode == MOVED) {
+				bins = helpTransfer(bins, headNode);
+				binIndex = 0; // restart
+			} else {
+				synchronized (headNode) {
+					if (bins.get(binIndex) == headNode) {
+						checkNotReserved(headNode);
+						for (Node<K, V> currentNode = headNode; currentNode != null; currentNode = currentNode.nextNode)
+							--delta;
+						bins.set(binIndex++, null);
+					}
+				}
+			}
+		}
+		if (delta != 0L)
+			addCount(delta, -1);
+	}
+
+	/* ---------------- Table Initialization and Resizing -------------- */
+
+	/**
+	 * Initializes table, using the size recorded in sizeControl.
+	 */
+	private AtomicReferenceArray<Node<K, V>> initTable() {
+		AtomicReferenceArray<Node<K, V>> bins;
+		int sizeControlSnapshot;
+		while ((bins = table) == null || bins.length() == 0) {
+			if ((sizeControlSnapshot = sizeControl) < 0) {
+				Thread.yield(); // lost initialization race, just spin
+			} else if (SIZE_CONTROL.compareAndSet(this, sizeControlSnapshot, -1)) {
+				try {
+					if ((bins = table) == null || bins.length() == 0) {
+						int capacity = (sizeControlSnapshot > 0) ? sizeControlSnapshot : DEFAULT_INITIAL_CAPACITY;
+						table = bins = new AtomicReferenceArray<>(capacity);
+						sizeControlSnapshot = capacity - (capacity >>> 2); // 0.75 of capacity
+					}
+				} finally {
+					sizeControl = sizeControlSnapshot;
+				}
+				break;
+			}
+		}
+		return bins;
+	}
+
+	/**
+	 * Adds to count, and if table is too small and not already resizing, initiates transfer.
+	 * If already resizing, helps perform transfer if work is available.
+	 * Rechecks occupancy after a transfer to see if another resize is already needed because resizings are lagging additions.
+	 *
+	 * @param check if negative, don't check resize
+	 */
+	private void addCount(long delta, int check) {
+		counter.add(delta);
+		if (check >= 0) {
+			AtomicReferenceArray<Node<K, V>> bins;
+			AtomicReferenceArray<Node<K, V>> nextBins;
+			int binsLength;
+			int sizeControlSnapshot;
+			long size = counter.sum();
+			while (size >= (long) (sizeControlSnapshot = sizeControl) && (bins = table) != null &&
+					(binsLength = bins.length()) < MAXIMUM_CAPACITY) {
+				int stamp = resizeStamp(binsLength) << RESIZE_STAMP_SHIFT;
+				if (sizeControlSnapshot < 0) {
+					if (sizeControlSnapshot == stamp + MAX_RESIZERS || sizeControlSnapshot == stamp + 1 ||
+							(nextBins = nextTable) == null || transferIndex <= 0)
+						break;
+					if (SIZE_CONTROL.compareAndSet(this, sizeControlSnapshot, sizeControlSnapshot + 1))
+						transfer(bins, nextBins);
+				} else if (SIZE_CONTROL.compareAndSet(this, sizeControlSnapshot, stamp + 2)) {
+					transfer(bins, null);
+				}
+				size = counter.sum();
+			}
+		}
+	}
+
+	/**
+	 * Helps transfer if a resize is in progress.
+	 */
+	private AtomicReferenceArray<Node<K, V>> helpTransfer(AtomicReferenceArray<Node<K, V>> bins, Node<K, V> headNode) {
+		AtomicReferenceArray<Node<K, V>> nextBins;
+		int sizeControlSnapshot;
+		if (bins != null && (headNode instanceof ForwardingNode) &&
+				(nextBins = ((ForwardingNode<K, V>) headNode).nextTable) != null) {
+			int stamp = resizeStamp(bins.length()) << RESIZE_STAMP_SHIFT;
+			while (nextBins == nextTable && table == bins &&
+					(sizeControlSnapshot = sizeControl) < 0) {
+				if (sizeControlSnapshot == stamp + MAX_RESIZERS || sizeControlSnapshot == stamp + 1 ||
+						transferIndex <= 0)
+					break;
+				if (SIZE_CONTROL.compareAndSet(this, sizeControlSnapshot, sizeControlSnapshot + 1)) {
+					transfer(bins, nextBins);
+					break;
+				}
+			}
+			return nextBins;
+		}
+		return table;
+	}
+
+	/**
+	 * Moves the nodes in each bin to the new table, claiming bins in strides of {@link #MIN_TRANSFER_STRIDE} or more.
+	 * Nodes are copied rather than relinked, except for the trailing run that keeps its bin,
+	 * so readers still traversing the old table always see consistent chains.
+	 */
+	private void transfer(AtomicReferenceArray<Node<K, V>> bins, AtomicReferenceArray<Node<K, V>> nextBins) {
+		int binsLength = bins.length();
+		int stride;
+		if ((stride = (NCPU > 1) ? (binsLength >>> 3) / NCPU : binsLength) < MIN_TRANSFER_STRIDE)
+			stride = MIN_TRANSFER_STRIDE; // subdivide range
+		if (nextBins == null) { // initiating
+			try {
+				nextBins = new AtomicReferenceArray<>(binsLength << 1);
+			} catch (Throwable ex) { // try to cope with OOME
+				sizeControl = Integer.MAX_VALUE;
+				return;
+			}
+			nextTable = nextBins;
+			transferIndex = binsLength;
+		}
+		int nextBinsLength = nextBins.length();
+		ForwardingNode<K, V> forwardingNode = new ForwardingNode<>(nextBins);
+		boolean advance = true;
+		boolean finishing = false; // to ensure sweep before committing nextBins
+		for (int binIndex = 0, bound = 0; ; ) {
+			Node<K, V> headNode;
+			int headHash;
+			while (advance) {
+				int nextIndex;
+				int nextBound;
+				if (--binIndex >= bound || finishing) {
+					advance = false;
+				} else if ((nextIndex = transferIndex) <= 0) {
+					binIndex = -1;
+					advance = false;
+				} else if (TRANSFER_INDEX.compareAndSet(this, nextIndex,
+						nextBound = (nextIndex > stride ? nextIndex - stride : 0))) {
+					bound = nextBound;
+					binIndex = nextIndex - 1;
+					advance = false;
+				}
+			}
+			if (binIndex < 0 || binIndex >= binsLength || binIndex + binsLength >= nextBinsLength) {
+				int sizeControlSnapshot;
+				if (finishing) {
+					nextTable = null;
+					table = nextBins;
+					sizeControl = (binsLength << 1) - (binsLength >>> 1);
+					return;
+				}
+				if (SIZE_CONTROL.compareAndSet(this, sizeControlSnapshot = sizeControl, sizeControlSnapshot - 1)) {
+					if ((sizeControlSnapshot - 2) != resizeStamp(binsLength) << RESIZE_STAMP_SHIFT)
+						return;
+					finishing = advance = true;
+					binIndex = binsLength; // recheck before commit
+				}
+			} else if ((headNode = bins.get(binIndex)) == null) {
+				advance = bins.compareAndSet(binIndex, null, forwardingNode);
+			} else if ((headHash = headNode.hashCode) == MOVED) {
+				advance = true; // already processed
+			} else {
+				synchronized (headNode) {
+					if (bins.get(binIndex) == headNode) {
+						checkNotReserved(headNode);
+						Node<K, V> lowNode;
+						Node<K, V> highNode;
+						int runBit = headHash & binsLength;
+						Node<K, V> lastRun = headNode;
+						for (Node<K, V> currentNode = headNode.nextNode; currentNode != null; currentNode = currentNode.nextNode) {
+							int bit = currentNode.hashCode & binsLength;
+							if (bit != runBit) {
+								runBit = bit;
+								lastRun = currentNode;
+							}
+						}
+						if (runBit == 0) {
+							lowNode = lastRun;
+							highNode = null;
+						} else {
+							highNode = lastRun;
+							lowNode = null;
+						}
+						for (Node<K, V> currentNode = headNode; currentNode != lastRun; currentNode = currentNode.nextNode) {
+							int currentHash = currentNode.hashCode;
+							K currentKey = currentNode.key;
+							V currentValue = currentNode.value;
+							if ((currentHash & binsLength) == 0)
+								lowNode = new Node<>(currentHash, currentKey, currentValue, lowNode);
+							else
+								highNode = new Node<>(currentHash, currentKey, currentValue, highNode);
+						}
+						nextBins.set(binIndex, lowNode);
+						nextBins.set(binIndex + binsLength, highNode);
+						bins.set(binIndex, forwardingNode);
+						advance = true;
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,331 @@
+package map.impl;
+
+import map.Map;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable implementation of {@link Map} for lookup tables that are built once and then only read.
+ *
+ * Each key and its value sit next to each other in one flat array with exactly one slot per entry.
+ * The slot of a key is given by a minimal perfect hash built with the hash-and-displace (CHD) scheme:
+ * the keys are split into a power of two of buckets of at most {@link #AVERAGE_BUCKET_SIZE} keys on average, and each bucket stores
+ * the displacement d that sends all its keys to free slots through {@code f1(key) + d * f2(key)},
+ * found by trying displacements from the largest bucket to the smallest. A bucket of a single key
+ * stores its slot directly. A lookup reads one displacement, computes the slot and makes one equals check,
+ * the whole table costs one int per bucket on top of the keys and values.
+ *
+ * Keys with the same hashCode always share a slot whatever the displacement, so all but one of them
+ * are kept in a small {@link HashMap} consulted when the slot holds another key.
+ *
+ * Permits a null key and null values. Build one with {@link #copyOf} or {@link HashMap#freeze()},
+ * all its fields are final, so it is safe to read from several threads without any synchronization.
+ */
+public final class FrozenHashMap<K, V> implements Map<K, V> {
+
+	static final int AVERAGE_BUCKET_SIZE = 3;
+
+	/**
+	 * The number of displacements tried for a bucket before the construction starts over with another seed.
+	 */
+	static final int MAXIMUM_DISPLACEMENT = 1 << 20;
+
+	private static final int INITIAL_SEED = 0x5DEECE66;
+
+	/* ------------------ Static utilities -----------------*/
+
+	/**
+	 * Mixes the hashCode with the seed through the SplitMix64 finalizer, a different seed gives independent bits.
+	 * The high half selects the bucket and doubles as f2, the low half is f1.
+	 */
+	static long mix(int hash, int seed) {
+		long h = ((long) seed << 32) | (hash & 0xFFFFFFFFL);
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+
+	/**
+	 * Maps the hash uniformly onto [0, range) with a multiplication instead of a division.
+	 */
+	static int reduce(int hash, int range) {
+		return (int) (((hash & 0xFFFFFFFFL) * range) >>> 32);
+	}
+
+	/**
+	 * The bucket count is a power of two, so the top bits of the mixed hash select the bucket.
+	 */
+	static int bucket(long mixed, int bucketShift) {
+		return (int) (mixed >>> bucketShift);
+	}
+
+	static int slot(long mixed, int displacement, int slotCount) {
+		return reduce((int) mixed + displacement * ((int) (mixed >>> 32) | 1), slotCount);
+	}
+
+	/* ---------------------- Fields ---------------------- */
+
+	private final int size;
+
+	private final int seed;
+
+	private final int bucketShift;
+
+	/**
+	 * The displacement of each bucket, or -(slot + 1) for a bucket holding a single key.
+	 */
+	private final int[] displacements;
+
+	/**
+	 * The key of slot i at index 2 * i, its value at 2 * i + 1.
+	 */
+	private final Object[] table;
+
+	/**
+	 * The entries whose key has the same hashCode as a key in the slots, null if there are none.
+	 */
+	private final HashMap<K, V> overflow;
+
+	/**
+	 * The result of {@link #build}, copied into the final fields of the map.
+	 */
+	private static final class PerfectHash<K, V> {
+		final int seed;
+		final int bucketShift;
+		final int[] displacements;
+		final Object[] table;
+		final HashMap<K, V> overflow;
+
+		PerfectHash(int seed, int bucketShift, int[] displacements, Object[] table, HashMap<K, V> overflow) {
+			this.seed = seed;
+			this.bucketShift = bucketShift;
+			this.displacements = displacements;
+			this.table = table;
+			this.overflow = overflow;
+		}
+	}
+
+	/* ------------------- Constructors ------------------- */
+
+	/**
+	 * Returns an immutable copy of the map.
+	 */
+	public static <K, V> FrozenHashMap<K, V> copyOf(Map<? extends K, ? extends V> source) {
+		Object[] sourceKeys = new Object[source.size()];
+		Object[] sourceValues = new Object[sourceKeys.length];
+		int[] count = new int[] { 0 };
+		source.forEach((key, value) -> {
+			sourceKeys[count[0]] = key;
+			sourceValues[count[0]++] = value;
+		});
+		return new FrozenHashMap<>(sourceKeys, sourceValues);
+	}
+
+	private FrozenHashMap(Object[] sourceKeys, Object[] sourceValues) {
+		PerfectHash<K, V> perfectHash;
+		for (int candidateSeed = INITIAL_SEED; (perfectHash = build(sourceKeys, sourceValues, candidateSeed)) == null; )
+			candidateSeed = (int) mix(candidateSeed, candidateSeed);
+		this.size = sourceKeys.length;
+		this.seed = perfectHash.seed;
+		this.bucketShift = perfectHash.bucketShift;
+		this.displacements = perfectHash.displacements;
+		this.table = perfectHash.table;
+		this.overflow = perfectHash.overflow;
+	}
+
+	/**
+	 * Builds the perfect hash with the seed, returns null if a bucket found no displacement.
+	 */
+	private static <K, V> PerfectHash<K, V> build(Object[] sourceKeys, Object[] sourceValues, int seed) {
+		int count = sourceKeys.length;
+		int bucketCount = Math.max(2, HashMap.bucketsSizeFor((count + AVERAGE_BUCKET_SIZE - 1) / AVERAGE_BUCKET_SIZE));
+		int shift = Long.numberOfLeadingZeros(bucketCount - 1);
+		int[] hashes = new int[count];
+		long[] mixedHashes = new long[count];
+		int[] bucketStarts = new int[bucketCount + 1];
+		for (int i = 0; i < count; i++) {
+			hashes[i] = (sourceKeys[i] == null) ? 0 : sourceKeys[i].hashCode();
+			mixedHashes[i] = mix(hashes[i], seed);
+			bucketStarts[bucket(mixedHashes[i], shift) + 1]++;
+		}
+		for (int bucket = 0; bucket < bucketCount; bucket++)
+			bucketStarts[bucket + 1] += bucketStarts[bucket];
+
+		// entries grouped by bucket
+		int[] order = new int[count];
+		int[] bucketSizes = new int[bucketCount];
+		for (int i = 0; i < count; i++) {
+			int bucket = bucket(mixedHashes[i], shift);
+			order[bucketStarts[bucket] + bucketSizes[bucket]++] = i;
+		}
+
+		// an entry whose hashCode repeats one of its bucket goes to the overflow map
+		HashMap<K, V> overflowEntries = null;
+		int maximumBucketSize = 0;
+		for (int bucket = 0; bucket < bucketCount; bucket++) {
+			int start = bucketStarts[bucket];
+			int kept = 0;
+			for (int j = start; j < bucketStarts[bucket + 1]; j++) {
+				int entry = order[j];
+				boolean repeated = false;
+				for (int k = start; k < start + kept && !repeated; k++)
+					repeated = hashes[order[k]] == hashes[entry];
+				if (repeated) {
+					if (overflowEntries == null)
+						overflowEntries = new HashMap<>();
+					overflowEntries.put(keyAt(sourceKeys, entry), valueAt(sourceValues, entry));
+				} else {
+					order[start + kept++] = entry;
+				}
+			}
+			bucketSizes[bucket] = kept;
+			maximumBucketSize = Math.max(maximumBucketSize, kept);
+		}
+		int slotCount = count - (overflowEntries == null ? 0 : overflowEntries.size());
+
+		// buckets by decreasing size, the large ones are placed while the slots are still mostly free
+		int[] sizeStarts = new int[maximumBucketSize + 2];
+		for (int bucket = 0; bucket < bucketCount; bucket++)
+			sizeStarts[maximumBucketSize - bucketSizes[bucket] + 1]++;
+		for (int i = 0; i <= maximumBucketSize; i++)
+			sizeStarts[i + 1] += sizeStarts[i];
+		int[] bucketsBySize = new int[bucketCount];
+		for (int bucket = 0; bucket < bucketCount; bucket++)
+			bucketsBySize[sizeStarts[maximumBucketSize - bucketSizes[bucket]]++] = bucket;
+
+		int[] bucketDisplacements = new int[bucketCount];
+		Object[] slotTable = new Object[2 * slotCount];
+		boolean[] occupied = new boolean[slotCount];
+		int[] bucketSlots = new int[maximumBucketSize];
+		int freeSlot = 0;
+		for (int bucket : bucketsBySize) {
+			int bucketSize = bucketSizes[bucket];
+			int start = bucketStarts[bucket];
+			if (bucketSize == 0)
+				break;
+			if (bucketSize == 1) {
+				while (occupied[freeSlot])
+					freeSlot++;
+				occupied[freeSlot] = true;
+				bucketDisplacements[bucket] = -(freeSlot + 1);
+				slotTable[2 * freeSlot] = sourceKeys[order[start]];
+				slotTable[2 * freeSlot + 1] = sourceValues[order[start]];
+				continue;
+			}
+			int displacement = 0;
+			for (; ; displacement++) {
+				if (displacement == MAXIMUM_DISPLACEMENT)
+					return null;
+				int placed = 0;
+				for (; placed < bucketSize; placed++) {
+					int slot = slot(mixedHashes[order[start + placed]], displacement, slotCount);
+					if (occupied[slot])
+						break;
+					occupied[slot] = true;
+					bucketSlots[placed] = slot;
+				}
+				if (placed == bucketSize)
+					break;
+				while (placed > 0)
+					occupied[bucketSlots[--placed]] = false;
+			}
+			bucketDisplacements[bucket] = displacement;
+			for (int j = 0; j < bucketSize; j++) {
+				slotTable[2 * bucketSlots[j]] = sourceKeys[order[start + j]];
+				slotTable[2 * bucketSlots[j] + 1] = sourceValues[order[start + j]];
+			}
+		}
+
+		return new PerfectHash<>(seed, shift, bucketDisplacements, slotTable, overflowEntries);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K> K keyAt(Object[] array, int index) {
+		return (K) array[index];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> V valueAt(Object[] array, int index) {
+		return (V) array[index];
+	}
+
+	/* ---------------------- Methods ---------------------- */
+
+	/**
+	 * Returns the index in {@link #table} of the key of the slot the key would occupy, or -1 if the map has no slots.
+	 */
+	private int indexOf(Object key) {
+		Object[] slotTable;
+		int slotCount;
+		if ((slotCount = (slotTable = table).length >>> 1) == 0)
+			return -1;
+		long mixed = mix((key == null) ? 0 : key.hashCode(), seed);
+		int displacement = displacements[bucket(mixed, bucketShift)];
+		return 2 * (displacement < 0 ? -(displacement + 1) : slot(mixed, displacement, slotCount));
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		int index = indexOf(key);
+		Object slotKey;
+		if (index >= 0 && ((slotKey = table[index]) == key || (key != null && key.equals(slotKey))))
+			return true;
+		return overflow != null && overflow.containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		Object[] slotTable = table;
+		Object slotValue;
+		for (int i = 1; i < slotTable.length; i += 2) {
+			if ((slotValue = slotTable[i]) == value || (value != null && value.equals(slotValue)))
+				return true;
+		}
+		return overflow != null && overflow.containsValue(value);
+	}
+
+	@Override
+	public V get(Object key) {
+		int index = indexOf(key);
+		Object slotKey;
+		if (index >= 0 && ((slotKey = table[index]) == key || (key != null && key.equals(slotKey))))
+			return valueAt(table, index + 1);
+		return overflow == null ? null : overflow.get(key);
+	}
+
+	@Override
+	public V put(K key, V value) {
+		throw new UnsupportedOperationException("FrozenHashMap is immutable");
+	}
+
+	@Override
+	public V remove(Object key) {
+		throw new UnsupportedOperationException("FrozenHashMap is immutable");
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("FrozenHashMap is immutable");
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		if (action == null)
+			throw new NullPointerException();
+		Object[] slotTable = table;
+		for (int i = 0; i < slotTable.length; i += 2)
+			action.accept(keyAt(slotTable, i), valueAt(slotTable, i + 1));
+		if (overflow != null)
+			overflow.forEach(action);
+	}
+}
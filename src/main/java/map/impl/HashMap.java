@@ -1,10 +1,33 @@
 package map.impl;
 
 import map.Map;
+import map.MapCursor;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.security.SecureRandom;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class HashMap<K, V> implements Map<K, V> {
 
@@ -30,6 +53,38 @@ public class HashMap<K, V> implements Map<K, V> {
 	 */
 	static final float DEFAULT_LOAD_FACTOR = 0.75f;
 
+	/**
+	 * The bucket chain length at which the chain is converted to a tree.
+	 * A tree keeps lookups at O(log n) when many keys share the same bucket,
+	 * either because of poor hashCode implementations or because the keys were chosen to collide.
+	 */
+	static final int TREEIFY_THRESHOLD = 8;
+
+	/**
+	 * The bucket size at which a tree is converted back to a plain chain during resize.
+	 * Kept below {@link #TREEIFY_THRESHOLD} so a bucket does not flip back and forth on every put/remove.
+	 */
+	static final int UNTREEIFY_THRESHOLD = 6;
+
+	/**
+	 * The number of keys a batch lookup hashes and loads the buckets of before it compares them.
+	 */
+	static final int BATCH_BLOCK_SIZE = 64;
+
+	/**
+	 * The smallest buckets length for which chains may be treeified.
+	 * Smaller tables are resized instead, as long chains there are caused by the table size rather than by collisions.
+	 */
+	static final int MIN_TREEIFY_CAPACITY = 64;
+
+	/**
+	 * The number of old buckets moved to the new buckets array by every put/get/remove
+	 * while an incremental resize is in progress.
+	 * The old array has to be emptied before the map grows by another half of its capacity,
+	 * which at the default load factor takes at least 0.75 * capacity insertions, so any step of 2 or more keeps up.
+	 */
+	static final int INCREMENTAL_RESIZE_STEP = 4;
+
 	/**
 	 * Basic hash bin node.
 	 */
@@ -74,7 +129,7 @@ public class HashMap<K, V> implements Map<K, V> {
 			if (!(o instanceof Map.Entry)) return false;
 			Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
 			return Objects.equals(key, entry.getKey()) &&
-					value.equals(entry.getValue());
+					Objects.equals(value, entry.getValue());
 		}
 
 		@Override
@@ -90,6 +145,591 @@ public class HashMap<K, V> implements Map<K, V> {
 		}
 	}
 
+	/**
+	 * Entry of a treeified bucket: a red-black tree ordered by hash, then by {@link Comparable} order
+	 * where the keys support it, then by an arbitrary but consistent tie-break.
+	 * Tree nodes keep {@code nextNode} (and {@code prev}) links in insertion order,
+	 * so iteration over a tree bucket works exactly like over a plain chain.
+	 */
+	static final class TreeNode<K, V> extends Node<K, V> {
+
+		TreeNode<K, V> parent;
+		TreeNode<K, V> left;
+		TreeNode<K, V> right;
+		TreeNode<K, V> prev; // needed to unlink next upon deletion
+		boolean red;
+
+		TreeNode(int hashCode, K key, V value, Node<K, V> nextNode) {
+			super(hashCode, key, value, nextNode);
+		}
+
+		/**
+		 * Returns root of tree containing this node.
+		 */
+		final TreeNode<K, V> root() {
+			for (TreeNode<K, V> root = this, parentNode; ; ) {
+				if ((parentNode = root.parent) == null)
+					return root;
+				root = parentNode;
+			}
+		}
+
+		/**
+		 * Ensures that the given root is the first node of its bucket.
+		 */
+		static <K, V> void moveRootToFront(Node<K, V>[] buckets, TreeNode<K, V> root) {
+			int bucketsLength;
+			if (root != null && buckets != null && (bucketsLength = buckets.length) > 0) {
+				int index = (bucketsLength - 1) & root.hashCode;
+				TreeNode<K, V> first = (TreeNode<K, V>) buckets[index];
+				if (root != first) {
+					Node<K, V> rootNext;
+					buckets[index] = root;
+					TreeNode<K, V> rootPrev = root.prev;
+					if ((rootNext = root.nextNode) != null)
+						((TreeNode<K, V>) rootNext).prev = rootPrev;
+					if (rootPrev != null)
+						rootPrev.nextNode = rootNext;
+					if (first != null)
+						first.prev = root;
+					root.nextNode = first;
+					root.prev = null;
+				}
+				assert checkInvariants(root);
+			}
+		}
+
+		/**
+		 * Finds the node starting at this node with the given hash and key.
+		 * The keyClass argument caches comparableClassFor(key) upon first use comparing keys.
+		 */
+		final TreeNode<K, V> find(int hash, Object key, Class<?> keyClass) {
+			TreeNode<K, V> node = this;
+			do {
+				int nodeHash;
+				int direction;
+				K nodeKey;
+				TreeNode<K, V> nodeLeft = node.left;
+				TreeNode<K, V> nodeRight = node.right;
+				TreeNode<K, V> found;
+				if ((nodeHash = node.hashCode) > hash) {
+					node = nodeLeft;
+				} else if (nodeHash < hash) {
+					node = nodeRight;
+				} else if ((nodeKey = node.key) == key || (key != null && key.equals(nodeKey))) {
+					return node;
+				} else if (nodeLeft == null) {
+					node = nodeRight;
+				} else if (nodeRight == null) {
+					node = nodeLeft;
+				} else if ((keyClass != null || (keyClass = comparableClassFor(key)) != null) &&
+						(direction = compareComparables(keyClass, key, nodeKey)) != 0) {
+					node = (direction < 0) ? nodeLeft : nodeRight;
+				} else if ((found = nodeRight.find(hash, key, keyClass)) != null) {
+					return found;
+				} else {
+					node = nodeLeft;
+				}
+			} while (node != null);
+			return null;
+		}
+
+		/**
+		 * Calls find for root node.
+		 */
+		final TreeNode<K, V> getTreeNode(int hash, Object key) {
+			return ((parent != null) ? root() : this).find(hash, key, null);
+		}
+
+		/**
+		 * Tie-breaking utility for ordering insertions when equal hashCodes and non-comparable keys.
+		 * We don't require a total order, just a consistent insertion rule to maintain equivalence across rebalancings.
+		 */
+		static int tieBreakOrder(Object first, Object second) {
+			int direction;
+			if (first == null || second == null ||
+					(direction = first.getClass().getName().compareTo(second.getClass().getName())) == 0)
+				direction = (System.identityHashCode(first) <= System.identityHashCode(second) ? -1 : 1);
+			return direction;
+		}
+
+		/**
+		 * Forms tree of the nodes linked from this node.
+		 */
+		final void treeify(Node<K, V>[] buckets) {
+			TreeNode<K, V> root = null;
+			for (TreeNode<K, V> node = this, next; node != null; node = next) {
+				next = (TreeNode<K, V>) node.nextNode;
+				node.left = node.right = null;
+				if (root == null) {
+					node.parent = null;
+					node.red = false;
+					root = node;
+				} else {
+					K key = node.key;
+					int hash = node.hashCode;
+					Class<?> keyClass = null;
+					for (TreeNode<K, V> pointer = root; ; ) {
+						int direction;
+						int pointerHash;
+						K pointerKey = pointer.key;
+						if ((pointerHash = pointer.hashCode) > hash)
+							direction = -1;
+						else if (pointerHash < hash)
+							direction = 1;
+						else if ((keyClass == null && (keyClass = comparableClassFor(key)) == null) ||
+								(direction = compareComparables(keyClass, key, pointerKey)) == 0)
+							direction = tieBreakOrder(key, pointerKey);
+
+						TreeNode<K, V> nodeParent = pointer;
+						if ((pointer = (direction <= 0) ? pointer.left : pointer.right) == null) {
+							node.parent = nodeParent;
+							if (direction <= 0)
+								nodeParent.left = node;
+							else
+								nodeParent.right = node;
+							root = balanceInsertion(root, node);
+							break;
+						}
+					}
+				}
+			}
+			moveRootToFront(buckets, root);
+		}
+
+		/**
+		 * Returns a list of plain nodes replacing those linked from this node.
+		 */
+		final Node<K, V> untreeify() {
+			Node<K, V> head = null;
+			Node<K, V> tail = null;
+			for (Node<K, V> treeNode = this; treeNode != null; treeNode = treeNode.nextNode) {
+				Node<K, V> node = new Node<>(treeNode.hashCode, treeNode.key, treeNode.value, null);
+				if (tail == null)
+					head = node;
+				else
+					tail.nextNode = node;
+				tail = node;
+			}
+			return head;
+		}
+
+		/**
+		 * Tree version of putVal.
+		 *
+		 * @return the existing node for the key, or null if a new node was inserted
+		 */
+		final TreeNode<K, V> putTreeVal(Node<K, V>[] buckets, int hash, K key, V value) {
+			Class<?> keyClass = null;
+			boolean searched = false;
+			TreeNode<K, V> root = (parent != null) ? root() : this;
+			for (TreeNode<K, V> pointer = root; ; ) {
+				int direction;
+				int pointerHash;
+				K pointerKey;
+				if ((pointerHash = pointer.hashCode) > hash) {
+					direction = -1;
+				} else if (pointerHash < hash) {
+					direction = 1;
+				} else if ((pointerKey = pointer.key) == key || (key != null && key.equals(pointerKey))) {
+					return pointer;
+				} else if ((keyClass == null && (keyClass = comparableClassFor(key)) == null) ||
+						(direction = compareComparables(keyClass, key, pointerKey)) == 0) {
+					if (!searched) {
+						TreeNode<K, V> found;
+						TreeNode<K, V> child;
+						searched = true;
+						if (((child = pointer.left) != null && (found = child.find(hash, key, keyClass)) != null) ||
+								((child = pointer.right) != null && (found = child.find(hash, key, keyClass)) != null))
+							return found;
+					}
+					direction = tieBreakOrder(key, pointerKey);
+				}
+
+				TreeNode<K, V> nodeParent = pointer;
+				if ((pointer = (direction <= 0) ? pointer.left : pointer.right) == null) {
+					Node<K, V> parentNext = nodeParent.nextNode;
+					TreeNode<K, V> node = new TreeNode<>(hash, key, value, parentNext);
+					if (direction <= 0)
+						nodeParent.left = node;
+					else
+						nodeParent.right = node;
+					nodeParent.nextNode = node;
+					node.parent = node.prev = nodeParent;
+					if (parentNext != null)
+						((TreeNode<K, V>) parentNext).prev = node;
+					moveRootToFront(buckets, balanceInsertion(root, node));
+					return null;
+				}
+			}
+		}
+
+		/**
+		 * Removes the given node, that must be present before this call.
+		 * If the current tree appears to have too few nodes, the bin is converted back to a plain bin.
+		 * (The test triggers somewhere between 2 and 6 nodes, depending on tree structure.)
+		 */
+		final void removeTreeNode(Node<K, V>[] buckets, boolean movable) {
+			int bucketsLength;
+			if (buckets == null || (bucketsLength = buckets.length) == 0)
+				return;
+			int index = (bucketsLength - 1) & hashCode;
+			TreeNode<K, V> first = (TreeNode<K, V>) buckets[index];
+			TreeNode<K, V> root = first;
+			TreeNode<K, V> rootLeft;
+			TreeNode<K, V> successor = (TreeNode<K, V>) nextNode;
+			TreeNode<K, V> predecessor = prev;
+			if (predecessor == null)
+				buckets[index] = first = successor;
+			else
+				predecessor.nextNode = successor;
+			if (successor != null)
+				successor.prev = predecessor;
+			if (first == null)
+				return;
+			if (root.parent != null)
+				root = root.root();
+			if (root == null ||
+					(movable &&
+							(root.right == null ||
+									(rootLeft = root.left) == null ||
+									rootLeft.left == null))) {
+				buckets[index] = first.untreeify(); // too small
+				return;
+			}
+
+			TreeNode<K, V> node = this;
+			TreeNode<K, V> nodeLeft = left;
+			TreeNode<K, V> nodeRight = right;
+			TreeNode<K, V> replacement;
+			if (nodeLeft != null && nodeRight != null) {
+				TreeNode<K, V> successorNode = nodeRight;
+				TreeNode<K, V> successorLeft;
+				while ((successorLeft = successorNode.left) != null) // find successor
+					successorNode = successorLeft;
+				boolean color = successorNode.red; // swap colors
+				successorNode.red = node.red;
+				node.red = color;
+				TreeNode<K, V> successorRight = successorNode.right;
+				TreeNode<K, V> nodeParent = node.parent;
+				if (successorNode == nodeRight) { // node was successor's direct parent
+					node.parent = successorNode;
+					successorNode.right = node;
+				} else {
+					TreeNode<K, V> successorParent = successorNode.parent;
+					if ((node.parent = successorParent) != null) {
+						if (successorNode == successorParent.left)
+							successorParent.left = node;
+						else
+							successorParent.right = node;
+					}
+					if ((successorNode.right = nodeRight) != null)
+						nodeRight.parent = successorNode;
+				}
+				node.left = null;
+				if ((node.right = successorRight) != null)
+					successorRight.parent = node;
+				if ((successorNode.left = nodeLeft) != null)
+					nodeLeft.parent = successorNode;
+				if ((successorNode.parent = nodeParent) == null)
+					root = successorNode;
+				else if (node == nodeParent.left)
+					nodeParent.left = successorNode;
+				else
+					nodeParent.right = successorNode;
+				replacement = (successorRight != null) ? successorRight : node;
+			} else if (nodeLeft != null) {
+				replacement = nodeLeft;
+			} else if (nodeRight != null) {
+				replacement = nodeRight;
+			} else {
+				replacement = node;
+			}
+
+			if (replacement != node) {
+				TreeNode<K, V> nodeParent = replacement.parent = node.parent;
+				if (nodeParent == null)
+					(root = replacement).red = false;
+				else if (node == nodeParent.left)
+					nodeParent.left = replacement;
+				else
+					nodeParent.right = replacement;
+				node.left = node.right = node.parent = null;
+			}
+
+			TreeNode<K, V> newRoot = node.red ? root : balanceDeletion(root, replacement);
+
+			if (replacement == node) { // detach
+				TreeNode<K, V> nodeParent = node.parent;
+				node.parent = null;
+				if (nodeParent != null) {
+					if (node == nodeParent.left)
+						nodeParent.left = null;
+					else if (node == nodeParent.right)
+						nodeParent.right = null;
+				}
+			}
+			if (movable)
+				moveRootToFront(buckets, newRoot);
+		}
+
+		/**
+		 * Splits nodes in a tree bucket into lower and upper tree buckets, or untreeifies if now too small.
+		 * Called only from resize, see the lo/hi split of plain chains there.
+		 *
+		 * @param buckets the new buckets array
+		 * @param index the index of the bucket being split
+		 * @param bit the bit of hash to split on, equal to the old capacity
+		 */
+		final void split(Node<K, V>[] buckets, int index, int bit) {
+			TreeNode<K, V> lowHead = null, lowTail = null;
+			TreeNode<K, V> highHead = null, highTail = null;
+			int lowCount = 0, highCount = 0;
+			for (TreeNode<K, V> node = this, next; node != null; node = next) {
+				next = (TreeNode<K, V>) node.nextNode;
+				node.nextNode = null;
+				if ((node.hashCode & bit) == 0) {
+					if ((node.prev = lowTail) == null)
+						lowHead = node;
+					else
+						lowTail.nextNode = node;
+					lowTail = node;
+					++lowCount;
+				} else {
+					if ((node.prev = highTail) == null)
+						highHead = node;
+					else
+						highTail.nextNode = node;
+					highTail = node;
+					++highCount;
+				}
+			}
+
+			if (lowHead != null) {
+				if (lowCount <= UNTREEIFY_THRESHOLD) {
+					buckets[index] = lowHead.untreeify();
+				} else {
+					buckets[index] = lowHead;
+					if (highHead != null) // (else is already treeified)
+						lowHead.treeify(buckets);
+				}
+			}
+			if (highHead != null) {
+				if (highCount <= UNTREEIFY_THRESHOLD) {
+					buckets[index + bit] = highHead.untreeify();
+				} else {
+					buckets[index + bit] = highHead;
+					if (lowHead != null)
+						highHead.treeify(buckets);
+				}
+			}
+		}
+
+		/* ------------------------------------------------------------ */
+		// Red-black tree methods, all adapted from CLR
+
+		static <K, V> TreeNode<K, V> rotateLeft(TreeNode<K, V> root, TreeNode<K, V> node) {
+			TreeNode<K, V> right;
+			TreeNode<K, V> nodeParent;
+			TreeNode<K, V> rightLeft;
+			if (node != null && (right = node.right) != null) {
+				if ((rightLeft = node.right = right.left) != null)
+					rightLeft.parent = node;
+				if ((nodeParent = right.parent = node.parent) == null)
+					(root = right).red = false;
+				else if (nodeParent.left == node)
+					nodeParent.left = right;
+				else
+					nodeParent.right = right;
+				right.left = node;
+				node.parent = right;
+			}
+			return root;
+		}
+
+		static <K, V> TreeNode<K, V> rotateRight(TreeNode<K, V> root, TreeNode<K, V> node) {
+			TreeNode<K, V> left;
+			TreeNode<K, V> nodeParent;
+			TreeNode<K, V> leftRight;
+			if (node != null && (left = node.left) != null) {
+				if ((leftRight = node.left = left.right) != null)
+					leftRight.parent = node;
+				if ((nodeParent = left.parent = node.parent) == null)
+					(root = left).red = false;
+				else if (nodeParent.right == node)
+					nodeParent.right = left;
+				else
+					nodeParent.left = left;
+				left.right = node;
+				node.parent = left;
+			}
+			return root;
+		}
+
+		static <K, V> TreeNode<K, V> balanceInsertion(TreeNode<K, V> root, TreeNode<K, V> node) {
+			node.red = true;
+			for (TreeNode<K, V> parent, grandParent, grandParentLeft, grandParentRight; ; ) {
+				if ((parent = node.parent) == null) {
+					node.red = false;
+					return node;
+				} else if (!parent.red || (grandParent = parent.parent) == null) {
+					return root;
+				}
+				if (parent == (grandParentLeft = grandParent.left)) {
+					if ((grandParentRight = grandParent.right) != null && grandParentRight.red) {
+						grandParentRight.red = false;
+						parent.red = false;
+						grandParent.red = true;
+						node = grandParent;
+					} else {
+						if (node == parent.right) {
+							root = rotateLeft(root, node = parent);
+							grandParent = (parent = node.parent) == null ? null : parent.parent;
+						}
+						if (parent != null) {
+							parent.red = false;
+							if (grandParent != null) {
+								grandParent.red = true;
+								root = rotateRight(root, grandParent);
+							}
+						}
+					}
+				} else {
+					if (grandParentLeft != null && grandParentLeft.red) {
+						grandParentLeft.red = false;
+						parent.red = false;
+						grandParent.red = true;
+						node = grandParent;
+					} else {
+						if (node == parent.left) {
+							root = rotateRight(root, node = parent);
+							grandParent = (parent = node.parent) == null ? null : parent.parent;
+						}
+						if (parent != null) {
+							parent.red = false;
+							if (grandParent != null) {
+								grandParent.red = true;
+								root = rotateLeft(root, grandParent);
+							}
+						}
+					}
+				}
+			}
+		}
+
+		static <K, V> TreeNode<K, V> balanceDeletion(TreeNode<K, V> root, TreeNode<K, V> node) {
+			for (TreeNode<K, V> parent, parentLeft, parentRight; ; ) {
+				if (node == null || node == root) {
+					return root;
+				} else if ((parent = node.parent) == null) {
+					node.red = false;
+					return node;
+				} else if (node.red) {
+					node.red = false;
+					return root;
+				} else if ((parentLeft = parent.left) == node) {
+					if ((parentRight = parent.right) != null && parentRight.red) {
+						parentRight.red = false;
+						parent.red = true;
+						root = rotateLeft(root, parent);
+						parentRight = (parent = node.parent) == null ? null : parent.right;
+					}
+					if (parentRight == null) {
+						node = parent;
+					} else {
+						TreeNode<K, V> siblingLeft = parentRight.left;
+						TreeNode<K, V> siblingRight = parentRight.right;
+						if ((siblingRight == null || !siblingRight.red) &&
+								(siblingLeft == null || !siblingLeft.red)) {
+							parentRight.red = true;
+							node = parent;
+						} else {
+							if (siblingRight == null || !siblingRight.red) {
+								if (siblingLeft != null)
+									siblingLeft.red = false;
+								parentRight.red = true;
+								root = rotateRight(root, parentRight);
+								parentRight = (parent = node.parent) == null ? null : parent.right;
+							}
+							if (parentRight != null) {
+								parentRight.red = (parent != null) && parent.red;
+								if ((siblingRight = parentRight.right) != null)
+									siblingRight.red = false;
+							}
+							if (parent != null) {
+								parent.red = false;
+								root = rotateLeft(root, parent);
+							}
+							node = root;
+						}
+					}
+				} else { // symmetric
+					if (parentLeft != null && parentLeft.red) {
+						parentLeft.red = false;
+						parent.red = true;
+						root = rotateRight(root, parent);
+						parentLeft = (parent = node.parent) == null ? null : parent.left;
+					}
+					if (parentLeft == null) {
+						node = parent;
+					} else {
+						TreeNode<K, V> siblingLeft = parentLeft.left;
+						TreeNode<K, V> siblingRight = parentLeft.right;
+						if ((siblingLeft == null || !siblingLeft.red) &&
+								(siblingRight == null || !siblingRight.red)) {
+							parentLeft.red = true;
+							node = parent;
+						} else {
+							if (siblingLeft == null || !siblingLeft.red) {
+								if (siblingRight != null)
+									siblingRight.red = false;
+								parentLeft.red = true;
+								root = rotateLeft(root, parentLeft);
+								parentLeft = (parent = node.parent) == null ? null : parent.left;
+							}
+							if (parentLeft != null) {
+								parentLeft.red = (parent != null) && parent.red;
+								if ((siblingLeft = parentLeft.left) != null)
+									siblingLeft.red = false;
+							}
+							if (parent != null) {
+								parent.red = false;
+								root = rotateRight(root, parent);
+							}
+							node = root;
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Recursive invariant check.
+		 */
+		static <K, V> boolean checkInvariants(TreeNode<K, V> node) {
+			TreeNode<K, V> parent = node.parent;
+			TreeNode<K, V> left = node.left;
+			TreeNode<K, V> right = node.right;
+			TreeNode<K, V> prev = node.prev;
+			TreeNode<K, V> next = (TreeNode<K, V>) node.nextNode;
+			if (prev != null && prev.nextNode != node)
+				return false;
+			if (next != null && next.prev != node)
+				return false;
+			if (parent != null && node != parent.left && node != parent.right)
+				return false;
+			if (left != null && (left.parent != node || left.hashCode > node.hashCode))
+				return false;
+			if (right != null && (right.parent != node || right.hashCode < node.hashCode))
+				return false;
+			if (node.red && left != null && left.red && right != null && right.red)
+				return false;
+			if (left != null && !checkInvariants(left))
+				return false;
+			return right == null || checkInvariants(right);
+		}
+	}
+
 	/* ------------------ Static utilities -----------------*/
 
 	static final int hash(Object key) {
@@ -97,6 +737,130 @@ public class HashMap<K, V> implements Map<K, V> {
 		return (key == null) ? 0 : (h = key.hashCode()) ^ (h >>> 16);
 	}
 
+	/**
+	 * Keyed hash of a map built with seeded hashing. A String is hashed from its characters with SipHash-1-3,
+	 * so keys sharing a String.hashCode still spread over the buckets. Any other key has its hashCode
+	 * xored with the seed and passed through the SplitMix64 finalizer, which scatters crafted hashCodes
+	 * such as multiples of the capacity but cannot separate keys with the same hashCode, those are left to the tree bins.
+	 */
+	static int seededHash(Object key, long seed0, long seed1) {
+		long h;
+		if (key == null)
+			return 0;
+		if (key instanceof String)
+			h = sipHash((String) key, seed0, seed1);
+		else
+			h = mix64(key.hashCode() ^ seed0);
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * SipHash-1-3 over the UTF-16 code units of the string, four per block. The last block holds the
+	 * remaining zero to three characters and the length in its top 16 bits.
+	 */
+	static long sipHash(String key, long seed0, long seed1) {
+		long v0 = seed0 ^ 0x736F6D6570736575L;
+		long v1 = seed1 ^ 0x646F72616E646F6DL;
+		long v2 = seed0 ^ 0x6C7967656E657261L;
+		long v3 = seed1 ^ 0x7465646279746573L;
+		int length = key.length();
+		int lastBlockStart = length & ~3;
+		for (int i = 0; i <= lastBlockStart; i += 4) {
+			long block;
+			if (i < lastBlockStart) {
+				block = key.charAt(i) | (long) key.charAt(i + 1) << 16 |
+						(long) key.charAt(i + 2) << 32 | (long) key.charAt(i + 3) << 48;
+			} else {
+				block = (long) length << 48;
+				for (int j = i; j < length; j++)
+					block |= (long) key.charAt(j) << ((j - i) << 4);
+			}
+			v3 ^= block;
+			v0 += v1;
+			v1 = Long.rotateLeft(v1, 13) ^ v0;
+			v0 = Long.rotateLeft(v0, 32);
+			v2 += v3;
+			v3 = Long.rotateLeft(v3, 16) ^ v2;
+			v0 += v3;
+			v3 = Long.rotateLeft(v3, 21) ^ v0;
+			v2 += v1;
+			v1 = Long.rotateLeft(v1, 17) ^ v2;
+			v2 = Long.rotateLeft(v2, 32);
+			v0 ^= block;
+		}
+		v2 ^= 0xFF;
+		for (int round = 0; round < 3; round++) {
+			v0 += v1;
+			v1 = Long.rotateLeft(v1, 13) ^ v0;
+			v0 = Long.rotateLeft(v0, 32);
+			v2 += v3;
+			v3 = Long.rotateLeft(v3, 16) ^ v2;
+			v0 += v3;
+			v3 = Long.rotateLeft(v3, 21) ^ v0;
+			v2 += v1;
+			v1 = Long.rotateLeft(v1, 17) ^ v2;
+			v2 = Long.rotateLeft(v2, 32);
+		}
+		return v0 ^ v1 ^ v2 ^ v3;
+	}
+
+	/**
+	 * The SplitMix64 finalizer, every input bit flips each output bit with probability one half.
+	 */
+	static long mix64(long h) {
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+
+	/**
+	 * Hands out the seeds of the maps built with seeded hashing. The sequence starts at a secure random value
+	 * and each seed is mixed, so a seed tells nothing about the seeds of other maps. Only loaded by the first such map.
+	 */
+	private static final class SeedGenerator {
+
+		private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+		private static final AtomicLong sequence = new AtomicLong(new SecureRandom().nextLong());
+
+		static long nextSeed() {
+			return mix64(sequence.addAndGet(GOLDEN_GAMMA));
+		}
+	}
+
+	/**
+	 * Returns the class of the key if it is of the form "class C implements Comparable<C>", else null.
+	 */
+	static Class<?> comparableClassFor(Object key) {
+		if (key instanceof Comparable) {
+			Class<?> keyClass;
+			Type[] interfaces;
+			Type currentInterface;
+			Type[] typeArguments;
+			ParameterizedType parameterizedType;
+			if ((keyClass = key.getClass()) == String.class) // bypass checks
+				return keyClass;
+			if ((interfaces = keyClass.getGenericInterfaces()) != null) {
+				for (int i = 0; i < interfaces.length; ++i) {
+					if (((currentInterface = interfaces[i]) instanceof ParameterizedType) &&
+							((parameterizedType = (ParameterizedType) currentInterface).getRawType() == Comparable.class) &&
+							(typeArguments = parameterizedType.getActualTypeArguments()) != null &&
+							typeArguments.length == 1 && typeArguments[0] == keyClass)
+						return keyClass;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns key.compareTo(other) if other matches keyClass, else 0.
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	static int compareComparables(Class<?> keyClass, Object key, Object other) {
+		return (other == null || other.getClass() != keyClass ? 0 : ((Comparable) key).compareTo(other));
+	}
+
 	/**
 	 * Returns a power of two size for the given target capacity.
 	 */
@@ -125,9 +889,66 @@ public class HashMap<K, V> implements Map<K, V> {
 
 	private int numberOfModifications;
 
+	/**
+	 * Whether resize spreads the move of the entries over the following operations
+	 * instead of moving all of them at once.
+	 */
+	final boolean incrementalResize;
+
+	/**
+	 * The previous buckets array while an incremental resize is in progress, otherwise null.
+	 * Buckets below {@link #migrationIndex} have already been moved to {@link #buckets},
+	 * the others still hold their entries here, so every key is in exactly one of the two arrays.
+	 */
+	private Node<K, V>[] migratingBuckets;
+
+	private int migrationIndex;
+
+	/**
+	 * The counters of {@link #statistics()}, null unless {@link #enableStatistics()} was called,
+	 * so a map without statistics only pays a null check per operation.
+	 */
+	private HashMapStatistics.Counters statistics;
+
+	/**
+	 * The fraction of {@link #threshold} below which a removal halves the buckets array, 0 to never shrink.
+	 */
+	private float lowWaterMark;
+
+	/**
+	 * Whether keys are hashed with {@link #seededHash} and the two seeds below instead of {@link #hash}.
+	 */
+	final boolean seededHashing;
+
+	private final long hashSeed0;
+
+	private final long hashSeed1;
+
+	private Set<K> keySet;
+
+	private Collection<V> values;
+
+	private Set<Map.Entry<K, V>> entrySet;
+
 	/* ------------------- Constructors ------------------- */
 
-	public HashMap(int initialCapacity, float loadFactor) {
+	/**
+	 * @param incrementalResize if true, growing the map only allocates the new buckets array
+	 *                          and the entries are moved {@link #INCREMENTAL_RESIZE_STEP} buckets at a time
+	 *                          by the following put/get/remove calls, which bounds the latency of a single call
+	 *                          at the cost of a slightly slower lookup while a resize is in progress
+	 */
+	public HashMap(int initialCapacity, float loadFactor, boolean incrementalResize) {
+		this(initialCapacity, loadFactor, incrementalResize, false);
+	}
+
+	/**
+	 * @param seededHashing if true, keys are hashed with a keyed function whose seed is drawn at random for this map,
+	 *                      so keys from untrusted input cannot be chosen to pile up in a few buckets.
+	 *                      String keys are hashed from their characters on every lookup instead of
+	 *                      reusing their cached hashCode, which costs a few nanoseconds per lookup on short keys
+	 */
+	public HashMap(int initialCapacity, float loadFactor, boolean incrementalResize, boolean seededHashing) {
 		if (loadFactor <= 0 || Float.isNaN(loadFactor))
 			loadFactor = DEFAULT_LOAD_FACTOR;
 		if (initialCapacity < 0)
@@ -136,6 +957,19 @@ public class HashMap<K, V> implements Map<K, V> {
 			initialCapacity = MAXIMUM_CAPACITY;
 		this.loadFactor = loadFactor;
 		this.threshold = bucketsSizeFor(initialCapacity);
+		this.incrementalResize = incrementalResize;
+		this.seededHashing = seededHashing;
+		if (seededHashing) {
+			this.hashSeed0 = SeedGenerator.nextSeed();
+			this.hashSeed1 = SeedGenerator.nextSeed();
+		} else {
+			this.hashSeed0 = 0;
+			this.hashSeed1 = 0;
+		}
+	}
+
+	public HashMap(int initialCapacity, float loadFactor) {
+		this(initialCapacity, loadFactor, false);
 	}
 
 	public HashMap(int initialCapacity) {
@@ -144,10 +978,18 @@ public class HashMap<K, V> implements Map<K, V> {
 
 	public HashMap() {
 		this.loadFactor = DEFAULT_LOAD_FACTOR;
+		this.incrementalResize = false;
+		this.seededHashing = false;
+		this.hashSeed0 = 0;
+		this.hashSeed1 = 0;
 	}
 
 	/* ---------------------- Methods ---------------------- */
 
+	final int hashOf(Object key) {
+		return seededHashing ? seededHash(key, hashSeed0, hashSeed1) : hash(key);
+	}
+
 	@Override
 	public int size() {
 		return size;
@@ -162,6 +1004,8 @@ public class HashMap<K, V> implements Map<K, V> {
 	public boolean containsValue(Object value) {
 		Node<K, V>[] bucketsForIteration;
 		V currentValue;
+		if (migratingBuckets != null)
+			finishMigration();
 		if ((bucketsForIteration = buckets) != null && size > 0) {
 			for (int i = 0; i < bucketsForIteration.length; i++) {
 				for (Node<K, V> currentNode = bucketsForIteration[i];
@@ -178,12 +1022,12 @@ public class HashMap<K, V> implements Map<K, V> {
 
 	@Override
 	public boolean containsKey(Object key) {
-		return getNode(hash(key), key) != null;
+		return getNode(hashOf(key), key) != null;
 	}
 
 	@Override
 	public V get(Object key) {
-		Node<K, V> node = getNode(hash(key), key);
+		Node<K, V> node = getNode(hashOf(key), key);
 		return node == null ? null : node.value;
 	}
 
@@ -194,7 +1038,12 @@ public class HashMap<K, V> implements Map<K, V> {
 		int bucketsForIterationLength;
 		K currentKey;
 
-		if ((bucketsForIteration = buckets) != null &&
+		if (migratingBuckets != null)
+			migrateBuckets(INCREMENTAL_RESIZE_STEP);
+		if (statistics != null)
+			statistics.recordGet(probeLength(hash, key));
+
+		if ((bucketsForIteration = bucketsFor(hash)) != null &&
 				(bucketsForIterationLength = bucketsForIteration.length) > 0 &&
 				(headNode = bucketsForIteration[(bucketsForIterationLength - 1) & hash]) != null) {
 			if (headNode.hashCode == hash && // check headNode node to reduce complexity of search operation
@@ -202,6 +1051,8 @@ public class HashMap<K, V> implements Map<K, V> {
 							(key != null && key.equals(currentKey)))) {
 				return headNode;
 			} else if ((currentNode = headNode.nextNode) != null) {
+				if (headNode instanceof TreeNode)
+					return ((TreeNode<K, V>) headNode).getTreeNode(hash, key);
 				do {
 					if (currentNode.hashCode == hash &&
 							((currentKey = currentNode.key) == key ||
@@ -216,16 +1067,24 @@ public class HashMap<K, V> implements Map<K, V> {
 
 	@Override
 	public V put(K key, V value) {
-		return putVal(hash(key), key, value);
+		return putVal(hashOf(key), key, value, false);
 	}
 
-	private V putVal(int hash, K key, V value) {
+	/**
+	 * @param onlyIfAbsent if true, an existing non-null value is not replaced
+	 */
+	private V putVal(int hash, K key, V value, boolean onlyIfAbsent) {
 		Node<K, V>[] bucketsForIteration;
 		Node<K, V> nodePointer;
 		int bucketsForIterationLength;
 		int currentBucketIndex;
 
-		if ((bucketsForIteration = buckets) == null ||
+		if (migratingBuckets != null)
+			migrateBuckets(INCREMENTAL_RESIZE_STEP);
+		if (statistics != null)
+			statistics.recordPut(probeLength(hash, key));
+
+		if ((bucketsForIteration = bucketsFor(hash)) == null ||
 				(bucketsForIterationLength = bucketsForIteration.length) == 0) {
 			bucketsForIterationLength = (bucketsForIteration = resize()).length;
 		}
@@ -241,10 +1100,14 @@ public class HashMap<K, V> implements Map<K, V> {
 					((currentKey = nodePointer.key) == key ||
 							(key != null && key.equals(currentKey)))) {
 				currentNode = nodePointer;
+			} else if (nodePointer instanceof TreeNode) {
+				currentNode = ((TreeNode<K, V>) nodePointer).putTreeVal(bucketsForIteration, hash, key, value);
 			} else {
 				for (int nodeCount = 0; ; nodeCount++) {
 					if ((currentNode = nodePointer.nextNode) == null) {
-						nodePointer.nextNode = new Node(hash, key, value, null);
+						nodePointer.nextNode = new Node<>(hash, key, value, null);
+						if (nodeCount >= TREEIFY_THRESHOLD - 1) // -1 for the head node
+							treeifyBin(bucketsForIteration, hash);
 						break;
 					}
 					if (currentNode.hashCode == hash &&
@@ -257,7 +1120,8 @@ public class HashMap<K, V> implements Map<K, V> {
 
 			if (currentNode != null) { // existing mapping for key
 				V oldValue = currentNode.value;
-				currentNode.value = value;
+				if (!onlyIfAbsent || oldValue == null)
+					currentNode.value = value;
 				return oldValue;
 			}
 		}
@@ -270,79 +1134,549 @@ public class HashMap<K, V> implements Map<K, V> {
 	}
 
 	public V remove(Object key) {
-		Node<K, V> node = removeNode(hash(key), key);
+		Node<K, V> node = removeNode(hashOf(key), key);
 		return node == null ? null : node.value;
 	}
 
+	/* ---- Compound operations, each looks the key up once ---- */
+
 	@Override
-	public void forEach(BiConsumer<? super K, ? super V> action) {
-		Node<K, V>[] bucketsForIterations;
-		if (action == null)
-			throw new NullPointerException();
-		if (size > 0 && (bucketsForIterations = buckets) != null) {
-			int beforeOpNumberOfModifications = numberOfModifications;
-			for (int i = 0; i < bucketsForIterations.length; ++i) {
-				for (Node<K, V> headNode = bucketsForIterations[i]; headNode != null; headNode = headNode.nextNode)
-					action.accept(headNode.key, headNode.value);
-			}
-			if (numberOfModifications != beforeOpNumberOfModifications)
-				throw new ConcurrentModificationException();
-		}
+	public V getOrDefault(Object key, V defaultValue) {
+		Node<K, V> node = getNode(hashOf(key), key);
+		return node == null ? defaultValue : node.value;
 	}
 
-	private Node<K, V> removeNode(int hash, Object key) {
-		Node<K, V>[] bucketsForIteration;
-		Node<K, V> headNode;
-		int bucketsForIterationLength;
-		int bucketIndex;
+	@Override
+	public V putIfAbsent(K key, V value) {
+		return putVal(hashOf(key), key, value, true);
+	}
 
-		if ((bucketsForIteration = buckets) != null &&
-				(bucketsForIterationLength = bucketsForIteration.length) > 0 &&
-				(headNode = bucketsForIteration[bucketIndex = (bucketsForIterationLength - 1) & hash]) != null) {
-			Node<K, V> currentNode = null;
-			Node<K, V> nodePointer;
-			K currentKey;
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		Node<K, V> node = getNode(hashOf(key), key);
+		if (node != null && Objects.equals(node.value, oldValue)) {
+			node.value = newValue;
+			return true;
+		}
+		return false;
+	}
 
-			if (headNode.hashCode == hash &&
-					((currentKey = headNode.key) == key || (key != null && key.equals(currentKey)))) {
-				currentNode = headNode;
-			} else if ((nodePointer = headNode.nextNode) != null) {
-				do {
-					if (nodePointer.hashCode == hash &&
-							((currentKey = nodePointer.key) == key ||
-									(key != null && key.equals(currentKey)))) {
-						currentNode = nodePointer;
-						break;
-					}
-					headNode = nodePointer;
-				} while ((nodePointer = nodePointer.nextNode) != null);
-			}
-			if (currentNode != null) {
-				if (currentNode == headNode) {
-					bucketsForIteration[bucketIndex] = currentNode.nextNode;
-				} else {
-					headNode.nextNode = currentNode.nextNode;
-				}
-				numberOfModifications++;
-				size--;
-				return currentNode;
-			}
+	@Override
+	public V replace(K key, V value) {
+		Node<K, V> node = getNode(hashOf(key), key);
+		if (node != null) {
+			V oldValue = node.value;
+			node.value = value;
+			return oldValue;
 		}
 		return null;
 	}
 
 	@Override
-	public void clear() {
-		Node<K, V>[] bucketsForIteration;
-		numberOfModifications++;
-		if ((bucketsForIteration = buckets) != null && size > 0) {
-			size = 0;
-			for (int i = 0; i < bucketsForIteration.length; ++i)
-				bucketsForIteration[i] = null;
-		}
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		if (mappingFunction == null)
+			throw new NullPointerException();
+		int hash = hashOf(key);
+		Node<K, V> node = getNode(hash, key);
+		V oldValue;
+		if (node != null && (oldValue = node.value) != null)
+			return oldValue;
+		boolean migratingAtLookup = migratingBuckets != null;
+		int beforeOpNumberOfModifications = numberOfModifications;
+		V newValue = mappingFunction.apply(key);
+		if (numberOfModifications != beforeOpNumberOfModifications)
+			throw new ConcurrentModificationException();
+		if (newValue == null) // a mapping to null is left in place
+			return null;
+		return putComputed(hash, key, node, migratingAtLookup, newValue, beforeOpNumberOfModifications);
 	}
 
-	private Node<K, V>[] resize() {
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if (remappingFunction == null)
+			throw new NullPointerException();
+		int hash = hashOf(key);
+		Node<K, V> node = getNode(hash, key);
+		V oldValue;
+		if (node == null || (oldValue = node.value) == null)
+			return null;
+		boolean migratingAtLookup = migratingBuckets != null;
+		int beforeOpNumberOfModifications = numberOfModifications;
+		return putComputed(hash, key, node, migratingAtLookup, remappingFunction.apply(key, oldValue), beforeOpNumberOfModifications);
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if (remappingFunction == null)
+			throw new NullPointerException();
+		int hash = hashOf(key);
+		Node<K, V> node = getNode(hash, key);
+		boolean migratingAtLookup = migratingBuckets != null;
+		int beforeOpNumberOfModifications = numberOfModifications;
+		V newValue = remappingFunction.apply(key, node == null ? null : node.value);
+		return putComputed(hash, key, node, migratingAtLookup, newValue, beforeOpNumberOfModifications);
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		if (value == null || remappingFunction == null)
+			throw new NullPointerException();
+		int hash = hashOf(key);
+		Node<K, V> node = getNode(hash, key);
+		boolean migratingAtLookup = migratingBuckets != null;
+		int beforeOpNumberOfModifications = numberOfModifications;
+		V newValue = (node == null || node.value == null) ? value : remappingFunction.apply(node.value, value);
+		return putComputed(hash, key, node, migratingAtLookup, newValue, beforeOpNumberOfModifications);
+	}
+
+	/**
+	 * Stores the result of a compute function for a key whose node, or null if absent, was looked up before
+	 * calling the function: updates the node in place, removes it if the result is null, or inserts a new one.
+	 * Returns the result.
+	 */
+	private V putComputed(int hash, K key, Node<K, V> node, boolean migratingAtLookup, V newValue, int beforeOpNumberOfModifications) {
+		if (numberOfModifications != beforeOpNumberOfModifications)
+			throw new ConcurrentModificationException();
+		if (node != null && nodeMovedSinceLookup(node, migratingAtLookup)) {
+			// an incremental resize step in the function may have copied the node, look it up again
+			node = getNode(hash, key);
+		}
+		if (node != null) {
+			if (newValue != null)
+				node.value = newValue;
+			else
+				removeNode(hash, key);
+		} else if (newValue != null) {
+			insertAbsent(hash, key, newValue);
+		}
+		return newValue;
+	}
+
+	/**
+	 * Adds a mapping for a key the caller has just looked up and not found.
+	 * A list bucket gets the new node in front without comparing keys again, a tree bin is searched for the insertion point.
+	 */
+	private void insertAbsent(int hash, K key, V value) {
+		Node<K, V>[] bucketsForIteration;
+		Node<K, V> headNode;
+		int bucketIndex;
+
+		if ((bucketsForIteration = bucketsFor(hash)) == null || bucketsForIteration.length == 0)
+			bucketsForIteration = resize();
+
+		if ((headNode = bucketsForIteration[bucketIndex = (bucketsForIteration.length - 1) & hash]) instanceof TreeNode) {
+			((TreeNode<K, V>) headNode).putTreeVal(bucketsForIteration, hash, key, value);
+		} else {
+			bucketsForIteration[bucketIndex] = new Node<>(hash, key, value, headNode);
+			int nodeCount = 0;
+			for (Node<K, V> nodePointer = headNode; nodePointer != null && nodeCount < TREEIFY_THRESHOLD; nodePointer = nodePointer.nextNode)
+				nodeCount++;
+			if (nodeCount >= TREEIFY_THRESHOLD)
+				treeifyBin(bucketsForIteration, hash);
+		}
+
+		numberOfModifications++;
+
+		if (++size > threshold) resize();
+	}
+
+	/**
+	 * Splitting a small tree bin during an incremental resize replaces its tree nodes with plain nodes,
+	 * the only way a node found by a lookup can stop being the node of its key while the map is unmodified.
+	 * The function may have finished the resize, so what matters is whether one was in progress at the lookup.
+	 */
+	private boolean nodeMovedSinceLookup(Node<K, V> node, boolean migratingAtLookup) {
+		return migratingAtLookup && node instanceof TreeNode;
+	}
+
+	/* ---- Batch operations ---- */
+
+	/**
+	 * Looks the keys up in blocks of {@link #BATCH_BLOCK_SIZE}: the first pass hashes the block and loads its buckets,
+	 * the second walks them. The bucket loads of a block do not depend on each other,
+	 * so the processor overlaps their cache misses instead of waiting for one lookup after the other.
+	 * An incremental resize in progress moves as many buckets per block as the lookups one by one would.
+	 */
+	@Override
+	public void getAll(K[] keys, V[] out) {
+		if (out.length < keys.length)
+			throw new IllegalArgumentException("Batch of " + keys.length + " keys but room for " + out.length + " values");
+		if (size == 0) {
+			Arrays.fill(out, 0, keys.length, null);
+			return;
+		}
+		int blockSize = Math.min(keys.length, BATCH_BLOCK_SIZE);
+		int[] hashes = new int[blockSize];
+		@SuppressWarnings({"rawtypes","unchecked"})
+		Node<K, V>[] headNodes = (Node<K, V>[]) new Node[blockSize];
+		for (int blockStart = 0; blockStart < keys.length; blockStart += blockSize) {
+			int blockEnd = Math.min(keys.length, blockStart + blockSize);
+			if (migratingBuckets != null)
+				migrateBuckets(INCREMENTAL_RESIZE_STEP * (blockEnd - blockStart));
+			loadBlock(keys, blockStart, blockEnd, hashes, headNodes);
+			for (int i = blockStart; i < blockEnd; i++) {
+				int hash = hashes[i - blockStart];
+				if (statistics != null)
+					statistics.recordGet(probeLength(hash, keys[i]));
+				Node<K, V> node = findNode(headNodes[i - blockStart], hash, keys[i]);
+				out[i] = node == null ? null : node.value;
+			}
+		}
+		Arrays.fill(headNodes, null);
+	}
+
+	/**
+	 * Grows the buckets array once before adding the entries. An entry of another {@link HashMap}
+	 * keeps its stored hash instead of hashing its key again, unless either map uses seeded hashing.
+	 */
+	@Override
+	public void putAll(Map<? extends K, ? extends V> other) {
+		int count;
+		if (other == this || (count = other.size()) == 0)
+			return;
+		presize((int) Math.min((long) size + count, Integer.MAX_VALUE));
+		if (other instanceof HashMap && !seededHashing && !((HashMap<?, ?>) other).seededHashing) {
+			@SuppressWarnings("unchecked")
+			HashMap<K, V> source = (HashMap<K, V>) other;
+			if (source.migratingBuckets != null)
+				source.finishMigration();
+			for (Node<K, V> headNode : source.buckets) {
+				for (Node<K, V> currentNode = headNode; currentNode != null; currentNode = currentNode.nextNode)
+					putVal(currentNode.hashCode, currentNode.key, currentNode.value, false);
+			}
+		} else {
+			other.forEach(this::put);
+		}
+	}
+
+	/**
+	 * Grows the buckets array once for the whole batch, a key repeated in the batch keeps its last value.
+	 * Like {@link #getAll}, it works in blocks that are hashed and whose buckets are loaded before the first insertion.
+	 */
+	@Override
+	public void putAll(K[] keys, V[] values) {
+		if (values.length != keys.length)
+			throw new IllegalArgumentException("Batch of " + keys.length + " keys but " + values.length + " values");
+		if (keys.length == 0)
+			return;
+		presize((int) Math.min((long) size + keys.length, Integer.MAX_VALUE));
+		int blockSize = Math.min(keys.length, BATCH_BLOCK_SIZE);
+		int[] hashes = new int[blockSize];
+		@SuppressWarnings({"rawtypes","unchecked"})
+		Node<K, V>[] headNodes = (Node<K, V>[]) new Node[blockSize];
+		for (int blockStart = 0; blockStart < keys.length; blockStart += blockSize) {
+			int blockEnd = Math.min(keys.length, blockStart + blockSize);
+			loadBlock(keys, blockStart, blockEnd, hashes, headNodes);
+			for (int i = blockStart; i < blockEnd; i++)
+				putVal(hashes[i - blockStart], keys[i], values[i], false);
+		}
+		Arrays.fill(headNodes, null);
+	}
+
+	/**
+	 * Works in blocks like {@link #putAll(Object[], Object[])}.
+	 */
+	@Override
+	public int removeAll(K[] keys) {
+		if (size == 0 || keys.length == 0)
+			return 0;
+		int removed = 0;
+		int blockSize = Math.min(keys.length, BATCH_BLOCK_SIZE);
+		int[] hashes = new int[blockSize];
+		@SuppressWarnings({"rawtypes","unchecked"})
+		Node<K, V>[] headNodes = (Node<K, V>[]) new Node[blockSize];
+		for (int blockStart = 0; blockStart < keys.length && size > 0; blockStart += blockSize) {
+			int blockEnd = Math.min(keys.length, blockStart + blockSize);
+			loadBlock(keys, blockStart, blockEnd, hashes, headNodes);
+			for (int i = blockStart; i < blockEnd; i++) {
+				if (removeNode(hashes[i - blockStart], keys[i]) != null)
+					removed++;
+			}
+		}
+		Arrays.fill(headNodes, null);
+		return removed;
+	}
+
+	/**
+	 * The first pass of a batch operation: hashes keys[blockStart, blockEnd) into hashes and loads the head node
+	 * of each key's bucket into headNodes, resolving the buckets with {@link #bucketsFor} during an incremental resize.
+	 * The head nodes are exact for a lookup; an insertion or removal only uses them to have the buckets in cache.
+	 */
+	private void loadBlock(K[] keys, int blockStart, int blockEnd, int[] hashes, Node<K, V>[] headNodes) {
+		for (int i = blockStart; i < blockEnd; i++) {
+			int hash = hashes[i - blockStart] = hashOf(keys[i]);
+			Node<K, V>[] bucketsForHash = bucketsFor(hash);
+			headNodes[i - blockStart] = (bucketsForHash == null || bucketsForHash.length == 0) ?
+					null : bucketsForHash[(bucketsForHash.length - 1) & hash];
+		}
+	}
+
+	/**
+	 * Returns the node of the key in the bucket starting with headNode, or null if there is none.
+	 */
+	private static <K, V> Node<K, V> findNode(Node<K, V> headNode, int hash, Object key) {
+		K currentKey;
+		if (headNode == null)
+			return null;
+		if (headNode instanceof TreeNode)
+			return ((TreeNode<K, V>) headNode).getTreeNode(hash, key);
+		for (Node<K, V> currentNode = headNode; currentNode != null; currentNode = currentNode.nextNode) {
+			if (currentNode.hashCode == hash &&
+					((currentKey = currentNode.key) == key || (key != null && key.equals(currentKey))))
+				return currentNode;
+		}
+		return null;
+	}
+
+	/**
+	 * Grows the buckets array until it holds expectedSize entries, so that adding them does not resize.
+	 * An unallocated array only records the capacity, like the constructors do.
+	 */
+	private void presize(int expectedSize) {
+		if (buckets == null) {
+			float ft = (float) expectedSize / loadFactor + 1.0F;
+			int capacity = (ft < (float) MAXIMUM_CAPACITY) ? (int) ft : MAXIMUM_CAPACITY;
+			if (capacity > threshold)
+				threshold = bucketsSizeFor(capacity);
+		} else {
+			while (expectedSize > threshold && buckets.length < MAXIMUM_CAPACITY)
+				resize();
+		}
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		Node<K, V>[] bucketsForIterations;
+		if (action == null)
+			throw new NullPointerException();
+		if (migratingBuckets != null)
+			finishMigration();
+		if (size > 0 && (bucketsForIterations = buckets) != null) {
+			int beforeOpNumberOfModifications = numberOfModifications;
+			for (int i = 0; i < bucketsForIterations.length; ++i) {
+				for (Node<K, V> headNode = bucketsForIterations[i]; headNode != null; headNode = headNode.nextNode)
+					action.accept(headNode.key, headNode.value);
+			}
+			if (numberOfModifications != beforeOpNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Splits the buckets array into index ranges estimated to hold at most parallelismThreshold entries
+	 * and runs them as fork-join tasks in the common pool.
+	 */
+	@Override
+	public void parallelForEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+		Node<K, V>[] bucketsForIteration;
+		if (action == null)
+			throw new NullPointerException();
+		if (size < parallelismThreshold) {
+			forEach(action);
+			return;
+		}
+		if (migratingBuckets != null)
+			finishMigration();
+		if (size > 0 && (bucketsForIteration = buckets) != null) {
+			int beforeOpNumberOfModifications = numberOfModifications;
+			long bucketsPerTask = Math.max(1, Math.max(1, parallelismThreshold) * bucketsForIteration.length / size);
+			ForkJoinPool.commonPool().invoke(
+					new ForEachTask<>(bucketsForIteration, 0, bucketsForIteration.length, bucketsPerTask, action));
+			if (numberOfModifications != beforeOpNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	public Spliterator<Map.Entry<K, V>> entrySpliterator() {
+		return new EntrySpliterator<>(this, 0, -1, 0, 0);
+	}
+
+	@Override
+	public Spliterator<K> keySpliterator() {
+		return new KeySpliterator<>(this, 0, -1, 0, 0);
+	}
+
+	@Override
+	public Spliterator<V> valueSpliterator() {
+		return new ValueSpliterator<>(this, 0, -1, 0, 0);
+	}
+
+	private Node<K, V> removeNode(int hash, Object key) {
+		return removeNode(hash, key, true);
+	}
+
+	/**
+	 * @param movable if false, the removal leaves the other nodes where they are: a tree bin is neither
+	 *                converted back to a chain nor rooted again, and the buckets array does not shrink,
+	 *                so an iterator can carry on from its next node
+	 */
+	private Node<K, V> removeNode(int hash, Object key, boolean movable) {
+		Node<K, V>[] bucketsForIteration;
+		Node<K, V> headNode;
+		int bucketsForIterationLength;
+		int bucketIndex;
+
+		if (migratingBuckets != null)
+			migrateBuckets(INCREMENTAL_RESIZE_STEP);
+
+		if ((bucketsForIteration = bucketsFor(hash)) != null &&
+				(bucketsForIterationLength = bucketsForIteration.length) > 0 &&
+				(headNode = bucketsForIteration[bucketIndex = (bucketsForIterationLength - 1) & hash]) != null) {
+			Node<K, V> currentNode = null;
+			Node<K, V> nodePointer;
+			K currentKey;
+
+			if (headNode.hashCode == hash &&
+					((currentKey = headNode.key) == key || (key != null && key.equals(currentKey)))) {
+				currentNode = headNode;
+			} else if ((nodePointer = headNode.nextNode) != null) {
+				if (headNode instanceof TreeNode) {
+					currentNode = ((TreeNode<K, V>) headNode).getTreeNode(hash, key);
+				} else {
+					do {
+						if (nodePointer.hashCode == hash &&
+								((currentKey = nodePointer.key) == key ||
+										(key != null && key.equals(currentKey)))) {
+							currentNode = nodePointer;
+							break;
+						}
+						headNode = nodePointer;
+					} while ((nodePointer = nodePointer.nextNode) != null);
+				}
+			}
+			if (currentNode != null) {
+				if (currentNode instanceof TreeNode) {
+					((TreeNode<K, V>) currentNode).removeTreeNode(bucketsForIteration, movable);
+				} else if (currentNode == headNode) {
+					bucketsForIteration[bucketIndex] = currentNode.nextNode;
+				} else {
+					headNode.nextNode = currentNode.nextNode;
+				}
+				numberOfModifications++;
+				if (--size < lowWaterMark * threshold && movable && buckets.length > DEFAULT_INITIAL_CAPACITY)
+					shrinkTo(buckets.length >>> 1);
+				return currentNode;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes all mappings and keeps the buckets array at its current capacity for reuse.
+	 */
+	@Override
+	public void clear() {
+		Node<K, V>[] bucketsForIteration;
+		numberOfModifications++;
+		migratingBuckets = null;
+		if ((bucketsForIteration = buckets) != null && size > 0) {
+			size = 0;
+			for (int i = 0; i < bucketsForIteration.length; ++i)
+				bucketsForIteration[i] = null;
+		}
+	}
+
+	/**
+	 * @param releaseBuckets if true, the buckets array is dropped and the next put allocates one
+	 *                       of the default capacity, otherwise it behaves as {@link #clear()}
+	 */
+	public void clear(boolean releaseBuckets) {
+		if (!releaseBuckets) {
+			clear();
+			return;
+		}
+		numberOfModifications++;
+		size = 0;
+		buckets = null;
+		migratingBuckets = null;
+		migrationIndex = 0;
+		threshold = 0;
+	}
+
+	/**
+	 * Shrinks the buckets array to the smallest capacity holding the current entries under the load factor,
+	 * or releases it if the map is empty.
+	 */
+	public void trimToSize() {
+		if (migratingBuckets != null)
+			finishMigration();
+		if (size == 0) {
+			if (buckets != null)
+				clear(true);
+			return;
+		}
+		int capacity = bucketsSizeFor((int) Math.min(Math.ceil(size / (double) loadFactor), MAXIMUM_CAPACITY));
+		if (capacity < buckets.length)
+			shrinkTo(capacity);
+	}
+
+	/**
+	 * Returns an immutable copy of this map for read-only lookups, see {@link FrozenHashMap}.
+	 */
+	public FrozenHashMap<K, V> freeze() {
+		return FrozenHashMap.copyOf(this);
+	}
+
+	/**
+	 * Makes removals halve the buckets array, down to the default capacity, once the size drops below
+	 * the given fraction of the resize threshold. Fractions below 0.5 leave room for the size
+	 * to grow again before the next resize, 0 disables shrinking, which is the default.
+	 */
+	public void setLowWaterMark(float fraction) {
+		if (!(fraction >= 0 && fraction < 0.5f))
+			throw new IllegalArgumentException("Illegal low water mark: " + fraction);
+		lowWaterMark = fraction;
+	}
+
+	/**
+	 * Replaces all nodes in the bucket for the given hash with tree nodes,
+	 * unless the buckets array is too small, in which case it is resized instead.
+	 */
+	private void treeifyBin(Node<K, V>[] bucketsForIteration, int hash) {
+		int bucketsForIterationLength;
+		int bucketIndex;
+		Node<K, V> node;
+		if (bucketsForIteration == null ||
+				(bucketsForIterationLength = bucketsForIteration.length) < MIN_TREEIFY_CAPACITY) {
+			resize();
+		} else if ((node = bucketsForIteration[bucketIndex = (bucketsForIterationLength - 1) & hash]) != null) {
+			treeifyChain(bucketsForIteration, bucketIndex, node);
+		}
+	}
+
+	/**
+	 * Stores a tree of copies of the nodes linked from node in bucket index.
+	 */
+	private static <K, V> void treeifyChain(Node<K, V>[] buckets, int index, Node<K, V> node) {
+		TreeNode<K, V> head = null;
+		TreeNode<K, V> tail = null;
+		do {
+			TreeNode<K, V> treeNode = new TreeNode<>(node.hashCode, node.key, node.value, null);
+			if (tail == null) {
+				head = treeNode;
+			} else {
+				treeNode.prev = tail;
+				tail.nextNode = treeNode;
+			}
+			tail = treeNode;
+		} while ((node = node.nextNode) != null);
+		buckets[index] = head;
+		head.treeify(buckets);
+	}
+
+	private Node<K, V>[] resize() {
+		if (statistics == null)
+			return resizeBuckets();
+		long start = System.nanoTime();
+		Node<K, V>[] newBuckets = resizeBuckets();
+		statistics.recordResize(System.nanoTime() - start);
+		return newBuckets;
+	}
+
+	private Node<K, V>[] resizeBuckets() {
+		if (migratingBuckets != null)
+			finishMigration();
 		Node<K, V>[] oldBuckets = buckets;
 		int oldCapacity = (oldBuckets == null) ? 0 : oldBuckets.length;
 		int oldThreshold = threshold;
@@ -376,49 +1710,760 @@ public class HashMap<K, V> implements Map<K, V> {
 		Node<K, V>[] newBuckets = (Node<K, V>[])new Node[newCapacity];
 		buckets = newBuckets;
 		if (oldBuckets != null) {
-			for (int j = 0; j < oldCapacity; j++) {
-				Node<K, V> node;
-				if ((node = oldBuckets[j]) != null) {
-					oldBuckets[j] = null;   // remove it
-					if (node.nextNode == null) {
-						newBuckets[node.hashCode & (newCapacity - 1)] = node;
-					} else { // preserve old order
-						Node<K, V> lowHead = null, lowTail = null;
-						Node<K, V> highHead = null, highTail = null;
-						Node<K, V> nextNode;
-						do {
-							nextNode = node.nextNode;
-							if ((node.hashCode & oldCapacity) == 0) {
-								if (lowTail == null) {
-									lowHead = node;
-								} else {
-									lowTail.nextNode = node;
-								}
-								lowTail = node;
-							} else {
-								if (highTail == null) {
-									highHead = node;
-								} else {
-									highTail.nextNode = node;
-								}
-								highTail = node;
-							}
-						} while ((node = nextNode) != null);
+			if (incrementalResize) {
+				migratingBuckets = oldBuckets;
+				migrationIndex = 0;
+			} else {
+				for (int j = 0; j < oldCapacity; j++)
+					transferBucket(oldBuckets, newBuckets, j);
+			}
+		}
+		return newBuckets;
+	}
 
-						if (lowTail != null) {
-							lowTail.nextNode = null;
-							newBuckets[j] = lowHead;
+	/**
+	 * Moves the entries of bucket j of oldBuckets into newBuckets, which is twice as long.
+	 * The entries either stay at index j or move to j + oldCapacity, depending on the hash bit of the old capacity.
+	 */
+	private static <K, V> void transferBucket(Node<K, V>[] oldBuckets, Node<K, V>[] newBuckets, int j) {
+		int oldCapacity = oldBuckets.length;
+		Node<K, V> node;
+		if ((node = oldBuckets[j]) != null) {
+			oldBuckets[j] = null;   // remove it
+			if (node.nextNode == null) {
+				newBuckets[node.hashCode & (newBuckets.length - 1)] = node;
+			} else if (node instanceof TreeNode) {
+				((TreeNode<K, V>) node).split(newBuckets, j, oldCapacity);
+			} else { // preserve old order
+				Node<K, V> lowHead = null, lowTail = null;
+				Node<K, V> highHead = null, highTail = null;
+				Node<K, V> nextNode;
+				do {
+					nextNode = node.nextNode;
+					if ((node.hashCode & oldCapacity) == 0) {
+						if (lowTail == null) {
+							lowHead = node;
+						} else {
+							lowTail.nextNode = node;
 						}
-
-						if (highTail != null) {
-							highTail.nextNode = null;
-							newBuckets[j + oldCapacity] = highHead;
+						lowTail = node;
+					} else {
+						if (highTail == null) {
+							highHead = node;
+						} else {
+							highTail.nextNode = node;
 						}
+						highTail = node;
 					}
+				} while ((node = nextNode) != null);
+
+				if (lowTail != null) {
+					lowTail.nextNode = null;
+					newBuckets[j] = lowHead;
+				}
+
+				if (highTail != null) {
+					highTail.nextNode = null;
+					newBuckets[j + oldCapacity] = highHead;
 				}
 			}
 		}
-		return newBuckets;
 	}
 
-}
+	/**
+	 * Moves the entries into a buckets array of newCapacity, a smaller power of two.
+	 * New bucket j chains the old buckets j, j + newCapacity, j + 2 * newCapacity... in this order,
+	 * which reverses the low/high split of {@link #transferBucket}. A merged bucket holding a tree bin
+	 * is rebuilt as a tree if it is long enough, otherwise as a plain chain.
+	 */
+	private void shrinkTo(int newCapacity) {
+		if (migratingBuckets != null)
+			finishMigration();
+		Node<K, V>[] oldBuckets = buckets;
+		@SuppressWarnings({"rawtypes","unchecked"})
+		Node<K, V>[] newBuckets = (Node<K, V>[]) new Node[newCapacity];
+		for (int j = 0; j < newCapacity; j++) {
+			Node<K, V> head = null;
+			Node<K, V> tail = null;
+			int chainLength = 0;
+			boolean hasTreeBin = false;
+			for (int i = j; i < oldBuckets.length; i += newCapacity) {
+				Node<K, V> node;
+				if ((node = oldBuckets[i]) == null)
+					continue;
+				hasTreeBin |= node instanceof TreeNode;
+				if (tail == null)
+					head = node;
+				else
+					tail.nextNode = node;
+				for (tail = node, chainLength++; tail.nextNode != null; tail = tail.nextNode)
+					chainLength++;
+			}
+			if (head == null)
+				continue;
+			if (chainLength >= TREEIFY_THRESHOLD && newCapacity >= MIN_TREEIFY_CAPACITY) {
+				treeifyChain(newBuckets, j, head);
+			} else if (hasTreeBin) {
+				Node<K, V> plainHead = null;
+				Node<K, V> plainTail = null;
+				for (Node<K, V> node = head; node != null; node = node.nextNode) {
+					Node<K, V> plainNode = new Node<>(node.hashCode, node.key, node.value, null);
+					if (plainTail == null)
+						plainHead = plainNode;
+					else
+						plainTail.nextNode = plainNode;
+					plainTail = plainNode;
+				}
+				newBuckets[j] = plainHead;
+			} else {
+				newBuckets[j] = head;
+			}
+		}
+		float ft = newCapacity * loadFactor;
+		threshold = (newCapacity < MAXIMUM_CAPACITY && ft < (float) MAXIMUM_CAPACITY) ? (int) ft : Integer.MAX_VALUE;
+		buckets = newBuckets;
+		numberOfModifications++;
+	}
+
+	/* ---------------- Views and iterators -------------- */
+
+	/**
+	 * Returns a cursor over the entries, fail-fast on every {@link MapCursor#advance()}.
+	 */
+	@Override
+	public MapCursor<K, V> cursor() {
+		return new HashMapCursor();
+	}
+
+	/**
+	 * Returns a view of the keys backed by this map, removing from it removes the mapping.
+	 */
+	public Set<K> keySet() {
+		Set<K> view;
+		return (view = keySet) == null ? (keySet = new KeySet()) : view;
+	}
+
+	/**
+	 * Returns a view of the values backed by this map, removing from it removes the mapping.
+	 */
+	public Collection<V> values() {
+		Collection<V> view;
+		return (view = values) == null ? (values = new Values()) : view;
+	}
+
+	/**
+	 * Returns a view of the entries backed by this map, the value of an entry can be set through it.
+	 */
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> view;
+		return (view = entrySet) == null ? (entrySet = new EntrySet()) : view;
+	}
+
+	final class KeySet extends AbstractSet<K> {
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			HashMap.this.clear();
+		}
+
+		@Override
+		public Iterator<K> iterator() {
+			return new KeyIterator();
+		}
+
+		@Override
+		public boolean contains(Object key) {
+			return containsKey(key);
+		}
+
+		@Override
+		public boolean remove(Object key) {
+			return removeNode(hashOf(key), key) != null;
+		}
+
+		@Override
+		public Spliterator<K> spliterator() {
+			return keySpliterator();
+		}
+	}
+
+	final class Values extends AbstractCollection<V> {
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			HashMap.this.clear();
+		}
+
+		@Override
+		public Iterator<V> iterator() {
+			return new ValueIterator();
+		}
+
+		@Override
+		public boolean contains(Object value) {
+			return containsValue(value);
+		}
+
+		@Override
+		public Spliterator<V> spliterator() {
+			return valueSpliterator();
+		}
+	}
+
+	final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			HashMap.this.clear();
+		}
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry))
+				return false;
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+			Object key = entry.getKey();
+			Node<K, V> candidate = getNode(hashOf(key), key);
+			return candidate != null && candidate.equals(entry);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!contains(o))
+				return false;
+			Object key = ((Map.Entry<?, ?>) o).getKey();
+			removeNode(hashOf(key), key);
+			return true;
+		}
+
+		@Override
+		public Spliterator<Map.Entry<K, V>> spliterator() {
+			return entrySpliterator();
+		}
+	}
+
+	/**
+	 * Walks the buckets in order and checks {@link #numberOfModifications} before every step,
+	 * removing through the iterator is the only modification it tolerates.
+	 */
+	abstract class HashIterator {
+		private Node<K, V> nextNode;
+		Node<K, V> currentNode;
+		private int expectedNumberOfModifications;
+		private int bucketIndex;
+
+		HashIterator() {
+			if (migratingBuckets != null)
+				finishMigration();
+			expectedNumberOfModifications = numberOfModifications;
+			Node<K, V>[] bucketsForIteration = buckets;
+			if (bucketsForIteration != null && size > 0)
+				nextNode = nextBucketHead(bucketsForIteration);
+		}
+
+		private Node<K, V> nextBucketHead(Node<K, V>[] bucketsForIteration) {
+			Node<K, V> headNode = null;
+			while (bucketIndex < bucketsForIteration.length && (headNode = bucketsForIteration[bucketIndex++]) == null) {
+			}
+			return headNode;
+		}
+
+		public final boolean hasNext() {
+			return nextNode != null;
+		}
+
+		final Node<K, V> nextNode() {
+			Node<K, V> node = nextNode;
+			checkForModification();
+			if (node == null)
+				throw new NoSuchElementException();
+			currentNode = node;
+			Node<K, V>[] bucketsForIteration;
+			if ((nextNode = node.nextNode) == null && (bucketsForIteration = buckets) != null)
+				nextNode = nextBucketHead(bucketsForIteration);
+			return node;
+		}
+
+		public final void remove() {
+			Node<K, V> node = currentNode;
+			if (node == null)
+				throw new IllegalStateException();
+			checkForModification();
+			currentNode = null;
+			removeNode(node.hashCode, node.key, false);
+			expectedNumberOfModifications = numberOfModifications;
+		}
+
+		final void checkForModification() {
+			if (numberOfModifications != expectedNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
+	}
+
+	final class KeyIterator extends HashIterator implements Iterator<K> {
+		@Override
+		public K next() {
+			return nextNode().key;
+		}
+	}
+
+	final class ValueIterator extends HashIterator implements Iterator<V> {
+		@Override
+		public V next() {
+			return nextNode().value;
+		}
+	}
+
+	final class EntryIterator extends HashIterator implements Iterator<Map.Entry<K, V>> {
+		@Override
+		public Map.Entry<K, V> next() {
+			return nextNode();
+		}
+	}
+
+	final class HashMapCursor extends HashIterator implements MapCursor<K, V> {
+		@Override
+		public boolean advance() {
+			if (hasNext()) {
+				nextNode();
+				return true;
+			}
+			checkForModification();
+			currentNode = null;
+			return false;
+		}
+
+		@Override
+		public K key() {
+			return current().key;
+		}
+
+		@Override
+		public V value() {
+			return current().value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			Node<K, V> node = current();
+			V oldValue = node.value;
+			node.value = value;
+			return oldValue;
+		}
+
+		private Node<K, V> current() {
+			Node<K, V> node;
+			if ((node = currentNode) == null)
+				throw new IllegalStateException();
+			return node;
+		}
+	}
+
+	/* ---------------- Parallel traversal -------------- */
+
+	static final class ForEachTask<K, V> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Node<K, V>[] buckets;
+		private final int from;
+		private final int to;
+		private final long bucketsPerTask;
+		private final BiConsumer<? super K, ? super V> action;
+
+		ForEachTask(Node<K, V>[] buckets, int from, int to, long bucketsPerTask, BiConsumer<? super K, ? super V> action) {
+			this.buckets = buckets;
+			this.from = from;
+			this.to = to;
+			this.bucketsPerTask = bucketsPerTask;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > bucketsPerTask) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ForEachTask<>(buckets, from, middle, bucketsPerTask, action),
+						new ForEachTask<>(buckets, middle, to, bucketsPerTask, action));
+				return;
+			}
+			for (int i = from; i < to; ++i) {
+				for (Node<K, V> headNode = buckets[i]; headNode != null; headNode = headNode.nextNode)
+					action.accept(headNode.key, headNode.value);
+			}
+		}
+	}
+
+	/**
+	 * Base of the spliterators, which split the buckets array into halves of index ranges.
+	 * They are late-binding: the range is fixed by the first use, which also completes an incremental resize,
+	 * and fail-fast: a traversal that sees the map modified throws {@link ConcurrentModificationException}.
+	 */
+	static class HashMapSpliterator<K, V> {
+		final HashMap<K, V> map;
+		Node<K, V> currentNode;
+		int index;
+		int fence; // one past the last index, -1 until first use
+		int estimatedSize;
+		int expectedNumberOfModifications;
+
+		HashMapSpliterator(HashMap<K, V> map, int origin, int fence, int estimatedSize, int expectedNumberOfModifications) {
+			this.map = map;
+			this.index = origin;
+			this.fence = fence;
+			this.estimatedSize = estimatedSize;
+			this.expectedNumberOfModifications = expectedNumberOfModifications;
+		}
+
+		final int getFence() {
+			int hi;
+			if ((hi = fence) < 0) {
+				HashMap<K, V> hashMap = map;
+				if (hashMap.migratingBuckets != null)
+					hashMap.finishMigration();
+				estimatedSize = hashMap.size;
+				expectedNumberOfModifications = hashMap.numberOfModifications;
+				Node<K, V>[] bucketsForIteration = hashMap.buckets;
+				hi = fence = (bucketsForIteration == null) ? 0 : bucketsForIteration.length;
+			}
+			return hi;
+		}
+
+		/**
+		 * Halves the remaining range, returning the lower half as a new range or -1 if it cannot be split.
+		 */
+		final int splitIndex() {
+			int hi = getFence();
+			int lo = index;
+			int middle = (lo + hi) >>> 1;
+			if (lo >= middle || currentNode != null)
+				return -1;
+			index = middle;
+			estimatedSize >>>= 1;
+			return lo;
+		}
+
+		/**
+		 * Moves to the next node, returning null at the end of the range.
+		 */
+		final Node<K, V> advance() {
+			Node<K, V>[] bucketsForIteration = map.buckets;
+			int hi = getFence();
+			if (bucketsForIteration != null && bucketsForIteration.length >= hi && index >= 0) {
+				while (currentNode != null || index < hi) {
+					if (currentNode == null) {
+						currentNode = bucketsForIteration[index++];
+					} else {
+						Node<K, V> node = currentNode;
+						currentNode = currentNode.nextNode;
+						return node;
+					}
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Performs the action for every remaining node, checking for modifications once at the end.
+		 */
+		final void forEachRemainingNode(Consumer<? super Node<K, V>> action) {
+			if (action == null)
+				throw new NullPointerException();
+			int hi = getFence();
+			Node<K, V>[] bucketsForIteration = map.buckets;
+			int i;
+			if (bucketsForIteration != null && bucketsForIteration.length >= hi &&
+					(i = index) >= 0 && (i < (index = hi) || currentNode != null)) {
+				Node<K, V> node = currentNode;
+				currentNode = null;
+				do {
+					if (node == null) {
+						node = bucketsForIteration[i++];
+					} else {
+						action.accept(node);
+						node = node.nextNode;
+					}
+				} while (node != null || i < hi);
+				if (map.numberOfModifications != expectedNumberOfModifications)
+					throw new ConcurrentModificationException();
+			}
+		}
+
+		final void checkForModification() {
+			if (map.numberOfModifications != expectedNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
+
+		public final long estimateSize() {
+			getFence();
+			return estimatedSize;
+		}
+
+		/**
+		 * The estimated size is exact until a split.
+		 */
+		final int sizedCharacteristic() {
+			return (fence < 0 || estimatedSize == map.size) ? Spliterator.SIZED : 0;
+		}
+	}
+
+	static final class KeySpliterator<K, V> extends HashMapSpliterator<K, V> implements Spliterator<K> {
+
+		KeySpliterator(HashMap<K, V> map, int origin, int fence, int estimatedSize, int expectedNumberOfModifications) {
+			super(map, origin, fence, estimatedSize, expectedNumberOfModifications);
+		}
+
+		@Override
+		public KeySpliterator<K, V> trySplit() {
+			int lo = splitIndex();
+			return lo < 0 ? null : new KeySpliterator<>(map, lo, index, estimatedSize, expectedNumberOfModifications);
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super K> action) {
+			if (action == null)
+				throw new NullPointerException();
+			forEachRemainingNode(node -> action.accept(node.key));
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super K> action) {
+			if (action == null)
+				throw new NullPointerException();
+			Node<K, V> node = advance();
+			if (node == null)
+				return false;
+			action.accept(node.key);
+			checkForModification();
+			return true;
+		}
+
+		@Override
+		public int characteristics() {
+			return sizedCharacteristic() | Spliterator.DISTINCT;
+		}
+	}
+
+	static final class ValueSpliterator<K, V> extends HashMapSpliterator<K, V> implements Spliterator<V> {
+
+		ValueSpliterator(HashMap<K, V> map, int origin, int fence, int estimatedSize, int expectedNumberOfModifications) {
+			super(map, origin, fence, estimatedSize, expectedNumberOfModifications);
+		}
+
+		@Override
+		public ValueSpliterator<K, V> trySplit() {
+			int lo = splitIndex();
+			return lo < 0 ? null : new ValueSpliterator<>(map, lo, index, estimatedSize, expectedNumberOfModifications);
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super V> action) {
+			if (action == null)
+				throw new NullPointerException();
+			forEachRemainingNode(node -> action.accept(node.value));
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super V> action) {
+			if (action == null)
+				throw new NullPointerException();
+			Node<K, V> node = advance();
+			if (node == null)
+				return false;
+			action.accept(node.value);
+			checkForModification();
+			return true;
+		}
+
+		@Override
+		public int characteristics() {
+			return sizedCharacteristic();
+		}
+	}
+
+	static final class EntrySpliterator<K, V> extends HashMapSpliterator<K, V> implements Spliterator<Map.Entry<K, V>> {
+
+		EntrySpliterator(HashMap<K, V> map, int origin, int fence, int estimatedSize, int expectedNumberOfModifications) {
+			super(map, origin, fence, estimatedSize, expectedNumberOfModifications);
+		}
+
+		@Override
+		public EntrySpliterator<K, V> trySplit() {
+			int lo = splitIndex();
+			return lo < 0 ? null : new EntrySpliterator<>(map, lo, index, estimatedSize, expectedNumberOfModifications);
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super Map.Entry<K, V>> action) {
+			forEachRemainingNode(action);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Map.Entry<K, V>> action) {
+			if (action == null)
+				throw new NullPointerException();
+			Node<K, V> node = advance();
+			if (node == null)
+				return false;
+			action.accept(node);
+			checkForModification();
+			return true;
+		}
+
+		@Override
+		public int characteristics() {
+			return sizedCharacteristic() | Spliterator.DISTINCT;
+		}
+	}
+
+	/* -------------------- Statistics -------------------- */
+
+	/**
+	 * Starts recording the probe lengths of lookups and insertions and the time spent resizing,
+	 * or resets the counters if statistics were already enabled.
+	 * Each recorded operation walks its bucket once more to measure the probe length.
+	 */
+	public void enableStatistics() {
+		statistics = new HashMapStatistics.Counters();
+	}
+
+	public void disableStatistics() {
+		statistics = null;
+	}
+
+	/**
+	 * Returns a snapshot of the shape of the buckets and, if statistics are enabled, of the recorded operations.
+	 * The buckets are scanned without completing an incremental resize in progress.
+	 */
+	public HashMapStatistics statistics() {
+		Node<K, V>[] bucketsForIteration = buckets;
+		Node<K, V>[] migrating = migratingBuckets;
+		int capacity = bucketsForIteration == null ? 0 : bucketsForIteration.length;
+		long[] chainLengthHistogram = new long[HashMapStatistics.HISTOGRAM_LENGTH];
+		int treeBinCount = 0;
+		for (int i = 0; i < capacity; i++) {
+			Node<K, V> headNode;
+			int chainLength = 0;
+			if (migrating != null && (i & (migrating.length - 1)) >= migrationIndex) {
+				// not moved yet, count the entries of the previous bucket that will land here
+				headNode = migrating[i & (migrating.length - 1)];
+				for (Node<K, V> currentNode = headNode; currentNode != null; currentNode = currentNode.nextNode) {
+					if ((currentNode.hashCode & (capacity - 1)) == i)
+						chainLength++;
+				}
+				if (headNode instanceof TreeNode && chainLength > UNTREEIFY_THRESHOLD)
+					treeBinCount++;
+			} else {
+				headNode = bucketsForIteration[i];
+				for (Node<K, V> currentNode = headNode; currentNode != null; currentNode = currentNode.nextNode)
+					chainLength++;
+				if (headNode instanceof TreeNode)
+					treeBinCount++;
+			}
+			chainLengthHistogram[Math.min(chainLength, chainLengthHistogram.length - 1)]++;
+		}
+		return new HashMapStatistics(size, capacity, chainLengthHistogram, treeBinCount,
+				statistics == null ? new HashMapStatistics.Counters() : statistics);
+	}
+
+	/**
+	 * Enables statistics and registers them in the platform MBean server under the given name,
+	 * every attribute read takes a new {@link #statistics()} snapshot.
+	 * The map is not thread safe, so values read while it is being modified are approximate.
+	 * Unregister the name once the map is no longer used, otherwise the server keeps it reachable.
+	 */
+	public void registerStatisticsMBean(ObjectName name) throws JMException {
+		if (statistics == null)
+			enableStatistics();
+		HashMapStatisticsMXBean liveStatistics = (HashMapStatisticsMXBean) Proxy.newProxyInstance(
+				HashMapStatisticsMXBean.class.getClassLoader(),
+				new Class<?>[] { HashMapStatisticsMXBean.class },
+				(proxy, method, arguments) -> method.invoke(statistics(), arguments));
+		ManagementFactory.getPlatformMBeanServer()
+				.registerMBean(new StandardMBean(liveStatistics, HashMapStatisticsMXBean.class, true), name);
+	}
+
+	/**
+	 * The number of nodes a lookup of the key compares, see {@link HashMapStatistics}.
+	 */
+	private int probeLength(int hash, Object key) {
+		Node<K, V>[] bucketsForIteration;
+		Node<K, V> headNode;
+		K currentKey;
+		if ((bucketsForIteration = bucketsFor(hash)) == null || bucketsForIteration.length == 0 ||
+				(headNode = bucketsForIteration[(bucketsForIteration.length - 1) & hash]) == null)
+			return 0;
+		int probes = 0;
+		if (headNode instanceof TreeNode) {
+			TreeNode<K, V> treeNode = ((TreeNode<K, V>) headNode).getTreeNode(hash, key);
+			if (treeNode != null) {
+				for (; treeNode != null; treeNode = treeNode.parent)
+					probes++;
+				return probes;
+			}
+			for (Node<K, V> currentNode = headNode; currentNode != null; currentNode = currentNode.nextNode)
+				probes++;
+			return 32 - Integer.numberOfLeadingZeros(probes);
+		}
+		for (Node<K, V> currentNode = headNode; currentNode != null; currentNode = currentNode.nextNode) {
+			probes++;
+			if (currentNode.hashCode == hash &&
+					((currentKey = currentNode.key) == key || (key != null && key.equals(currentKey))))
+				break;
+		}
+		return probes;
+	}
+
+	/**
+	 * Returns the buckets array currently holding the entries with the given hash.
+	 */
+	private Node<K, V>[] bucketsFor(int hash) {
+		Node<K, V>[] migrating;
+		if ((migrating = migratingBuckets) != null && (hash & (migrating.length - 1)) >= migrationIndex)
+			return migrating;
+		return buckets;
+	}
+
+	/**
+	 * Moves up to count buckets of an incremental resize in progress to the new buckets array.
+	 */
+	private void migrateBuckets(int count) {
+		Node<K, V>[] migrating = migratingBuckets;
+		Node<K, V>[] newBuckets = buckets;
+		int index = migrationIndex;
+		int end = Math.min(migrating.length, index + count);
+		for (; index < end; index++)
+			transferBucket(migrating, newBuckets, index);
+		if (index == migrating.length) {
+			migratingBuckets = null;
+			migrationIndex = 0;
+		} else {
+			migrationIndex = index;
+		}
+	}
+
+	/**
+	 * Completes an incremental resize in progress, used before full traversals of the buckets
+	 * and before the map grows again.
+	 */
+	private void finishMigration() {
+		migrateBuckets(migratingBuckets.length);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+package map.impl;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of the shape of a {@link HashMap} and of the operations recorded since its statistics were enabled,
+ * see {@link HashMap#enableStatistics()}.
+ *
+ * The probe length of an operation is the number of nodes its lookup compares the key with:
+ * its position in a chain, or its depth in a tree bin. A miss in a tree bin counts the height
+ * a balanced tree of the bin's size would have.
+ */
+public final class HashMapStatistics implements HashMapStatisticsMXBean {
+
+	/**
+	 * The length of {@link #getChainLengthHistogram()}, longer buckets are counted in the last element.
+	 */
+	public static final int HISTOGRAM_LENGTH = 2 * HashMap.TREEIFY_THRESHOLD + 1;
+
+	/**
+	 * Counters updated by the map while statistics are enabled.
+	 */
+	static final class Counters {
+		long getCount;
+		long getProbes;
+		int maxGetProbeLength;
+		long putCount;
+		long putProbes;
+		int maxPutProbeLength;
+		long resizeCount;
+		long resizeNanos;
+
+		void recordGet(int probeLength) {
+			getCount++;
+			getProbes += probeLength;
+			if (probeLength > maxGetProbeLength)
+				maxGetProbeLength = probeLength;
+		}
+
+		void recordPut(int probeLength) {
+			putCount++;
+			putProbes += probeLength;
+			if (probeLength > maxPutProbeLength)
+				maxPutProbeLength = probeLength;
+		}
+
+		void recordResize(long nanos) {
+			resizeCount++;
+			resizeNanos += nanos;
+		}
+	}
+
+	private final int size;
+	private final int capacity;
+	private final long[] chainLengthHistogram;
+	private final int treeBinCount;
+	private final long getCount;
+	private final long getProbes;
+	private final int maxGetProbeLength;
+	private final long putCount;
+	private final long putProbes;
+	private final int maxPutProbeLength;
+	private final long resizeCount;
+	private final long resizeNanos;
+
+	HashMapStatistics(int size, int capacity, long[] chainLengthHistogram, int treeBinCount, Counters counters) {
+		this.size = size;
+		this.capacity = capacity;
+		this.chainLengthHistogram = chainLengthHistogram;
+		this.treeBinCount = treeBinCount;
+		this.getCount = counters.getCount;
+		this.getProbes = counters.getProbes;
+		this.maxGetProbeLength = counters.maxGetProbeLength;
+		this.putCount = counters.putCount;
+		this.putProbes = counters.putProbes;
+		this.maxPutProbeLength = counters.maxPutProbeLength;
+		this.resizeCount = counters.resizeCount;
+		this.resizeNanos = counters.resizeNanos;
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public int getCapacity() {
+		return capacity;
+	}
+
+	@Override
+	public double getAchievedLoadFactor() {
+		return capacity == 0 ? 0 : (double) size / capacity;
+	}
+
+	@Override
+	public double getEmptyBucketRatio() {
+		return capacity == 0 ? 1 : (double) chainLengthHistogram[0] / capacity;
+	}
+
+	@Override
+	public long[] getChainLengthHistogram() {
+		return chainLengthHistogram.clone();
+	}
+
+	@Override
+	public int getTreeBinCount() {
+		return treeBinCount;
+	}
+
+	@Override
+	public long getGetCount() {
+		return getCount;
+	}
+
+	@Override
+	public double getAverageGetProbeLength() {
+		return getCount == 0 ? 0 : (double) getProbes / getCount;
+	}
+
+	@Override
+	public int getMaxGetProbeLength() {
+		return maxGetProbeLength;
+	}
+
+	@Override
+	public long getPutCount() {
+		return putCount;
+	}
+
+	@Override
+	public double getAveragePutProbeLength() {
+		return putCount == 0 ? 0 : (double) putProbes / putCount;
+	}
+
+	@Override
+	public int getMaxPutProbeLength() {
+		return maxPutProbeLength;
+	}
+
+	@Override
+	public long getResizeCount() {
+		return resizeCount;
+	}
+
+	@Override
+	public long getResizeTimeNanos() {
+		return resizeNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "HashMapStatistics{" +
+				"size=" + size +
+				", capacity=" + capacity +
+				", achievedLoadFactor=" + getAchievedLoadFactor() +
+				", emptyBucketRatio=" + getEmptyBucketRatio() +
+				", chainLengthHistogram=" + Arrays.toString(chainLengthHistogram) +
+				", treeBinCount=" + treeBinCount +
+				", getCount=" + getCount +
+				", averageGetProbeLength=" + getAverageGetProbeLength() +
+				", maxGetProbeLength=" + maxGetProbeLength +
+				", putCount=" + putCount +
+				", averagePutProbeLength=" + getAveragePutProbeLength() +
+				", maxPutProbeLength=" + maxPutProbeLength +
+				", resizeCount=" + resizeCount +
+				", resizeTimeNanos=" + resizeNanos +
+				'}';
+	}
+}
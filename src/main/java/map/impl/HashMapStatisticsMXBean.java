@@ -0,0 +1,41 @@
+package map.impl;
+
+/**
+ * Management interface of the statistics of a {@link HashMap}, see {@link HashMap#registerStatisticsMBean}.
+ */
+public interface HashMapStatisticsMXBean {
+
+	int getSize();
+
+	int getCapacity();
+
+	/**
+	 * Entries per bucket, as opposed to the configured load factor which only bounds it.
+	 */
+	double getAchievedLoadFactor();
+
+	double getEmptyBucketRatio();
+
+	/**
+	 * Element i is the number of buckets holding i entries, the last element counts all longer buckets.
+	 */
+	long[] getChainLengthHistogram();
+
+	int getTreeBinCount();
+
+	long getGetCount();
+
+	double getAverageGetProbeLength();
+
+	int getMaxGetProbeLength();
+
+	long getPutCount();
+
+	double getAveragePutProbeLength();
+
+	int getMaxPutProbeLength();
+
+	long getResizeCount();
+
+	long getResizeTimeNanos();
+}
@@ -0,0 +1,317 @@
+package map.impl;
+
+import map.IntIntMap;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+
+/**
+ * Open-addressing implementation of {@link IntIntMap} over flat primitive arrays.
+ *
+ * Keys and values live in two parallel arrays and collisions are resolved by linear probing,
+ * so no operation allocates apart from growing the arrays. Key {@code 0} marks a free slot,
+ * a mapping for the key {@code 0} itself is kept aside in {@link #freeKeyValue}.
+ * Removal uses backward-shift deletion, so there are no tombstones.
+ *
+ * Not thread safe.
+ */
+public class IntIntHashMap implements IntIntMap {
+
+	static final int DEFAULT_INITIAL_CAPACITY = 1 << 4; // aka 16
+
+	/**
+	 * The maximum length of the slot arrays, see {@link HashMap#MAXIMUM_CAPACITY}.
+	 */
+	static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	private static final int FREE_KEY = 0;
+
+	/* ------------------ Static utilities -----------------*/
+
+	/**
+	 * Linear probing uses the low bits of the hash directly, so all bits of the key are mixed in.
+	 */
+	static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/* ---------------------- Fields ---------------------- */
+
+	/**
+	 * The number of key-value mappings contained in this map, including the one for {@link #FREE_KEY}.
+	 */
+	private int size;
+
+	/**
+	 * The size at which the slot arrays are doubled,
+	 * holds the initial capacity until the arrays are allocated.
+	 */
+	private int threshold;
+
+	private int[] keys;
+
+	private int[] values;
+
+	private boolean hasFreeKey;
+
+	private int freeKeyValue;
+
+	final float loadFactor;
+
+	/**
+	 * Returned for keys without a mapping, configurable because 0 is often a legitimate value.
+	 */
+	private final int noEntryValue;
+
+	private int numberOfModifications;
+
+	/* ------------------- Constructors ------------------- */
+
+	public IntIntHashMap(int initialCapacity, float loadFactor, int noEntryValue) {
+		if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor))
+			loadFactor = DEFAULT_LOAD_FACTOR;
+		if (initialCapacity < 0)
+			initialCapacity = DEFAULT_INITIAL_CAPACITY;
+		if (initialCapacity > MAXIMUM_CAPACITY)
+			initialCapacity = MAXIMUM_CAPACITY;
+		this.loadFactor = loadFactor;
+		this.noEntryValue = noEntryValue;
+		this.threshold = HashMap.bucketsSizeFor((int) Math.min(MAXIMUM_CAPACITY, Math.ceil(initialCapacity / loadFactor)));
+	}
+
+	public IntIntHashMap(int initialCapacity, float loadFactor) {
+		this(initialCapacity, loadFactor, 0);
+	}
+
+	public IntIntHashMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR, 0);
+	}
+
+	public IntIntHashMap() {
+		this.loadFactor = DEFAULT_LOAD_FACTOR;
+		this.noEntryValue = 0;
+	}
+
+	/* ---------------------- Methods ---------------------- */
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int noEntryValue() {
+		return noEntryValue;
+	}
+
+	@Override
+	public boolean containsKey(int key) {
+		return key == FREE_KEY ? hasFreeKey : findSlot(key) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(int value) {
+		if (hasFreeKey && freeKeyValue == value)
+			return true;
+		int[] slotKeys;
+		if ((slotKeys = keys) != null && size > 0) {
+			int[] slotValues = values;
+			for (int i = 0; i < slotKeys.length; i++) {
+				if (slotKeys[i] != FREE_KEY && slotValues[i] == value)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int get(int key) {
+		if (key == FREE_KEY)
+			return hasFreeKey ? freeKeyValue : noEntryValue;
+		int slot = findSlot(key);
+		return slot < 0 ? noEntryValue : values[slot];
+	}
+
+	/**
+	 * Returns the slot holding the key, or -1.
+	 */
+	private int findSlot(int key) {
+		int[] slotKeys;
+		if ((slotKeys = keys) == null)
+			return -1;
+		int mask = slotKeys.length - 1;
+		int currentKey;
+		for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+			if ((currentKey = slotKeys[slot]) == key)
+				return slot;
+			if (currentKey == FREE_KEY)
+				return -1;
+		}
+	}
+
+	@Override
+	public int put(int key, int value) {
+		if (key == FREE_KEY) {
+			if (hasFreeKey) {
+				int oldValue = freeKeyValue;
+				freeKeyValue = value;
+				return oldValue;
+			}
+			hasFreeKey = true;
+			freeKeyValue = value;
+			numberOfModifications++;
+			size++;
+			return noEntryValue;
+		}
+		if (keys == null)
+			resize();
+
+		int[] slotKeys = keys;
+		int mask = slotKeys.length - 1;
+		int currentKey;
+		int slot = hash(key) & mask;
+		for (; ; slot = (slot + 1) & mask) {
+			if ((currentKey = slotKeys[slot]) == key) {
+				int oldValue = values[slot];
+				values[slot] = value;
+				return oldValue;
+			}
+			if (currentKey == FREE_KEY)
+				break;
+		}
+
+		if (size >= threshold) {
+			resize();
+			return put(key, value);
+		}
+		slotKeys[slot] = key;
+		values[slot] = value;
+		numberOfModifications++;
+		size++;
+		return noEntryValue;
+	}
+
+	@Override
+	public int remove(int key) {
+		if (key == FREE_KEY) {
+			if (!hasFreeKey)
+				return noEntryValue;
+			int oldValue = freeKeyValue;
+			hasFreeKey = false;
+			freeKeyValue = 0;
+			numberOfModifications++;
+			size--;
+			return oldValue;
+		}
+		int slot = findSlot(key);
+		if (slot < 0)
+			return noEntryValue;
+		int oldValue = values[slot];
+		removeSlot(slot);
+		return oldValue;
+	}
+
+	/**
+	 * Backward-shift deletion: every following entry of the probe run that may legally sit in the freed slot
+	 * is moved back into it, so lookups never have to skip over deleted slots.
+	 */
+	private void removeSlot(int gap) {
+		int[] slotKeys = keys;
+		int[] slotValues = values;
+		int mask = slotKeys.length - 1;
+		int currentKey;
+		for (int slot = (gap + 1) & mask; (currentKey = slotKeys[slot]) != FREE_KEY; slot = (slot + 1) & mask) {
+			// the entry may move back if the gap lies between its home slot and its current slot
+			if (((slot - (hash(currentKey) & mask)) & mask) >= ((slot - gap) & mask)) {
+				slotKeys[gap] = currentKey;
+				slotValues[gap] = slotValues[slot];
+				gap = slot;
+			}
+		}
+		slotKeys[gap] = FREE_KEY;
+		slotValues[gap] = 0;
+		numberOfModifications++;
+		size--;
+	}
+
+	@Override
+	public void forEach(IntIntConsumer action) {
+		if (action == null)
+			throw new NullPointerException();
+		if (size > 0) {
+			int beforeOpNumberOfModifications = numberOfModifications;
+			if (hasFreeKey)
+				action.accept(FREE_KEY, freeKeyValue);
+			int[] slotKeys;
+			if ((slotKeys = keys) != null) {
+				int[] slotValues = values;
+				for (int i = 0; i < slotKeys.length; ++i) {
+					if (slotKeys[i] != FREE_KEY)
+						action.accept(slotKeys[i], slotValues[i]);
+				}
+			}
+			if (numberOfModifications != beforeOpNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	public void clear() {
+		numberOfModifications++;
+		if (size > 0) {
+			size = 0;
+			hasFreeKey = false;
+			freeKeyValue = 0;
+			if (keys != null) {
+				Arrays.fill(keys, FREE_KEY);
+			}
+		}
+	}
+
+	private void resize() {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		int newCapacity;
+
+		if (oldKeys == null) {
+			newCapacity = (threshold > 0) ? threshold : DEFAULT_INITIAL_CAPACITY;
+		} else if (oldKeys.length >= MAXIMUM_CAPACITY) {
+			if (size >= MAXIMUM_CAPACITY - 1) // always leave a free slot to terminate probing
+				throw new IllegalStateException("Map is full");
+			threshold = MAXIMUM_CAPACITY - 1;
+			return;
+		} else {
+			newCapacity = oldKeys.length << 1;
+		}
+
+		threshold = (newCapacity >= MAXIMUM_CAPACITY) ?
+				MAXIMUM_CAPACITY - 1 :
+				Math.min(newCapacity - 1, (int) (newCapacity * loadFactor));
+		int[] newKeys = new int[newCapacity];
+		int[] newValues = new int[newCapacity];
+		keys = newKeys;
+		values = newValues;
+
+		if (oldKeys != null) {
+			int mask = newCapacity - 1;
+			for (int i = 0; i < oldKeys.length; i++) {
+				int key;
+				if ((key = oldKeys[i]) != FREE_KEY) {
+					int slot = hash(key) & mask;
+					while (newKeys[slot] != FREE_KEY)
+						slot = (slot + 1) & mask;
+					newKeys[slot] = key;
+					newValues[slot] = oldValues[i];
+				}
+			}
+		}
+	}
+}
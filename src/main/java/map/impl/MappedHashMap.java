@@ -0,0 +1,723 @@
+package map.impl;
+
+import map.Map;
+import map.Serializer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Implementation of {@link Map} persisted in a memory-mapped file, so that a map built once
+ * can be reopened by another process without reading or rehashing its entries.
+ *
+ * The file is a small header followed by an append-only log of records, mapped in fixed-size regions.
+ * Every {@link #put}, {@link #remove} and {@link #clear} appends a checksummed record, and the index,
+ * an open-addressing table of (hash of the serialized key, record address) slots, is itself a record
+ * of the log, appended anew whenever it is doubled. Keys are hashed and compared by their serialized bytes,
+ * so the layout does not depend on {@link Object#hashCode()} of the running process.
+ *
+ * {@link #force()} is a checkpoint: it writes the log to disk and marks the header clean.
+ * The first modification after a checkpoint marks the header dirty, and a map opened from a dirty file,
+ * after a crash, rebuilds its index by replaying the log up to the first incomplete or corrupt record.
+ * Opening a clean file only maps it.
+ *
+ * The log is never compacted, replaced and removed entries keep their space until the map is copied
+ * to a new file. An index must fit in a single region, which bounds the number of entries by the region size.
+ *
+ * Null keys and values are not supported. Not thread safe, not even for concurrent reads,
+ * and a file must not be opened by two maps at the same time.
+ */
+public class MappedHashMap<K,V> implements Map<K,V>, Closeable {
+
+	static final int DEFAULT_INITIAL_CAPACITY = 1 << 4; // aka 16
+
+	static final float LOAD_FACTOR = 0.75f;
+
+	static final int DEFAULT_REGION_SIZE = 1 << 28; // aka 256 MiB
+
+	static final int MINIMUM_REGION_SIZE = 1 << 12;
+
+	static final int MAXIMUM_REGION_SIZE = 1 << 30;
+
+	/* ---- Header layout ---- */
+
+	private static final long MAGIC = 0x4D61707065644D61L; // "MappedMa"
+
+	private static final int VERSION = 1;
+
+	static final int HEADER_SIZE = 64;
+
+	private static final int MAGIC_OFFSET = 0;
+
+	private static final int VERSION_OFFSET = 8;
+
+	private static final int REGION_SIZE_OFFSET = 12;
+
+	private static final int STATE_OFFSET = 16;
+
+	private static final int SIZE_OFFSET = 20;
+
+	private static final int INDEX_ADDRESS_OFFSET = 24;
+
+	private static final int LOG_END_OFFSET = 32;
+
+	private static final int DIRTY = 0;
+
+	private static final int CLEAN = 1;
+
+	/* ---- Record layout: [kind][key size][value size][checksum][key bytes][value bytes] ---- */
+
+	private static final int RECORD_HEADER_SIZE = 4 * Integer.BYTES;
+
+	private static final int KEY_SIZE_OFFSET = 4;
+
+	private static final int VALUE_SIZE_OFFSET = 8;
+
+	private static final int CHECKSUM_OFFSET = 12;
+
+	/**
+	 * Never written, the log ends at the first record of this kind.
+	 */
+	private static final int END_OF_LOG = 0;
+
+	private static final int PUT = 1;
+
+	private static final int REMOVE = 2;
+
+	private static final int CLEAR = 3;
+
+	/**
+	 * An index, its key size holds the number of slots and its body the slots.
+	 */
+	private static final int INDEX = 4;
+
+	/**
+	 * The rest of the region is unused, the next record did not fit.
+	 */
+	private static final int PADDING = 5;
+
+	/* ---- Index slot layout: [hash][record address] ---- */
+
+	private static final int SLOT_SIZE = Integer.BYTES + Long.BYTES;
+
+	private static final int ADDRESS_OFFSET = Integer.BYTES;
+
+	private static final int EMPTY = 0;
+
+	private static final ByteBuffer NO_BYTES = ByteBuffer.allocate(0);
+
+	/* ------------------ Static utilities -----------------*/
+
+	/**
+	 * Hashes serialized bytes, so that the hash of a key is the same in every process.
+	 * Never returns {@link #EMPTY}.
+	 */
+	static int hash(ByteBuffer serialized) {
+		int length = serialized.limit();
+		long h = length;
+		int i = 0;
+		for (; i + Long.BYTES <= length; i += Long.BYTES)
+			h = (h ^ serialized.getLong(i)) * 0x9E3779B97F4A7C15L;
+		for (; i < length; i++)
+			h = (h ^ serialized.get(i)) * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		int hash = (int) (h ^ (h >>> 16));
+		return hash == EMPTY ? 1 : hash;
+	}
+
+	/* ---------------------- Fields ---------------------- */
+
+	private final Serializer<K> keySerializer;
+
+	private final Serializer<V> valueSerializer;
+
+	private final FileChannel channel;
+
+	private final MappedByteBuffer header;
+
+	private final int regionSize;
+
+	private MappedByteBuffer[] regions = new MappedByteBuffer[0];
+
+	private int regionCount;
+
+	/**
+	 * The number of key-value mappings contained in this map.
+	 */
+	private int size;
+
+	/**
+	 * The size at which the index is doubled.
+	 */
+	private int threshold;
+
+	private int capacity;
+
+	/**
+	 * The log address of the current index record, and where its slots start in their region.
+	 */
+	private long indexAddress;
+
+	private ByteBuffer indexRegion;
+
+	private int indexBase;
+
+	/**
+	 * The log address the next record is appended at.
+	 */
+	long logEnd;
+
+	/**
+	 * Whether the header is marked dirty, that is modifications were made since the last checkpoint.
+	 */
+	private boolean dirty;
+
+	/**
+	 * Scratch buffers keys and values are serialized to before being looked up or appended.
+	 */
+	private ByteBuffer keyBuffer = ByteBuffer.allocate(64);
+
+	private ByteBuffer valueBuffer = ByteBuffer.allocate(64);
+
+	private final CRC32 checksum = new CRC32();
+
+	private int numberOfModifications;
+
+	/* ------------------- Constructors ------------------- */
+
+	/**
+	 * Opens the map stored in the file, or creates it. The initial capacity and region size
+	 * only apply to a new file, an existing one keeps its own.
+	 */
+	public MappedHashMap(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer, int initialCapacity, int regionSize) throws IOException {
+		if (keySerializer == null || valueSerializer == null)
+			throw new NullPointerException();
+		if (initialCapacity < 0)
+			initialCapacity = DEFAULT_INITIAL_CAPACITY;
+		if (regionSize < MINIMUM_REGION_SIZE || regionSize > MAXIMUM_REGION_SIZE)
+			regionSize = DEFAULT_REGION_SIZE;
+		this.keySerializer = keySerializer;
+		this.valueSerializer = valueSerializer;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			boolean existing = channel.size() >= HEADER_SIZE;
+			this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+			if (existing) {
+				if (header.getLong(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION)
+					throw new IOException("Not a map file: " + file);
+				this.regionSize = header.getInt(REGION_SIZE_OFFSET);
+				if (header.getInt(STATE_OFFSET) == CLEAN)
+					load();
+				else
+					recover();
+			} else {
+				this.regionSize = regionSize;
+				header.putLong(MAGIC_OFFSET, MAGIC);
+				header.putInt(VERSION_OFFSET, VERSION);
+				header.putInt(REGION_SIZE_OFFSET, regionSize);
+				header.putInt(STATE_OFFSET, DIRTY);
+				dirty = true;
+				allocateIndex(HashMap.bucketsSizeFor((int) Math.min(Integer.MAX_VALUE, Math.ceil(initialCapacity / LOAD_FACTOR))));
+				force();
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public MappedHashMap(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+		this(file, keySerializer, valueSerializer, DEFAULT_INITIAL_CAPACITY, DEFAULT_REGION_SIZE);
+	}
+
+	/* ---------------------- Methods ---------------------- */
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return findSlot(serializeKey(key)) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		if (value == null)
+			throw new NullPointerException();
+		if (size == 0)
+			return false;
+		@SuppressWarnings("unchecked")
+		ByteBuffer serializedValue = valueBuffer = OffHeapHashMap.serialize(valueSerializer, (V) value, valueBuffer);
+		int length = serializedValue.limit();
+		for (int slot = 0; slot < capacity; slot++) {
+			if (indexRegion.getInt(indexBase + slot * SLOT_SIZE) != EMPTY) {
+				long address = indexRegion.getLong(indexBase + slot * SLOT_SIZE + ADDRESS_OFFSET);
+				ByteBuffer region = region(address);
+				int offset = offset(address);
+				if (region.getInt(offset + VALUE_SIZE_OFFSET) == length &&
+						OffHeapHashMap.bytesEqual(region, offset + RECORD_HEADER_SIZE + region.getInt(offset + KEY_SIZE_OFFSET), serializedValue, length))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public V get(Object key) {
+		int slot = findSlot(serializeKey(key));
+		return slot < 0 ? null : readValue(indexRegion.getLong(indexBase + slot * SLOT_SIZE + ADDRESS_OFFSET));
+	}
+
+	@SuppressWarnings("unchecked")
+	private ByteBuffer serializeKey(Object key) {
+		if (key == null)
+			throw new NullPointerException();
+		return keyBuffer = OffHeapHashMap.serialize(keySerializer, (K) key, keyBuffer);
+	}
+
+	/**
+	 * Returns the index slot holding the serialized key, or -1.
+	 */
+	private int findSlot(ByteBuffer serializedKey) {
+		if (size == 0)
+			return -1;
+		int hash = hash(serializedKey);
+		int mask = capacity - 1;
+		int currentHash;
+		for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+			if ((currentHash = indexRegion.getInt(indexBase + slot * SLOT_SIZE)) == EMPTY)
+				return -1;
+			if (currentHash == hash && keyEquals(indexRegion.getLong(indexBase + slot * SLOT_SIZE + ADDRESS_OFFSET), serializedKey))
+				return slot;
+		}
+	}
+
+	private boolean keyEquals(long address, ByteBuffer serializedKey) {
+		ByteBuffer region = region(address);
+		int offset = offset(address);
+		int length = serializedKey.limit();
+		return region.getInt(offset + KEY_SIZE_OFFSET) == length &&
+				OffHeapHashMap.bytesEqual(region, offset + RECORD_HEADER_SIZE, serializedKey, length);
+	}
+
+	private K readKey(long address) {
+		ByteBuffer region = region(address);
+		int offset = offset(address);
+		((Buffer) region).position(offset + RECORD_HEADER_SIZE);
+		return keySerializer.read(region, region.getInt(offset + KEY_SIZE_OFFSET));
+	}
+
+	private V readValue(long address) {
+		ByteBuffer region = region(address);
+		int offset = offset(address);
+		((Buffer) region).position(offset + RECORD_HEADER_SIZE + region.getInt(offset + KEY_SIZE_OFFSET));
+		return valueSerializer.read(region, region.getInt(offset + VALUE_SIZE_OFFSET));
+	}
+
+	@Override
+	public V put(K key, V value) {
+		if (value == null)
+			throw new NullPointerException();
+		ByteBuffer serializedKey = serializeKey(key);
+		ByteBuffer serializedValue = valueBuffer = OffHeapHashMap.serialize(valueSerializer, value, valueBuffer);
+		markDirty();
+		int slot = findSlot(serializedKey);
+		V oldValue = slot < 0 ? null : readValue(indexRegion.getLong(indexBase + slot * SLOT_SIZE + ADDRESS_OFFSET));
+		putAddress(serializedKey, append(PUT, serializedKey, serializedValue));
+		return oldValue;
+	}
+
+	/**
+	 * Points the index slot of the serialized key at the record, adding the slot if the key is new.
+	 */
+	private void putAddress(ByteBuffer serializedKey, long address) {
+		int hash = hash(serializedKey);
+		int mask = capacity - 1;
+		int currentHash;
+		int slot = hash & mask;
+		for (; ; slot = (slot + 1) & mask) {
+			if ((currentHash = indexRegion.getInt(indexBase + slot * SLOT_SIZE)) == EMPTY)
+				break;
+			if (currentHash == hash && keyEquals(indexRegion.getLong(indexBase + slot * SLOT_SIZE + ADDRESS_OFFSET), serializedKey)) {
+				indexRegion.putLong(indexBase + slot * SLOT_SIZE + ADDRESS_OFFSET, address);
+				return;
+			}
+		}
+
+		if (size >= threshold) {
+			resize();
+			mask = capacity - 1;
+			slot = hash & mask;
+			while (indexRegion.getInt(indexBase + slot * SLOT_SIZE) != EMPTY)
+				slot = (slot + 1) & mask;
+		}
+		indexRegion.putLong(indexBase + slot * SLOT_SIZE + ADDRESS_OFFSET, address);
+		indexRegion.putInt(indexBase + slot * SLOT_SIZE, hash);
+		numberOfModifications++;
+		size++;
+	}
+
+	@Override
+	public V remove(Object key) {
+		ByteBuffer serializedKey = serializeKey(key);
+		int slot = findSlot(serializedKey);
+		if (slot < 0)
+			return null;
+		V oldValue = readValue(indexRegion.getLong(indexBase + slot * SLOT_SIZE + ADDRESS_OFFSET));
+		markDirty();
+		append(REMOVE, serializedKey, NO_BYTES);
+		removeSlot(slot);
+		return oldValue;
+	}
+
+	/**
+	 * Backward-shift deletion, see {@link IntIntHashMap}.
+	 */
+	private void removeSlot(int gap) {
+		int mask = capacity - 1;
+		int currentHash;
+		for (int slot = (gap + 1) & mask; (currentHash = indexRegion.getInt(indexBase + slot * SLOT_SIZE)) != EMPTY; slot = (slot + 1) & mask) {
+			// the entry may move back if the gap lies between its home slot and its current slot
+			if (((slot - (currentHash & mask)) & mask) >= ((slot - gap) & mask)) {
+				indexRegion.putInt(indexBase + gap * SLOT_SIZE, currentHash);
+				indexRegion.putLong(indexBase + gap * SLOT_SIZE + ADDRESS_OFFSET, indexRegion.getLong(indexBase + slot * SLOT_SIZE + ADDRESS_OFFSET));
+				gap = slot;
+			}
+		}
+		indexRegion.putInt(indexBase + gap * SLOT_SIZE, EMPTY);
+		numberOfModifications++;
+		size--;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		if (action == null)
+			throw new NullPointerException();
+		if (size > 0) {
+			int beforeOpNumberOfModifications = numberOfModifications;
+			for (int slot = 0; slot < capacity; slot++) {
+				if (indexRegion.getInt(indexBase + slot * SLOT_SIZE) != EMPTY) {
+					long address = indexRegion.getLong(indexBase + slot * SLOT_SIZE + ADDRESS_OFFSET);
+					action.accept(readKey(address), readValue(address));
+				}
+			}
+			if (numberOfModifications != beforeOpNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	public void clear() {
+		numberOfModifications++;
+		if (size > 0) {
+			markDirty();
+			append(CLEAR, NO_BYTES, NO_BYTES);
+			clearIndex();
+		}
+	}
+
+	private void clearIndex() {
+		size = 0;
+		for (int slot = 0; slot < capacity; slot++)
+			indexRegion.putInt(indexBase + slot * SLOT_SIZE, EMPTY);
+	}
+
+	/**
+	 * Checkpoint: writes all modifications to the file and marks it clean,
+	 * so that it is reopened without replaying the log.
+	 */
+	public void force() {
+		for (int i = 0; i < regionCount; i++)
+			regions[i].force();
+		header.putInt(SIZE_OFFSET, size);
+		header.putLong(INDEX_ADDRESS_OFFSET, indexAddress);
+		header.putLong(LOG_END_OFFSET, logEnd);
+		header.putInt(STATE_OFFSET, CLEAN);
+		header.force();
+		dirty = false;
+	}
+
+	/**
+	 * Forces the map to the file and closes it. The file stays mapped until the buffers are garbage collected.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (channel.isOpen()) {
+			force();
+			channel.close();
+		}
+	}
+
+	/**
+	 * Marks the header dirty on disk before the first modification after a checkpoint,
+	 * so that a crash before the next checkpoint is detected on reopening.
+	 */
+	private void markDirty() {
+		if (!dirty) {
+			header.putInt(STATE_OFFSET, DIRTY);
+			header.force();
+			dirty = true;
+		}
+	}
+
+	/* ---------------- Log -------------- */
+
+	private int offset(long address) {
+		return (int) (address % regionSize);
+	}
+
+	/**
+	 * Returns the region holding the log address, mapping regions up to it.
+	 */
+	private ByteBuffer region(long address) {
+		int regionIndex = (int) (address / regionSize);
+		while (regionIndex >= regionCount) {
+			if (regionCount == regions.length)
+				regions = Arrays.copyOf(regions, Math.max(4, regions.length << 1));
+			try {
+				regions[regionCount] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + (long) regionCount * regionSize, regionSize);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			regionCount++;
+		}
+		return regions[regionIndex];
+	}
+
+	/**
+	 * Reserves space for a record at the end of the log, skipping to the next region if it does not fit.
+	 * Returns the address of the record.
+	 */
+	private long reserve(long recordSize) {
+		if (recordSize > regionSize)
+			throw new IllegalArgumentException("Record of " + recordSize + " bytes does not fit in a region of " + regionSize);
+		int offset = offset(logEnd);
+		if (offset + recordSize > regionSize) {
+			if (offset + Integer.BYTES <= regionSize)
+				region(logEnd).putInt(offset, PADDING);
+			logEnd += regionSize - offset;
+		}
+		long address = logEnd;
+		logEnd += recordSize;
+		return address;
+	}
+
+	/**
+	 * Appends a record, writing its kind last so that a record interrupted by a crash reads as the end of the log.
+	 */
+	private long append(int kind, ByteBuffer serializedKey, ByteBuffer serializedValue) {
+		int keySize = serializedKey.limit();
+		int valueSize = serializedValue.limit();
+		long address = reserve((long) RECORD_HEADER_SIZE + keySize + valueSize);
+		ByteBuffer region = region(address);
+		int offset = offset(address);
+		checksum.reset();
+		checksum.update(serializedKey);
+		checksum.update(serializedValue);
+		((Buffer) serializedKey).rewind();
+		((Buffer) serializedValue).rewind();
+		((Buffer) region).position(offset + RECORD_HEADER_SIZE);
+		region.put(serializedKey);
+		region.put(serializedValue);
+		((Buffer) serializedKey).rewind();
+		((Buffer) serializedValue).rewind();
+		region.putInt(offset + KEY_SIZE_OFFSET, keySize);
+		region.putInt(offset + VALUE_SIZE_OFFSET, valueSize);
+		region.putInt(offset + CHECKSUM_OFFSET, (int) checksum.getValue());
+		region.putInt(offset, kind);
+		return address;
+	}
+
+	/**
+	 * Appends an empty index record of the given number of slots and makes it the current index.
+	 */
+	private void allocateIndex(int newCapacity) {
+		if ((long) newCapacity * SLOT_SIZE + RECORD_HEADER_SIZE > regionSize)
+			throw new IllegalStateException("Map is full, the index does not fit in a region of " + regionSize);
+		long address = reserve((long) newCapacity * SLOT_SIZE + RECORD_HEADER_SIZE);
+		ByteBuffer region = region(address);
+		int offset = offset(address);
+		for (int slot = 0; slot < newCapacity; slot++)
+			region.putInt(offset + RECORD_HEADER_SIZE + slot * SLOT_SIZE, EMPTY);
+		region.putInt(offset + KEY_SIZE_OFFSET, newCapacity);
+		region.putInt(offset + VALUE_SIZE_OFFSET, 0);
+		region.putInt(offset + CHECKSUM_OFFSET, 0);
+		region.putInt(offset, INDEX);
+		attachIndex(address);
+	}
+
+	private void attachIndex(long address) {
+		indexAddress = address;
+		indexRegion = region(address);
+		indexBase = offset(address) + RECORD_HEADER_SIZE;
+		capacity = indexRegion.getInt(offset(address) + KEY_SIZE_OFFSET);
+		threshold = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+	}
+
+	private void resize() {
+		ByteBuffer oldIndexRegion = indexRegion;
+		int oldIndexBase = indexBase;
+		int oldCapacity = capacity;
+		allocateIndex(oldCapacity << 1);
+
+		int mask = capacity - 1;
+		for (int i = 0; i < oldCapacity; i++) {
+			int hash;
+			if ((hash = oldIndexRegion.getInt(oldIndexBase + i * SLOT_SIZE)) != EMPTY) {
+				int slot = hash & mask;
+				while (indexRegion.getInt(indexBase + slot * SLOT_SIZE) != EMPTY)
+					slot = (slot + 1) & mask;
+				indexRegion.putLong(indexBase + slot * SLOT_SIZE + ADDRESS_OFFSET, oldIndexRegion.getLong(oldIndexBase + i * SLOT_SIZE + ADDRESS_OFFSET));
+				indexRegion.putInt(indexBase + slot * SLOT_SIZE, hash);
+			}
+		}
+	}
+
+	/* ---------------- Opening -------------- */
+
+	/**
+	 * Opens a clean file, whose header describes the index as of the last checkpoint.
+	 */
+	private void load() {
+		size = header.getInt(SIZE_OFFSET);
+		logEnd = header.getLong(LOG_END_OFFSET);
+		attachIndex(header.getLong(INDEX_ADDRESS_OFFSET));
+	}
+
+	/**
+	 * Opens a dirty file: truncates the log after its last valid record, then rebuilds the index
+	 * in a new index record by replaying the puts, removals and clears before it.
+	 */
+	private void recover() throws IOException {
+		long mappedEnd = channel.size() - HEADER_SIZE;
+		long address = 0;
+		int puts = 0;
+		for (int kind; (address = nextRecord(address, mappedEnd)) >= 0; address += recordSize(address)) {
+			if ((kind = region(address).getInt(offset(address))) == PUT)
+				puts++;
+			else if (kind == CLEAR)
+				puts = 0;
+		}
+		long validEnd = -address - 1;
+		discardAfter(validEnd);
+
+		logEnd = validEnd;
+		dirty = true;
+		// every put replayed may be a replacement, the estimate is capped to the largest index that fits
+		int estimatedCapacity = HashMap.bucketsSizeFor((int) Math.min(Integer.MAX_VALUE, Math.ceil(Math.max(puts, DEFAULT_INITIAL_CAPACITY) / LOAD_FACTOR)));
+		allocateIndex(Math.min(estimatedCapacity, Integer.highestOneBit((regionSize - RECORD_HEADER_SIZE) / SLOT_SIZE)));
+		for (address = 0; (address = nextRecord(address, validEnd)) >= 0; address += recordSize(address)) {
+			ByteBuffer region = region(address);
+			int offset = offset(address);
+			int kind = region.getInt(offset);
+			if (kind == CLEAR) {
+				clearIndex();
+			} else if (kind == PUT || kind == REMOVE) {
+				int keySize = region.getInt(offset + KEY_SIZE_OFFSET);
+				if (keyBuffer.capacity() < keySize)
+					keyBuffer = ByteBuffer.allocate(keySize);
+				((Buffer) keyBuffer).clear();
+				for (int i = 0; i < keySize; i++)
+					keyBuffer.put(region.get(offset + RECORD_HEADER_SIZE + i));
+				((Buffer) keyBuffer).flip();
+				if (kind == PUT) {
+					putAddress(keyBuffer, address);
+				} else {
+					int slot = findSlot(keyBuffer);
+					if (slot >= 0)
+						removeSlot(slot);
+				}
+			}
+		}
+		force();
+	}
+
+	/**
+	 * Returns the address of the first valid record at or after the address, skipping padding,
+	 * or {@code -(end of the valid log) - 1} if there is none before the end.
+	 */
+	private long nextRecord(long address, long end) {
+		for (;;) {
+			int offset = offset(address);
+			if (offset + RECORD_HEADER_SIZE > regionSize) {
+				address += regionSize - offset;
+				continue;
+			}
+			if (address + RECORD_HEADER_SIZE > end)
+				return -address - 1;
+			ByteBuffer region = region(address);
+			int kind = region.getInt(offset);
+			if (kind == PADDING) {
+				address += regionSize - offset;
+				continue;
+			}
+			return isValidRecord(region, offset, kind, end - address) ? address : -address - 1;
+		}
+	}
+
+	private boolean isValidRecord(ByteBuffer region, int offset, int kind, long remaining) {
+		if (kind == END_OF_LOG || kind < PUT || kind > INDEX)
+			return false;
+		int keySize = region.getInt(offset + KEY_SIZE_OFFSET);
+		int valueSize = region.getInt(offset + VALUE_SIZE_OFFSET);
+		if (keySize < 0 || valueSize < 0)
+			return false;
+		long recordSize = RECORD_HEADER_SIZE + (kind == INDEX ? (long) keySize * SLOT_SIZE : (long) keySize + valueSize);
+		if (offset + recordSize > regionSize || recordSize > remaining)
+			return false;
+		if (kind == INDEX)
+			return true;
+		ByteBuffer body = region.duplicate();
+		((Buffer) body).limit((int) (offset + recordSize));
+		((Buffer) body).position(offset + RECORD_HEADER_SIZE);
+		checksum.reset();
+		checksum.update(body);
+		return (int) checksum.getValue() == region.getInt(offset + CHECKSUM_OFFSET);
+	}
+
+	private long recordSize(long address) {
+		ByteBuffer region = region(address);
+		int offset = offset(address);
+		int keySize = region.getInt(offset + KEY_SIZE_OFFSET);
+		if (region.getInt(offset) == INDEX)
+			return RECORD_HEADER_SIZE + (long) keySize * SLOT_SIZE;
+		return RECORD_HEADER_SIZE + (long) keySize + region.getInt(offset + VALUE_SIZE_OFFSET);
+	}
+
+	/**
+	 * Zeroes the rest of the region after the valid log and drops the regions after it,
+	 * so that stale records past a torn one are never replayed.
+	 */
+	private void discardAfter(long address) throws IOException {
+		int regionIndex = (int) (address / regionSize);
+		if (regionIndex < regionCount) {
+			ByteBuffer region = regions[regionIndex];
+			int offset = offset(address);
+			for (; offset + Long.BYTES <= regionSize; offset += Long.BYTES)
+				region.putLong(offset, 0);
+			for (; offset < regionSize; offset++)
+				region.put(offset, (byte) 0);
+			regionIndex++;
+		}
+		if (channel.size() > HEADER_SIZE + (long) regionIndex * regionSize)
+			channel.truncate(HEADER_SIZE + (long) regionIndex * regionSize);
+	}
+}
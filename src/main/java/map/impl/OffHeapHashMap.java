@@ -0,0 +1,555 @@
+package map.impl;
+
+import map.Map;
+import map.Serializer;
+
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.function.BiConsumer;
+
+/**
+ * Implementation of {@link Map} that keeps its entries outside the Java heap, in direct {@link ByteBuffer}s,
+ * so that large maps neither lengthen GC pauses nor have to be accounted for in the heap size.
+ *
+ * Keys and values are converted to bytes by the given {@link Serializer}s and appended to fixed-size slabs,
+ * each entry laid out as {@code [key size][value size][key bytes][value bytes]}, where a size is left out
+ * when its serializer has a {@link Serializer#fixedSize() fixed size}. The index is an open-addressing table,
+ * also off-heap, whose slots hold the hash of the serialized key and the address of the entry.
+ * Keys are hashed and compared by their serialized bytes, so lookups of fixed-size keys are done without allocation
+ * apart from deserializing the returned value.
+ *
+ * Replacing a value by one of the same size overwrites it in place, other replacements and removals leave
+ * the old entry behind as garbage, and the slabs are compacted once garbage makes up half of them.
+ *
+ * Null keys and values are not supported. Not thread safe, not even for concurrent reads.
+ */
+public class OffHeapHashMap<K,V> implements Map<K,V> {
+
+	static final int DEFAULT_INITIAL_CAPACITY = 1 << 4; // aka 16
+
+	/**
+	 * The maximum number of index slots, so that the index fits in a single buffer.
+	 */
+	static final int MAXIMUM_CAPACITY = 1 << 27;
+
+	static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	static final int DEFAULT_SLAB_SIZE = 1 << 26; // aka 64 MiB
+
+	/**
+	 * An index slot holds the int hash of the key followed by the long address of the entry.
+	 */
+	private static final int SLOT_SIZE = Integer.BYTES + Long.BYTES;
+
+	private static final int ADDRESS_OFFSET = Integer.BYTES;
+
+	private static final int EMPTY = 0;
+
+	/* ------------------ Static utilities -----------------*/
+
+	/**
+	 * Hashes serialized bytes, the same bytes as the equality of keys, whatever {@link Object#hashCode()} of the key does.
+	 * Linear probing uses the low bits of the hash directly, so the high bits are mixed in.
+	 * Never returns {@link #EMPTY}.
+	 */
+	static int hash(ByteBuffer serialized) {
+		int length = serialized.limit();
+		long h = length;
+		int i = 0;
+		for (; i + Long.BYTES <= length; i += Long.BYTES)
+			h = (h ^ serialized.getLong(i)) * 0x9E3779B97F4A7C15L;
+		for (; i < length; i++)
+			h = (h ^ serialized.get(i)) * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		int hash = (int) (h ^ (h >>> 16));
+		return hash == EMPTY ? 1 : hash;
+	}
+
+	/**
+	 * Writes the value to the start of the buffer, replacing the buffer with a larger one until it fits.
+	 * Returns the buffer, flipped for reading.
+	 */
+	static <T> ByteBuffer serialize(Serializer<T> serializer, T value, ByteBuffer buffer) {
+		for (;;) {
+			((Buffer) buffer).clear();
+			try {
+				serializer.write(value, buffer);
+				((Buffer) buffer).flip();
+				return buffer;
+			} catch (BufferOverflowException e) {
+				buffer = ByteBuffer.allocate(buffer.capacity() << 1);
+			}
+		}
+	}
+
+	static boolean bytesEqual(ByteBuffer slab, int offset, ByteBuffer serialized, int length) {
+		int i = 0;
+		for (; i + Long.BYTES <= length; i += Long.BYTES) {
+			if (slab.getLong(offset + i) != serialized.getLong(i))
+				return false;
+		}
+		for (; i < length; i++) {
+			if (slab.get(offset + i) != serialized.get(i))
+				return false;
+		}
+		return true;
+	}
+
+	private static long address(int slabIndex, int offset) {
+		return ((long) slabIndex << 32) | offset;
+	}
+
+	private static int slabIndex(long address) {
+		return (int) (address >>> 32);
+	}
+
+	private static int offset(long address) {
+		return (int) address;
+	}
+
+	/* ---------------------- Fields ---------------------- */
+
+	private final Serializer<K> keySerializer;
+
+	private final Serializer<V> valueSerializer;
+
+	/**
+	 * The fixed serialized sizes, or {@link Serializer#VARIABLE_SIZE} if stored with every entry.
+	 */
+	private final int keySize;
+
+	private final int valueSize;
+
+	private final int entryHeaderSize;
+
+	private final int slabSize;
+
+	final float loadFactor;
+
+	/**
+	 * The number of key-value mappings contained in this map.
+	 */
+	private int size;
+
+	/**
+	 * The size at which the index is doubled, holds the initial capacity until the index is allocated.
+	 */
+	private int threshold;
+
+	private ByteBuffer index;
+
+	private int capacity;
+
+	/**
+	 * Slabs are kept after {@link #clear()} for reuse, only the first {@link #slabCount} are in use.
+	 */
+	private ByteBuffer[] slabs = new ByteBuffer[0];
+
+	private int slabCount;
+
+	/**
+	 * Where the next entry is appended in the last slab in use.
+	 */
+	private int slabPosition;
+
+	private long usedBytes;
+
+	private long garbageBytes;
+
+	/**
+	 * Scratch buffers keys and values are serialized to before being looked up or copied to a slab.
+	 */
+	private ByteBuffer keyBuffer;
+
+	private ByteBuffer valueBuffer;
+
+	private int numberOfModifications;
+
+	/* ------------------- Constructors ------------------- */
+
+	public OffHeapHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer, int initialCapacity, float loadFactor, int slabSize) {
+		if (keySerializer == null || valueSerializer == null)
+			throw new NullPointerException();
+		if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor))
+			loadFactor = DEFAULT_LOAD_FACTOR;
+		if (initialCapacity < 0)
+			initialCapacity = DEFAULT_INITIAL_CAPACITY;
+		if (initialCapacity > MAXIMUM_CAPACITY)
+			initialCapacity = MAXIMUM_CAPACITY;
+		if (slabSize <= 0)
+			slabSize = DEFAULT_SLAB_SIZE;
+		this.keySerializer = keySerializer;
+		this.valueSerializer = valueSerializer;
+		this.keySize = keySerializer.fixedSize();
+		this.valueSize = valueSerializer.fixedSize();
+		this.entryHeaderSize = (keySize == Serializer.VARIABLE_SIZE ? Integer.BYTES : 0) +
+				(valueSize == Serializer.VARIABLE_SIZE ? Integer.BYTES : 0);
+		this.slabSize = slabSize;
+		this.loadFactor = loadFactor;
+		this.threshold = HashMap.bucketsSizeFor((int) Math.min(MAXIMUM_CAPACITY, Math.ceil(initialCapacity / loadFactor)));
+		this.keyBuffer = ByteBuffer.allocate(keySize > 0 ? keySize : 64);
+		this.valueBuffer = ByteBuffer.allocate(valueSize > 0 ? valueSize : 64);
+	}
+
+	public OffHeapHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer, int initialCapacity) {
+		this(keySerializer, valueSerializer, initialCapacity, DEFAULT_LOAD_FACTOR, DEFAULT_SLAB_SIZE);
+	}
+
+	public OffHeapHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+		this(keySerializer, valueSerializer, DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_SLAB_SIZE);
+	}
+
+	/* ---------------------- Methods ---------------------- */
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return findSlot(key) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		if (value == null)
+			throw new NullPointerException();
+		if (size == 0)
+			return false;
+		@SuppressWarnings("unchecked")
+		ByteBuffer serializedValue = valueBuffer = serialize(valueSerializer, (V) value, valueBuffer);
+		int length = serializedValue.limit();
+		for (int slot = 0; slot < capacity; slot++) {
+			if (index.getInt(slot * SLOT_SIZE) != EMPTY) {
+				long address = index.getLong(slot * SLOT_SIZE + ADDRESS_OFFSET);
+				ByteBuffer slab = slab(address);
+				int offset = offset(address);
+				if (valueLength(slab, offset) == length &&
+						bytesEqual(slab, offset + entryHeaderSize + keyLength(slab, offset), serializedValue, length))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public V get(Object key) {
+		int slot = findSlot(key);
+		return slot < 0 ? null : readValue(index.getLong(slot * SLOT_SIZE + ADDRESS_OFFSET));
+	}
+
+	/**
+	 * Returns the index slot holding the key, or -1.
+	 */
+	@SuppressWarnings("unchecked")
+	private int findSlot(Object key) {
+		if (key == null)
+			throw new NullPointerException();
+		if (size == 0)
+			return -1;
+		ByteBuffer serializedKey = keyBuffer = serialize(keySerializer, (K) key, keyBuffer);
+		int hash = hash(serializedKey);
+		ByteBuffer slots = index;
+		int mask = capacity - 1;
+		int currentHash;
+		for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+			if ((currentHash = slots.getInt(slot * SLOT_SIZE)) == EMPTY)
+				return -1;
+			if (currentHash == hash && keyEquals(slots.getLong(slot * SLOT_SIZE + ADDRESS_OFFSET), serializedKey))
+				return slot;
+		}
+	}
+
+	private boolean keyEquals(long address, ByteBuffer serializedKey) {
+		ByteBuffer slab = slab(address);
+		int offset = offset(address);
+		int length = serializedKey.limit();
+		return keyLength(slab, offset) == length && bytesEqual(slab, offset + entryHeaderSize, serializedKey, length);
+	}
+
+	private ByteBuffer slab(long address) {
+		return slabs[slabIndex(address)];
+	}
+
+	private int keyLength(ByteBuffer slab, int offset) {
+		return keySize != Serializer.VARIABLE_SIZE ? keySize : slab.getInt(offset);
+	}
+
+	private int valueLength(ByteBuffer slab, int offset) {
+		if (valueSize != Serializer.VARIABLE_SIZE)
+			return valueSize;
+		return slab.getInt(keySize == Serializer.VARIABLE_SIZE ? offset + Integer.BYTES : offset);
+	}
+
+	private int entryLength(long address) {
+		ByteBuffer slab = slab(address);
+		int offset = offset(address);
+		return entryHeaderSize + keyLength(slab, offset) + valueLength(slab, offset);
+	}
+
+	private K readKey(long address) {
+		ByteBuffer slab = slab(address);
+		int offset = offset(address);
+		((Buffer) slab).position(offset + entryHeaderSize);
+		return keySerializer.read(slab, keyLength(slab, offset));
+	}
+
+	private V readValue(long address) {
+		ByteBuffer slab = slab(address);
+		int offset = offset(address);
+		((Buffer) slab).position(offset + entryHeaderSize + keyLength(slab, offset));
+		return valueSerializer.read(slab, valueLength(slab, offset));
+	}
+
+	@Override
+	public V put(K key, V value) {
+		if (key == null || value == null)
+			throw new NullPointerException();
+		ByteBuffer serializedKey = keyBuffer = serialize(keySerializer, key, keyBuffer);
+		int hash = hash(serializedKey);
+		ByteBuffer serializedValue = valueBuffer = serialize(valueSerializer, value, valueBuffer);
+		if ((keySize != Serializer.VARIABLE_SIZE && serializedKey.limit() != keySize) ||
+				(valueSize != Serializer.VARIABLE_SIZE && serializedValue.limit() != valueSize))
+			throw new IllegalStateException("Serializer wrote a different size than its fixed size");
+		if (index == null)
+			resize();
+
+		int mask = capacity - 1;
+		int currentHash;
+		int slot = hash & mask;
+		for (; ; slot = (slot + 1) & mask) {
+			if ((currentHash = index.getInt(slot * SLOT_SIZE)) == EMPTY)
+				break;
+			long address;
+			if (currentHash == hash && keyEquals(address = index.getLong(slot * SLOT_SIZE + ADDRESS_OFFSET), serializedKey)) {
+				V oldValue = readValue(address);
+				replaceValue(slot, address, serializedKey, serializedValue);
+				return oldValue;
+			}
+		}
+
+		if (size >= threshold) {
+			resize();
+			mask = capacity - 1;
+			slot = hash & mask;
+			while (index.getInt(slot * SLOT_SIZE) != EMPTY)
+				slot = (slot + 1) & mask;
+		}
+		long address = append(serializedKey, serializedValue);
+		index.putInt(slot * SLOT_SIZE, hash);
+		index.putLong(slot * SLOT_SIZE + ADDRESS_OFFSET, address);
+		numberOfModifications++;
+		size++;
+		return null;
+	}
+
+	/**
+	 * Overwrites the value in place if the new one has the same size, otherwise appends a new entry.
+	 */
+	private void replaceValue(int slot, long address, ByteBuffer serializedKey, ByteBuffer serializedValue) {
+		ByteBuffer slab = slab(address);
+		int offset = offset(address);
+		int keyLength = keyLength(slab, offset);
+		int valueLength = valueLength(slab, offset);
+		if (valueLength == serializedValue.limit()) {
+			((Buffer) slab).position(offset + entryHeaderSize + keyLength);
+			slab.put(serializedValue);
+			return;
+		}
+		// the old entry only becomes garbage once the index stops pointing at it, a compaction may still copy it
+		int oldEntryLength = entryHeaderSize + keyLength + valueLength;
+		index.putLong(slot * SLOT_SIZE + ADDRESS_OFFSET, append(serializedKey, serializedValue));
+		garbageBytes += oldEntryLength;
+	}
+
+	/**
+	 * Appends an entry to the last slab, compacting or adding slabs when it does not fit.
+	 * Returns the address of the entry.
+	 */
+	private long append(ByteBuffer serializedKey, ByteBuffer serializedValue) {
+		int keyLength = serializedKey.limit();
+		int valueLength = serializedValue.limit();
+		int entryLength = entryHeaderSize + keyLength + valueLength;
+		if (entryLength > slabSize)
+			throw new IllegalArgumentException("Entry of " + entryLength + " bytes does not fit in a slab of " + slabSize);
+		if (slabCount == 0 || slabPosition + entryLength > slabSize) {
+			if (garbageBytes > usedBytes >>> 1)
+				compact();
+			if (slabCount == 0 || slabPosition + entryLength > slabSize)
+				addSlab();
+		}
+
+		ByteBuffer slab = slabs[slabCount - 1];
+		int offset = slabPosition;
+		int position = offset;
+		if (keySize == Serializer.VARIABLE_SIZE) {
+			slab.putInt(position, keyLength);
+			position += Integer.BYTES;
+		}
+		if (valueSize == Serializer.VARIABLE_SIZE) {
+			slab.putInt(position, valueLength);
+			position += Integer.BYTES;
+		}
+		((Buffer) slab).position(position);
+		slab.put(serializedKey);
+		slab.put(serializedValue);
+		slabPosition += entryLength;
+		usedBytes += entryLength;
+		return address(slabCount - 1, offset);
+	}
+
+	private void addSlab() {
+		if (slabCount == slabs.length)
+			slabs = Arrays.copyOf(slabs, Math.max(4, slabs.length << 1));
+		if (slabs[slabCount] == null)
+			slabs[slabCount] = ByteBuffer.allocateDirect(slabSize);
+		slabCount++;
+		slabPosition = 0;
+	}
+
+	/**
+	 * Copies the live entries to fresh slabs, dropping the garbage left by replacements and removals.
+	 * The old slabs are released once the garbage collector finalizes their buffers.
+	 */
+	private void compact() {
+		ByteBuffer[] oldSlabs = slabs;
+		slabs = new ByteBuffer[0];
+		slabCount = 0;
+		slabPosition = 0;
+		usedBytes = 0;
+		garbageBytes = 0;
+		for (int slot = 0; slot < capacity; slot++) {
+			if (index.getInt(slot * SLOT_SIZE) != EMPTY) {
+				long address = index.getLong(slot * SLOT_SIZE + ADDRESS_OFFSET);
+				ByteBuffer oldSlab = oldSlabs[slabIndex(address)];
+				int offset = offset(address);
+				int entryLength = entryHeaderSize + keyLength(oldSlab, offset) + valueLength(oldSlab, offset);
+				if (slabCount == 0 || slabPosition + entryLength > slabSize)
+					addSlab();
+				ByteBuffer slab = slabs[slabCount - 1];
+				((Buffer) oldSlab).limit(offset + entryLength);
+				((Buffer) oldSlab).position(offset);
+				((Buffer) slab).position(slabPosition);
+				slab.put(oldSlab);
+				((Buffer) oldSlab).limit(oldSlab.capacity());
+				index.putLong(slot * SLOT_SIZE + ADDRESS_OFFSET, address(slabCount - 1, slabPosition));
+				slabPosition += entryLength;
+				usedBytes += entryLength;
+			}
+		}
+	}
+
+	@Override
+	public V remove(Object key) {
+		int slot = findSlot(key);
+		if (slot < 0)
+			return null;
+		long address = index.getLong(slot * SLOT_SIZE + ADDRESS_OFFSET);
+		V oldValue = readValue(address);
+		garbageBytes += entryLength(address);
+		removeSlot(slot);
+		return oldValue;
+	}
+
+	/**
+	 * Backward-shift deletion, see {@link IntIntHashMap}.
+	 */
+	private void removeSlot(int gap) {
+		ByteBuffer slots = index;
+		int mask = capacity - 1;
+		int currentHash;
+		for (int slot = (gap + 1) & mask; (currentHash = slots.getInt(slot * SLOT_SIZE)) != EMPTY; slot = (slot + 1) & mask) {
+			// the entry may move back if the gap lies between its home slot and its current slot
+			if (((slot - (currentHash & mask)) & mask) >= ((slot - gap) & mask)) {
+				slots.putInt(gap * SLOT_SIZE, currentHash);
+				slots.putLong(gap * SLOT_SIZE + ADDRESS_OFFSET, slots.getLong(slot * SLOT_SIZE + ADDRESS_OFFSET));
+				gap = slot;
+			}
+		}
+		slots.putInt(gap * SLOT_SIZE, EMPTY);
+		numberOfModifications++;
+		size--;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		if (action == null)
+			throw new NullPointerException();
+		if (size > 0) {
+			int beforeOpNumberOfModifications = numberOfModifications;
+			for (int slot = 0; slot < capacity; slot++) {
+				if (index.getInt(slot * SLOT_SIZE) != EMPTY) {
+					long address = index.getLong(slot * SLOT_SIZE + ADDRESS_OFFSET);
+					action.accept(readKey(address), readValue(address));
+				}
+			}
+			if (numberOfModifications != beforeOpNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Removes all of the mappings, keeping the index and the slabs allocated for reuse.
+	 */
+	@Override
+	public void clear() {
+		numberOfModifications++;
+		if (size > 0) {
+			size = 0;
+			for (int slot = 0; slot < capacity; slot++)
+				index.putInt(slot * SLOT_SIZE, EMPTY);
+		}
+		slabCount = 0;
+		slabPosition = 0;
+		usedBytes = 0;
+		garbageBytes = 0;
+	}
+
+	private void resize() {
+		ByteBuffer oldIndex = index;
+		int oldCapacity = capacity;
+		int newCapacity;
+
+		if (oldIndex == null) {
+			newCapacity = (threshold > 0) ? threshold : DEFAULT_INITIAL_CAPACITY;
+		} else if (oldCapacity >= MAXIMUM_CAPACITY) {
+			if (size >= MAXIMUM_CAPACITY - 1) // always leave a free slot to terminate probing
+				throw new IllegalStateException("Map is full");
+			threshold = MAXIMUM_CAPACITY - 1;
+			return;
+		} else {
+			newCapacity = oldCapacity << 1;
+		}
+
+		threshold = (newCapacity >= MAXIMUM_CAPACITY) ?
+				MAXIMUM_CAPACITY - 1 :
+				Math.min(newCapacity - 1, (int) (newCapacity * loadFactor));
+		ByteBuffer newIndex = ByteBuffer.allocateDirect(newCapacity * SLOT_SIZE).order(ByteOrder.nativeOrder());
+		index = newIndex;
+		capacity = newCapacity;
+
+		if (oldIndex != null) {
+			int mask = newCapacity - 1;
+			for (int i = 0; i < oldCapacity; i++) {
+				int hash;
+				if ((hash = oldIndex.getInt(i * SLOT_SIZE)) != EMPTY) {
+					int slot = hash & mask;
+					while (newIndex.getInt(slot * SLOT_SIZE) != EMPTY)
+						slot = (slot + 1) & mask;
+					newIndex.putInt(slot * SLOT_SIZE, hash);
+					newIndex.putLong(slot * SLOT_SIZE + ADDRESS_OFFSET, oldIndex.getLong(i * SLOT_SIZE + ADDRESS_OFFSET));
+				}
+			}
+		}
+	}
+}
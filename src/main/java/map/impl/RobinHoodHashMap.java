@@ -0,0 +1,355 @@
+package map.impl;
+
+import map.Map;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.function.BiConsumer;
+
+/**
+ * Open-addressing implementation of {@link Map}.
+ *
+ * Keys, values and cached hashes are kept in three flat parallel arrays instead of one {@code Node} per entry,
+ * collisions are resolved by linear probing with Robin Hood displacement: an entry that is further away
+ * from its home slot takes the slot of an entry that is closer to its own. This keeps probe sequences short
+ * and lets a lookup stop as soon as it meets an entry that is closer to home than the key being searched.
+ * Removal uses backward-shift deletion, so there are no tombstones and probe lengths do not degrade over time.
+ *
+ * Like {@link HashMap} this map permits a null key and null values and is not thread safe.
+ */
+public class RobinHoodHashMap<K, V> implements Map<K, V> {
+
+	static final int DEFAULT_INITIAL_CAPACITY = 1 << 4; // aka 16
+
+	/**
+	 * The maximum length of the slot arrays, see {@link HashMap#MAXIMUM_CAPACITY}.
+	 */
+	static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	/**
+	 * Robin Hood probing keeps probe sequences short at higher loads than chaining does,
+	 * so the default load factor is a bit above the {@link HashMap} one.
+	 */
+	static final float DEFAULT_LOAD_FACTOR = 0.8f;
+
+	/**
+	 * Value of {@link #hashes} for a slot without an entry, {@link #hash(Object)} never returns it.
+	 */
+	private static final int EMPTY = 0;
+
+	/* ------------------ Static utilities -----------------*/
+
+	/**
+	 * Linear probing uses the low bits of the hash directly, so unlike {@link HashMap#hash(Object)}
+	 * all bits of the hashCode are mixed in, otherwise keys like multiples of the capacity would form long runs.
+	 */
+	static int hash(Object key) {
+		int h = (key == null) ? 0 : key.hashCode() * 0x9E3779B9;
+		h ^= h >>> 16;
+		return (h == EMPTY) ? 1 : h;
+	}
+
+	/* ---------------------- Fields ---------------------- */
+
+	/**
+	 * The number of key-value mappings contained in this map.
+	 */
+	private int size;
+
+	/**
+	 * The size at which the slot arrays are doubled,
+	 * holds the initial capacity until the arrays are allocated.
+	 */
+	private int threshold;
+
+	private int[] hashes;
+
+	private Object[] keys;
+
+	private Object[] values;
+
+	final float loadFactor;
+
+	private int numberOfModifications;
+
+	/* ------------------- Constructors ------------------- */
+
+	public RobinHoodHashMap(int initialCapacity, float loadFactor) {
+		if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor))
+			loadFactor = DEFAULT_LOAD_FACTOR;
+		if (initialCapacity < 0)
+			initialCapacity = DEFAULT_INITIAL_CAPACITY;
+		if (initialCapacity > MAXIMUM_CAPACITY)
+			initialCapacity = MAXIMUM_CAPACITY;
+		this.loadFactor = loadFactor;
+		this.threshold = HashMap.bucketsSizeFor((int) Math.min(MAXIMUM_CAPACITY, Math.ceil(initialCapacity / loadFactor)));
+	}
+
+	public RobinHoodHashMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	public RobinHoodHashMap() {
+		this.loadFactor = DEFAULT_LOAD_FACTOR;
+	}
+
+	/* ---------------------- Methods ---------------------- */
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return findSlot(hash(key), key) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		int[] slotHashes;
+		Object[] slotValues;
+		Object currentValue;
+		if ((slotHashes = hashes) != null && size > 0) {
+			slotValues = values;
+			for (int i = 0; i < slotHashes.length; i++) {
+				if (slotHashes[i] != EMPTY &&
+						((currentValue = slotValues[i]) == value || (value != null && value.equals(currentValue))))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		int slot = findSlot(hash(key), key);
+		return slot < 0 ? null : (V) values[slot];
+	}
+
+	/**
+	 * Returns the slot holding the key, or -1.
+	 * The search stops at an empty slot or at an entry that sits closer to its home slot than
+	 * the key would at this point, since Robin Hood insertion would have placed the key there.
+	 */
+	private int findSlot(int hash, Object key) {
+		int[] slotHashes;
+		if ((slotHashes = hashes) == null)
+			return -1;
+		Object[] slotKeys = keys;
+		int mask = slotHashes.length - 1;
+		int slot = hash & mask;
+		int currentHash;
+		Object currentKey;
+		for (int distance = 0; ; distance++) {
+			if ((currentHash = slotHashes[slot]) == EMPTY ||
+					probeDistance(currentHash, slot, mask) < distance)
+				return -1;
+			if (currentHash == hash &&
+					((currentKey = slotKeys[slot]) == key || (key != null && key.equals(currentKey))))
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * How far the entry with the given hash sits from its home slot.
+	 */
+	private static int probeDistance(int hash, int slot, int mask) {
+		return (slot - (hash & mask)) & mask;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		if (hashes == null)
+			resize();
+		return putVal(hash(key), key, value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private V putVal(int hash, K key, V value) {
+		int[] slotHashes = hashes;
+		Object[] slotKeys = keys;
+		Object[] slotValues = values;
+		int mask = slotHashes.length - 1;
+		int slot = hash & mask;
+		int currentHash;
+		Object currentKey;
+
+		// look for the key itself up to the slot where it would have been placed, a new key grows the arrays first
+		for (int distance = 0; ; distance++, slot = (slot + 1) & mask) {
+			if ((currentHash = slotHashes[slot]) == EMPTY) {
+				if (size >= threshold) {
+					resize();
+					return putVal(hash, key, value);
+				}
+				slotHashes[slot] = hash;
+				slotKeys[slot] = key;
+				slotValues[slot] = value;
+				break;
+			}
+			if (currentHash == hash &&
+					((currentKey = slotKeys[slot]) == key || (key != null && key.equals(currentKey)))) {
+				V oldValue = (V) slotValues[slot];
+				slotValues[slot] = value;
+				return oldValue;
+			}
+			int currentDistance = probeDistance(currentHash, slot, mask);
+			if (currentDistance < distance) {
+				// the key is absent, take this slot and carry the poorer entry further
+				if (size >= threshold) {
+					resize();
+					return putVal(hash, key, value);
+				}
+				Object carriedKey = slotKeys[slot];
+				Object carriedValue = slotValues[slot];
+				slotHashes[slot] = hash;
+				slotKeys[slot] = key;
+				slotValues[slot] = value;
+				shiftForward(currentHash, carriedKey, carriedValue, (slot + 1) & mask, currentDistance + 1);
+				break;
+			}
+		}
+
+		numberOfModifications++;
+		size++;
+		return null;
+	}
+
+	/**
+	 * Continues a Robin Hood insertion with an entry displaced from its slot.
+	 */
+	private void shiftForward(int hash, Object key, Object value, int slot, int distance) {
+		int[] slotHashes = hashes;
+		Object[] slotKeys = keys;
+		Object[] slotValues = values;
+		int mask = slotHashes.length - 1;
+		int currentHash;
+		for (; ; distance++, slot = (slot + 1) & mask) {
+			if ((currentHash = slotHashes[slot]) == EMPTY) {
+				slotHashes[slot] = hash;
+				slotKeys[slot] = key;
+				slotValues[slot] = value;
+				return;
+			}
+			int currentDistance = probeDistance(currentHash, slot, mask);
+			if (currentDistance < distance) {
+				Object currentKey = slotKeys[slot];
+				Object currentValue = slotValues[slot];
+				slotHashes[slot] = hash;
+				slotKeys[slot] = key;
+				slotValues[slot] = value;
+				hash = currentHash;
+				key = currentKey;
+				value = currentValue;
+				distance = currentDistance;
+			}
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		int slot = findSlot(hash(key), key);
+		if (slot < 0)
+			return null;
+		V oldValue = (V) values[slot];
+		removeSlot(slot);
+		return oldValue;
+	}
+
+	/**
+	 * Backward-shift deletion: every following entry that is not in its home slot moves one slot back,
+	 * so probe sequences stay exactly as if the removed entry had never been inserted.
+	 */
+	private void removeSlot(int slot) {
+		int[] slotHashes = hashes;
+		Object[] slotKeys = keys;
+		Object[] slotValues = values;
+		int mask = slotHashes.length - 1;
+		int next = (slot + 1) & mask;
+		int nextHash;
+		while ((nextHash = slotHashes[next]) != EMPTY && probeDistance(nextHash, next, mask) > 0) {
+			slotHashes[slot] = nextHash;
+			slotKeys[slot] = slotKeys[next];
+			slotValues[slot] = slotValues[next];
+			slot = next;
+			next = (next + 1) & mask;
+		}
+		slotHashes[slot] = EMPTY;
+		slotKeys[slot] = null;
+		slotValues[slot] = null;
+		numberOfModifications++;
+		size--;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		int[] slotHashes;
+		if (action == null)
+			throw new NullPointerException();
+		if (size > 0 && (slotHashes = hashes) != null) {
+			Object[] slotKeys = keys;
+			Object[] slotValues = values;
+			int beforeOpNumberOfModifications = numberOfModifications;
+			for (int i = 0; i < slotHashes.length; ++i) {
+				if (slotHashes[i] != EMPTY)
+					action.accept((K) slotKeys[i], (V) slotValues[i]);
+			}
+			if (numberOfModifications != beforeOpNumberOfModifications)
+				throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	public void clear() {
+		numberOfModifications++;
+		if (hashes != null && size > 0) {
+			size = 0;
+			Arrays.fill(hashes, EMPTY);
+			Arrays.fill(keys, null);
+			Arrays.fill(values, null);
+		}
+	}
+
+	private void resize() {
+		int[] oldHashes = hashes;
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		int newCapacity;
+
+		if (oldHashes == null) {
+			newCapacity = (threshold > 0) ? threshold : DEFAULT_INITIAL_CAPACITY;
+		} else if (oldHashes.length >= MAXIMUM_CAPACITY) {
+			if (size >= MAXIMUM_CAPACITY - 1) // always leave an empty slot to terminate probing
+				throw new IllegalStateException("Map is full");
+			threshold = MAXIMUM_CAPACITY - 1;
+			return;
+		} else {
+			newCapacity = oldHashes.length << 1;
+		}
+
+		threshold = (newCapacity >= MAXIMUM_CAPACITY) ?
+				MAXIMUM_CAPACITY - 1 :
+				Math.min(newCapacity - 1, (int) (newCapacity * loadFactor));
+		hashes = new int[newCapacity];
+		keys = new Object[newCapacity];
+		values = new Object[newCapacity];
+
+		if (oldHashes != null) {
+			int mask = newCapacity - 1;
+			for (int i = 0; i < oldHashes.length; i++) {
+				int hash;
+				if ((hash = oldHashes[i]) != EMPTY)
+					shiftForward(hash, oldKeys[i], oldValues[i], hash & mask, 0);
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package map.impl;
+
+import map.Serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link Serializer}s for common key and value types.
+ */
+public final class Serializers {
+
+	public static final Serializer<Integer> INTEGER = new Serializer<Integer>() {
+		@Override
+		public void write(Integer value, ByteBuffer buffer) {
+			buffer.putInt(value);
+		}
+
+		@Override
+		public Integer read(ByteBuffer buffer, int size) {
+			return buffer.getInt();
+		}
+
+		@Override
+		public int fixedSize() {
+			return Integer.BYTES;
+		}
+	};
+
+	public static final Serializer<Long> LONG = new Serializer<Long>() {
+		@Override
+		public void write(Long value, ByteBuffer buffer) {
+			buffer.putLong(value);
+		}
+
+		@Override
+		public Long read(ByteBuffer buffer, int size) {
+			return buffer.getLong();
+		}
+
+		@Override
+		public int fixedSize() {
+			return Long.BYTES;
+		}
+	};
+
+	public static final Serializer<Double> DOUBLE = new Serializer<Double>() {
+		@Override
+		public void write(Double value, ByteBuffer buffer) {
+			buffer.putDouble(value);
+		}
+
+		@Override
+		public Double read(ByteBuffer buffer, int size) {
+			return buffer.getDouble();
+		}
+
+		@Override
+		public int fixedSize() {
+			return Double.BYTES;
+		}
+	};
+
+	/**
+	 * UTF-8 encoded strings.
+	 */
+	public static final Serializer<String> STRING = new Serializer<String>() {
+		@Override
+		public void write(String value, ByteBuffer buffer) {
+			buffer.put(value.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public String read(ByteBuffer buffer, int size) {
+			byte[] bytes = new byte[size];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	public static final Serializer<byte[]> BYTE_ARRAY = new Serializer<byte[]>() {
+		@Override
+		public void write(byte[] value, ByteBuffer buffer) {
+			buffer.put(value);
+		}
+
+		@Override
+		public byte[] read(ByteBuffer buffer, int size) {
+			byte[] bytes = new byte[size];
+			buffer.get(bytes);
+			return bytes;
+		}
+	};
+
+	private Serializers() {
+	}
+}
@@ -0,0 +1,217 @@
+package collections.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArrayListTest {
+
+	private Integer[] testArray1 = new Integer[] {
+			1, 2, 4, 45, 12, 2, 2, 1, 4, 34, 88, -1999, 129, 0, 34, -1999, 834, 500, 199, 32, 0, 11
+	};
+
+	private Integer[] testArray2 = new Integer[] {
+			86, 99, 13, 55, -666, 9282, 1000000, -1, 0, 12, -1999, 11
+	};
+
+	private ArrayList<Integer> arrayListForTest;
+
+	@BeforeEach
+	public void init() {
+		arrayListForTest = new ArrayList<>(testArray1);
+	}
+
+	@Test
+	public void addTest() {
+		java.util.ArrayList<Integer> expected = new java.util.ArrayList<>(Arrays.asList(testArray1));
+		for (int i = 0; i < 1000; i++) {
+			expected.add(i);
+			assertTrue(arrayListForTest.add(i));
+		}
+
+		assertEquals(expected.size(), arrayListForTest.size());
+		assertTrue(Arrays.equals(expected.toArray(), arrayListForTest.asArray()));
+	}
+
+	@Test
+	public void addAllTest() {
+		java.util.ArrayList<Integer> expected = new java.util.ArrayList<>(Arrays.asList(testArray1));
+		expected.addAll(Arrays.asList(testArray2));
+		arrayListForTest.addAll(testArray2);
+		assertTrue(Arrays.equals(expected.toArray(), arrayListForTest.asArray()));
+
+		expected.addAll(Arrays.asList(testArray2));
+		arrayListForTest.addAll(new LinkedList<>(testArray2));
+		assertTrue(Arrays.equals(expected.toArray(), arrayListForTest.asArray()));
+
+		expected.addAll(new java.util.ArrayList<>(expected));
+		arrayListForTest.addAll(arrayListForTest);
+		assertTrue(Arrays.equals(expected.toArray(), arrayListForTest.asArray()));
+
+		assertFalse(arrayListForTest.addAll(new ArrayList<>()));
+		assertFalse(arrayListForTest.addAll(new LinkedList<>()));
+		assertFalse(arrayListForTest.addAll(new Integer[0]));
+		assertFalse(arrayListForTest.addAll((Integer[]) null));
+		assertEquals(expected.size(), arrayListForTest.size());
+
+		expected.addAll(Arrays.asList(testArray1));
+		assertTrue(arrayListForTest.addAll(Arrays.asList(testArray1)));
+		assertFalse(arrayListForTest.addAll(new java.util.ArrayList<>()));
+		assertTrue(Arrays.equals(expected.toArray(), arrayListForTest.asArray()));
+	}
+
+	@Test
+	public void typedArrayTest() {
+		Integer[] array = arrayListForTest.asArray(Integer[]::new);
+		assertTrue(Arrays.equals(testArray1, array));
+		assertEquals(Integer[].class, array.getClass());
+
+		Integer[] larger = new Integer[testArray1.length + 2];
+		Arrays.fill(larger, 7);
+		assertTrue(larger == arrayListForTest.toArray(larger));
+		assertTrue(Arrays.equals(testArray1, Arrays.copyOf(larger, testArray1.length)));
+		assertNull(larger[testArray1.length]);
+		assertEquals(7, larger[testArray1.length + 1]);
+		assertEquals(0, new ArrayList<Integer>().asArray(Integer[]::new).length);
+	}
+
+	@Test
+	public void indexedOperationsTest() {
+		java.util.ArrayList<Integer> expected = new java.util.ArrayList<>(Arrays.asList(testArray1));
+		Random random = new Random(42);
+		for (int i = 0; i < 10_000; i++) {
+			int index = random.nextInt(expected.size() + 1);
+			int operation = random.nextInt(3);
+			if (operation == 0 || expected.isEmpty()) {
+				expected.add(index, i);
+				assertTrue(arrayListForTest.add(index, i));
+			} else if (index < expected.size()) {
+				if (operation == 1) {
+					expected.remove(index);
+					assertTrue(arrayListForTest.remove(index));
+				} else {
+					assertEquals(expected.get(index), arrayListForTest.get(index));
+					assertEquals(expected.set(index, -i), arrayListForTest.set(index, -i));
+				}
+			}
+			assertEquals(expected.size(), arrayListForTest.size());
+		}
+		assertTrue(Arrays.equals(expected.toArray(), arrayListForTest.asArray()));
+
+		assertFalse(arrayListForTest.add(-1, 0));
+		assertFalse(arrayListForTest.add(expected.size() + 1, 0));
+		assertFalse(arrayListForTest.remove(expected.size()));
+		assertNull(arrayListForTest.get(expected.size()));
+		assertThrows(IndexOutOfBoundsException.class, () -> arrayListForTest.set(expected.size(), 0));
+	}
+
+	@Test
+	public void indexOfAndRemoveByValueTest() {
+		java.util.ArrayList<Integer> expected = new java.util.ArrayList<>(Arrays.asList(testArray1));
+		for (Integer value : testArray1)
+			assertEquals(expected.indexOf(value), arrayListForTest.indexOf(value));
+		assertEquals(-1, arrayListForTest.indexOf(12345));
+		assertFalse(arrayListForTest.contains(null));
+		arrayListForTest.add(5, null);
+		assertEquals(5, arrayListForTest.indexOf(null));
+		assertNull(arrayListForTest.remove((Integer) null));
+		assertFalse(arrayListForTest.contains(null));
+
+		for (Integer value : testArray1) {
+			expected.remove(value);
+			assertEquals(value, arrayListForTest.remove(value));
+		}
+		assertTrue(arrayListForTest.isEmpty());
+		assertNull(arrayListForTest.remove(Integer.valueOf(1)));
+	}
+
+	@Test
+	public void capacityTest() {
+		ArrayList<Integer> list = new ArrayList<>(0);
+		list.ensureCapacity(1000);
+		for (int i = 0; i < 1000; i++)
+			list.add(i);
+		list.trimToSize();
+		list.add(1000);
+		assertEquals(1001, list.size());
+		for (int i = 0; i <= 1000; i++)
+			assertEquals(i, list.get(i));
+		list.clear();
+		list.trimToSize();
+		assertTrue(list.isEmpty());
+		assertNull(list.asArray());
+		assertThrows(NoSuchElementException.class, list::element);
+		assertThrows(IllegalArgumentException.class, () -> new ArrayList<>(-1));
+	}
+
+	@Test
+	public void iteratorTest() {
+		java.util.ArrayList<Integer> visited = new java.util.ArrayList<>();
+		for (Integer value : arrayListForTest)
+			visited.add(value);
+		assertEquals(Arrays.asList(testArray1), visited);
+
+		visited.clear();
+		arrayListForTest.forEach(visited::add);
+		assertEquals(Arrays.asList(testArray1), visited);
+		assertEquals(testArray1[0], arrayListForTest.element());
+
+		Iterator<Integer> iterator = arrayListForTest.iterator();
+		iterator.next();
+		arrayListForTest.add(0);
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+		assertThrows(ConcurrentModificationException.class, () -> arrayListForTest.forEach(value -> arrayListForTest.remove(0)));
+	}
+
+	@Test
+	public void listIteratorTest() {
+		LinkedListTest.applyListIteratorOperations(new java.util.ArrayList<>(Arrays.asList(testArray1)), arrayListForTest);
+
+		Iterator<Integer> iterator = arrayListForTest.iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next() < 0)
+				iterator.remove();
+		}
+		for (Integer value : arrayListForTest)
+			assertTrue(value >= 0);
+	}
+
+	@Test
+	public void removeIfTest() {
+		java.util.ArrayList<Integer> expected = new java.util.ArrayList<>(Arrays.asList(testArray1));
+		assertEquals(expected.removeIf(value -> value == 2), arrayListForTest.removeIf(value -> value == 2));
+		assertTrue(Arrays.equals(expected.toArray(), arrayListForTest.asArray()));
+		assertFalse(arrayListForTest.removeIf(value -> value == 2));
+
+		// a failing filter leaves every element not removed yet in place
+		int[] tested = new int[] { 0 };
+		assertThrows(IllegalStateException.class, () -> arrayListForTest.removeIf(value -> {
+			if (++tested[0] == 10)
+				throw new IllegalStateException();
+			return value == 4;
+		}));
+		expected.subList(0, 9).removeIf(value -> value == 4);
+		assertTrue(Arrays.equals(expected.toArray(), arrayListForTest.asArray()));
+		assertThrows(ConcurrentModificationException.class, () -> arrayListForTest.removeIf(value -> arrayListForTest.add(value)));
+	}
+
+	@Test
+	public void equalsTest() {
+		assertEquals(new ArrayList<>(testArray1), arrayListForTest);
+		assertEquals(new ArrayList<>(testArray1).hashCode(), arrayListForTest.hashCode());
+		assertEquals(Arrays.asList(testArray1).hashCode(), arrayListForTest.hashCode());
+		arrayListForTest.remove(0);
+		assertFalse(new ArrayList<>(testArray1).equals(arrayListForTest));
+	}
+}
@@ -0,0 +1,171 @@
+package collections.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentLinkedQueueTest {
+
+	private static final int PRODUCERS_COUNT = 4;
+	private static final int CONSUMERS_COUNT = 4;
+	private static final int ELEMENTS_PER_PRODUCER = 100_000;
+
+	@Test
+	public void singleThreadTest() {
+		ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+		assertTrue(queue.isEmpty());
+		assertNull(queue.poll());
+		assertNull(queue.peek());
+		for (int i = 0; i < 100; i++)
+			assertTrue(queue.offer(i));
+		assertEquals(100, queue.size());
+		assertEquals(0, queue.peek());
+		assertEquals(0, queue.poll());
+
+		List<Integer> drained = new ArrayList<>();
+		assertEquals(10, queue.drainTo(drained::add, 10));
+		assertEquals(89, queue.size());
+		assertEquals(90, queue.drainTo(drained::add, Integer.MAX_VALUE) + 1);
+		for (int i = 0; i < drained.size(); i++)
+			assertEquals(i + 1, drained.get(i));
+		assertTrue(queue.isEmpty());
+		assertEquals(0, queue.drainTo(drained::add, 10));
+
+		// the tail was left behind the head by the drain
+		queue.offer(100);
+		assertEquals(100, queue.poll());
+		assertThrows(NullPointerException.class, () -> queue.offer(null));
+	}
+
+	@Test
+	public void producersAndConsumersTest() throws InterruptedException {
+		ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+		AtomicIntegerArray seen = new AtomicIntegerArray(PRODUCERS_COUNT * ELEMENTS_PER_PRODUCER);
+		runProducersAndConsumers(queue, seen);
+		for (int i = 0; i < seen.length(); i++)
+			assertEquals(1, seen.get(i));
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void fifoOrderPerProducerTest() throws InterruptedException {
+		ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+		List<Thread> producers = new ArrayList<>();
+		for (int p = 0; p < PRODUCERS_COUNT; p++) {
+			int producer = p;
+			producers.add(new Thread(() -> {
+				for (int i = 0; i < ELEMENTS_PER_PRODUCER; i++)
+					queue.offer(producer * ELEMENTS_PER_PRODUCER + i);
+			}));
+		}
+		producers.forEach(Thread::start);
+		int[] lastSeen = new int[PRODUCERS_COUNT];
+		Arrays.fill(lastSeen, -1);
+		int received = 0;
+		while (received < PRODUCERS_COUNT * ELEMENTS_PER_PRODUCER) {
+			Integer value = (received & 1) == 0 ? queue.poll() : null;
+			if (value != null) {
+				received += checkOrder(lastSeen, value);
+			} else {
+				int[] drained = new int[] { 0 };
+				queue.drainTo(element -> drained[0] += checkOrder(lastSeen, element), 64);
+				received += drained[0];
+			}
+		}
+		for (Thread producer : producers)
+			producer.join();
+		assertTrue(queue.isEmpty());
+	}
+
+	private static int checkOrder(int[] lastSeen, int value) {
+		int producer = value / ELEMENTS_PER_PRODUCER;
+		assertTrue(value % ELEMENTS_PER_PRODUCER > lastSeen[producer]);
+		lastSeen[producer] = value % ELEMENTS_PER_PRODUCER;
+		return 1;
+	}
+
+	/**
+	 * Runs producers offering distinct elements and consumers alternating poll and drainTo,
+	 * counting in seen how many times each element was received.
+	 */
+	static void runProducersAndConsumers(ConcurrentLinkedQueue<Integer> queue, AtomicIntegerArray seen)
+			throws InterruptedException {
+		CountDownLatch producersDone = new CountDownLatch(PRODUCERS_COUNT);
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < PRODUCERS_COUNT; p++) {
+			int producer = p;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < ELEMENTS_PER_PRODUCER; i++) {
+					while (!queue.offer(producer * ELEMENTS_PER_PRODUCER + i))
+						Thread.yield();
+				}
+				producersDone.countDown();
+			}));
+		}
+		for (int c = 0; c < CONSUMERS_COUNT; c++) {
+			int consumer = c;
+			threads.add(new Thread(() -> {
+				for (int round = 0; ; round++) {
+					boolean finished = producersDone.getCount() == 0;
+					int received;
+					if (((round + consumer) & 1) == 0) {
+						Integer value = queue.poll();
+						received = value == null ? 0 : 1;
+						if (value != null)
+							seen.incrementAndGet(value);
+					} else {
+						received = queue.drainTo(seen::incrementAndGet, 1 + round % 100);
+					}
+					if (received == 0) {
+						if (finished && queue.isEmpty())
+							return;
+						Thread.yield();
+					}
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads)
+			thread.join();
+	}
+
+	@Test
+	public void boundedQueueTest() throws InterruptedException {
+		BoundedConcurrentLinkedQueue<Integer> queue = new BoundedConcurrentLinkedQueue<>(3);
+		assertTrue(queue.offer(1));
+		assertTrue(queue.offer(2));
+		assertTrue(queue.offer(3));
+		assertFalse(queue.offer(4));
+		assertEquals(3, queue.size());
+		assertEquals(0, queue.remainingCapacity());
+		assertEquals(1, queue.poll());
+		assertEquals(1, queue.remainingCapacity());
+		assertTrue(queue.offer(4));
+		List<Integer> drained = new ArrayList<>();
+		assertEquals(3, queue.drainTo(drained::add, 5));
+		assertEquals(Arrays.asList(2, 3, 4), drained);
+		assertEquals(0, queue.size());
+		assertEquals(3, queue.capacity());
+		assertThrows(IllegalArgumentException.class, () -> new BoundedConcurrentLinkedQueue<>(0));
+		assertThrows(NullPointerException.class, () -> queue.offer(null));
+		assertEquals(0, queue.size());
+
+		BoundedConcurrentLinkedQueue<Integer> smallQueue = new BoundedConcurrentLinkedQueue<>(16);
+		AtomicIntegerArray seen = new AtomicIntegerArray(PRODUCERS_COUNT * ELEMENTS_PER_PRODUCER);
+		runProducersAndConsumers(smallQueue, seen);
+		for (int i = 0; i < seen.length(); i++)
+			assertEquals(1, seen.get(i));
+		assertEquals(0, smallQueue.size());
+		assertEquals(16, smallQueue.remainingCapacity());
+	}
+}
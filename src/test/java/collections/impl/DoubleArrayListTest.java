@@ -0,0 +1,52 @@
+package collections.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DoubleArrayListTest {
+
+	@Test
+	public void operationsTest() {
+		List<Double> expected = new ArrayList<>();
+		DoubleArrayList list = new DoubleArrayList(4);
+		for (int i = 0; i < 1000; i++) {
+			expected.add(i / 3.0);
+			list.add(i / 3.0);
+		}
+		expected.add(0, 0.5);
+		list.add(0, 0.5);
+		assertEquals(expected.indexOf(100 / 3.0), list.indexOf(100 / 3.0));
+		assertEquals(expected.remove(7), list.removeAt(7));
+		assertEquals(expected.set(8, 2.5), list.setDouble(8, 2.5));
+
+		assertArrayEquals(expected.stream().mapToDouble(Double::doubleValue).toArray(), list.toDoubleArray());
+		List<Double> visited = new ArrayList<>();
+		list.forEach(visited::add);
+		assertEquals(expected, visited);
+		assertEquals(expected.hashCode(), list.hashCode());
+
+		assertTrue(list.addAll(new double[] { 1.5 }));
+		assertFalse(list.addAll(new double[0]));
+		assertFalse(list.addAll(new DoubleArrayList()));
+		list.forEach(value -> list.addAll(new double[0]));
+	}
+
+	@Test
+	public void equalityLikeDoubleEqualsTest() {
+		DoubleArrayList list = DoubleArrayList.wrap(new double[] { 1.0, Double.NaN, -0.0 });
+		assertEquals(1, list.indexOf(Double.NaN));
+		assertEquals(-1, list.indexOf(0.0));
+		assertEquals(2, list.indexOf(-0.0));
+		assertTrue(list.removeValue(Double.NaN));
+		assertEquals(DoubleArrayList.wrap(new double[] { 1.0, -0.0 }), list);
+		assertNotEquals(DoubleArrayList.wrap(new double[] { 1.0, 0.0 }), list);
+	}
+}
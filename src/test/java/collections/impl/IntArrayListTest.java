@@ -0,0 +1,110 @@
+package collections.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntArrayListTest {
+
+	@Test
+	public void operationsTest() {
+		List<Integer> expected = new ArrayList<>();
+		IntArrayList list = new IntArrayList();
+		Random random = new Random(42);
+		for (int i = 0; i < 20_000; i++) {
+			int index = random.nextInt(expected.size() + 1);
+			int value = random.nextInt(1000);
+			switch (random.nextInt(6)) {
+				case 0:
+					expected.add(index, value);
+					assertTrue(list.add(index, value));
+					break;
+				case 1:
+				case 2:
+					expected.add(value);
+					assertTrue(list.add(value));
+					break;
+				case 3:
+					if (index < expected.size())
+						assertEquals((int) expected.remove(index), list.removeAt(index));
+					break;
+				case 4:
+					assertEquals(expected.remove((Integer) value), list.removeValue(value));
+					break;
+				default:
+					assertEquals(expected.indexOf(value), list.indexOf(value));
+					if (index < expected.size()) {
+						assertEquals((int) expected.get(index), list.getInt(index));
+						assertEquals((int) expected.set(index, -value), list.setInt(index, -value));
+					}
+			}
+			assertEquals(expected.size(), list.size());
+		}
+		assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), list.toIntArray());
+		List<Integer> visited = new ArrayList<>();
+		list.forEach(visited::add);
+		assertEquals(expected, visited);
+		assertEquals(expected.hashCode(), list.hashCode());
+		assertEquals(new IntArrayList(list.toIntArray()), list);
+	}
+
+	@Test
+	public void bulkAndCapacityTest() {
+		IntArrayList list = new IntArrayList(0);
+		assertTrue(list.addAll(new int[] { 1, 2, 3 }));
+		assertTrue(list.addAll(list));
+		assertTrue(list.addAll(IntArrayList.wrap(new int[] { 4, 5 })));
+		assertFalse(list.addAll(new int[0]));
+		assertFalse(list.addAll(new IntArrayList()));
+		// adding nothing is not a modification
+		list.forEach(value -> list.addAll(new int[0]));
+		assertArrayEquals(new int[] { 1, 2, 3, 1, 2, 3, 4, 5 }, list.toIntArray());
+		list.ensureCapacity(100);
+		list.trimToSize();
+		assertEquals(8, list.size());
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertArrayEquals(new int[0], list.toIntArray());
+		list.trimToSize();
+		list.add(7);
+		assertEquals(7, list.getInt(0));
+
+		assertThrows(IndexOutOfBoundsException.class, () -> list.getInt(1));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.removeAt(-1));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.add(3, 0));
+		assertThrows(IllegalArgumentException.class, () -> new IntArrayList(-1));
+		assertThrows(ConcurrentModificationException.class, () -> list.forEach(value -> list.add(value)));
+	}
+
+	@Test
+	public void wrapTest() {
+		int[] array = new int[] { 5, 6, 7, 8 };
+		IntArrayList list = IntArrayList.wrap(array);
+		list.setInt(0, 50);
+		array[1] = 60;
+		assertEquals(50, array[0]);
+		assertEquals(60, list.getInt(1));
+		assertEquals(3, list.indexOf(8));
+		assertFalse(list.contains(5));
+
+		IntArrayList prefix = IntArrayList.wrap(array, 2);
+		assertEquals(2, prefix.size());
+		prefix.add(70);
+		assertEquals(70, array[2]);
+		// growing past the array moves the list to a copy
+		prefix.add(80);
+		prefix.add(90);
+		prefix.setInt(0, 0);
+		assertEquals(50, array[0]);
+		assertThrows(IllegalArgumentException.class, () -> IntArrayList.wrap(array, 5));
+	}
+}
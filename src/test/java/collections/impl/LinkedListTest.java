@@ -3,10 +3,18 @@ package collections.impl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
@@ -61,6 +69,81 @@ public class LinkedListTest {
 		assertTrue(Arrays.equals(expectedValue.toArray(new Integer[0]), linkedListForTest.asArray()));
 	}
 
+	@Test
+	public void addAllFromIterableTest() {
+		ArrayList<Integer> expectedValue = new ArrayList<>(Arrays.asList(testArray1));
+		expectedValue.addAll(Arrays.asList(testArray2));
+		assertTrue(linkedListForTest.addAll(Arrays.asList(testArray2)));
+		assertFalse(linkedListForTest.addAll(new ArrayList<>()));
+		assertFalse(linkedListForTest.addAll(new Integer[0]));
+		assertTrue(Arrays.equals(expectedValue.toArray(), linkedListForTest.asArray()));
+
+		expectedValue.addAll(new ArrayList<>(expectedValue));
+		assertTrue(linkedListForTest.addAll((Iterable<Integer>) linkedListForTest));
+		assertTrue(Arrays.equals(expectedValue.toArray(), linkedListForTest.asArray()));
+		assertEquals(expectedValue.get(expectedValue.size() - 1), linkedListForTest.peekLast());
+	}
+
+	@Test
+	public void spliceTest() {
+		ArrayList<Integer> expectedValue = new ArrayList<>(Arrays.asList(testArray1));
+		Random random = new Random(42);
+		for (int i = 0; i < 200; i++) {
+			int index = random.nextInt(expectedValue.size() + 1);
+			Integer[] values = Arrays.copyOf(testArray2, random.nextInt(testArray2.length + 1));
+			LinkedList<Integer> other = new LinkedList<>(values);
+			assertEquals(expectedValue.get(index / 2), linkedListForTest.get(index / 2)); // leaves a finger behind
+			expectedValue.addAll(index, Arrays.asList(values));
+			assertTrue(linkedListForTest.splice(index, other));
+			assertTrue(other.isEmpty());
+			assertNull(other.asArray());
+			assertEquals(expectedValue.size(), linkedListForTest.size());
+			assertEquals(expectedValue.get(index), linkedListForTest.get(index));
+		}
+		assertTrue(Arrays.equals(expectedValue.toArray(), linkedListForTest.asArray()));
+		assertEquals(expectedValue.get(0), linkedListForTest.peekFirst());
+		assertEquals(expectedValue.get(expectedValue.size() - 1), linkedListForTest.peekLast());
+
+		LinkedList<Integer> other = new LinkedList<>(testArray2);
+		assertFalse(linkedListForTest.splice(-1, other));
+		assertFalse(linkedListForTest.splice(expectedValue.size() + 1, other));
+		assertEquals(testArray2.length, other.size());
+		assertThrows(IllegalArgumentException.class, () -> linkedListForTest.splice(0, linkedListForTest));
+
+		// the source is reusable and its iterators fail fast
+		Iterator<Integer> iterator = other.iterator();
+		LinkedList<Integer> empty = new LinkedList<>();
+		assertTrue(empty.transferAll(other));
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+		assertTrue(Arrays.equals(testArray2, empty.asArray()));
+		other.add(1);
+		other.addFirst(0);
+		assertTrue(empty.transferAll(other));
+		assertEquals(testArray2.length + 2, empty.size());
+		assertEquals(1, empty.removeLast());
+		assertEquals(0, empty.removeLast());
+		assertEquals(testArray2[testArray2.length - 1], empty.peekLast());
+	}
+
+	@Test
+	public void typedArrayTest() {
+		Integer[] array = linkedListForTest.asArray(Integer[]::new);
+		assertTrue(Arrays.equals(testArray1, array));
+		assertEquals(Integer[].class, array.getClass());
+
+		Integer[] larger = new Integer[testArray1.length + 2];
+		Arrays.fill(larger, 7);
+		assertTrue(larger == linkedListForTest.toArray(larger));
+		assertTrue(Arrays.equals(testArray1, Arrays.copyOf(larger, testArray1.length)));
+		assertNull(larger[testArray1.length]);
+		assertEquals(7, larger[testArray1.length + 1]);
+
+		Number[] numbers = new LinkedList<Number>(testArray1).toArray(new Number[0]);
+		assertEquals(Number[].class, numbers.getClass());
+		assertTrue(Arrays.equals(testArray1, numbers));
+		assertEquals(0, new LinkedList<Integer>().asArray(Integer[]::new).length);
+	}
+
 	@Test
 	public void containsTest() {
 		linkedListForTest.addAll(testArray2);
@@ -203,6 +286,193 @@ public class LinkedListTest {
 
 	}
 
+	@Test
+	public void indexedOperationsTest() {
+		ArrayList<Integer> expected = new ArrayList<>(Arrays.asList(testArray1));
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			int operation = random.nextInt(4);
+			// mostly next to the previous index, sometimes anywhere
+			int index = random.nextInt(8) == 0 ? random.nextInt(expected.size() + 1)
+					: Math.min(expected.size(), Math.max(0, i % (expected.size() + 1) + random.nextInt(5) - 2));
+			if (operation == 0 || expected.size() < 2) {
+				expected.add(index, i);
+				assertTrue(linkedListForTest.add(index, i));
+			} else if (index < expected.size()) {
+				if (operation == 1) {
+					expected.remove(index);
+					assertTrue(linkedListForTest.remove(index));
+				} else {
+					assertEquals(expected.get(index), linkedListForTest.get(index));
+				}
+			}
+			assertEquals(expected.size(), linkedListForTest.size());
+		}
+		assertTrue(Arrays.equals(expected.toArray(new Integer[0]), linkedListForTest.asArray()));
+
+		// removing by value moves the finger, the following indexed calls must still see the right nodes
+		for (Integer value : testArray2) {
+			expected.remove(value);
+			linkedListForTest.remove(value);
+			assertEquals(expected.get(expected.size() / 2), linkedListForTest.get(expected.size() / 2));
+			expected.add(0, value);
+			linkedListForTest.add(0, value);
+			assertEquals(expected.get(expected.size() / 2), linkedListForTest.get(expected.size() / 2));
+		}
+		assertTrue(Arrays.equals(expected.toArray(new Integer[0]), linkedListForTest.asArray()));
+	}
+
+	@Test
+	public void sequentialGetTest() {
+		Integer[] values = new Integer[200_000];
+		for (int i = 0; i < values.length; i++)
+			values[i] = i;
+		LinkedList<Integer> list = new LinkedList<>(values);
+		for (int i = 0; i < values.length; i++)
+			assertEquals(values[i], list.get(i));
+		for (int i = values.length - 1; i >= 0; i--)
+			assertEquals(values[i], list.get(i));
+	}
+
+	@Test
+	public void removeLastElementTest() {
+		LinkedList<Integer> list = new LinkedList<>(new Integer[] { 1 });
+		assertTrue(list.remove(0));
+		assertTrue(list.isEmpty());
+		list.add(2);
+		assertEquals(2, list.get(0));
+	}
+
+	@Test
+	public void dequeTest() {
+		ArrayDeque<Integer> expected = new ArrayDeque<>(Arrays.asList(testArray1));
+		Random random = new Random(42);
+		for (int i = 0; i < 10_000; i++) {
+			switch (random.nextInt(6)) {
+				case 0:
+					expected.addFirst(i);
+					linkedListForTest.addFirst(i);
+					break;
+				case 1:
+					assertTrue(expected.offerLast(i));
+					assertTrue(linkedListForTest.offerLast(i));
+					break;
+				case 2:
+					assertEquals(expected.pollFirst(), linkedListForTest.pollFirst());
+					break;
+				case 3:
+					assertEquals(expected.pollLast(), linkedListForTest.pollLast());
+					break;
+				case 4:
+					assertEquals(expected.peekFirst(), linkedListForTest.peekFirst());
+					assertEquals(expected.peekLast(), linkedListForTest.peekLast());
+					break;
+				default:
+					if (!expected.isEmpty())
+						assertEquals(expected.getFirst(), linkedListForTest.get(0));
+			}
+			assertEquals(expected.size(), linkedListForTest.size());
+		}
+		assertTrue(Arrays.equals(expected.toArray(new Integer[0]), linkedListForTest.asArray()));
+
+		linkedListForTest.clear();
+		linkedListForTest.offer(1);
+		assertEquals(1, linkedListForTest.removeLast());
+		assertTrue(linkedListForTest.isEmpty());
+		assertNull(linkedListForTest.poll());
+		assertNull(linkedListForTest.peek());
+		assertThrows(NoSuchElementException.class, linkedListForTest::removeFirst);
+		assertThrows(NoSuchElementException.class, linkedListForTest::removeLast);
+		linkedListForTest.addLast(2);
+		linkedListForTest.offerFirst(1);
+		int[] drained = new int[] { 0 };
+		assertEquals(2, linkedListForTest.drainTo(value -> assertEquals(++drained[0], value), 5));
+		assertTrue(linkedListForTest.isEmpty());
+	}
+
+	@Test
+	public void listIteratorTest() {
+		java.util.LinkedList<Integer> expected = new java.util.LinkedList<>(Arrays.asList(testArray1));
+		applyListIteratorOperations(expected, linkedListForTest);
+
+		ListIterator<Integer> iterator = linkedListForTest.listIterator();
+		assertThrows(IllegalStateException.class, iterator::remove);
+		iterator.next();
+		linkedListForTest.add(0);
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+		assertThrows(ConcurrentModificationException.class, () -> {
+			for (Integer value : linkedListForTest)
+				linkedListForTest.remove(value);
+		});
+	}
+
+	@Test
+	public void removeIfTest() {
+		Integer[] values = new Integer[200_000];
+		for (int i = 0; i < values.length; i++)
+			values[i] = i;
+		LinkedList<Integer> list = new LinkedList<>(values);
+		assertTrue(list.removeIf(value -> value % 3 != 0));
+		assertFalse(list.removeIf(value -> value % 3 != 0));
+		assertEquals(values.length / 3 + 1, list.size());
+		for (int i = 0; i < list.size(); i++)
+			assertEquals(3 * i, list.get(i));
+		assertEquals(3 * (list.size() - 1), list.peekLast());
+		assertTrue(list.removeIf(value -> true));
+		assertTrue(list.isEmpty());
+		list.add(1);
+		assertEquals(1, list.peekFirst());
+
+		// a filter changing the list stops the walk instead of following unlinked nodes
+		LinkedList<Integer> changed = new LinkedList<>(testArray1);
+		assertThrows(ConcurrentModificationException.class, () -> changed.removeIf(value -> changed.remove(1)));
+		assertThrows(ConcurrentModificationException.class, () -> changed.removeIf(value -> value == 4 && changed.add(value)));
+	}
+
+	/**
+	 * Applies the same random walk of reads and edits through the list iterators of both lists.
+	 */
+	static void applyListIteratorOperations(java.util.List<Integer> expected, collections.List<Integer> actual) {
+		Random random = new Random(42);
+		for (int pass = 0; pass < 20; pass++) {
+			ListIterator<Integer> expectedIterator = expected.listIterator();
+			ListIterator<Integer> actualIterator = actual.listIterator();
+			boolean canEdit = false;
+			for (int step = 0; step < 500; step++) {
+				assertEquals(expectedIterator.nextIndex(), actualIterator.nextIndex());
+				assertEquals(expectedIterator.hasPrevious(), actualIterator.hasPrevious());
+				int operation = random.nextInt(6);
+				if (operation == 0 && expectedIterator.hasNext() || operation == 1 && !expectedIterator.hasPrevious()) {
+					if (!expectedIterator.hasNext())
+						break;
+					assertEquals(expectedIterator.next(), actualIterator.next());
+					canEdit = true;
+				} else if (operation == 1) {
+					assertEquals(expectedIterator.previous(), actualIterator.previous());
+					canEdit = true;
+				} else if (operation == 2 && canEdit) {
+					expectedIterator.remove();
+					actualIterator.remove();
+					canEdit = false;
+				} else if (operation == 3 && canEdit) {
+					expectedIterator.set(-step);
+					actualIterator.set(-step);
+				} else if (operation == 4) {
+					expectedIterator.add(step);
+					actualIterator.add(step);
+					canEdit = false;
+				} else if (expectedIterator.hasNext()) {
+					assertEquals(expectedIterator.next(), actualIterator.next());
+					canEdit = true;
+				}
+				assertEquals(expected.size(), actual.size());
+			}
+			assertTrue(Arrays.equals(expected.toArray(), actual.isEmpty() ? new Object[0] : actual.asArray()));
+		}
+		assertEquals(expected.removeIf(value -> value % 2 == 0), actual.removeIf(value -> value % 2 == 0));
+		assertTrue(Arrays.equals(expected.toArray(), actual.isEmpty() ? new Object[0] : actual.asArray()));
+	}
+
 	@Test
 	public void sizeTest() {
 		assertEquals(testArray1.length, linkedListForTest.size());
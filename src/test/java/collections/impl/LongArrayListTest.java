@@ -0,0 +1,58 @@
+package collections.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongArrayListTest {
+
+	@Test
+	public void operationsTest() {
+		List<Long> expected = new ArrayList<>();
+		LongArrayList list = new LongArrayList();
+		for (long i = 0; i < 1000; i++) {
+			long value = i * 0x9E3779B97F4A7C15L;
+			expected.add(value);
+			list.add(value);
+		}
+		expected.add(500, -1L);
+		list.add(500, -1L);
+		assertEquals(500, list.indexOf(-1L));
+		assertEquals(expected.remove(10).longValue(), list.removeAt(10));
+		assertTrue(list.removeValue(-1L));
+		expected.remove(-1L);
+		assertFalse(list.removeValue(-1L));
+		assertEquals(expected.get(123).longValue(), list.setLong(123, 0L));
+		expected.set(123, 0L);
+
+		assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), list.toLongArray());
+		List<Long> visited = new ArrayList<>();
+		list.forEach(visited::add);
+		assertEquals(expected, visited);
+		assertEquals(expected.hashCode(), list.hashCode());
+		assertThrows(IndexOutOfBoundsException.class, () -> list.getLong(expected.size()));
+	}
+
+	@Test
+	public void wrapTest() {
+		long[] array = new long[] { 1L, 2L, 3L };
+		LongArrayList list = LongArrayList.wrap(array);
+		list.setLong(2, Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, array[2]);
+		LongArrayList copy = new LongArrayList(array);
+		copy.setLong(0, 0L);
+		assertEquals(1L, array[0]);
+		assertTrue(copy.addAll(list));
+		assertFalse(copy.addAll(new long[0]));
+		assertFalse(copy.addAll(new LongArrayList()));
+		copy.forEach(value -> copy.addAll(new long[0]));
+		assertArrayEquals(new long[] { 0L, 2L, Long.MAX_VALUE, 1L, 2L, Long.MAX_VALUE }, copy.toLongArray());
+	}
+}
@@ -0,0 +1,255 @@
+package collections.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UnrolledLinkedListTest {
+
+	private Integer[] testArray1 = new Integer[] {
+			1, 2, 4, 45, 12, 2, 2, 1, 4, 34, 88, -1999, 129, 0, 34, -1999, 834, 500, 199, 32, 0, 11
+	};
+
+	private Integer[] testArray2 = new Integer[] {
+			86, 99, 13, 55, -666, 9282, 1000000, -1, 0, 12, -1999, 11
+	};
+
+	private UnrolledLinkedList<Integer> unrolledListForTest;
+
+	@BeforeEach
+	public void init() {
+		unrolledListForTest = new UnrolledLinkedList<>(testArray1);
+	}
+
+	@Test
+	public void addAllTest() {
+		ArrayList<Integer> expected = new ArrayList<>(Arrays.asList(testArray1));
+		expected.addAll(Arrays.asList(testArray2));
+		unrolledListForTest.addAll(testArray2);
+		assertTrue(Arrays.equals(expected.toArray(), unrolledListForTest.asArray()));
+
+		Integer[] manyValues = new Integer[1000];
+		for (int i = 0; i < manyValues.length; i++)
+			manyValues[i] = i;
+		expected.addAll(Arrays.asList(manyValues));
+		unrolledListForTest.addAll(new LinkedList<>(manyValues));
+		assertEquals(expected.size(), unrolledListForTest.size());
+		assertTrue(Arrays.equals(expected.toArray(), unrolledListForTest.asArray()));
+		assertFalse(unrolledListForTest.addAll(new UnrolledLinkedList<>()));
+		assertFalse(unrolledListForTest.addAll(new Integer[0]));
+		assertFalse(unrolledListForTest.addAll((Integer[]) null));
+
+		expected.addAll(Arrays.asList(testArray2));
+		assertTrue(unrolledListForTest.addAll(Arrays.asList(testArray2)));
+		assertTrue(Arrays.equals(expected.toArray(), unrolledListForTest.asArray()));
+	}
+
+	@Test
+	public void typedArrayTest() {
+		UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>(4);
+		list.addAll(testArray1);
+		Integer[] array = list.asArray(Integer[]::new);
+		assertTrue(Arrays.equals(testArray1, array));
+		assertEquals(Integer[].class, array.getClass());
+
+		Integer[] larger = new Integer[testArray1.length + 2];
+		Arrays.fill(larger, 7);
+		assertTrue(larger == list.toArray(larger));
+		assertTrue(Arrays.equals(testArray1, Arrays.copyOf(larger, testArray1.length)));
+		assertNull(larger[testArray1.length]);
+		assertEquals(7, larger[testArray1.length + 1]);
+		assertEquals(0, new UnrolledLinkedList<Integer>().asArray(Integer[]::new).length);
+	}
+
+	@Test
+	public void indexedOperationsTest() {
+		for (int chunkCapacity : new int[] { 2, 3, 4, 16, UnrolledLinkedList.DEFAULT_CHUNK_CAPACITY }) {
+			UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>(chunkCapacity);
+			list.addAll(testArray1);
+			ArrayList<Integer> expected = new ArrayList<>(Arrays.asList(testArray1));
+			Random random = new Random(chunkCapacity);
+			for (int i = 0; i < 20_000; i++) {
+				int operation = random.nextInt(5);
+				// mostly next to the previous index, sometimes anywhere
+				int index = random.nextInt(4) == 0 ? random.nextInt(expected.size() + 1)
+						: Math.min(expected.size(), Math.max(0, i % (expected.size() + 1) + random.nextInt(9) - 4));
+				if (operation == 0 || (operation == 1 && expected.size() < 500)) {
+					expected.add(index, i);
+					assertTrue(list.add(index, i));
+				} else if (operation == 2 && index < expected.size()) {
+					expected.remove(index);
+					assertTrue(list.remove(index));
+				} else if (operation == 3) {
+					assertEquals(index < expected.size() ? expected.get(index) : null, list.get(index));
+				} else {
+					expected.add(i);
+					list.add(i);
+				}
+				assertEquals(expected.size(), list.size());
+			}
+			assertTrue(Arrays.equals(expected.toArray(), list.asArray()));
+			for (int i = 0; i < expected.size(); i++)
+				assertEquals(expected.get(i), list.get(i));
+
+			while (!expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				expected.remove(index);
+				assertTrue(list.remove(index));
+			}
+			assertTrue(list.isEmpty());
+			assertNull(list.asArray());
+			assertTrue(list.add(0, 1));
+			assertEquals(1, list.element());
+		}
+		assertFalse(unrolledListForTest.add(-1, 0));
+		assertFalse(unrolledListForTest.add(testArray1.length + 1, 0));
+		assertFalse(unrolledListForTest.remove(testArray1.length));
+		assertNull(unrolledListForTest.get(testArray1.length));
+		assertThrows(IllegalArgumentException.class, () -> new UnrolledLinkedList<>(1));
+	}
+
+	@Test
+	public void chunkOccupancyTest() {
+		int chunkCapacity = 64;
+		Integer[] values = new Integer[64_000];
+		for (int i = 0; i < values.length; i++)
+			values[i] = i;
+		UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>(chunkCapacity);
+		list.addAll(values);
+		assertEquals(values.length / chunkCapacity, list.chunkCount());
+
+		// removes 63 of every 64 elements, front to back
+		for (int i = 0; i < values.length / chunkCapacity; i++) {
+			for (int j = 0; j < chunkCapacity - 1; j++)
+				assertTrue(list.remove(i + 1));
+		}
+		assertEquals(values.length / chunkCapacity, list.size());
+		for (int i = 0; i < list.size(); i++)
+			assertEquals(i * chunkCapacity, list.get(i));
+		// every chunk but the last is at least half full
+		assertTrue(list.chunkCount() <= list.size() / (chunkCapacity / 2) + 1);
+
+		for (int chunkCapacityForRandomRemovals : new int[] { 2, 3, 8, 64 }) {
+			UnrolledLinkedList<Integer> randomList = new UnrolledLinkedList<>(chunkCapacityForRandomRemovals);
+			ArrayList<Integer> expected = new ArrayList<>(Arrays.asList(values).subList(0, 10_000));
+			randomList.addAll(expected);
+			Random random = new Random(chunkCapacityForRandomRemovals);
+			while (expected.size() > 100) {
+				int index = random.nextInt(expected.size());
+				expected.remove(index);
+				assertTrue(randomList.remove(index));
+				if (random.nextInt(4) == 0) {
+					expected.add(index, -index);
+					randomList.add(index, -index);
+				}
+			}
+			assertTrue(Arrays.equals(expected.toArray(), randomList.asArray()));
+			assertTrue(randomList.chunkCount() <= randomList.size() / (chunkCapacityForRandomRemovals / 2) + 1);
+		}
+	}
+
+	@Test
+	public void indexOfAndRemoveByValueTest() {
+		ArrayList<Integer> expected = new ArrayList<>(Arrays.asList(testArray1));
+		for (Integer value : testArray1)
+			assertEquals(expected.indexOf(value), unrolledListForTest.indexOf(value));
+		assertEquals(-1, unrolledListForTest.indexOf(12345));
+		unrolledListForTest.add(5, null);
+		assertEquals(5, unrolledListForTest.indexOf(null));
+		assertNull(unrolledListForTest.remove((Integer) null));
+		assertFalse(unrolledListForTest.contains(null));
+
+		for (Integer value : testArray2) {
+			expected.remove(value);
+			unrolledListForTest.remove(value);
+			assertEquals(expected.get(expected.size() / 2), unrolledListForTest.get(expected.size() / 2));
+		}
+		assertTrue(Arrays.equals(expected.toArray(), unrolledListForTest.asArray()));
+	}
+
+	@Test
+	public void iteratorTest() {
+		Integer[] values = new Integer[1000];
+		for (int i = 0; i < values.length; i++)
+			values[i] = i;
+		UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>(7);
+		list.addAll(values);
+		ArrayList<Integer> visited = new ArrayList<>();
+		for (Integer value : list)
+			visited.add(value);
+		assertEquals(Arrays.asList(values), visited);
+
+		visited.clear();
+		list.forEach(visited::add);
+		assertEquals(Arrays.asList(values), visited);
+
+		Iterator<Integer> iterator = list.iterator();
+		iterator.next();
+		list.remove(0);
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+		assertThrows(ConcurrentModificationException.class, () -> list.forEach(value -> list.add(value)));
+		list.clear();
+		assertFalse(list.iterator().hasNext());
+		assertThrows(NoSuchElementException.class, () -> list.iterator().next());
+		assertThrows(NoSuchElementException.class, list::element);
+	}
+
+	@Test
+	public void listIteratorTest() {
+		UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>(4);
+		list.addAll(testArray1);
+		LinkedListTest.applyListIteratorOperations(new ArrayList<>(Arrays.asList(testArray1)), list);
+
+		ListIterator<Integer> iterator = list.listIterator();
+		iterator.next();
+		list.add(0, 1);
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+		assertThrows(ConcurrentModificationException.class, iterator::previous);
+		assertThrows(ConcurrentModificationException.class, iterator::remove);
+
+		list.clear();
+		list.addAll(testArray1);
+		Iterator<Integer> removingIterator = list.iterator();
+		while (removingIterator.hasNext()) {
+			if (removingIterator.next() % 2 != 0)
+				removingIterator.remove();
+		}
+		for (Integer value : list)
+			assertEquals(0, value % 2);
+		assertFalse(list.isEmpty());
+		assertTrue(list.removeIf(value -> true));
+		assertTrue(list.isEmpty());
+	}
+
+	@Test
+	public void equalsTest() {
+		UnrolledLinkedList<Integer> other = new UnrolledLinkedList<>(3);
+		for (Integer value : testArray1)
+			other.add(0, value);
+		for (int i = 0; i < testArray1.length; i++) {
+			other.add(other.size(), other.element());
+			other.remove(0);
+		}
+		assertTrue(Arrays.equals(other.asArray(), new Integer[] {
+				11, 0, 32, 199, 500, 834, -1999, 34, 0, 129, -1999, 88, 34, 4, 1, 2, 2, 12, 45, 4, 2, 1
+		}));
+		UnrolledLinkedList<Integer> same = new UnrolledLinkedList<>(3);
+		same.addAll(testArray1);
+		assertEquals(same, unrolledListForTest);
+		assertEquals(Arrays.asList(testArray1).hashCode(), unrolledListForTest.hashCode());
+		assertFalse(other.equals(unrolledListForTest));
+	}
+}
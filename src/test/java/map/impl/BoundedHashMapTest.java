@@ -0,0 +1,122 @@
+package map.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedHashMapTest {
+
+	private static final int MAXIMUM_SIZE = 1000;
+
+	@Test
+	public void maximumSizeTest() {
+		BoundedHashMap<Integer, Integer> map = new BoundedHashMap<>(MAXIMUM_SIZE);
+		Random random = new Random(1);
+		for (int i = 0; i < 100_000; i++) {
+			int key = random.nextInt(10_000);
+			if (map.get(key) == null)
+				map.put(key, key);
+			assertTrue(map.size() <= MAXIMUM_SIZE);
+		}
+		assertEquals(MAXIMUM_SIZE, map.size());
+		assertEquals(100_000, map.hitCount() + map.missCount());
+		assertEquals(map.missCount() - MAXIMUM_SIZE, map.evictionCount());
+		map.forEach((key, value) -> assertEquals(key, value));
+	}
+
+	@Test
+	public void maximumWeightTest() {
+		BoundedHashMap<Integer, String> map = new BoundedHashMap<>(10_000, (key, value) -> value.length());
+		Random random = new Random(2);
+		for (int i = 0; i < 10_000; i++) {
+			int key = random.nextInt(5_000);
+			map.put(key, new String(new char[random.nextInt(100)]));
+			assertTrue(map.weightedSize() <= 10_000);
+		}
+		long[] weight = new long[] { 0 };
+		map.forEach((key, value) -> weight[0] += value.length());
+		assertEquals(weight[0], map.weightedSize());
+
+		map.put(-1, new String(new char[20_000]));
+		assertFalse(map.containsKey(-1));
+		assertTrue(map.weightedSize() <= 10_000);
+	}
+
+	@Test
+	public void rejectedCandidateEvictsNothingTest() {
+		// a window of weight 1 and a main area of weight 9, small enough for the sketch to keep all counts
+		BoundedHashMap<Integer, String> map = new BoundedHashMap<>(10, (key, value) -> value.length());
+		for (int i = 0; i < 5; i++)
+			map.get(1);
+		for (int key = 0; key < 10; key++)
+			map.put(key, "x");
+		for (int i = 0; i < 2; i++)
+			map.get(100);
+		// the candidate is used more often than key 0 but less than key 1, it needs the room of both
+		map.put(100, "xx");
+		assertFalse(map.containsKey(100));
+		assertTrue(map.containsKey(0));
+		assertTrue(map.containsKey(1));
+		assertEquals(9, map.size());
+		assertEquals(9, map.weightedSize());
+	}
+
+	@Test
+	public void scanResistanceTest() {
+		BoundedHashMap<Integer, Integer> map = new BoundedHashMap<>(MAXIMUM_SIZE);
+		int hotKeys = MAXIMUM_SIZE / 2;
+		for (int round = 0; round < 10; round++) {
+			for (int key = 0; key < hotKeys; key++) {
+				if (map.get(key) == null)
+					map.put(key, key);
+			}
+		}
+		// a scan of keys used only once must not flush the frequently used ones
+		for (int key = hotKeys; key < 100 * MAXIMUM_SIZE; key++) {
+			if (map.get(key) == null)
+				map.put(key, key);
+		}
+		int retained = 0;
+		for (int key = 0; key < hotKeys; key++) {
+			if (map.containsKey(key))
+				retained++;
+		}
+		assertTrue(retained >= hotKeys * 9 / 10, "retained " + retained + " of " + hotKeys);
+	}
+
+	@Test
+	public void putGetAndRemoveTest() {
+		BoundedHashMap<String, String> map = new BoundedHashMap<>(MAXIMUM_SIZE);
+		assertNull(map.put("key", "value"));
+		assertEquals("value", map.put("key", "other value"));
+		assertEquals("other value", map.get("key"));
+		assertTrue(map.containsValue("other value"));
+		assertEquals("other value", map.remove("key"));
+		assertNull(map.get("key"));
+		assertTrue(map.isEmpty());
+		assertEquals(1, map.hitCount());
+		assertEquals(1, map.missCount());
+		assertEquals(0.5, map.hitRate());
+		assertThrows(NullPointerException.class, () -> map.put(null, "value"));
+		assertThrows(NullPointerException.class, () -> map.put("key", null));
+	}
+
+	@Test
+	public void clearTest() {
+		BoundedHashMap<Integer, Integer> map = new BoundedHashMap<>(MAXIMUM_SIZE);
+		for (int i = 0; i < 2 * MAXIMUM_SIZE; i++)
+			map.put(i, i);
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.weightedSize());
+		for (int i = 0; i < 2 * MAXIMUM_SIZE; i++)
+			map.put(i, i);
+		assertEquals(MAXIMUM_SIZE, map.size());
+	}
+}
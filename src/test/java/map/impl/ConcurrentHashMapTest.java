@@ -0,0 +1,307 @@
+package map.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class ConcurrentHashMapTest {
+
+	private static final int MIN_TEST_INTEGER_VALUE = 0;
+	private static final int MAX_TEST_INTEGER_VALUE = 200_000;
+	private static final int THREADS_COUNT = 8;
+
+	private Map<Integer, Integer> map;
+	private map.Map<Integer, Integer> testMap;
+
+	@BeforeEach
+	public void init() {
+		map = new HashMap<>();
+		testMap = new ConcurrentHashMap<>();
+		for (int i = MIN_TEST_INTEGER_VALUE; i < MAX_TEST_INTEGER_VALUE; i++) {
+			map.put(i, i);
+			testMap.put(i, i);
+		}
+	}
+
+	@Test
+	public void resizeAndGetTest() {
+		assertSameEntries(map, testMap);
+	}
+
+	@Test
+	public void putAndRemoveTest() {
+		for (int i = (MAX_TEST_INTEGER_VALUE / 5); i < (MAX_TEST_INTEGER_VALUE / 4); i++) {
+			assertEquals(map.put(i, i << 1), testMap.put(i, i << 1));
+		}
+		for (int i = MIN_TEST_INTEGER_VALUE; i < MAX_TEST_INTEGER_VALUE; i += 3) {
+			assertEquals(map.remove(i), testMap.remove(i));
+		}
+		assertEquals(map.remove(-1), testMap.remove(-1));
+		assertSameEntries(map, testMap);
+	}
+
+	@Test
+	public void containsKeyAndValueTest() {
+		for (int i = MIN_TEST_INTEGER_VALUE - 100; i < (MAX_TEST_INTEGER_VALUE / 100); i++) {
+			assertEquals(map.containsKey(i), testMap.containsKey(i));
+			assertEquals(map.containsValue(i), testMap.containsValue(i));
+		}
+	}
+
+	@Test
+	public void clearAndIsEmptyTest() {
+		testMap.clear();
+		assertEquals(0, testMap.size());
+		assertTrue(testMap.isEmpty());
+		assertNull(testMap.get(MIN_TEST_INTEGER_VALUE));
+	}
+
+	@Test
+	public void nullKeysAndValuesAreRejectedTest() {
+		assertThrows(NullPointerException.class, () -> testMap.put(null, 1));
+		assertThrows(NullPointerException.class, () -> testMap.put(1, null));
+		assertThrows(NullPointerException.class, () -> testMap.get(null));
+	}
+
+	@Test
+	public void forEachTest() {
+		int[] counter = new int[] { 0 };
+		testMap.forEach((key, value) -> {
+			assertEquals(map.get(key), value);
+			counter[0] += 1;
+		});
+		assertEquals(map.size(), counter[0]);
+
+		// weakly consistent, no ConcurrentModificationException
+		testMap.forEach((key, value) -> testMap.remove(key));
+		assertTrue(testMap.isEmpty());
+	}
+
+	@Test
+	public void concurrentPutTest() throws Exception {
+		map.Map<Integer, Integer> concurrentMap = new ConcurrentHashMap<>();
+		runConcurrently(thread -> {
+			// every thread owns every THREADS_COUNT-th key, all of them grow the table together
+			for (int i = thread; i < MAX_TEST_INTEGER_VALUE; i += THREADS_COUNT) {
+				assertNull(concurrentMap.put(i, i));
+			}
+		});
+		assertSameEntries(map, concurrentMap);
+	}
+
+	@Test
+	public void concurrentPutGetAndRemoveTest() throws Exception {
+		runConcurrently(thread -> {
+			for (int i = thread; i < MAX_TEST_INTEGER_VALUE; i += THREADS_COUNT) {
+				assertEquals(i, testMap.get(i));
+				if (i % 2 == 0) {
+					assertEquals(i, testMap.remove(i));
+					assertFalse(testMap.containsKey(i));
+				} else {
+					assertEquals(i, testMap.put(i, -i));
+					assertNull(testMap.put(MAX_TEST_INTEGER_VALUE + i, i));
+				}
+			}
+		});
+		for (int i = MIN_TEST_INTEGER_VALUE; i < MAX_TEST_INTEGER_VALUE; i++) {
+			if (i % 2 == 0) {
+				map.remove(i);
+			} else {
+				map.put(i, -i);
+				map.put(MAX_TEST_INTEGER_VALUE + i, i);
+			}
+		}
+		assertSameEntries(map, testMap);
+	}
+
+	@Test
+	public void compoundOperationsTest() {
+		Random random = new Random(42);
+		for (int i = 0; i < MAX_TEST_INTEGER_VALUE; i++) {
+			int key = random.nextInt(MAX_TEST_INTEGER_VALUE * 2);
+			int value = random.nextInt(100);
+			switch (random.nextInt(7)) {
+				case 0:
+					assertEquals(map.computeIfAbsent(key, k -> value), testMap.computeIfAbsent(key, k -> value));
+					break;
+				case 1:
+					assertEquals(map.computeIfPresent(key, (k, v) -> v % 3 == 0 ? null : (Integer) (v + value)),
+							testMap.computeIfPresent(key, (k, v) -> v % 3 == 0 ? null : (Integer) (v + value)));
+					break;
+				case 2:
+					assertEquals(map.compute(key, (k, v) -> v == null ? (Integer) value : v % 5 == 0 ? null : (Integer) (v - value)),
+							testMap.compute(key, (k, v) -> v == null ? (Integer) value : v % 5 == 0 ? null : (Integer) (v - value)));
+					break;
+				case 3:
+					assertEquals(map.merge(key, value, (v1, v2) -> v1 % 7 == 0 ? null : (Integer) (v1 + v2)),
+							testMap.merge(key, value, (v1, v2) -> v1 % 7 == 0 ? null : (Integer) (v1 + v2)));
+					break;
+				case 4:
+					assertEquals(map.putIfAbsent(key, value), testMap.putIfAbsent(key, value));
+					break;
+				case 5:
+					assertEquals(map.replace(key, value), testMap.replace(key, value));
+					break;
+				default:
+					Integer oldValue = map.get(key);
+					if (oldValue != null)
+						assertEquals(map.replace(key, oldValue, value), testMap.replace(key, oldValue, value));
+					assertFalse(testMap.replace(key, -1, value));
+			}
+		}
+		assertSameEntries(map, testMap);
+		assertEquals(-1, testMap.getOrDefault(-1, -1));
+		assertThrows(NullPointerException.class, () -> testMap.merge(1, null, Integer::sum));
+		assertThrows(NullPointerException.class, () -> testMap.putIfAbsent(1, null));
+	}
+
+	@Test
+	public void batchOperationsTest() throws Exception {
+		Integer[] keys = new Integer[MAX_TEST_INTEGER_VALUE];
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = i;
+		Integer[] values = new Integer[keys.length];
+		testMap.getAll(keys, values);
+		for (int i = 0; i < keys.length; i++)
+			assertEquals(i, values[i]);
+
+		int[] removed = new int[THREADS_COUNT];
+		runConcurrently(thread -> removed[thread] = testMap.removeAll(keys));
+		assertEquals(MAX_TEST_INTEGER_VALUE, Arrays.stream(removed).sum());
+		assertTrue(testMap.isEmpty());
+
+		testMap.putAll(keys, values);
+		map.Map<Integer, Integer> copy = new ConcurrentHashMap<>();
+		copy.putAll(testMap);
+		assertSameEntries(map, copy);
+		assertThrows(IllegalArgumentException.class, () -> testMap.putAll(keys, new Integer[1]));
+	}
+
+	/**
+	 * A default of {@link map.Map} is not atomic, a new one must be overridden or added to the snapshot ones here.
+	 */
+	@Test
+	public void noInheritedDefaultsTest() {
+		Set<String> snapshotDefaults = new HashSet<>(Arrays.asList("cursor", "entrySpliterator", "keySpliterator",
+				"valueSpliterator", "entryStream", "keyStream", "valueStream", "parallelForEach"));
+		for (Method method : map.Map.class.getMethods()) {
+			if (!method.isDefault() || snapshotDefaults.contains(method.getName()))
+				continue;
+			try {
+				assertEquals(ConcurrentHashMap.class,
+						ConcurrentHashMap.class.getMethod(method.getName(), method.getParameterTypes()).getDeclaringClass(),
+						method.toString());
+			} catch (NoSuchMethodException e) {
+				throw new AssertionError(e);
+			}
+		}
+	}
+
+	@Test
+	public void recursiveComputeTest() {
+		map.Map<Integer, Integer> emptyMap = new ConcurrentHashMap<>();
+		assertThrows(IllegalStateException.class, () -> emptyMap.computeIfAbsent(1, key -> emptyMap.put(1, 1)));
+		assertTrue(emptyMap.isEmpty());
+	}
+
+	@Test
+	public void concurrentMergeTest() throws Exception {
+		map.Map<Integer, Integer> counters = new ConcurrentHashMap<>();
+		int incrementsPerThread = 50_000;
+		runConcurrently(thread -> {
+			for (int i = 0; i < incrementsPerThread; i++)
+				counters.merge(i % 64, 1, Integer::sum);
+		});
+		int total = 0;
+		for (int key = 0; key < 64; key++)
+			total += counters.get(key);
+		assertEquals(THREADS_COUNT * incrementsPerThread, total);
+	}
+
+	@Test
+	public void concurrentComputeIfAbsentTest() throws Exception {
+		map.Map<Integer, Integer> concurrentMap = new ConcurrentHashMap<>();
+		LongAdder calls = new LongAdder();
+		runConcurrently(thread -> {
+			// every thread asks for every key, starting at a different one
+			for (int i = 0; i < MAX_TEST_INTEGER_VALUE; i++) {
+				int key = (i + thread * (MAX_TEST_INTEGER_VALUE / THREADS_COUNT)) % MAX_TEST_INTEGER_VALUE;
+				assertEquals(key, concurrentMap.computeIfAbsent(key, k -> {
+					calls.increment();
+					return k;
+				}));
+			}
+		});
+		assertEquals(MAX_TEST_INTEGER_VALUE, calls.sum());
+		assertSameEntries(map, concurrentMap);
+	}
+
+	@Test
+	public void concurrentComputeTest() throws Exception {
+		map.Map<Integer, Integer> concurrentMap = new ConcurrentHashMap<>();
+		runConcurrently(thread -> {
+			// every thread toggles every key, an even number of toggles leaves it absent
+			for (int i = 0; i < MAX_TEST_INTEGER_VALUE / 10; i++) {
+				concurrentMap.compute(i, (key, value) -> value == null ? key : null);
+				concurrentMap.computeIfPresent(i, (key, value) -> value + 1);
+				concurrentMap.computeIfPresent(i, (key, value) -> value - 1);
+			}
+		});
+		assertTrue(concurrentMap.isEmpty());
+		assertEquals(0, concurrentMap.size());
+		concurrentMap.forEach((key, value) -> fail("left " + key));
+	}
+
+	private static void runConcurrently(ThreadTask task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			Future<?>[] futures = new Future<?>[THREADS_COUNT];
+			for (int thread = 0; thread < THREADS_COUNT; thread++) {
+				int threadNumber = thread;
+				futures[thread] = executor.submit(() -> {
+					start.await();
+					task.run(threadNumber);
+					return null;
+				});
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(1, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private interface ThreadTask {
+		void run(int thread);
+	}
+
+	private static void assertSameEntries(Map<Integer, Integer> expected, map.Map<Integer, Integer> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), actual.get(entry.getKey()));
+		}
+	}
+}
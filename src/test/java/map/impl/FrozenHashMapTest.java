@@ -0,0 +1,118 @@
+package map.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FrozenHashMapTest {
+
+	private static final int ENTRIES_COUNT = 200_000;
+
+	@Test
+	public void integerKeysTest() {
+		assertFrozenLikeSource(Integer::valueOf, ENTRIES_COUNT);
+		assertFrozenLikeSource(i -> i * 0x9E3779B9, ENTRIES_COUNT);
+	}
+
+	@Test
+	public void stringKeysTest() {
+		assertFrozenLikeSource(i -> "key-" + i, ENTRIES_COUNT);
+	}
+
+	@Test
+	public void smallMapsTest() {
+		for (int count = 0; count < 100; count++)
+			assertFrozenLikeSource(Integer::valueOf, count);
+	}
+
+	@Test
+	public void sameHashCodeKeysTest() {
+		// 100 keys share each hashCode, only one of them can have a slot
+		assertFrozenLikeSource(CollidingKey::new, 10_000);
+	}
+
+	@Test
+	public void nullKeyAndValuesTest() {
+		HashMap<String, String> source = new HashMap<>();
+		source.put(null, "null key");
+		source.put("null value", null);
+		source.put("key", "value");
+		FrozenHashMap<String, String> frozen = source.freeze();
+		assertEquals(3, frozen.size());
+		assertEquals("null key", frozen.get(null));
+		assertTrue(frozen.containsKey("null value"));
+		assertNull(frozen.get("null value"));
+		assertTrue(frozen.containsValue(null));
+		assertFalse(frozen.containsKey("missing"));
+	}
+
+	@Test
+	public void immutableTest() {
+		HashMap<Integer, Integer> source = new HashMap<>();
+		source.put(1, 1);
+		FrozenHashMap<Integer, Integer> frozen = source.freeze();
+		source.put(2, 2);
+		assertEquals(1, frozen.size());
+		assertThrows(UnsupportedOperationException.class, () -> frozen.put(3, 3));
+		assertThrows(UnsupportedOperationException.class, () -> frozen.remove(1));
+		assertThrows(UnsupportedOperationException.class, frozen::clear);
+		assertThrows(UnsupportedOperationException.class, () -> frozen.merge(1, 1, Integer::sum));
+	}
+
+	private static <K> void assertFrozenLikeSource(IntFunction<K> keyFactory, int count) {
+		HashMap<K, Integer> source = new HashMap<>();
+		Map<K, Integer> expected = new java.util.HashMap<>();
+		for (int i = 0; i < count; i++) {
+			source.put(keyFactory.apply(i), i);
+			expected.put(keyFactory.apply(i), i);
+		}
+		FrozenHashMap<K, Integer> frozen = FrozenHashMap.copyOf(source);
+		assertEquals(count, frozen.size());
+		assertEquals(count == 0, frozen.isEmpty());
+		for (int i = 0; i < count; i++) {
+			assertEquals(i, frozen.get(keyFactory.apply(i)));
+			assertTrue(frozen.containsKey(keyFactory.apply(i)));
+		}
+		for (int i = count; i < count + 1000; i++) {
+			assertNull(frozen.get(keyFactory.apply(i)));
+			assertFalse(frozen.containsKey(keyFactory.apply(i)));
+		}
+		int[] visited = new int[] { 0 };
+		frozen.forEach((key, value) -> {
+			assertEquals(expected.get(key), value);
+			visited[0]++;
+		});
+		assertEquals(count, visited[0]);
+		assertEquals(expected.keySet(), frozen.keyStream().parallel().collect(Collectors.toSet()));
+		assertEquals(expected.values().stream().mapToLong(Integer::longValue).sum(),
+				frozen.valueStream().mapToLong(Integer::longValue).sum());
+	}
+
+	private static class CollidingKey {
+		final int id;
+
+		CollidingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof CollidingKey)) return false;
+			return id == ((CollidingKey) o).id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id / 100;
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package map.impl;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HashMapStatisticsTest {
+
+	private static final int ENTRIES_COUNT = 100_000;
+
+	@Test
+	public void distinctHashesTest() {
+		HashMap<Integer, Integer> map = new HashMap<>();
+		map.enableStatistics();
+		for (int i = 0; i < ENTRIES_COUNT; i++)
+			map.put(i, i);
+		for (int i = 0; i < ENTRIES_COUNT; i++)
+			map.get(i);
+
+		HashMapStatistics statistics = map.statistics();
+		assertEquals(ENTRIES_COUNT, statistics.getSize());
+		assertEquals(ENTRIES_COUNT, statistics.getPutCount());
+		assertEquals(ENTRIES_COUNT, statistics.getGetCount());
+		// sequential integers never share a bucket
+		assertEquals(1.0, statistics.getAverageGetProbeLength());
+		assertEquals(1, statistics.getMaxGetProbeLength());
+		assertEquals(0, statistics.getMaxPutProbeLength());
+		assertEquals(15, statistics.getResizeCount()); // 16 to 262144 buckets
+		assertTrue(statistics.getResizeTimeNanos() > 0);
+		assertEquals((double) ENTRIES_COUNT / statistics.getCapacity(), statistics.getAchievedLoadFactor());
+		assertEquals(1.0 - statistics.getAchievedLoadFactor(), statistics.getEmptyBucketRatio(), 1e-9);
+		assertEquals(ENTRIES_COUNT, statistics.getChainLengthHistogram()[1]);
+		assertEquals(0, statistics.getTreeBinCount());
+	}
+
+	@Test
+	public void collidingKeysTest() {
+		HashMap<CollidingKey, Integer> map = new HashMap<>();
+		map.enableStatistics();
+		for (int i = 0; i < 4; i++)
+			map.put(new CollidingKey(i), i);
+		for (int i = 0; i < 4; i++)
+			map.get(new CollidingKey(i));
+
+		HashMapStatistics statistics = map.statistics();
+		assertEquals(2.5, statistics.getAverageGetProbeLength());
+		assertEquals(4, statistics.getMaxGetProbeLength());
+		assertEquals(1.5, statistics.getAveragePutProbeLength());
+		assertEquals(1, statistics.getChainLengthHistogram()[4]);
+
+		for (int i = 4; i < 1000; i++)
+			map.put(new CollidingKey(i), i);
+		statistics = map.statistics();
+		assertEquals(1, statistics.getTreeBinCount());
+		assertEquals(1, statistics.getChainLengthHistogram()[HashMapStatistics.HISTOGRAM_LENGTH - 1]);
+		map.enableStatistics();
+		map.get(new CollidingKey(500));
+		map.get(new CollidingKey(-1));
+		// a tree of 1000 nodes is at most twice as deep as a balanced one
+		assertTrue(map.statistics().getMaxGetProbeLength() <= 20);
+	}
+
+	@Test
+	public void incrementalResizeTest() {
+		HashMap<Integer, Integer> map = new HashMap<>(16, 0.75f, true);
+		java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<>(16, 0.75f);
+		for (int i = 0; i < ENTRIES_COUNT; i++) {
+			map.put(i * 31, i);
+			expected.put(i * 31, i);
+		}
+		long[] histogram = map.statistics().getChainLengthHistogram();
+		// the same shape as once the resize in progress is complete
+		map.forEach((key, value) -> { });
+		assertEquals(Arrays.toString(map.statistics().getChainLengthHistogram()), Arrays.toString(histogram));
+		long entries = 0;
+		for (int i = 0; i < histogram.length; i++)
+			entries += i * histogram[i];
+		assertEquals(expected.size(), entries);
+	}
+
+	@Test
+	public void disabledStatisticsTest() {
+		HashMap<Integer, Integer> map = new HashMap<>();
+		map.put(1, 1);
+		map.get(1);
+		HashMapStatistics statistics = map.statistics();
+		assertEquals(0, statistics.getPutCount());
+		assertEquals(0, statistics.getGetCount());
+		assertEquals(0, statistics.getResizeCount());
+		assertEquals(1, statistics.getSize());
+		assertEquals(15, statistics.getChainLengthHistogram()[0]);
+	}
+
+	@Test
+	public void mbeanTest() throws Exception {
+		HashMap<Integer, Integer> map = new HashMap<>();
+		ObjectName name = new ObjectName("map.impl:type=HashMap,name=mbeanTest");
+		map.registerStatisticsMBean(name);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			for (int i = 0; i < 100; i++)
+				map.put(i, i);
+			assertEquals(100, server.getAttribute(name, "Size"));
+			assertEquals(100L, server.getAttribute(name, "PutCount"));
+			map.get(1);
+			assertEquals(1L, server.getAttribute(name, "GetCount"));
+			assertEquals(map.statistics().getEmptyBucketRatio(), server.getAttribute(name, "EmptyBucketRatio"));
+		} finally {
+			server.unregisterMBean(name);
+		}
+	}
+
+	private static class CollidingKey {
+		final int id;
+
+		CollidingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof CollidingKey)) return false;
+			return id == ((CollidingKey) o).id;
+		}
+
+		@Override
+		public int hashCode() {
+			return 0;
+		}
+	}
+}
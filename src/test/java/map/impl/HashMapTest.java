@@ -6,9 +6,17 @@ import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -17,6 +25,8 @@ public class HashMapTest {
 	private static final int MIN_TEST_INTEGER_VALUE = 0;
 	private static final int MAX_TEST_INTEGER_VALUE = 1_000_000;
 
+	private static final int COLLIDING_KEYS_COUNT = 10_000;
+
 	private Map<Integer, Integer> map;
 	private map.Map<Integer, Integer> testMap;
 
@@ -123,4 +133,585 @@ public class HashMapTest {
 			});
 		});
 	}
+
+	@Test
+	public void collidingComparableKeysTest() {
+		Map<ComparableCollidingKey, Integer> expected = new HashMap<>();
+		map.Map<ComparableCollidingKey, Integer> actual = new map.impl.HashMap<>();
+		for (int i = 0; i < COLLIDING_KEYS_COUNT; i++) {
+			expected.put(new ComparableCollidingKey(i), i);
+			actual.put(new ComparableCollidingKey(i), i);
+		}
+		assertSameCollidingEntries(expected, actual);
+
+		for (int i = 0; i < COLLIDING_KEYS_COUNT; i += 3) {
+			assertEquals(expected.remove(new ComparableCollidingKey(i)), actual.remove(new ComparableCollidingKey(i)));
+		}
+		assertSameCollidingEntries(expected, actual);
+
+		for (int i = 0; i < COLLIDING_KEYS_COUNT; i++) {
+			assertEquals(expected.put(new ComparableCollidingKey(i), -i), actual.put(new ComparableCollidingKey(i), -i));
+		}
+		assertSameCollidingEntries(expected, actual);
+	}
+
+	@Test
+	public void collidingKeysTest() {
+		Map<CollidingKey, Integer> expected = new HashMap<>();
+		map.Map<CollidingKey, Integer> actual = new map.impl.HashMap<>();
+		for (int i = 0; i < COLLIDING_KEYS_COUNT; i++) {
+			expected.put(new CollidingKey(i), i);
+			actual.put(new CollidingKey(i), i);
+		}
+		assertSameCollidingEntries(expected, actual);
+
+		for (int i = 0; i < COLLIDING_KEYS_COUNT; i += 3) {
+			assertEquals(expected.remove(new CollidingKey(i)), actual.remove(new CollidingKey(i)));
+		}
+		assertSameCollidingEntries(expected, actual);
+
+		//remove until every bucket is converted back to a plain chain
+		for (int i = 0; i < COLLIDING_KEYS_COUNT - 5; i++) {
+			assertEquals(expected.remove(new CollidingKey(i)), actual.remove(new CollidingKey(i)));
+		}
+		assertSameCollidingEntries(expected, actual);
+	}
+
+	@Test
+	public void incrementalResizeTest() {
+		map.Map<Integer, Integer> incrementalMap = new map.impl.HashMap<>(0, 0.75f, true);
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = MIN_TEST_INTEGER_VALUE; i < MAX_TEST_INTEGER_VALUE; i++) {
+			assertEquals(expected.put(i, i), incrementalMap.put(i, i));
+			//touch keys that are still in the old buckets as well as moved ones
+			assertEquals(expected.get(i >> 1), incrementalMap.get(i >> 1));
+			if (i % 5 == 0) {
+				assertEquals(expected.remove(i / 5), incrementalMap.remove(i / 5));
+			}
+		}
+
+		assertEquals(expected.size(), incrementalMap.size());
+		for (Integer key : expected.keySet()) {
+			assertEquals(expected.get(key), incrementalMap.get(key));
+		}
+
+		int[] counter = new int[] { 0 };
+		incrementalMap.forEach((key, value) -> {
+			assertEquals(expected.get(key), value);
+			counter[0] += 1;
+		});
+		assertEquals(expected.size(), counter[0]);
+		assertTrue(incrementalMap.containsValue(MAX_TEST_INTEGER_VALUE - 1));
+	}
+
+	@Test
+	public void incrementalResizeWithCollidingKeysTest() {
+		Map<CollidingKey, Integer> expected = new HashMap<>();
+		map.Map<CollidingKey, Integer> actual = new map.impl.HashMap<>(0, 0.75f, true);
+		for (int i = 0; i < COLLIDING_KEYS_COUNT; i++) {
+			expected.put(new CollidingKey(i), i);
+			actual.put(new CollidingKey(i), i);
+			if (i % 3 == 0) {
+				assertEquals(expected.remove(new CollidingKey(i / 3)), actual.remove(new CollidingKey(i / 3)));
+			}
+		}
+		assertSameCollidingEntries(expected, actual);
+	}
+
+	@Test
+	public void compoundOperationsTest() {
+		applyCompoundOperations(new HashMap<>(), new map.impl.HashMap<>(), Integer::valueOf);
+		applyCompoundOperations(new HashMap<>(), new map.impl.HashMap<>(0, 0.75f, true), Integer::valueOf);
+		applyCompoundOperations(new HashMap<>(), new map.impl.HashMap<>(), CollidingKey::new);
+		applyCompoundOperations(new HashMap<>(), new map.impl.HashMap<>(0, 0.75f, true), ComparableCollidingKey::new);
+		applyCompoundOperations(new HashMap<>(), new map.impl.HashMap<>(0, 0.75f, false, true), Integer::valueOf);
+		applyCompoundOperations(new HashMap<>(), new map.impl.HashMap<>(0, 0.75f, true, true), i -> "key-" + i);
+	}
+
+	@Test
+	public void computeFinishingIncrementalResizeTest() {
+		int binKey = 63 + 64 * 3;
+		map.Map<Integer, Integer> computeMap = newMapResizingTreeBin();
+		// the function finishes the resize, which replaces the tree nodes found by the lookup with list nodes
+		assertEquals(999, computeMap.compute(binKey, (key, value) -> finishResize(computeMap, 999)));
+		assertEquals(999, computeMap.get(binKey));
+
+		map.Map<Integer, Integer> computeIfPresentMap = newMapResizingTreeBin();
+		assertEquals(999, computeIfPresentMap.computeIfPresent(binKey, (key, value) -> finishResize(computeIfPresentMap, 999)));
+		assertEquals(999, computeIfPresentMap.get(binKey));
+
+		map.Map<Integer, Integer> mergeMap = newMapResizingTreeBin();
+		assertEquals(999, mergeMap.merge(binKey, 1, (oldValue, value) -> finishResize(mergeMap, 999)));
+		assertEquals(999, mergeMap.get(binKey));
+
+		map.Map<Integer, Integer> removeMap = newMapResizingTreeBin();
+		assertEquals(null, removeMap.compute(binKey, (key, value) -> finishResize(removeMap, null)));
+		assertFalse(removeMap.containsKey(binKey));
+		assertEquals(48, removeMap.size());
+	}
+
+	/**
+	 * Returns an incremental map in the middle of its resize from 64 to 128 buckets, with a tree bin of ten keys
+	 * in the last bucket that the resize splits into two lists of five.
+	 */
+	private static map.Map<Integer, Integer> newMapResizingTreeBin() {
+		map.Map<Integer, Integer> incrementalMap = new map.impl.HashMap<>(64, 0.75f, true);
+		for (int i = 0; i < 10; i++)
+			incrementalMap.put(63 + 64 * i, 0);
+		for (int i = 0; incrementalMap.size() < 49; i++)
+			incrementalMap.put(i, 0); // the 49th entry starts the resize
+		return incrementalMap;
+	}
+
+	private static Integer finishResize(map.Map<Integer, Integer> incrementalMap, Integer result) {
+		incrementalMap.containsValue(-1);
+		return result;
+	}
+
+	@Test
+	public void computeModifyingMapTest() {
+		assertThrows(ConcurrentModificationException.class, () -> {
+			testMap.computeIfAbsent(-1, key -> testMap.put(-2, key));
+		});
+		assertThrows(ConcurrentModificationException.class, () -> {
+			testMap.merge(1, 1, (oldValue, value) -> testMap.remove(2));
+		});
+	}
+
+	@Test
+	public void streamTest() {
+		long expectedKeySum = map.keySet().stream().mapToLong(Integer::longValue).sum();
+		assertEquals(expectedKeySum, testMap.keyStream().mapToLong(Integer::longValue).sum());
+		assertEquals(expectedKeySum, testMap.keyStream().parallel().mapToLong(Integer::longValue).sum());
+		assertEquals(expectedKeySum, testMap.valueStream().parallel().mapToLong(Integer::longValue).sum());
+		assertEquals(map.size(), testMap.entryStream().parallel()
+				.filter(entry -> entry.getKey().equals(entry.getValue()))
+				.count());
+		assertEquals(map.keySet(), testMap.keyStream().parallel().collect(Collectors.toSet()));
+	}
+
+	@Test
+	public void spliteratorTest() {
+		Spliterator<Integer> spliterator = testMap.keySpliterator();
+		assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT));
+		assertEquals(map.size(), spliterator.getExactSizeIfKnown());
+
+		Spliterator<Integer> lowerHalf = spliterator.trySplit();
+		long[] counts = new long[2];
+		lowerHalf.forEachRemaining(key -> counts[0]++);
+		while (spliterator.tryAdvance(key -> counts[1]++)) {
+		}
+		assertEquals(map.size(), counts[0] + counts[1]);
+
+		assertThrows(ConcurrentModificationException.class, () -> {
+			testMap.keySpliterator().forEachRemaining(key -> testMap.remove(key));
+		});
+	}
+
+	@Test
+	public void incrementalResizeStreamTest() {
+		map.Map<Integer, Integer> incrementalMap = new map.impl.HashMap<>(0, 0.75f, true);
+		for (int i = 0; i < 100_000; i++)
+			incrementalMap.put(i, i);
+		assertEquals(100_000, incrementalMap.keyStream().parallel().distinct().count());
+	}
+
+	@Test
+	public void parallelForEachTest() {
+		LongAdder keySum = new LongAdder();
+		LongAdder counter = new LongAdder();
+		testMap.parallelForEach(1000, (key, value) -> {
+			keySum.add(key);
+			counter.increment();
+		});
+		assertEquals(map.size(), counter.sum());
+		assertEquals(map.keySet().stream().mapToLong(Integer::longValue).sum(), keySum.sum());
+
+		LongAdder sequentialCounter = new LongAdder();
+		testMap.parallelForEach(Long.MAX_VALUE, (key, value) -> sequentialCounter.increment());
+		assertEquals(map.size(), sequentialCounter.sum());
+	}
+
+	@Test
+	public void batchOperationsTest() {
+		applyBatchOperations(new HashMap<>(), new map.impl.HashMap<>(), Integer::valueOf);
+		applyBatchOperations(new HashMap<>(), new map.impl.HashMap<>(0, 0.75f, true), Integer::valueOf);
+		applyBatchOperations(new HashMap<>(), new map.impl.HashMap<>(), CollidingKey::new);
+		applyBatchOperations(new HashMap<>(), new map.impl.HashMap<>(0, 0.75f, false, true), Integer::valueOf);
+		applyBatchOperations(new HashMap<>(), new RobinHoodHashMap<>(), Integer::valueOf);
+
+		map.impl.HashMap<Integer, Integer> copy = new map.impl.HashMap<>();
+		copy.put(-1, -1);
+		copy.putAll(testMap);
+		assertEquals(map.size() + 1, copy.size());
+		copy.remove(-1);
+		assertSameEntries(map, copy);
+		assertThrows(IllegalArgumentException.class, () -> copy.getAll(new Integer[2], new Integer[1]));
+		assertThrows(IllegalArgumentException.class, () -> copy.putAll(new Integer[2], new Integer[3]));
+	}
+
+	@Test
+	public void batchOperationsDuringIncrementalResizeTest() {
+		map.Map<Integer, Integer> incrementalMap = newMapResizingTreeBin();
+		Map<Integer, Integer> expected = new HashMap<>();
+		incrementalMap.forEach(expected::put);
+		// a block of four keys moves sixteen of the 64 buckets, so the keys are in both buckets arrays
+		Integer[] keys = {0, 63 + 64 * 3, 20, -1};
+		Integer[] values = new Integer[keys.length];
+		incrementalMap.getAll(keys, values);
+		for (int i = 0; i < keys.length; i++)
+			assertEquals(expected.get(keys[i]), values[i]);
+
+		Integer[] putKeys = {1, 63 + 64 * 10, 100, 200};
+		Integer[] putValues = {-1, -2, -3, -4};
+		incrementalMap.putAll(putKeys, putValues);
+		for (int i = 0; i < putKeys.length; i++)
+			expected.put(putKeys[i], putValues[i]);
+		assertEquals(3, incrementalMap.removeAll(new Integer[]{2, 63 + 64 * 4, 300, 100}));
+		expected.remove(2);
+		expected.remove(63 + 64 * 4);
+		expected.remove(100);
+		assertSameEntries(expected, incrementalMap);
+	}
+
+	@Test
+	public void seededHashingTest() {
+		// each string is 13 pairs of "Aa" or "BB", which all have the same String.hashCode
+		String[] keys = new String[1 << 13];
+		for (int i = 0; i < keys.length; i++) {
+			StringBuilder key = new StringBuilder();
+			for (int pair = 0; pair < 13; pair++)
+				key.append((i >>> pair & 1) == 0 ? "Aa" : "BB");
+			keys[i] = key.toString();
+		}
+		map.impl.HashMap<String, Integer> unseeded = new map.impl.HashMap<>();
+		map.impl.HashMap<String, Integer> seeded = new map.impl.HashMap<>(16, 0.75f, false, true);
+		for (int i = 0; i < keys.length; i++) {
+			unseeded.put(keys[i], i);
+			seeded.put(keys[i], i);
+		}
+		assertEquals(1, unseeded.statistics().getTreeBinCount());
+		HashMapStatistics statistics = seeded.statistics();
+		assertEquals(0, statistics.getTreeBinCount());
+		long[] chainLengths = statistics.getChainLengthHistogram();
+		// no chain reaches TREEIFY_THRESHOLD, the middle of the histogram
+		for (int length = chainLengths.length / 2; length < chainLengths.length; length++)
+			assertEquals(0, chainLengths[length]);
+		for (int i = 0; i < keys.length; i++)
+			assertEquals(i, seeded.get(keys[i]));
+
+		// the stored hashes of one map are meaningless to the other
+		map.impl.HashMap<String, Integer> copy = new map.impl.HashMap<>(16, 0.75f, false, true);
+		copy.putAll(seeded);
+		unseeded.clear();
+		unseeded.putAll(copy);
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(i, copy.get(keys[i]));
+			assertEquals(i, unseeded.get(keys[i]));
+		}
+		assertTrue(copy.hashOf(keys[0]) != seeded.hashOf(keys[0]) || copy.hashOf(keys[1]) != seeded.hashOf(keys[1]));
+		assertEquals(0, seeded.hashOf(null));
+	}
+
+	@Test
+	public void trimToSizeTest() {
+		map.impl.HashMap<Integer, Integer> trimmed = (map.impl.HashMap<Integer, Integer>) testMap;
+		for (int i = MIN_TEST_INTEGER_VALUE; i < MAX_TEST_INTEGER_VALUE; i += 2) {
+			map.remove(i);
+			trimmed.remove(i);
+		}
+		trimmed.trimToSize();
+		assertEquals(1 << 20, trimmed.statistics().getCapacity());
+		assertSameEntries(map, trimmed);
+		for (int i = MIN_TEST_INTEGER_VALUE; i < MAX_TEST_INTEGER_VALUE; i++) {
+			map.remove(i);
+			trimmed.remove(i);
+			if (i % 100_000 == 0) {
+				trimmed.trimToSize();
+				assertSameEntries(map, trimmed);
+			}
+		}
+		trimmed.trimToSize();
+		assertEquals(0, trimmed.statistics().getCapacity());
+		trimmed.put(1, 1);
+		assertEquals(1, trimmed.get(1));
+
+		map.impl.HashMap<CollidingKey, Integer> colliding = new map.impl.HashMap<>();
+		Map<CollidingKey, Integer> expected = new HashMap<>();
+		for (int i = 0; i < COLLIDING_KEYS_COUNT; i++) {
+			colliding.put(new CollidingKey(i), i);
+			expected.put(new CollidingKey(i), i);
+		}
+		for (int i = 0; i < COLLIDING_KEYS_COUNT; i += 3) {
+			colliding.remove(new CollidingKey(i));
+			expected.remove(new CollidingKey(i));
+			if (i % 1000 == 0)
+				colliding.trimToSize();
+		}
+		colliding.trimToSize();
+		assertSameCollidingEntries(expected, colliding);
+		assertEquals(expected.keySet(), colliding.keyStream().collect(Collectors.toSet()));
+	}
+
+	@Test
+	public void lowWaterMarkTest() {
+		map.impl.HashMap<Integer, Integer> shrinking = new map.impl.HashMap<>(0, 0.75f, true);
+		shrinking.setLowWaterMark(0.25f);
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < 100_000; i++)
+				shrinking.put(i, i);
+			assertEquals(1 << 18, shrinking.statistics().getCapacity());
+			for (int i = 100; i < 100_000; i++)
+				assertEquals(i, shrinking.remove(i));
+			// 100 entries stay above a quarter of the threshold of 512 buckets
+			assertEquals(512, shrinking.statistics().getCapacity());
+			for (int i = 0; i < 100; i++)
+				assertEquals(i, shrinking.get(i));
+		}
+		assertThrows(IllegalArgumentException.class, () -> shrinking.setLowWaterMark(0.5f));
+	}
+
+	@Test
+	public void clearReleasingBucketsTest() {
+		map.impl.HashMap<Integer, Integer> released = (map.impl.HashMap<Integer, Integer>) testMap;
+		released.clear(true);
+		assertTrue(released.isEmpty());
+		assertEquals(0, released.statistics().getCapacity());
+		released.put(1, 1);
+		assertEquals(16, released.statistics().getCapacity());
+		released.clear(false);
+		assertEquals(16, released.statistics().getCapacity());
+	}
+
+	@Test
+	public void cursorTest() {
+		map.MapCursor<Integer, Integer> cursor = testMap.cursor();
+		assertThrows(IllegalStateException.class, cursor::key);
+		int visited = 0;
+		while (cursor.advance()) {
+			visited++;
+			if (cursor.key() % 3 == 0) {
+				cursor.remove();
+				assertThrows(IllegalStateException.class, cursor::remove);
+			} else {
+				assertEquals(cursor.key(), cursor.setValue(-cursor.value()));
+			}
+		}
+		assertEquals(MAX_TEST_INTEGER_VALUE - MIN_TEST_INTEGER_VALUE, visited);
+		assertFalse(cursor.advance());
+		map.keySet().removeIf(key -> key % 3 == 0);
+		map.replaceAll((key, value) -> -value);
+		assertSameEntries(map, testMap);
+
+		map.MapCursor<Integer, Integer> failingCursor = testMap.cursor();
+		failingCursor.advance();
+		testMap.put(-1, -1);
+		assertThrows(ConcurrentModificationException.class, failingCursor::advance);
+	}
+
+	@Test
+	public void cursorOverTreeBinsTest() {
+		Map<CollidingKey, Integer> expected = new HashMap<>();
+		map.impl.HashMap<CollidingKey, Integer> actual = new map.impl.HashMap<>(0, 0.75f, true);
+		for (int i = 0; i < COLLIDING_KEYS_COUNT; i++) {
+			expected.put(new CollidingKey(i), i);
+			actual.put(new CollidingKey(i), i);
+		}
+		Random random = new Random(42);
+		map.MapCursor<CollidingKey, Integer> cursor = actual.cursor();
+		while (cursor.advance()) {
+			if (random.nextInt(4) != 0) {
+				expected.remove(cursor.key());
+				cursor.remove();
+			}
+		}
+		assertSameCollidingEntries(expected, actual);
+	}
+
+	@Test
+	public void iteratorViewsTest() {
+		map.impl.HashMap<Integer, Integer> hashMap = (map.impl.HashMap<Integer, Integer>) testMap;
+		assertEquals(map.keySet(), hashMap.keySet());
+		assertEquals(map.keySet().hashCode(), hashMap.keySet().hashCode());
+		assertEquals(map.values().stream().mapToLong(Integer::longValue).sum(),
+				hashMap.values().stream().mapToLong(Integer::longValue).sum());
+		assertTrue(hashMap.values().contains(MIN_TEST_INTEGER_VALUE));
+		assertTrue(hashMap.entrySet().contains(new map.Map.ImmutableEntry<>(1, 1)));
+		assertFalse(hashMap.entrySet().contains(new map.Map.ImmutableEntry<>(1, 2)));
+
+		for (Iterator<Integer> iterator = hashMap.keySet().iterator(); iterator.hasNext(); ) {
+			if (iterator.next() % 2 == 0)
+				iterator.remove();
+		}
+		for (Iterator<Integer> iterator = hashMap.values().iterator(); iterator.hasNext(); ) {
+			if (iterator.next() % 5 == 0)
+				iterator.remove();
+		}
+		for (map.Map.Entry<Integer, Integer> entry : hashMap.entrySet())
+			entry.setValue(entry.getValue() + 1);
+		map.keySet().removeIf(key -> key % 2 == 0 || key % 5 == 0);
+		map.replaceAll((key, value) -> value + 1);
+		assertSameEntries(map, hashMap);
+		assertEquals(map.keySet(), hashMap.keySet());
+
+		assertTrue(hashMap.keySet().remove(1));
+		assertFalse(hashMap.keySet().remove(1));
+		assertTrue(hashMap.entrySet().remove(new map.Map.ImmutableEntry<>(3, 4)));
+
+		Iterator<Integer> failingIterator = hashMap.keySet().iterator();
+		failingIterator.next();
+		hashMap.remove(7);
+		assertThrows(ConcurrentModificationException.class, failingIterator::next);
+		assertThrows(ConcurrentModificationException.class, failingIterator::remove);
+
+		hashMap.keySet().clear();
+		assertTrue(hashMap.isEmpty());
+		assertFalse(hashMap.entrySet().iterator().hasNext());
+		assertThrows(NoSuchElementException.class, () -> hashMap.values().iterator().next());
+	}
+
+	/**
+	 * Applies random batches of puts, gets and removes, with repeated keys, to a map and to the expected one.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K> void applyBatchOperations(Map<K, Integer> expected, map.Map<K, Integer> actual, IntFunction<K> keyFactory) {
+		Random random = new Random(42);
+		for (int round = 0; round < 100; round++) {
+			int batchSize = random.nextInt(2 * COLLIDING_KEYS_COUNT / 10);
+			K[] keys = (K[]) new Object[batchSize];
+			Integer[] values = new Integer[batchSize];
+			for (int i = 0; i < batchSize; i++) {
+				keys[i] = keyFactory.apply(random.nextInt(COLLIDING_KEYS_COUNT));
+				values[i] = random.nextInt(100);
+			}
+			switch (random.nextInt(3)) {
+				case 0:
+					for (int i = 0; i < batchSize; i++)
+						expected.put(keys[i], values[i]);
+					actual.putAll(keys, values);
+					break;
+				case 1:
+					Integer[] out = new Integer[batchSize];
+					actual.getAll(keys, out);
+					for (int i = 0; i < batchSize; i++)
+						assertEquals(expected.get(keys[i]), out[i]);
+					break;
+				default:
+					int removed = 0;
+					for (K key : keys) {
+						if (expected.containsKey(key)) {
+							expected.remove(key);
+							removed++;
+						}
+					}
+					assertEquals(removed, actual.removeAll(keys));
+			}
+			assertEquals(expected.size(), actual.size());
+		}
+		assertSameCollidingEntries(expected, actual);
+	}
+
+	/**
+	 * Applies the same random compound operations to both maps, some of them computing null to remove mappings.
+	 */
+	private static <K> void applyCompoundOperations(Map<K, Integer> expected, map.Map<K, Integer> actual, IntFunction<K> keyFactory) {
+		Random random = new Random(42);
+		for (int i = 0; i < 20 * COLLIDING_KEYS_COUNT; i++) {
+			K key = keyFactory.apply(random.nextInt(COLLIDING_KEYS_COUNT));
+			int value = random.nextInt(100);
+			switch (random.nextInt(8)) {
+				case 0:
+					assertEquals(expected.computeIfAbsent(key, k -> value), actual.computeIfAbsent(key, k -> value));
+					break;
+				case 1:
+					assertEquals(expected.computeIfPresent(key, (k, v) -> v % 3 == 0 ? null : v + value),
+							actual.computeIfPresent(key, (k, v) -> v % 3 == 0 ? null : v + value));
+					break;
+				case 2:
+					assertEquals(expected.compute(key, (k, v) -> v == null ? (Integer) value : v % 5 == 0 ? null : v - 1),
+							actual.compute(key, (k, v) -> v == null ? (Integer) value : v % 5 == 0 ? null : v - 1));
+					break;
+				case 3:
+					assertEquals(expected.merge(key, value, (v, w) -> v + w > 150 ? null : v + w),
+							actual.merge(key, value, (v, w) -> v + w > 150 ? null : v + w));
+					break;
+				case 4:
+					assertEquals(expected.putIfAbsent(key, value), actual.putIfAbsent(key, value));
+					break;
+				case 5:
+					assertEquals(expected.getOrDefault(key, -1), actual.getOrDefault(key, -1));
+					break;
+				case 6:
+					assertEquals(expected.replace(key, value), actual.replace(key, value));
+					break;
+				default:
+					assertEquals(expected.replace(key, value, value + 1), actual.replace(key, value, value + 1));
+			}
+		}
+		assertSameCollidingEntries(expected, actual);
+	}
+
+	/**
+	 * Compares the entries without {@link Map#containsValue}, which is too slow for large maps.
+	 */
+	private static <K> void assertSameEntries(Map<K, Integer> expected, map.Map<K, Integer> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (Map.Entry<K, Integer> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), actual.get(entry.getKey()));
+		}
+		int[] counter = new int[] { 0 };
+		actual.forEach((key, value) -> counter[0]++);
+		assertEquals(expected.size(), counter[0]);
+	}
+
+	private static <K> void assertSameCollidingEntries(Map<K, Integer> expected, map.Map<K, Integer> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (Map.Entry<K, Integer> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), actual.get(entry.getKey()));
+		}
+		for (int i = -COLLIDING_KEYS_COUNT; i < COLLIDING_KEYS_COUNT; i += 7) {
+			assertEquals(expected.containsValue(i), actual.containsValue(i));
+		}
+		int[] counter = new int[] { 0 };
+		actual.forEach((key, value) -> {
+			assertEquals(expected.get(key), value);
+			counter[0] += 1;
+		});
+		assertEquals(expected.size(), counter[0]);
+	}
+
+	/**
+	 * Key whose hashCode is shared by groups of 100 keys.
+	 */
+	private static class CollidingKey {
+		final int id;
+
+		CollidingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof CollidingKey)) return false;
+			return id == ((CollidingKey) o).id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id / 100;
+		}
+	}
+
+	private static class ComparableCollidingKey extends CollidingKey implements Comparable<ComparableCollidingKey> {
+
+		ComparableCollidingKey(int id) {
+			super(id);
+		}
+
+		@Override
+		public int compareTo(ComparableCollidingKey other) {
+			return Integer.compare(id, other.id);
+		}
+	}
 }
@@ -0,0 +1,105 @@
+package map.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntIntHashMapTest {
+
+	private static final int OPERATIONS_COUNT = 300_000;
+
+	private Map<Integer, Integer> expected;
+	private IntIntHashMap map;
+
+	@BeforeEach
+	public void init() {
+		expected = new HashMap<>();
+		map = new IntIntHashMap();
+		Random random = new Random(11);
+		for (int i = 0; i < OPERATIONS_COUNT; i++) {
+			int key = random.nextInt(50_000) - 25_000;
+			int value = i;
+			if (random.nextInt(4) == 0) {
+				Integer expectedValue = expected.remove(key);
+				assertEquals(expectedValue == null ? map.noEntryValue() : (int) expectedValue, map.remove(key));
+			} else {
+				Integer expectedValue = expected.put(key, value);
+				assertEquals(expectedValue == null ? map.noEntryValue() : (int) expectedValue, map.put(key, value));
+			}
+		}
+	}
+
+	@Test
+	public void putGetAndRemoveTest() {
+		assertEquals(expected.size(), map.size());
+		for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+			assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+			assertTrue(map.containsKey(entry.getKey()));
+		}
+	}
+
+	@Test
+	public void zeroKeyTest() {
+		map.remove(0);
+		int size = map.size();
+		assertFalse(map.containsKey(0));
+		map.put(0, 7);
+		assertTrue(map.containsKey(0));
+		assertEquals(7, map.get(0));
+		assertEquals(size + 1, map.size());
+		assertEquals(7, map.remove(0));
+		assertEquals(map.noEntryValue(), map.get(0));
+		assertEquals(size, map.size());
+	}
+
+	@Test
+	public void noEntryValueTest() {
+		IntIntHashMap map = new IntIntHashMap(0, 0.75f, -1);
+		assertEquals(-1, map.get(42));
+		assertEquals(-1, map.put(42, 0));
+		assertEquals(0, map.get(42));
+		assertEquals(0, map.remove(42));
+		assertEquals(-1, map.remove(42));
+		assertEquals(-1, map.noEntryValue());
+	}
+
+	@Test
+	public void containsValueTest() {
+		for (int i = 0; i < OPERATIONS_COUNT; i += 997) {
+			assertEquals(expected.containsValue(i), map.containsValue(i));
+		}
+	}
+
+	@Test
+	public void clearAndIsEmptyTest() {
+		map.clear();
+		assertEquals(0, map.size());
+		assertTrue(map.isEmpty());
+		for (Integer key : expected.keySet()) {
+			assertFalse(map.containsKey(key));
+		}
+	}
+
+	@Test
+	public void forEachTest() {
+		int[] counter = new int[] { 0 };
+		map.forEach((key, value) -> {
+			assertEquals(expected.get(key), value);
+			counter[0] += 1;
+		});
+		assertEquals(expected.size(), counter[0]);
+
+		assertThrows(ConcurrentModificationException.class, () -> {
+			map.forEach((key, value) -> map.remove(key));
+		});
+	}
+}
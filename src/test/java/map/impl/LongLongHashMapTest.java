@@ -0,0 +1,105 @@
+package map.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongLongHashMapTest {
+
+	private static final int OPERATIONS_COUNT = 300_000;
+
+	private Map<Long, Long> expected;
+	private LongLongHashMap map;
+
+	@BeforeEach
+	public void init() {
+		expected = new HashMap<>();
+		map = new LongLongHashMap();
+		Random random = new Random(11);
+		for (int i = 0; i < OPERATIONS_COUNT; i++) {
+			long key = (random.nextInt(50_000) - 25_000) * 0x1_0000_0001L;
+			long value = i;
+			if (random.nextInt(4) == 0) {
+				Long expectedValue = expected.remove(key);
+				assertEquals(expectedValue == null ? map.noEntryValue() : (long) expectedValue, map.remove(key));
+			} else {
+				Long expectedValue = expected.put(key, value);
+				assertEquals(expectedValue == null ? map.noEntryValue() : (long) expectedValue, map.put(key, value));
+			}
+		}
+	}
+
+	@Test
+	public void putGetAndRemoveTest() {
+		assertEquals(expected.size(), map.size());
+		for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+			assertEquals((long) entry.getValue(), map.get(entry.getKey()));
+			assertTrue(map.containsKey(entry.getKey()));
+		}
+	}
+
+	@Test
+	public void zeroKeyTest() {
+		map.remove(0);
+		int size = map.size();
+		assertFalse(map.containsKey(0));
+		map.put(0, 7);
+		assertTrue(map.containsKey(0));
+		assertEquals(7, map.get(0));
+		assertEquals(size + 1, map.size());
+		assertEquals(7, map.remove(0));
+		assertEquals(map.noEntryValue(), map.get(0));
+		assertEquals(size, map.size());
+	}
+
+	@Test
+	public void noEntryValueTest() {
+		LongLongHashMap map = new LongLongHashMap(0, 0.75f, -1);
+		assertEquals(-1, map.get(42));
+		assertEquals(-1, map.put(42, 0));
+		assertEquals(0, map.get(42));
+		assertEquals(0, map.remove(42));
+		assertEquals(-1, map.remove(42));
+		assertEquals(-1, map.noEntryValue());
+	}
+
+	@Test
+	public void containsValueTest() {
+		for (int i = 0; i < OPERATIONS_COUNT; i += 997) {
+			assertEquals(expected.containsValue((long) i), map.containsValue(i));
+		}
+	}
+
+	@Test
+	public void clearAndIsEmptyTest() {
+		map.clear();
+		assertEquals(0, map.size());
+		assertTrue(map.isEmpty());
+		for (Long key : expected.keySet()) {
+			assertFalse(map.containsKey(key));
+		}
+	}
+
+	@Test
+	public void forEachTest() {
+		int[] counter = new int[] { 0 };
+		map.forEach((key, value) -> {
+			assertEquals(expected.get(key), value);
+			counter[0] += 1;
+		});
+		assertEquals(expected.size(), counter[0]);
+
+		assertThrows(ConcurrentModificationException.class, () -> {
+			map.forEach((key, value) -> map.remove(key));
+		});
+	}
+}
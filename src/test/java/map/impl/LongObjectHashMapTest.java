@@ -0,0 +1,93 @@
+package map.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongObjectHashMapTest {
+
+	private static final int OPERATIONS_COUNT = 300_000;
+
+	private Map<Long, String> expected;
+	private LongObjectHashMap<String> map;
+
+	@BeforeEach
+	public void init() {
+		expected = new HashMap<>();
+		map = new LongObjectHashMap<>();
+		Random random = new Random(11);
+		for (int i = 0; i < OPERATIONS_COUNT; i++) {
+			long key = (random.nextInt(50_000) - 25_000) * 0x1_0000_0001L;
+			String value = "value" + i;
+			if (random.nextInt(4) == 0) {
+				assertEquals(expected.remove(key), map.remove(key));
+			} else {
+				assertEquals(expected.put(key, value), map.put(key, value));
+			}
+		}
+	}
+
+	@Test
+	public void putGetAndRemoveTest() {
+		assertEquals(expected.size(), map.size());
+		for (Map.Entry<Long, String> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), map.get(entry.getKey()));
+			assertTrue(map.containsKey(entry.getKey()));
+		}
+	}
+
+	@Test
+	public void zeroKeyTest() {
+		map.remove(0);
+		int size = map.size();
+		assertFalse(map.containsKey(0));
+		map.put(0, "zero");
+		assertTrue(map.containsKey(0));
+		assertEquals("zero", map.get(0));
+		assertEquals(size + 1, map.size());
+		assertEquals("zero", map.remove(0));
+		assertNull(map.get(0));
+		assertEquals(size, map.size());
+	}
+
+	@Test
+	public void containsValueTest() {
+		for (int i = 0; i < OPERATIONS_COUNT; i += 997) {
+			assertEquals(expected.containsValue("value" + i), map.containsValue("value" + i));
+		}
+	}
+
+	@Test
+	public void clearAndIsEmptyTest() {
+		map.clear();
+		assertEquals(0, map.size());
+		assertTrue(map.isEmpty());
+		for (Long key : expected.keySet()) {
+			assertFalse(map.containsKey(key));
+		}
+	}
+
+	@Test
+	public void forEachTest() {
+		int[] counter = new int[] { 0 };
+		map.forEach((key, value) -> {
+			assertEquals(expected.get(key), value);
+			counter[0] += 1;
+		});
+		assertEquals(expected.size(), counter[0]);
+
+		assertThrows(ConcurrentModificationException.class, () -> {
+			map.forEach((key, value) -> map.remove(key));
+		});
+	}
+}
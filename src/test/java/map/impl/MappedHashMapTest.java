@@ -0,0 +1,165 @@
+package map.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedHashMapTest {
+
+	private static final int OPERATIONS_COUNT = 100_000;
+
+	/**
+	 * Small regions, so that the log spans many of them.
+	 */
+	private static final int REGION_SIZE = 1 << 18;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void putGetAndRemoveTest() throws IOException {
+		Map<String, String> expected = new HashMap<>();
+		try (MappedHashMap<String, String> map = open(directory.resolve("map"))) {
+			randomOperations(expected, map, new Random(7));
+			assertSameEntries(expected, map);
+		}
+	}
+
+	@Test
+	public void reopenTest() throws IOException {
+		Path file = directory.resolve("map");
+		Map<String, String> expected = new HashMap<>();
+		try (MappedHashMap<String, String> map = open(file)) {
+			randomOperations(expected, map, new Random(11));
+		}
+		try (MappedHashMap<String, String> map = open(file)) {
+			assertSameEntries(expected, map);
+			randomOperations(expected, map, new Random(13));
+			map.clear();
+			expected.clear();
+			map.put("after clear", "value");
+			expected.put("after clear", "value");
+		}
+		try (MappedHashMap<String, String> map = open(file)) {
+			assertSameEntries(expected, map);
+		}
+	}
+
+	@Test
+	public void recoveryTest() throws IOException {
+		Path file = directory.resolve("map");
+		Map<String, String> expected = new HashMap<>();
+		MappedHashMap<String, String> crashed = open(file);
+		randomOperations(expected, crashed, new Random(17));
+		crashed.force();
+		randomOperations(expected, crashed, new Random(19));
+		// reopened without a checkpoint, as after a crash
+		try (MappedHashMap<String, String> map = open(file)) {
+			assertSameEntries(expected, map);
+			map.put("after recovery", "value");
+			expected.put("after recovery", "value");
+		}
+		try (MappedHashMap<String, String> map = open(file)) {
+			assertSameEntries(expected, map);
+		}
+	}
+
+	@Test
+	public void tornRecordTest() throws IOException {
+		Path file = directory.resolve("map");
+		MappedHashMap<String, String> crashed = new MappedHashMap<>(file, Serializers.STRING, Serializers.STRING, 16, REGION_SIZE);
+		crashed.put("kept", "value");
+		crashed.put("torn", "value");
+		try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+			// corrupt the last byte of the value of the last record
+			raf.seek(MappedHashMap.HEADER_SIZE + crashed.logEnd - 1);
+			raf.write('X');
+		}
+		try (MappedHashMap<String, String> map = open(file)) {
+			assertEquals("value", map.get("kept"));
+			assertNull(map.get("torn"));
+			assertEquals(1, map.size());
+		}
+	}
+
+	@Test
+	public void notAMapFileTest() throws IOException {
+		Path file = directory.resolve("not a map");
+		Files.write(file, new byte[MappedHashMap.HEADER_SIZE]);
+		assertThrows(IOException.class, () -> open(file));
+	}
+
+	@Test
+	public void fixedSizeEntriesTest() throws IOException {
+		try (MappedHashMap<Integer, Long> map = new MappedHashMap<>(directory.resolve("map"), Serializers.INTEGER, Serializers.LONG, 0, REGION_SIZE)) {
+			for (int i = 0; i < 10_000; i++)
+				assertNull(map.put(i, (long) i));
+			for (int i = 0; i < 10_000; i++)
+				assertEquals(i, map.put(i, (long) -i));
+			assertTrue(map.containsValue(-9_999L));
+			assertFalse(map.containsValue(9_999L));
+			for (int i = 0; i < 10_000; i++)
+				assertEquals(-i, map.remove(i));
+			assertTrue(map.isEmpty());
+		}
+	}
+
+	@Test
+	public void forEachTest() throws IOException {
+		try (MappedHashMap<String, String> map = open(directory.resolve("map"))) {
+			for (int i = 0; i < 1000; i++)
+				map.put("key-" + i, "value-" + i);
+			int[] counter = new int[] { 0 };
+			map.forEach((key, value) -> {
+				assertEquals(key.replace("key", "value"), value);
+				counter[0] += 1;
+			});
+			assertEquals(1000, counter[0]);
+
+			assertThrows(ConcurrentModificationException.class, () -> {
+				map.forEach((key, value) -> map.remove(key));
+			});
+		}
+	}
+
+	private MappedHashMap<String, String> open(Path file) throws IOException {
+		return new MappedHashMap<>(file, Serializers.STRING, Serializers.STRING, 0, REGION_SIZE);
+	}
+
+	private static void randomOperations(Map<String, String> expected, MappedHashMap<String, String> map, Random random) {
+		for (int i = 0; i < OPERATIONS_COUNT; i++) {
+			String key = "key-" + random.nextInt(10_000);
+			String value = Integer.toString(i, random.nextInt(35) + 2);
+			if (random.nextInt(4) == 0)
+				assertEquals(expected.remove(key), map.remove(key));
+			else
+				assertEquals(expected.put(key, value), map.put(key, value));
+		}
+	}
+
+	private static void assertSameEntries(Map<String, String> expected, MappedHashMap<String, String> map) {
+		assertEquals(expected.size(), map.size());
+		for (Map.Entry<String, String> entry : expected.entrySet())
+			assertEquals(entry.getValue(), map.get(entry.getKey()));
+		int[] counter = new int[] { 0 };
+		map.forEach((key, value) -> {
+			assertEquals(expected.get(key), value);
+			counter[0] += 1;
+		});
+		assertEquals(expected.size(), counter[0]);
+	}
+}
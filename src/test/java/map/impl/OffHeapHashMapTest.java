@@ -0,0 +1,150 @@
+package map.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapHashMapTest {
+
+	private static final int OPERATIONS_COUNT = 200_000;
+
+	/**
+	 * Small slabs, so that entries spread over many of them and get compacted.
+	 */
+	private static final int SLAB_SIZE = 1 << 12;
+
+	@Test
+	public void fixedSizeEntriesTest() {
+		Map<Integer, Long> expected = new HashMap<>();
+		OffHeapHashMap<Integer, Long> map = new OffHeapHashMap<>(Serializers.INTEGER, Serializers.LONG, 0, 0.75f, SLAB_SIZE);
+		Random random = new Random(3);
+		for (int i = 0; i < OPERATIONS_COUNT; i++) {
+			int key = random.nextInt(20_000) - 10_000;
+			if (random.nextInt(4) == 0)
+				assertEquals(expected.remove(key), map.remove(key));
+			else
+				assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+		}
+		assertSameEntries(expected, map);
+	}
+
+	@Test
+	public void variableSizeEntriesTest() {
+		Map<String, String> expected = new HashMap<>();
+		OffHeapHashMap<String, String> map = new OffHeapHashMap<>(Serializers.STRING, Serializers.STRING, 0, 0.75f, SLAB_SIZE);
+		Random random = new Random(5);
+		for (int i = 0; i < OPERATIONS_COUNT; i++) {
+			String key = "key-" + random.nextInt(20_000);
+			// values change length, so replacements alternate between overwriting in place and appending
+			String value = "é" + Integer.toString(i, random.nextInt(35) + 2);
+			if (random.nextInt(4) == 0)
+				assertEquals(expected.remove(key), map.remove(key));
+			else
+				assertEquals(expected.put(key, value), map.put(key, value));
+		}
+		assertSameEntries(expected, map);
+	}
+
+	@Test
+	public void largeEntriesTest() {
+		OffHeapHashMap<String, byte[]> map = new OffHeapHashMap<>(Serializers.STRING, Serializers.BYTE_ARRAY, 0, 0.75f, SLAB_SIZE);
+		byte[] value = new byte[SLAB_SIZE / 2];
+		value[value.length - 1] = 42;
+		for (int i = 0; i < 100; i++)
+			map.put(Integer.toString(i), value);
+		assertEquals(42, map.get("99")[value.length - 1]);
+		assertEquals(100, map.size());
+
+		assertThrows(IllegalArgumentException.class, () -> map.put("too large", new byte[SLAB_SIZE]));
+		assertFalse(map.containsKey("too large"));
+	}
+
+	@Test
+	public void byteArrayKeysTest() {
+		// byte arrays have identity hash codes, equal keys are found through their bytes
+		OffHeapHashMap<byte[], Integer> map = new OffHeapHashMap<>(Serializers.BYTE_ARRAY, Serializers.INTEGER, 0, 0.75f, SLAB_SIZE);
+		assertNull(map.put(new byte[] { 1, 2, 3 }, 1));
+		assertEquals(1, map.put(new byte[] { 1, 2, 3 }, 2));
+		assertEquals(1, map.size());
+		assertEquals(2, map.get(new byte[] { 1, 2, 3 }));
+		for (int i = 0; i < 10_000; i++)
+			map.put(Integer.toString(i).getBytes(StandardCharsets.UTF_8), i);
+		for (int i = 0; i < 10_000; i++)
+			assertEquals(i, map.get(Integer.toString(i).getBytes(StandardCharsets.UTF_8)));
+		assertEquals(2, map.remove(new byte[] { 1, 2, 3 }));
+		assertFalse(map.containsKey(new byte[] { 1, 2, 3 }));
+		assertEquals(10_000, map.size());
+	}
+
+	@Test
+	public void containsValueTest() {
+		OffHeapHashMap<Integer, String> map = new OffHeapHashMap<>(Serializers.INTEGER, Serializers.STRING);
+		for (int i = 0; i < 1000; i++)
+			map.put(i, "value-" + i);
+		assertTrue(map.containsValue("value-999"));
+		assertFalse(map.containsValue("value-1000"));
+		map.remove(999);
+		assertFalse(map.containsValue("value-999"));
+	}
+
+	@Test
+	public void clearAndReuseTest() {
+		OffHeapHashMap<Integer, Integer> map = new OffHeapHashMap<>(Serializers.INTEGER, Serializers.INTEGER, 0, 0.75f, SLAB_SIZE);
+		for (int i = 0; i < 10_000; i++)
+			map.put(i, i);
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(0));
+		for (int i = 0; i < 10_000; i++)
+			map.put(i, -i);
+		for (int i = 0; i < 10_000; i++)
+			assertEquals(-i, map.get(i));
+	}
+
+	@Test
+	public void nullTest() {
+		OffHeapHashMap<Integer, Integer> map = new OffHeapHashMap<>(Serializers.INTEGER, Serializers.INTEGER);
+		assertThrows(NullPointerException.class, () -> map.put(null, 1));
+		assertThrows(NullPointerException.class, () -> map.put(1, null));
+		assertThrows(NullPointerException.class, () -> map.get(null));
+	}
+
+	@Test
+	public void forEachTest() {
+		OffHeapHashMap<Integer, Integer> map = new OffHeapHashMap<>(Serializers.INTEGER, Serializers.INTEGER);
+		for (int i = 0; i < 1000; i++)
+			map.put(i, i * 2);
+		int[] counter = new int[] { 0 };
+		map.forEach((key, value) -> {
+			assertEquals(key * 2, value);
+			counter[0] += 1;
+		});
+		assertEquals(1000, counter[0]);
+
+		assertThrows(ConcurrentModificationException.class, () -> {
+			map.forEach((key, value) -> map.remove(key));
+		});
+	}
+
+	private static <K, V> void assertSameEntries(Map<K, V> expected, OffHeapHashMap<K, V> map) {
+		assertEquals(expected.size(), map.size());
+		for (Map.Entry<K, V> entry : expected.entrySet())
+			assertEquals(entry.getValue(), map.get(entry.getKey()));
+		int[] counter = new int[] { 0 };
+		map.forEach((key, value) -> {
+			assertEquals(expected.get(key), value);
+			counter[0] += 1;
+		});
+		assertEquals(expected.size(), counter[0]);
+	}
+}
@@ -0,0 +1,179 @@
+package map.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RobinHoodHashMapTest {
+
+	private static final int MIN_TEST_INTEGER_VALUE = 0;
+	private static final int MAX_TEST_INTEGER_VALUE = 200_000;
+
+	private Map<Integer, Integer> map;
+	private map.Map<Integer, Integer> testMap;
+
+	@BeforeEach
+	public void init() {
+		map = new HashMap<>();
+		testMap = new RobinHoodHashMap<>();
+		for (int i = MIN_TEST_INTEGER_VALUE; i < MAX_TEST_INTEGER_VALUE; i++) {
+			map.put(i, i);
+			testMap.put(i, i);
+		}
+	}
+
+	@Test
+	public void resizeAndGetTest() {
+		assertSameEntries(map, testMap);
+	}
+
+	@Test
+	public void putTest() {
+		for (int i = (MAX_TEST_INTEGER_VALUE / 5); i < (MAX_TEST_INTEGER_VALUE / 4); i++) {
+			assertEquals(map.put(i, i << 1), testMap.put(i, i << 1));
+		}
+		assertSameEntries(map, testMap);
+	}
+
+	@Test
+	public void removeTest() {
+		for (int i = MIN_TEST_INTEGER_VALUE; i < MAX_TEST_INTEGER_VALUE; i += 3) {
+			assertEquals(map.remove(i), testMap.remove(i));
+		}
+		assertEquals(map.remove(-1), testMap.remove(-1));
+		assertSameEntries(map, testMap);
+
+		for (int i = MAX_TEST_INTEGER_VALUE; i > MIN_TEST_INTEGER_VALUE; i -= 7) {
+			assertEquals(map.put(i, -i), testMap.put(i, -i));
+		}
+		assertSameEntries(map, testMap);
+	}
+
+	@Test
+	public void randomOperationsTest() {
+		Map<Integer, Integer> expected = new HashMap<>();
+		map.Map<Integer, Integer> actual = new RobinHoodHashMap<>(4);
+		Random random = new Random(7);
+		for (int i = 0; i < 500_000; i++) {
+			// keys sharing their low bits cluster in the same slots
+			Integer key = random.nextInt(4096) << 10;
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), actual.remove(key));
+			} else {
+				assertEquals(expected.put(key, i), actual.put(key, i));
+			}
+		}
+		assertSameEntries(expected, actual);
+	}
+
+	@Test
+	public void nullKeyAndValueTest() {
+		testMap.put(null, 1);
+		assertTrue(testMap.containsKey(null));
+		assertEquals(1, testMap.get(null));
+		testMap.put(-1, null);
+		assertTrue(testMap.containsKey(-1));
+		assertTrue(testMap.containsValue(null));
+		assertEquals(1, testMap.remove(null));
+		assertNull(testMap.get(null));
+		assertEquals(MAX_TEST_INTEGER_VALUE + 1, testMap.size());
+	}
+
+	@Test
+	public void containsKeyAndValueTest() {
+		for (int i = MIN_TEST_INTEGER_VALUE - 100; i < (MAX_TEST_INTEGER_VALUE / 20); i++) {
+			assertEquals(map.containsKey(i), testMap.containsKey(i));
+			assertEquals(map.containsValue(i), testMap.containsValue(i));
+		}
+	}
+
+	@Test
+	public void clearAndIsEmptyTest() {
+		map.clear();
+		testMap.clear();
+
+		assertEquals(map.size(), testMap.size());
+		assertEquals(map.isEmpty(), testMap.isEmpty());
+
+		for (int i = MIN_TEST_INTEGER_VALUE; i < (MAX_TEST_INTEGER_VALUE / 20); i++) {
+			assertEquals(map.containsKey(i), testMap.containsKey(i));
+			assertEquals(map.containsValue(i), testMap.containsValue(i));
+		}
+	}
+
+	@Test
+	public void forEachTest() {
+		int[] counter = new int[] { 0 };
+		testMap.forEach((key, value) -> {
+			assertEquals(map.get(key), value);
+			counter[0] += 1;
+		});
+		assertEquals(map.size(), counter[0]);
+
+		assertThrows(ConcurrentModificationException.class, () -> {
+			testMap.forEach((key, value) -> {
+				testMap.put(key << 2, (key + value) >> 2);
+			});
+		});
+	}
+
+	@Test
+	public void defaultCursorTest() {
+		map.MapCursor<Integer, Integer> cursor = testMap.cursor();
+		while (cursor.advance()) {
+			if (cursor.key() % 3 == 0) {
+				cursor.remove();
+				assertThrows(IllegalStateException.class, cursor::value);
+			} else {
+				cursor.setValue(cursor.value() + 1);
+			}
+		}
+		map.keySet().removeIf(key -> key % 3 == 0);
+		map.replaceAll((key, value) -> value + 1);
+		assertSameEntries(map, testMap);
+	}
+
+	@Test
+	public void compoundOperationsTest() {
+		for (int i = MIN_TEST_INTEGER_VALUE; i < MAX_TEST_INTEGER_VALUE + 1000; i += 7) {
+			int value = i;
+			assertEquals(map.merge(i, 1, Integer::sum), testMap.merge(i, 1, Integer::sum));
+			assertEquals(map.computeIfAbsent(-i, key -> value), testMap.computeIfAbsent(-i, key -> value));
+			assertEquals(map.computeIfPresent(i + 1, (key, v) -> v % 2 == 0 ? null : v), testMap.computeIfPresent(i + 1, (key, v) -> v % 2 == 0 ? null : v));
+			assertEquals(map.compute(i + 2, (key, v) -> v == null ? 0 : null), testMap.compute(i + 2, (key, v) -> v == null ? 0 : null));
+			assertEquals(map.putIfAbsent(i + 3, -1), testMap.putIfAbsent(i + 3, -1));
+			assertEquals(map.replace(i + 4, -2), testMap.replace(i + 4, -2));
+			assertEquals(map.replace(i + 5, i + 5, -3), testMap.replace(i + 5, i + 5, -3));
+			assertEquals(map.getOrDefault(i + 6, -4), testMap.getOrDefault(i + 6, -4));
+		}
+		assertSameEntries(map, testMap);
+	}
+
+	@Test
+	public void streamTest() {
+		long expectedKeySum = map.keySet().stream().mapToLong(Integer::longValue).sum();
+		assertEquals(expectedKeySum, testMap.keyStream().parallel().mapToLong(Integer::longValue).sum());
+		assertEquals(expectedKeySum, testMap.valueStream().mapToLong(Integer::longValue).sum());
+		assertEquals(map.size(), testMap.entryStream().filter(entry -> entry.getKey().equals(entry.getValue())).count());
+
+		long[] counter = new long[] { 0 };
+		testMap.parallelForEach(Long.MAX_VALUE, (key, value) -> counter[0]++);
+		assertEquals(map.size(), counter[0]);
+	}
+
+	private static void assertSameEntries(Map<Integer, Integer> expected, map.Map<Integer, Integer> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), actual.get(entry.getKey()));
+		}
+	}
+}